@@ -58,8 +58,10 @@ CREATE TABLE reading_status (
   book_id INTEGER NOT NULL,
   status VARCHAR(32) NOT NULL,
   progress_percent INTEGER DEFAULT 0,
+  current_page INTEGER,
   started_at DATE,
   finished_at DATE,
+  status_changed_at TIMESTAMP,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -73,7 +75,9 @@ CREATE TABLE reviews (
   body TEXT,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-  is_deleted BOOLEAN NOT NULL DEFAULT false
+  is_deleted BOOLEAN NOT NULL DEFAULT false,
+  like_count INTEGER NOT NULL DEFAULT 0,
+  comment_count INTEGER NOT NULL DEFAULT 0
 );
 
 CREATE TABLE review_likes (
@@ -98,6 +102,7 @@ CREATE TABLE library_lists (
   name VARCHAR(140) NOT NULL,
   description TEXT,
   visibility VARCHAR(16) NOT NULL DEFAULT 'PUBLIC',
+  like_count INTEGER NOT NULL DEFAULT 0,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -125,6 +130,7 @@ CREATE TABLE activity_log (
   subject_book_id INTEGER,
   subject_review_id INTEGER,
   subject_list_id INTEGER,
+  subject_user_id INTEGER,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -133,6 +139,7 @@ CREATE TABLE notifications (
   user_id INTEGER NOT NULL,
   type VARCHAR(32) NOT NULL,
   payload JSONB,
+  dedupe_key VARCHAR(128),
   is_read BOOLEAN NOT NULL DEFAULT false,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
@@ -189,12 +196,26 @@ CREATE TABLE list_comments (
 CREATE TABLE password_reset_tokens (
   id SERIAL PRIMARY KEY,
   user_id INTEGER NOT NULL,
+  selector VARCHAR(32) UNIQUE,
   token_hash VARCHAR(255) UNIQUE NOT NULL,
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
   expires_at TIMESTAMP NOT NULL,
   used_at TIMESTAMP
 );
 
+CREATE TABLE email_outbox (
+  id SERIAL PRIMARY KEY,
+  recipient VARCHAR(255) NOT NULL,
+  subject VARCHAR(255) NOT NULL,
+  body TEXT,
+  status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+  attempts INTEGER NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  last_error VARCHAR(1000),
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  sent_at TIMESTAMP
+);
+
 CREATE TABLE email_verification_tokens (
   id SERIAL PRIMARY KEY,
   user_id INTEGER NOT NULL,
@@ -213,6 +234,75 @@ CREATE TABLE reading_events (
   created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
 );
 
+CREATE TABLE feed_entries (
+  id SERIAL PRIMARY KEY,
+  owner_user_id INTEGER NOT NULL,
+  actor_user_id INTEGER NOT NULL,
+  item_type VARCHAR(16) NOT NULL,
+  item_id INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  UNIQUE(owner_user_id, item_type, item_id)
+);
+
+CREATE TABLE book_rating_stats (
+  book_id INTEGER PRIMARY KEY,
+  rating_sum DECIMAL(12,1) NOT NULL DEFAULT 0,
+  rating_count INTEGER NOT NULL DEFAULT 0,
+  rating_avg DECIMAL(3,2) NOT NULL DEFAULT 0,
+  histogram INTEGER[] NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Precomputed item-item neighbours, most similar first; scores[i] is the cosine similarity of neighbor_ids[i]
+CREATE TABLE book_neighbors (
+  book_id INTEGER PRIMARY KEY,
+  neighbor_ids BIGINT[] NOT NULL,
+  scores REAL[] NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Precomputed "people you may know", best first; mutual_follows[i] is how many of the user's follows follow suggested_user_ids[i]
+CREATE TABLE follow_suggestions (
+  user_id INTEGER PRIMARY KEY,
+  suggested_user_ids BIGINT[] NOT NULL,
+  scores REAL[] NOT NULL,
+  mutual_follows INTEGER[] NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-user reading stats snapshot; JSON maps are genre name -> books and "yyyy-MM" -> count
+CREATE TABLE user_stats (
+  user_id INTEGER PRIMARY KEY,
+  books_read INTEGER NOT NULL DEFAULT 0,
+  books_reading INTEGER NOT NULL DEFAULT 0,
+  books_to_read INTEGER NOT NULL DEFAULT 0,
+  pages_read INTEGER NOT NULL DEFAULT 0,
+  review_count INTEGER NOT NULL DEFAULT 0,
+  rating_sum DECIMAL(12,1) NOT NULL DEFAULT 0,
+  rating_histogram INTEGER[] NOT NULL,
+  list_count INTEGER NOT NULL DEFAULT 0,
+  genre_counts JSONB NOT NULL DEFAULT '{}',
+  books_read_by_month JSONB NOT NULL DEFAULT '{}',
+  reviews_by_month JSONB NOT NULL DEFAULT '{}',
+  -- Affinity by genre id, seeded from user_genres
+  genre_affinity JSONB DEFAULT '{}',
+  -- Reading streak and pace; bit/slot i is last_reading_date minus i days
+  last_reading_date DATE,
+  reading_days BIGINT DEFAULT 0,
+  current_streak INTEGER DEFAULT 0,
+  longest_streak INTEGER DEFAULT 0,
+  daily_pages INTEGER[],
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Accent-free title + author names; search_vector is what /books/search queries
+CREATE TABLE book_search_documents (
+  book_id INTEGER PRIMARY KEY,
+  content TEXT NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('spanish', content)) STORED
+);
+
 -- Indexes
 CREATE INDEX books_title_idx ON books(title);
 CREATE INDEX books_published_year_idx ON books(published_year);
@@ -244,13 +334,27 @@ CREATE INDEX activity_log_user_created_idx ON activity_log(user_id, created_at);
 CREATE INDEX activity_log_type_idx ON activity_log(type);
 
 CREATE INDEX notifications_user_read_idx ON notifications(user_id, is_read);
+CREATE INDEX notifications_user_id_idx ON notifications(user_id, id);
 CREATE INDEX notifications_created_at_idx ON notifications(created_at);
+CREATE INDEX notifications_user_dedupe_idx ON notifications(user_id, dedupe_key) WHERE is_read = false;
 
 CREATE INDEX list_comments_list_created_idx ON list_comments(list_id, created_at);
 
 CREATE INDEX reading_events_user_created_idx ON reading_events(user_id, created_at);
 CREATE INDEX reading_events_book_created_idx ON reading_events(book_id, created_at);
 
+CREATE INDEX feed_entries_owner_created_idx ON feed_entries(owner_user_id, created_at DESC, item_type DESC, item_id DESC);
+CREATE INDEX feed_entries_item_idx ON feed_entries(item_type, item_id);
+
+CREATE INDEX book_rating_stats_avg_idx ON book_rating_stats(rating_avg DESC);
+CREATE INDEX book_rating_stats_count_idx ON book_rating_stats(rating_count DESC, book_id);
+
+CREATE INDEX book_search_documents_vector_idx ON book_search_documents USING GIN (search_vector);
+
+CREATE INDEX password_reset_tokens_expires_at_idx ON password_reset_tokens(expires_at);
+
+CREATE INDEX email_outbox_status_next_attempt_idx ON email_outbox(status, next_attempt_at);
+
 -- Foreign Keys
 ALTER TABLE book_authors ADD FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
 ALTER TABLE book_authors ADD FOREIGN KEY (author_id) REFERENCES authors(id) ON DELETE CASCADE;
@@ -282,6 +386,7 @@ ALTER TABLE activity_log ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELET
 ALTER TABLE activity_log ADD FOREIGN KEY (subject_book_id) REFERENCES books(id) ON DELETE SET NULL;
 ALTER TABLE activity_log ADD FOREIGN KEY (subject_review_id) REFERENCES reviews(id) ON DELETE SET NULL;
 ALTER TABLE activity_log ADD FOREIGN KEY (subject_list_id) REFERENCES library_lists(id) ON DELETE SET NULL;
+ALTER TABLE activity_log ADD FOREIGN KEY (subject_user_id) REFERENCES users(id) ON DELETE SET NULL;
 
 ALTER TABLE notifications ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
 
@@ -310,7 +415,33 @@ ALTER TABLE email_verification_tokens ADD FOREIGN KEY (user_id) REFERENCES users
 ALTER TABLE reading_events ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
 ALTER TABLE reading_events ADD FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
 
+ALTER TABLE feed_entries ADD FOREIGN KEY (owner_user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE feed_entries ADD FOREIGN KEY (actor_user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE book_rating_stats ADD FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
+ALTER TABLE book_neighbors ADD FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
+
+ALTER TABLE follow_suggestions ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE user_stats ADD FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+ALTER TABLE book_search_documents ADD FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE;
+
 -- Additional useful indexes for PostgreSQL
 CREATE INDEX users_email_idx ON users(email);
 CREATE INDEX users_username_idx ON users(username);
 CREATE INDEX users_created_at_idx ON users(created_at);
+
+-- Author links have no timestamp of their own: touch the book so the search sync reindexes it
+CREATE OR REPLACE FUNCTION touch_book_on_author_change() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP <> 'INSERT' THEN
+    UPDATE books SET updated_at = LOCALTIMESTAMP WHERE id = OLD.book_id;
+  END IF;
+  IF TG_OP <> 'DELETE' THEN
+    UPDATE books SET updated_at = LOCALTIMESTAMP WHERE id = NEW.book_id;
+  END IF;
+  RETURN NULL;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER book_authors_touch_book AFTER INSERT OR UPDATE OR DELETE ON book_authors
+  FOR EACH ROW EXECUTE FUNCTION touch_book_on_author_change();
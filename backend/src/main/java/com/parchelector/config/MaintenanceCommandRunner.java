@@ -0,0 +1,105 @@
+package com.parchelector.config;
+
+import com.parchelector.service.BookAutocompleteService;
+import com.parchelector.service.BookRatingStatsService;
+import com.parchelector.service.BookRecommendationService;
+import com.parchelector.service.BookSearchService;
+import com.parchelector.service.CounterReconciliationService;
+import com.parchelector.service.FeedTimelineService;
+import com.parchelector.service.FollowSuggestionService;
+import com.parchelector.service.UserStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs one-off maintenance commands passed on the command line, e.g.
+ * {@code java -jar backend.jar --rebuild=feed-timelines}.
+ * Used to backfill derived tables after they are introduced or when they drift.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Component
+public class MaintenanceCommandRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceCommandRunner.class);
+
+    @Autowired
+    private FeedTimelineService feedTimelineService;
+
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+
+    @Autowired
+    private BookRatingStatsService bookRatingStatsService;
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private BookAutocompleteService bookAutocompleteService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private BookRecommendationService bookRecommendationService;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebuild")) {
+            return;
+        }
+
+        for (String value : args.getOptionValues("rebuild")) {
+            for (String target : value.split(",")) {
+                rebuild(target.trim());
+            }
+        }
+    }
+
+    private void rebuild(String target) {
+        switch (target) {
+            case "feed-timelines":
+                int entries = feedTimelineService.rebuildAll();
+                log.info("Rebuilt feed timelines: {} entries", entries);
+                break;
+            case "counters":
+                int repaired = counterReconciliationService.reconcile();
+                log.info("Reconciled like/comment counters: {} rows repaired", repaired);
+                break;
+            case "book-rating-stats":
+                int books = bookRatingStatsService.rebuildAll();
+                log.info("Rebuilt rating stats for {} books", books);
+                break;
+            case "book-search":
+                int indexed = bookSearchService.rebuildAll();
+                log.info("Rebuilt search index: {} books", indexed);
+                break;
+            case "book-autocomplete":
+                int suggestions = bookAutocompleteService.rebuildAll();
+                log.info("Rebuilt autocomplete index: {} books", suggestions);
+                break;
+            case "user-stats":
+                int users = userStatsService.rebuildAll();
+                log.info("Rebuilt stats for {} users", users);
+                break;
+            case "book-recommendations":
+                int neighbors = bookRecommendationService.rebuildAll();
+                log.info("Rebuilt recommendations: {} books with neighbours", neighbors);
+                break;
+            case "follow-suggestions":
+                int suggested = followSuggestionService.rebuildAll();
+                log.info("Rebuilt follow suggestions for {} users", suggested);
+                break;
+            default:
+                log.warn("Unknown rebuild target: {}", target);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.parchelector.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (counter reconciliation, cleanups, ...).
+ * They share the pool sized by spring.task.scheduling.pool.size, so jobs should hand
+ * slow work to their own executors instead of blocking a scheduler thread.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
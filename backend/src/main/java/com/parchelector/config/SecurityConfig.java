@@ -2,6 +2,7 @@ package com.parchelector.config;
 
 import com.parchelector.security.CustomUserDetailsService;
 import com.parchelector.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -70,6 +71,8 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/swagger-resources/**", "/webjars/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        // Completion of async requests (e.g. /live/stream); the initial request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Protected endpoints - require authentication (allow all HTTP methods)
                         .requestMatchers("/auth/me/**", "/auth/activity/**", "/books/**").authenticated()
                         .anyRequest().authenticated()
@@ -5,26 +5,31 @@ import com.parchelector.dto.request.ForgotPasswordRequest;
 import com.parchelector.dto.request.LoginRequest;
 import com.parchelector.dto.request.RegisterRequest;
 import com.parchelector.dto.request.ResetPasswordRequest;
+import com.parchelector.dto.request.UpdateGenresRequest;
 import com.parchelector.dto.request.UpdateProfileRequest;
+import com.parchelector.dto.response.ActivityLogResponse;
+import com.parchelector.dto.response.ActivityPageResponse;
 import com.parchelector.dto.response.AuthResponse;
 import com.parchelector.dto.response.UserActivityResponse;
+import com.parchelector.dto.response.UserActivityResponse.ReadListActivity;
+import com.parchelector.dto.response.UserActivityResponse.ReviewActivity;
 import com.parchelector.dto.response.UserProfileResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.ActivityService;
 import com.parchelector.service.AuthService;
 import com.parchelector.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller for authentication endpoints.
  * 
@@ -44,9 +49,6 @@ public class AuthController {
     @Autowired
     private ActivityService activityService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Register a new user.
      */
@@ -103,16 +105,10 @@ public class AuthController {
     @SecurityRequirement(name = "bearer-jwt")
     public ResponseEntity<ApiResponse<UserProfileResponse>> getCurrentUserProfile() {
         try {
-            // Get authenticated user from security context
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            // Find user by username
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            Long userId = SecurityUtils.getCurrentUserId();
 
             // Get profile data
-            UserProfileResponse profile = userService.getUserProfile(user.getId());
+            UserProfileResponse profile = userService.getUserProfile(userId);
 
             ApiResponse<UserProfileResponse> response = new ApiResponse<>(
                     "SUCCESS",
@@ -179,16 +175,11 @@ public class AuthController {
     @Operation(summary = "Update current user profile", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<UserProfileResponse>> updateProfile(@Valid @RequestBody UpdateProfileRequest request) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            // Find user by username
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            Long userId = SecurityUtils.getCurrentUserId();
 
             // Update profile
             UserProfileResponse updatedProfile = userService.updateUserProfile(
-                    user.getId(),
+                    userId,
                     request.getUsername(),
                     request.getBio(),
                     request.getAvatarUrl()
@@ -217,19 +208,46 @@ public class AuthController {
         }
     }
 
+    @PutMapping("/genres")
+    @Operation(summary = "Replace the genres the current user likes", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<List<Long>>> updateGenres(@Valid @RequestBody UpdateGenresRequest request) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            List<Long> genreIds = userService.updatePreferredGenres(userId, request.getGenreIds());
+
+            ApiResponse<List<Long>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Genres updated successfully",
+                    genreIds
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<Long>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            ApiResponse<List<Long>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to update genres: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/activity")
     @Operation(summary = "Get current user activity", security = @SecurityRequirement(name = "bearer-jwt"))
-    public ResponseEntity<ApiResponse<UserActivityResponse>> getUserActivity() {
+    public ResponseEntity<ApiResponse<UserActivityResponse>> getUserActivity(
+            @Parameter(description = "Number of recent reviews to return") @RequestParam(defaultValue = "10") Integer reviewsLimit,
+            @Parameter(description = "Number of recent lists to return") @RequestParam(defaultValue = "20") Integer listsLimit) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-
-            // Find user by username
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            Long userId = SecurityUtils.getCurrentUserId();
 
             // Get activity data
-            UserActivityResponse activity = activityService.getUserActivity(user.getId());
+            UserActivityResponse activity = activityService.getUserActivity(userId, reviewsLimit, listsLimit);
 
             ApiResponse<UserActivityResponse> response = new ApiResponse<>(
                     "SUCCESS",
@@ -237,6 +255,13 @@ public class AuthController {
                     activity
             );
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<UserActivityResponse> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             ApiResponse<UserActivityResponse> response = new ApiResponse<>(
                     "ERROR",
@@ -246,4 +271,100 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    @GetMapping("/activity/reviews")
+    @Operation(summary = "Page through current user reviews", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<ActivityPageResponse<ReviewActivity>>> getUserReviews(
+            @Parameter(description = "Number of items to return") @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "Number of items to skip") @RequestParam(defaultValue = "0") Integer offset) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            ActivityPageResponse<ReviewActivity> page = activityService.getUserReviews(userId, limit, offset);
+
+            ApiResponse<ActivityPageResponse<ReviewActivity>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Reviews retrieved successfully",
+                    page
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<ActivityPageResponse<ReviewActivity>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            ApiResponse<ActivityPageResponse<ReviewActivity>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve reviews: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/activity/lists")
+    @Operation(summary = "Page through current user read lists", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<ActivityPageResponse<ReadListActivity>>> getUserLists(
+            @Parameter(description = "Number of items to return") @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "Number of items to skip") @RequestParam(defaultValue = "0") Integer offset) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            ActivityPageResponse<ReadListActivity> page = activityService.getUserLists(userId, limit, offset);
+
+            ApiResponse<ActivityPageResponse<ReadListActivity>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Lists retrieved successfully",
+                    page
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<ActivityPageResponse<ReadListActivity>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            ApiResponse<ActivityPageResponse<ReadListActivity>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve lists: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping("/activity/log")
+    @Operation(summary = "Page through current user activity log", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<ActivityLogResponse>> getActivityLog(
+            @Parameter(description = "Number of events to return") @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            ActivityLogResponse page = activityService.getActivityLog(userId, limit, cursor);
+
+            ApiResponse<ActivityLogResponse> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Activity log retrieved successfully",
+                    page
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<ActivityLogResponse> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            ApiResponse<ActivityLogResponse> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve activity log: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
 }
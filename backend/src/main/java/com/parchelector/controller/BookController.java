@@ -1,11 +1,15 @@
 package com.parchelector.controller;
 
 import com.parchelector.dto.ApiResponse;
+import com.parchelector.dto.request.ReadingProgressRequest;
 import com.parchelector.dto.request.ReadingStatusRequest;
 import com.parchelector.dto.response.BookResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.dto.response.BookSuggestionResponse;
+import com.parchelector.security.SecurityUtils;
+import com.parchelector.service.BookAutocompleteService;
 import com.parchelector.service.BookService;
+import com.parchelector.service.ReadingProgressService;
+import com.parchelector.service.TrendingWindow;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,8 +17,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -33,19 +35,59 @@ public class BookController {
     private BookService bookService;
 
     @Autowired
-    private UserRepository userRepository;
+    private BookAutocompleteService bookAutocompleteService;
+
+    @Autowired
+    private ReadingProgressService readingProgressService;
 
     /**
      * Get trending books from the community.
      */
     @GetMapping("/trending")
-    @Operation(summary = "Get trending books", description = "Get popular books from the community")
+    @Operation(summary = "Get trending books", description = "Get the books with the most recent community activity (reviews, reading statuses, favorites)")
     @SecurityRequirement(name = "bearer-jwt")
     public ResponseEntity<ApiResponse<List<BookResponse>>> getTrendingBooks(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "7d") String window) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            List<BookResponse> books = bookService.getTrendingBooks(userId, limit, TrendingWindow.fromParam(window));
+            
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Books retrieved successfully",
+                    books
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get books liked by readers who liked a book.
+     */
+    @GetMapping("/{bookId}/similar")
+    @Operation(summary = "Get similar books", description = "Readers who liked this book also liked these (precomputed daily from ratings of 4 or more, favorites and read books)")
+    @SecurityRequirement(name = "bearer-jwt")
+    public ResponseEntity<ApiResponse<List<BookResponse>>> getSimilarBooks(
+            @PathVariable Long bookId,
             @RequestParam(defaultValue = "20") int limit) {
         try {
-            Long userId = getCurrentUserId();
-            List<BookResponse> books = bookService.getTrendingBooks(userId, limit);
+            Long userId = SecurityUtils.getCurrentUserId();
+            List<BookResponse> books = bookService.getSimilarBooks(bookId, userId, limit);
             
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
                     "SUCCESS",
@@ -53,12 +95,54 @@ public class BookController {
                     books
             );
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve similar books",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get book recommendations for the current user.
+     */
+    @GetMapping("/recommended")
+    @Operation(summary = "Get recommended books", description = "Books similar to the ones the user liked recently, leaving out books already on their shelves; trending books for users without likes")
+    @SecurityRequirement(name = "bearer-jwt")
+    public ResponseEntity<ApiResponse<List<BookResponse>>> getRecommendedBooks(
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            List<BookResponse> books = bookService.getRecommendedBooks(userId, limit);
+            
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Books retrieved successfully",
+                    books
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
                     "ERROR",
                     e.getMessage(),
                     null
             );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve recommended books",
+                    null
+            );
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
@@ -67,14 +151,15 @@ public class BookController {
      * Search books by title or author.
      */
     @GetMapping("/search")
-    @Operation(summary = "Search books", description = "Search books by title or author name")
+    @Operation(summary = "Search books", description = "Full-text search over book titles and author names (accent-insensitive, ranked)")
     @SecurityRequirement(name = "bearer-jwt")
     public ResponseEntity<ApiResponse<List<BookResponse>>> searchBooks(
             @RequestParam String query,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
         try {
-            Long userId = getCurrentUserId();
-            List<BookResponse> books = bookService.searchBooks(query, userId, limit);
+            Long userId = SecurityUtils.getCurrentUserId();
+            List<BookResponse> books = bookService.searchBooks(query, userId, limit, offset);
             
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
                     "SUCCESS",
@@ -82,6 +167,13 @@ public class BookController {
                     books
             );
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<List<BookResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (Exception e) {
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
                     "ERROR",
@@ -92,6 +184,34 @@ public class BookController {
         }
     }
 
+    /**
+     * Suggest books while the user types.
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete books", description = "Title and author suggestions for a partially typed query, served from memory")
+    @SecurityRequirement(name = "bearer-jwt")
+    public ResponseEntity<ApiResponse<List<BookSuggestionResponse>>> autocomplete(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<BookSuggestionResponse> suggestions = bookAutocompleteService.suggest(query, limit);
+
+            ApiResponse<List<BookSuggestionResponse>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Suggestions retrieved successfully",
+                    suggestions
+            );
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            ApiResponse<List<BookSuggestionResponse>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Filter and sort books with advanced options.
      */
@@ -105,7 +225,7 @@ public class BookController {
             @RequestParam(defaultValue = "popular") String sortBy,
             @RequestParam(defaultValue = "20") int limit) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             List<BookResponse> books = bookService.filterAndSortBooks(userId, genre, minYear, maxYear, sortBy, limit);
             
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
@@ -140,7 +260,7 @@ public class BookController {
     public ResponseEntity<ApiResponse<Void>> updateReadingStatus(
             @Valid @RequestBody ReadingStatusRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             bookService.updateReadingStatus(userId, request);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -166,6 +286,41 @@ public class BookController {
         }
     }
 
+    /**
+     * Report reading progress for a book on the READING shelf.
+     */
+    @PostMapping("/reading-progress")
+    @Operation(summary = "Report reading progress", description = "Record the current page or percentage; updates are coalesced and written every few seconds")
+    @SecurityRequirement(name = "bearer-jwt")
+    public ResponseEntity<ApiResponse<Void>> recordReadingProgress(
+            @Valid @RequestBody ReadingProgressRequest request) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            readingProgressService.recordProgress(userId, request);
+            
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Reading progress recorded",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to record reading progress",
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * Get all favorite books for current user.
      */
@@ -173,7 +328,7 @@ public class BookController {
     @Operation(summary = "Get user's favorite books", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<List<BookResponse>>> getFavorites() {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             List<BookResponse> favorites = bookService.getUserFavorites(userId);
             
             ApiResponse<List<BookResponse>> response = new ApiResponse<>(
@@ -199,7 +354,7 @@ public class BookController {
     @Operation(summary = "Add a book to favorites", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> addFavorite(@Valid @RequestBody com.parchelector.dto.request.FavoriteBookRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             bookService.addFavorite(userId, request);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -232,7 +387,7 @@ public class BookController {
     @Operation(summary = "Remove a book from favorites", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> removeFavorite(@PathVariable Long bookId) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             bookService.removeFavorite(userId, bookId);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -257,15 +412,4 @@ public class BookController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    /**
-     * Get current authenticated user ID.
-     */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
-    }
 }
@@ -5,8 +5,7 @@ import com.parchelector.dto.request.AddBookToListRequest;
 import com.parchelector.dto.request.CreateListRequest;
 import com.parchelector.dto.request.UpdateListRequest;
 import com.parchelector.dto.response.ListResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.ListService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,8 +14,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -32,9 +29,6 @@ public class ListController {
     @Autowired
     private ListService listService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Create a new reading list.
      */
@@ -42,7 +36,7 @@ public class ListController {
     @Operation(summary = "Create a new reading list", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<ListResponse>> createList(@Valid @RequestBody CreateListRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ListResponse list = listService.createList(userId, request);
             
             ApiResponse<ListResponse> response = new ApiResponse<>(
@@ -68,7 +62,7 @@ public class ListController {
     @Operation(summary = "Get list details", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<ListResponse>> getList(@PathVariable Long id) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ListResponse list = listService.getListById(id, userId);
             
             ApiResponse<ListResponse> response = new ApiResponse<>(
@@ -103,7 +97,7 @@ public class ListController {
             @PathVariable Long id,
             @Valid @RequestBody UpdateListRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ListResponse list = listService.updateList(userId, id, request);
             
             ApiResponse<ListResponse> response = new ApiResponse<>(
@@ -136,7 +130,7 @@ public class ListController {
     @Operation(summary = "Delete a reading list", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> deleteList(@PathVariable Long id) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             listService.deleteList(userId, id);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -171,7 +165,7 @@ public class ListController {
             @PathVariable Long id,
             @Valid @RequestBody AddBookToListRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             listService.addBookToList(userId, id, request);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -206,7 +200,7 @@ public class ListController {
             @PathVariable Long id,
             @PathVariable Long bookId) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             listService.removeBookFromList(userId, id, bookId);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -233,13 +227,68 @@ public class ListController {
     }
 
     /**
-     * Get current authenticated user ID.
+     * Like a reading list.
+     */
+    @PostMapping("/{id}/likes")
+    @Operation(summary = "Like a reading list", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<Void>> likeList(@PathVariable Long id) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            listService.likeList(userId, id);
+            
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "List liked successfully",
+                    null
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Unlike a reading list.
      */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
+    @DeleteMapping("/{id}/likes")
+    @Operation(summary = "Unlike a reading list", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<Void>> unlikeList(@PathVariable Long id) {
+        try {
+            Long userId = SecurityUtils.getCurrentUserId();
+            listService.unlikeList(userId, id);
+            
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "List unliked successfully",
+                    null
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.parchelector.controller;
+
+import com.parchelector.security.SecurityUtils;
+import com.parchelector.service.LiveUpdateHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the live updates stream (Server-Sent Events).
+ *
+ * @author Nicolas Arciniegas
+ */
+@RestController
+@RequestMapping("/live")
+@Tag(name = "Live Updates", description = "Server-Sent Events stream of feed items and notification counts")
+public class LiveUpdateController {
+
+    @Autowired
+    private LiveUpdateHub liveUpdateHub;
+
+    /**
+     * Open the current user's live updates stream.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream feed items and unread notification counts", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<SseEmitter> stream() {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            return ResponseEntity.ok()
+                    // Keep reverse proxies from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .body(liveUpdateHub.connect(currentUserId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+    }
+}
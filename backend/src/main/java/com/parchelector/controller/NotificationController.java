@@ -0,0 +1,164 @@
+package com.parchelector.controller;
+
+import com.parchelector.dto.ApiResponse;
+import com.parchelector.dto.response.NotificationPageResponse;
+import com.parchelector.security.SecurityUtils;
+import com.parchelector.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST controller for the current user's notifications.
+ *
+ * @author Nicolas Arciniegas
+ */
+@RestController
+@RequestMapping("/notifications")
+@Tag(name = "Notifications", description = "Endpoints for reading notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    /**
+     * Get notifications, newest first.
+     */
+    @GetMapping
+    @Operation(summary = "Page through current user notifications", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<NotificationPageResponse>> getNotifications(
+            @Parameter(description = "Number of notifications to return") @RequestParam(defaultValue = "20") Integer limit,
+            @Parameter(description = "nextBefore of the previous page") @RequestParam(required = false) Long before) {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            NotificationPageResponse page = notificationService.getNotifications(currentUserId, limit, before);
+
+            ApiResponse<NotificationPageResponse> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Notifications retrieved successfully",
+                    page
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<NotificationPageResponse> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<NotificationPageResponse> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve notifications: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Get the number of unread notifications (for the badge).
+     */
+    @GetMapping("/unread-count")
+    @Operation(summary = "Get unread notification count", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount() {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            Map<String, Long> unread = Map.of("unreadCount", notificationService.getUnreadCount(currentUserId));
+
+            ApiResponse<Map<String, Long>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Unread count retrieved successfully",
+                    unread
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Map<String, Long>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Map<String, Long>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve unread count: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Mark one notification as read.
+     */
+    @PostMapping("/{notificationId}/read")
+    @Operation(summary = "Mark a notification as read", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<Void>> markRead(@PathVariable Long notificationId) {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            notificationService.markRead(currentUserId, notificationId);
+
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Notification marked as read",
+                    null
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Void> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to mark notification as read: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Mark every notification as read.
+     */
+    @PostMapping("/read-all")
+    @Operation(summary = "Mark all notifications as read", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> markAllRead() {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            Map<String, Integer> updated = Map.of("updated", notificationService.markAllRead(currentUserId));
+
+            ApiResponse<Map<String, Integer>> response = new ApiResponse<>(
+                    "SUCCESS",
+                    "Notifications marked as read",
+                    updated
+            );
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<Map<String, Integer>> response = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            ApiResponse<Map<String, Integer>> response = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to mark notifications as read: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -5,8 +5,7 @@ import com.parchelector.dto.request.CreateReviewRequest;
 import com.parchelector.dto.request.UpdateReviewRequest;
 import com.parchelector.dto.response.BookReviewsResponse;
 import com.parchelector.dto.response.ReviewResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -15,8 +14,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -32,9 +29,6 @@ public class ReviewController {
     @Autowired
     private ReviewService reviewService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Create a new review for a book.
      */
@@ -42,7 +36,7 @@ public class ReviewController {
     @Operation(summary = "Create a new review", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<ReviewResponse>> createReview(@Valid @RequestBody CreateReviewRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ReviewResponse review = reviewService.createReview(userId, request);
             
             ApiResponse<ReviewResponse> response = new ApiResponse<>(
@@ -77,7 +71,7 @@ public class ReviewController {
             @PathVariable Long id,
             @Valid @RequestBody UpdateReviewRequest request) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ReviewResponse review = reviewService.updateReview(userId, id, request);
             
             ApiResponse<ReviewResponse> response = new ApiResponse<>(
@@ -110,7 +104,7 @@ public class ReviewController {
     @Operation(summary = "Delete a review", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> deleteReview(@PathVariable Long id) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             reviewService.deleteReview(userId, id);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -175,7 +169,7 @@ public class ReviewController {
     @Operation(summary = "Get my review for a book", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<ReviewResponse>> getMyReview(@PathVariable Long bookId) {
         try {
-            Long userId = getCurrentUserId();
+            Long userId = SecurityUtils.getCurrentUserId();
             ReviewResponse review = reviewService.getUserReviewForBook(userId, bookId);
             
             ApiResponse<ReviewResponse> response = new ApiResponse<>(
@@ -200,15 +194,4 @@ public class ReviewController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    /**
-     * Get current authenticated user ID.
-     */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
-    }
 }
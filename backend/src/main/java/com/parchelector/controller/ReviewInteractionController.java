@@ -3,8 +3,7 @@ package com.parchelector.controller;
 import com.parchelector.dto.ApiResponse;
 import com.parchelector.dto.request.CreateCommentRequest;
 import com.parchelector.dto.response.CommentResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.ReviewInteractionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -13,8 +12,6 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -32,9 +29,6 @@ public class ReviewInteractionController {
     @Autowired
     private ReviewInteractionService reviewInteractionService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Like a review.
      */
@@ -42,7 +36,7 @@ public class ReviewInteractionController {
     @Operation(summary = "Like a review", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> likeReview(@PathVariable Long reviewId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             reviewInteractionService.likeReview(currentUserId, reviewId);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -75,7 +69,7 @@ public class ReviewInteractionController {
     @Operation(summary = "Unlike a review", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> unlikeReview(@PathVariable Long reviewId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             reviewInteractionService.unlikeReview(currentUserId, reviewId);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -108,7 +102,7 @@ public class ReviewInteractionController {
     @Operation(summary = "Check if user has liked a review", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Boolean>> hasLikedReview(@PathVariable Long reviewId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             boolean hasLiked = reviewInteractionService.hasLikedReview(currentUserId, reviewId);
             
             ApiResponse<Boolean> response = new ApiResponse<>(
@@ -136,7 +130,7 @@ public class ReviewInteractionController {
             @PathVariable Long reviewId,
             @Valid @RequestBody CreateCommentRequest request) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             CommentResponse comment = reviewInteractionService.addComment(currentUserId, reviewId, request);
             
             ApiResponse<CommentResponse> response = new ApiResponse<>(
@@ -203,7 +197,7 @@ public class ReviewInteractionController {
             @PathVariable Long reviewId,
             @PathVariable Long commentId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             reviewInteractionService.deleteComment(currentUserId, commentId);
             
             ApiResponse<Void> response = new ApiResponse<>(
@@ -228,15 +222,4 @@ public class ReviewInteractionController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    /**
-     * Get current authenticated user ID.
-     */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
-    }
 }
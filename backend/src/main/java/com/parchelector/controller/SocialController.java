@@ -5,9 +5,9 @@ import com.parchelector.dto.request.FollowAuthorRequest;
 import com.parchelector.dto.request.FollowUserRequest;
 import com.parchelector.dto.response.FeedResponse;
 import com.parchelector.dto.response.FollowResponse;
+import com.parchelector.dto.response.FollowSuggestionResponse;
 import com.parchelector.dto.response.UserFollowStatsResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.SocialService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,10 +17,10 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller for social features (follows, etc.).
  * 
@@ -34,9 +34,6 @@ public class SocialController {
     @Autowired
     private SocialService socialService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Follow a user.
      */
@@ -44,7 +41,7 @@ public class SocialController {
     @Operation(summary = "Follow a user", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<FollowResponse>> followUser(@Valid @RequestBody FollowUserRequest request) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             FollowResponse response = socialService.followUser(currentUserId, request);
             
             ApiResponse<FollowResponse> apiResponse = new ApiResponse<>(
@@ -77,7 +74,7 @@ public class SocialController {
     @Operation(summary = "Unfollow a user", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> unfollowUser(@PathVariable Long userId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             socialService.unfollowUser(currentUserId, userId);
             
             ApiResponse<Void> apiResponse = new ApiResponse<>(
@@ -110,7 +107,7 @@ public class SocialController {
     @Operation(summary = "Follow an author", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> followAuthor(@Valid @RequestBody FollowAuthorRequest request) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             socialService.followAuthor(currentUserId, request);
             
             ApiResponse<Void> apiResponse = new ApiResponse<>(
@@ -143,7 +140,7 @@ public class SocialController {
     @Operation(summary = "Unfollow an author", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Void>> unfollowAuthor(@PathVariable Long authorId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             socialService.unfollowAuthor(currentUserId, authorId);
             
             ApiResponse<Void> apiResponse = new ApiResponse<>(
@@ -176,7 +173,7 @@ public class SocialController {
     @Operation(summary = "Get user follow statistics", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<UserFollowStatsResponse>> getUserFollowStats(@PathVariable Long userId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             UserFollowStatsResponse stats = socialService.getUserFollowStats(userId, currentUserId);
             
             ApiResponse<UserFollowStatsResponse> apiResponse = new ApiResponse<>(
@@ -209,7 +206,7 @@ public class SocialController {
     @Operation(summary = "Check if following a user", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Boolean>> isFollowingUser(@PathVariable Long userId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             boolean isFollowing = socialService.isFollowing(currentUserId, userId);
             
             ApiResponse<Boolean> apiResponse = new ApiResponse<>(
@@ -235,7 +232,7 @@ public class SocialController {
     @Operation(summary = "Check if following an author", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<Boolean>> isFollowingAuthor(@PathVariable Long authorId) {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             boolean isFollowing = socialService.isFollowingAuthor(currentUserId, authorId);
             
             ApiResponse<Boolean> apiResponse = new ApiResponse<>(
@@ -254,6 +251,33 @@ public class SocialController {
         }
     }
 
+    /**
+     * Get people the current user may know.
+     */
+    @GetMapping("/suggestions")
+    @Operation(summary = "Get suggested users to follow", description = "Users followed by the users you follow, ranked by mutual follows, shared favorite books and genres", security = @SecurityRequirement(name = "bearer-jwt"))
+    public ResponseEntity<ApiResponse<List<FollowSuggestionResponse>>> getFollowSuggestions(
+            @Parameter(description = "Number of suggestions to return") @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            List<FollowSuggestionResponse> suggestions = socialService.getFollowSuggestions(currentUserId, limit);
+
+            ApiResponse<List<FollowSuggestionResponse>> apiResponse = new ApiResponse<>(
+                    "SUCCESS",
+                    "Follow suggestions retrieved successfully",
+                    suggestions
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (Exception e) {
+            ApiResponse<List<FollowSuggestionResponse>> apiResponse = new ApiResponse<>(
+                    "ERROR",
+                    "Failed to retrieve follow suggestions: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
+        }
+    }
+
     /**
      * Get social feed with activity from followed users.
      */
@@ -261,10 +285,14 @@ public class SocialController {
     @Operation(summary = "Get social feed from followed users", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<FeedResponse>> getFeed(
             @Parameter(description = "Number of items to return") @RequestParam(defaultValue = "20") Integer limit,
-            @Parameter(description = "Number of items to skip") @RequestParam(defaultValue = "0") Integer offset) {
+            @Parameter(description = "Number of items to skip") @RequestParam(defaultValue = "0") Integer offset,
+            @Parameter(description = "Keyset cursor from a previous page (empty for the first page); takes precedence over offset")
+            @RequestParam(required = false) String cursor) {
         try {
-            Long currentUserId = getCurrentUserId();
-            FeedResponse feed = socialService.getFeed(currentUserId, limit, offset);
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            FeedResponse feed = cursor != null
+                    ? socialService.getFeedAfter(currentUserId, limit, cursor)
+                    : socialService.getFeed(currentUserId, limit, offset);
             
             ApiResponse<FeedResponse> apiResponse = new ApiResponse<>(
                     "SUCCESS",
@@ -272,6 +300,13 @@ public class SocialController {
                     feed
             );
             return ResponseEntity.ok(apiResponse);
+        } catch (IllegalArgumentException e) {
+            ApiResponse<FeedResponse> apiResponse = new ApiResponse<>(
+                    "ERROR",
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
         } catch (Exception e) {
             ApiResponse<FeedResponse> apiResponse = new ApiResponse<>(
                     "ERROR",
@@ -281,15 +316,4 @@ public class SocialController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
         }
     }
-
-    /**
-     * Get current authenticated user ID.
-     */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
-    }
 }
@@ -2,8 +2,7 @@ package com.parchelector.controller;
 
 import com.parchelector.dto.ApiResponse;
 import com.parchelector.dto.response.ReadingStatsResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.StatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -11,8 +10,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -28,9 +25,6 @@ public class StatsController {
     @Autowired
     private StatsService statsService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Get reading statistics for the current user.
      */
@@ -38,7 +32,7 @@ public class StatsController {
     @Operation(summary = "Get my reading statistics", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<ReadingStatsResponse>> getMyStats() {
         try {
-            Long currentUserId = getCurrentUserId();
+            Long currentUserId = SecurityUtils.getCurrentUserId();
             ReadingStatsResponse stats = statsService.getReadingStats(currentUserId);
             
             ApiResponse<ReadingStatsResponse> response = new ApiResponse<>(
@@ -88,15 +82,4 @@ public class StatsController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    /**
-     * Get current authenticated user ID.
-     */
-    private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return user.getId();
-    }
 }
@@ -4,8 +4,7 @@ import com.parchelector.dto.ApiResponse;
 import com.parchelector.dto.response.ListResponse;
 import com.parchelector.dto.response.ReviewResponse;
 import com.parchelector.dto.response.UserProfileResponse;
-import com.parchelector.model.entity.User;
-import com.parchelector.repository.UserRepository;
+import com.parchelector.security.SecurityUtils;
 import com.parchelector.service.ListService;
 import com.parchelector.service.ReviewService;
 import com.parchelector.service.UserService;
@@ -15,8 +14,6 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -40,9 +37,6 @@ public class UserController {
     @Autowired
     private ReviewService reviewService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Get public profile of a user.
      */
@@ -82,7 +76,7 @@ public class UserController {
     @Operation(summary = "Get user's public lists", security = @SecurityRequirement(name = "bearer-jwt"))
     public ResponseEntity<ApiResponse<List<ListResponse>>> getUserLists(@PathVariable Long userId) {
         try {
-            Long currentUserId = getCurrentUserIdOrNull();
+            Long currentUserId = SecurityUtils.getCurrentUserIdOrNull();
             List<ListResponse> lists = listService.getUserPublicLists(userId, currentUserId);
             
             ApiResponse<List<ListResponse>> response = new ApiResponse<>(
@@ -125,21 +119,4 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    /**
-     * Get current authenticated user ID or null if not authenticated.
-     */
-    private Long getCurrentUserIdOrNull() {
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return null;
-            }
-            String username = authentication.getName();
-            User user = userRepository.findByUsername(username).orElse(null);
-            return user != null ? user.getId() : null;
-        } catch (Exception e) {
-            return null;
-        }
-    }
 }
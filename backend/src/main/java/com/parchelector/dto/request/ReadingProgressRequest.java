@@ -0,0 +1,29 @@
+package com.parchelector.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for reporting reading progress; send either the current page or a percentage.
+ * 
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingProgressRequest {
+    
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+    
+    @Min(value = 0, message = "Page must be 0 or greater")
+    private Integer page;
+    
+    @Min(value = 0, message = "Percent must be between 0 and 100")
+    @Max(value = 100, message = "Percent must be between 0 and 100")
+    private Integer percent;
+}
@@ -0,0 +1,24 @@
+package com.parchelector.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for replacing the genres a user likes.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateGenresRequest {
+
+    @NotNull(message = "Genre IDs are required")
+    @Size(max = 50, message = "At most 50 genres can be picked")
+    private List<@NotNull Long> genreIds;
+}
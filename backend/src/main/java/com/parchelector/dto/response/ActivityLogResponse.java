@@ -0,0 +1,43 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for one keyset page of a user's activity log, newest first.
+ * Subjects deleted after the event was recorded are returned as null fields.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogResponse {
+
+    private List<ActivityLogItem> items;
+    private Integer limit;
+    private Boolean hasMore;
+    private String nextCursor; // Opaque keyset cursor for the next page, null on the last page
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ActivityLogItem {
+        private Long id;
+        private String type; // REVIEW_CREATED, LIST_CREATED, USER_FOLLOWED, WANT_TO_READ, STARTED_READING, FINISHED_READING, BOOK_FAVORITED
+        private LocalDateTime createdAt;
+        private Long bookId;
+        private String bookTitle;
+        private String bookCover;
+        private Long reviewId;
+        private Double rating;
+        private Long listId;
+        private String listName;
+        private Long targetUserId;
+        private String targetUsername;
+    }
+}
@@ -0,0 +1,24 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of a user's activity (reviews or read lists).
+ * 
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPageResponse<T> {
+
+    private List<T> items;
+    private Integer total;
+    private Integer limit;
+    private Integer offset;
+    private Boolean hasMore;
+}
@@ -19,4 +19,6 @@ public class BookResponse {
     private Double rating;
     private String cover;
     private String status; // User's reading status: "leyendo", "leido", "por_leer", or null
+    private Boolean favorite; // Whether the user marked the book as favorite
+    private Double userRating; // User's own review rating, or null
 }
@@ -20,5 +20,6 @@ public class BookReviewsResponse {
     private String bookTitle;
     private Double averageRating;
     private int totalReviews;
+    private int[] ratingHistogram; // Review count per half star, from 0.5 (index 0) to 5.0 (index 9)
     private List<ReviewResponse> reviews;
 }
@@ -0,0 +1,20 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a book autocomplete suggestion.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSuggestionResponse {
+    private Long id;
+    private String title;
+    private String author;
+    private String cover;
+}
@@ -9,6 +9,9 @@ import java.util.List;
 
 /**
  * Response DTO for social feed containing activities from followed users.
+ * In cursor mode {@code total} and {@code offset} are null; clients page with {@code nextCursor}.
+ * {@code total} is deprecated: in offset mode it is only filled in on the last page, where it
+ * is known without counting the timeline; clients should rely on {@code hasMore}.
  * 
  * @author Nicolas Arciniegas
  */
@@ -22,6 +25,7 @@ public class FeedResponse {
     private Integer limit;
     private Integer offset;
     private Boolean hasMore;
+    private String nextCursor; // Opaque keyset cursor for the next page, null on the last page
 
     @Data
     @NoArgsConstructor
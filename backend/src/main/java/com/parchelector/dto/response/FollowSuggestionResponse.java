@@ -0,0 +1,20 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a suggested user to follow.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowSuggestionResponse {
+    private Long userId;
+    private String username;
+    private String avatarUrl;
+    private Integer mutualFollows; // How many of the users the current user follows follow this user
+}
@@ -0,0 +1,24 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of a user's notifications, newest first.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+
+    private List<NotificationResponse> items;
+    private Long unreadCount;
+    private Integer limit;
+    private Boolean hasMore;
+    private Long nextBefore; // Pass as "before" to get the next page, null on the last page
+}
@@ -0,0 +1,25 @@
+package com.parchelector.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Response DTO for a notification.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+
+    private Long id;
+    private String type; // REVIEW_LIKED, REVIEW_COMMENTED, USER_FOLLOWED or LIST_LIKED
+    private Map<String, Object> payload;
+    private Boolean read;
+    private LocalDateTime createdAt;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -20,6 +21,7 @@ public class ReadingStatsResponse {
     private RatingStats ratingStats;
     private List<GenreStats> topGenres;
     private ReadingTrends trends;
+    private ReadingPace pace;
 
     @Data
     @NoArgsConstructor
@@ -64,4 +66,27 @@ public class ReadingStatsResponse {
         private Integer reviewsThisMonth;
         private Integer reviewsThisYear;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReadingPace {
+        private Integer currentStreak;
+        private Integer longestStreak;
+        private Integer readingDaysLast30;
+        private Double pagesPerDay;
+        private List<BookPace> currentlyReading;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookPace {
+        private Long bookId;
+        private String title;
+        private Integer currentPage;
+        private Integer pageCount;
+        private Integer progressPercent;
+        private LocalDate projectedFinishDate;
+    }
 }
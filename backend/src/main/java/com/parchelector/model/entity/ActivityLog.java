@@ -0,0 +1,64 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of something a user did (reviewed, created a list, followed someone,
+ * changed a reading status, favorited a book). Rows are written in batches by
+ * ActivityLogWriter after the originating transaction commits and are never updated;
+ * readers page a user's history with a range scan on (user_id, created_at).
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "activity_log",
+    indexes = {
+        @Index(name = "activity_log_user_created_idx", columnList = "user_id, created_at"),
+        @Index(name = "activity_log_type_idx", columnList = "type")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLog {
+
+    public static final String TYPE_REVIEW_CREATED = "REVIEW_CREATED";
+    public static final String TYPE_LIST_CREATED = "LIST_CREATED";
+    public static final String TYPE_USER_FOLLOWED = "USER_FOLLOWED";
+    public static final String TYPE_WANT_TO_READ = "WANT_TO_READ";
+    public static final String TYPE_STARTED_READING = "STARTED_READING";
+    public static final String TYPE_FINISHED_READING = "FINISHED_READING";
+    public static final String TYPE_BOOK_FAVORITED = "BOOK_FAVORITED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @Column(name = "subject_book_id")
+    private Long subjectBookId;
+
+    @Column(name = "subject_review_id")
+    private Long subjectReviewId;
+
+    @Column(name = "subject_list_id")
+    private Long subjectListId;
+
+    @Column(name = "subject_user_id")
+    private Long subjectUserId;
+
+    /**
+     * When the action happened, which may be slightly earlier than when the row was written.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
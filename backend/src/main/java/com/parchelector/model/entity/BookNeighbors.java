@@ -0,0 +1,37 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed "readers who liked this also liked" neighbours of a book, most similar first.
+ * Rebuilt periodically by BookRecommendationService from reviews rated 4 or more, favorites
+ * and read books; scores[i] is the cosine similarity of neighborIds[i] with this book.
+ * Books without neighbours have no row.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "book_neighbors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookNeighbors {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "neighbor_ids", nullable = false)
+    private long[] neighborIds;
+
+    @Column(nullable = false)
+    private float[] scores;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,57 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed rating aggregate of a book, maintained incrementally on every review write.
+ * The histogram has one bucket per half star: bucket i holds ratings in (i/2, (i+1)/2].
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "book_rating_stats",
+    indexes = {
+        @Index(name = "book_rating_stats_avg_idx", columnList = "rating_avg DESC"),
+        @Index(name = "book_rating_stats_count_idx", columnList = "rating_count DESC, book_id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRatingStats {
+
+    public static final int BUCKETS = 10;
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "rating_sum", nullable = false, precision = 12, scale = 1)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
+    @Column(name = "rating_count", nullable = false)
+    private Integer ratingCount = 0;
+
+    /**
+     * Stored rather than derived so rating-sorted browsing can use an index.
+     */
+    @Column(name = "rating_avg", nullable = false, precision = 3, scale = 2)
+    private BigDecimal ratingAvg = BigDecimal.ZERO;
+
+    @Column(name = "histogram", nullable = false)
+    private int[] histogram = new int[BUCKETS];
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
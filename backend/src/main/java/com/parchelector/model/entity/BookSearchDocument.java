@@ -0,0 +1,39 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Search document of a book: its title and author names, lower-cased and stripped of accents.
+ * On PostgreSQL the table also has a generated {@code search_vector} tsvector column with a
+ * GIN index (created at startup by BookSearchService), which is what queries run against.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "book_search_documents")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookSearchDocument {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
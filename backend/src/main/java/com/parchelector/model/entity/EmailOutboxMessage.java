@@ -0,0 +1,78 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email waiting to be delivered. Requests only insert a row; the email dispatcher
+ * sends it in the background and retries with backoff until it is sent or dead-lettered.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "email_outbox_status_next_attempt_idx", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    /**
+     * Rendered HTML body. Cleared once sent or dead, since it may contain single-use links.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * When the message is next due. While SENDING, the end of the dispatcher's lease; once
+     * DEAD, when it was given up on.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        DEAD
+    }
+}
@@ -0,0 +1,55 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of a user's materialized social timeline.
+ * One row is written per follower when a followed user publishes a review or list,
+ * so reading a feed page is a single range scan over the owner's entries.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "feed_entries",
+    uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"owner_user_id", "item_type", "item_id"})
+    },
+    indexes = {
+        @Index(name = "feed_entries_owner_created_idx", columnList = "owner_user_id, created_at DESC, item_type DESC, item_id DESC"),
+        @Index(name = "feed_entries_item_idx", columnList = "item_type, item_id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedEntry {
+
+    public static final String TYPE_REVIEW = "REVIEW";
+    public static final String TYPE_LIST = "LIST";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_user_id", nullable = false)
+    private Long ownerUserId;
+
+    @Column(name = "actor_user_id", nullable = false)
+    private Long actorUserId;
+
+    @Column(name = "item_type", nullable = false, length = 16)
+    private String itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    /**
+     * Creation time of the referenced review or list (not of the entry itself).
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
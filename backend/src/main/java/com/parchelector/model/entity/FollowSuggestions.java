@@ -0,0 +1,40 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed "people you may know" suggestions of a user, best first. Rebuilt periodically
+ * by FollowSuggestionService from follows, favorite books and genres, and recomputed for a
+ * user shortly after they follow or unfollow someone. mutualFollows[i] is how many of the
+ * users this user follows follow suggestedUserIds[i]. Users without suggestions have no row.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "follow_suggestions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowSuggestions {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "suggested_user_ids", nullable = false)
+    private long[] suggestedUserIds;
+
+    @Column(nullable = false)
+    private float[] scores;
+
+    @Column(name = "mutual_follows", nullable = false)
+    private int[] mutualFollows;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -36,6 +37,14 @@ public class LibraryList {
     @Column(length = 16, nullable = false)
     private String visibility = "PUBLIC";
 
+    /**
+     * Denormalized like counter, only changed through atomic UPDATE statements
+     * in LibraryListRepository.
+     */
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private Integer likeCount = 0;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,62 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Notification for a user about something another user did to them or their content.
+ * The payload holds what a client needs to render it (actor, book, review, list),
+ * captured when the notification was created.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "notifications",
+    indexes = {
+        @Index(name = "notifications_user_read_idx", columnList = "user_id, is_read"),
+        @Index(name = "notifications_user_id_idx", columnList = "user_id, id"),
+        @Index(name = "notifications_created_at_idx", columnList = "created_at"),
+        @Index(name = "notifications_user_dedupe_idx", columnList = "user_id, dedupe_key")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Notification {
+
+    public static final String TYPE_REVIEW_LIKED = "REVIEW_LIKED";
+    public static final String TYPE_REVIEW_COMMENTED = "REVIEW_COMMENTED";
+    public static final String TYPE_USER_FOLLOWED = "USER_FOLLOWED";
+    public static final String TYPE_LIST_LIKED = "LIST_LIKED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String type;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload")
+    private Map<String, Object> payload = new HashMap<>();
+
+    // Type, actor and subject: a repeat is not written while this one is unread
+    @Column(name = "dedupe_key", length = 128)
+    private String dedupeKey;
+
+    @Column(name = "is_read", nullable = false)
+    private Boolean isRead = false;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -9,11 +9,15 @@ import java.time.LocalDateTime;
 
 /**
  * Entity for password reset tokens.
+ * A token is sent as {@code <selector>.<verifier>}: the selector finds the row through
+ * its unique index and only a keyed hash of the verifier is stored.
  * 
  * @author Nicolas Arciniegas
  */
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "password_reset_tokens_expires_at_idx", columnList = "expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +31,9 @@ public class PasswordResetToken {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Column(name = "selector", unique = true, length = 32)
+    private String selector;
+
     @Column(name = "token_hash", unique = true, nullable = false)
     private String tokenHash;
 
@@ -0,0 +1,48 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only reading progress history: the page or percentage a user reached in a book.
+ * Rows are written in batches by ReadingProgressService, at most one per user and book
+ * per flush, so rapid page turns collapse into the last position reported.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "reading_events",
+    indexes = {
+        @Index(name = "reading_events_user_created_idx", columnList = "user_id, created_at"),
+        @Index(name = "reading_events_book_created_idx", columnList = "book_id, created_at")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadingEvent {
+
+    public static final String TYPE_PAGE = "PAGE";
+    public static final String TYPE_PERCENT = "PERCENT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "event_type", nullable = false, length = 24)
+    private String eventType;
+
+    private Integer value;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
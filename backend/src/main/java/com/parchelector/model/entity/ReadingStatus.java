@@ -43,12 +43,25 @@ public class ReadingStatus {
     @Column(name = "progress_percent")
     private Integer progressPercent = 0;
 
+    /**
+     * Last page reported through reading progress; null until the first report.
+     */
+    @Column(name = "current_page")
+    private Integer currentPage;
+
     @Column(name = "started_at")
     private LocalDate startedAt;
 
     @Column(name = "finished_at")
     private LocalDate finishedAt;
 
+    /**
+     * When the status was last set to a different value; other writes to the row leave it
+     * alone, so trending counts every change once.
+     */
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
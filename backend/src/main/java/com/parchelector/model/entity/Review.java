@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -55,4 +56,16 @@ public class Review {
 
     @Column(name = "is_deleted", nullable = false)
     private Boolean isDeleted = false;
+
+    /**
+     * Denormalized counters. Only changed through atomic UPDATE statements in
+     * ReviewRepository, never by saving the entity, so concurrent likes are not lost.
+     */
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, insertable = false, updatable = false)
+    private Integer likeCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, insertable = false, updatable = false)
+    private Integer commentCount = 0;
 }
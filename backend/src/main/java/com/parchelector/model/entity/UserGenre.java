@@ -0,0 +1,28 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * UserGenre entity representing the genres a user said they like.
+ * 
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "user_genres")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(UserGenreId.class)
+public class UserGenre {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "genre_id")
+    private Long genreId;
+}
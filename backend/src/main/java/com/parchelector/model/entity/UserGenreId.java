@@ -0,0 +1,20 @@
+package com.parchelector.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key for UserGenre entity.
+ * 
+ * @author Nicolas Arciniegas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserGenreId implements Serializable {
+    private Long userId;
+    private Long genreId;
+}
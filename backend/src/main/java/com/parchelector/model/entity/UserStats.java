@@ -0,0 +1,133 @@
+package com.parchelector.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed reading statistics of a user, maintained incrementally on every reading status,
+ * review and list write, so stats pages are a single primary-key read.
+ * The rating histogram has one bucket per star: bucket i holds ratings rounding to i + 1 stars.
+ * Monthly counters are keyed by "yyyy-MM", so "this month/year" needs no date-dependent reset.
+ * Reading days and pages per day are kept relative to the last reading date: bit i of the
+ * day bitmap and slot i of the daily pages are that date minus i days, so a new day shifts
+ * them instead of requiring the event history.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Entity
+@Table(name = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+
+    public static final int STAR_BUCKETS = 5;
+
+    public static final int READING_DAYS_WINDOW = Long.SIZE;
+
+    public static final int PACE_DAYS = 30;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "books_read", nullable = false)
+    private Integer booksRead = 0;
+
+    @Column(name = "books_reading", nullable = false)
+    private Integer booksReading = 0;
+
+    @Column(name = "books_to_read", nullable = false)
+    private Integer booksToRead = 0;
+
+    @Column(name = "pages_read", nullable = false)
+    private Integer pagesRead = 0;
+
+    @Column(name = "review_count", nullable = false)
+    private Integer reviewCount = 0;
+
+    @Column(name = "rating_sum", nullable = false, precision = 12, scale = 1)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
+    @Column(name = "rating_histogram", nullable = false)
+    private int[] ratingHistogram = new int[STAR_BUCKETS];
+
+    @Column(name = "list_count", nullable = false)
+    private Integer listCount = 0;
+
+    /**
+     * Books read per genre name.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "genre_counts", nullable = false)
+    private Map<String, Integer> genreCounts = new HashMap<>();
+
+    /**
+     * Genre affinity by genre id: genres the user picked in user_genres start at 3, each read
+     * book adds 1 to its genres and each rating adds (rating - 3) / 2, so a 1-star rating
+     * counts against the book's genres. Null on snapshots built before it existed.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "genre_affinity")
+    private Map<Long, Double> genreAffinity = new HashMap<>();
+
+    /**
+     * Books read per month of their finish date.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "books_read_by_month", nullable = false)
+    private Map<String, Integer> booksReadByMonth = new HashMap<>();
+
+    /**
+     * Reviews written per month.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "reviews_by_month", nullable = false)
+    private Map<String, Integer> reviewsByMonth = new HashMap<>();
+
+    /**
+     * Last day with reading progress; null until the first progress report.
+     */
+    @Column(name = "last_reading_date")
+    private LocalDate lastReadingDate;
+
+    /**
+     * Days with reading progress among the 64 ending at lastReadingDate, bit 0 being that day.
+     */
+    @Column(name = "reading_days")
+    private Long readingDays = 0L;
+
+    /**
+     * Consecutive reading days ending at lastReadingDate.
+     */
+    @Column(name = "current_streak")
+    private Integer currentStreak = 0;
+
+    @Column(name = "longest_streak")
+    private Integer longestStreak = 0;
+
+    /**
+     * Pages read on each of the 30 days ending at lastReadingDate, slot 0 being that day.
+     */
+    @Column(name = "daily_pages")
+    private int[] dailyPages = new int[PACE_DAYS];
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.ActivityLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for ActivityLog entity (append-only; rows are inserted by ActivityLogWriter).
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByUser(Long userId, Pageable pageable);
+
+    // Keyset page: rows strictly after the cursor. The redundant createdAt bound lets the
+    // (user_id, created_at) range scan start at the cursor instead of the head.
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId " +
+           "AND a.createdAt <= :createdAt " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findByUserAfter(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
+}
@@ -0,0 +1,51 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.BookNeighbors;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for BookNeighbors entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface BookNeighborsRepository extends JpaRepository<BookNeighbors, Long> {
+
+    // Rows of [bookId, lastAt]: the user's most recent liked books (rated >= minRating, favorite or read)
+    @Query(value = "SELECT book_id, MAX(at) FROM (" +
+                   "SELECT book_id, created_at AS at FROM reviews " +
+                   "WHERE user_id = :userId AND is_deleted = false AND rating >= :minRating " +
+                   "UNION ALL SELECT book_id, created_at FROM favorite_books WHERE user_id = :userId " +
+                   "UNION ALL SELECT book_id, updated_at FROM reading_status WHERE user_id = :userId AND status = 'READ'" +
+                   ") liked GROUP BY book_id ORDER BY MAX(at) DESC LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findLikedBooks(Long userId, BigDecimal minRating, int limit);
+
+    // Those of the given books the user already has on a shelf, reviewed or favorited
+    @Query(value = "SELECT book_id FROM reading_status WHERE user_id = :userId AND book_id IN (:bookIds) " +
+                   "UNION SELECT book_id FROM reviews WHERE user_id = :userId AND is_deleted = false AND book_id IN (:bookIds) " +
+                   "UNION SELECT book_id FROM favorite_books WHERE user_id = :userId AND book_id IN (:bookIds)",
+           nativeQuery = true)
+    List<Number> findKnownBookIds(Long userId, Collection<Long> bookIds);
+
+    // The queries below are only used to rebuild the table
+
+    // Rows of [userId, bookId] of live reviews rated at least minRating
+    @Query("SELECT r.user.id, r.book.id FROM Review r WHERE r.isDeleted = false AND r.rating >= :minRating")
+    Stream<Object[]> streamLikedReviews(BigDecimal minRating);
+
+    // Rows of [userId, bookId]
+    @Query("SELECT fb.user.id, fb.book.id FROM FavoriteBook fb")
+    Stream<Object[]> streamFavorites();
+
+    // Rows of [userId, bookId]
+    @Query("SELECT rs.user.id, rs.book.id FROM ReadingStatus rs WHERE rs.status = 'READ'")
+    Stream<Object[]> streamReadBooks();
+}
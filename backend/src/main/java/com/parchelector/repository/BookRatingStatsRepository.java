@@ -0,0 +1,43 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.BookRatingStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for BookRatingStats entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface BookRatingStatsRepository extends JpaRepository<BookRatingStats, Long> {
+
+    // Row lock so concurrent reviews of the same book apply their deltas one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BookRatingStats s WHERE s.bookId = :bookId")
+    Optional<BookRatingStats> findByBookIdForUpdate(Long bookId);
+
+    // Creates the empty row if missing, so the first reviews of a book can lock it instead of racing to insert
+    @Modifying
+    @Query(value = "INSERT INTO book_rating_stats (book_id, rating_sum, rating_count, rating_avg, histogram, updated_at) " +
+                   "VALUES (:bookId, 0, 0, 0, :histogram, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(Long bookId, int[] histogram);
+
+    // Rows of [bookId, rating, count] over live reviews, used to rebuild the table
+    @Query("SELECT r.book.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.isDeleted = false GROUP BY r.book.id, r.rating")
+    List<Object[]> aggregateReviewRatings();
+
+    // Clears the persistence context so the rebuilt rows are inserted, not merged into stale ones
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BookRatingStats s")
+    int deleteAllStats();
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,12 +25,6 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 
     List<Book> findByPublishedYear(Integer year);
 
-    @Query("SELECT DISTINCT b FROM Book b " +
-           "LEFT JOIN FETCH b.authors a " +
-           "WHERE LOWER(b.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(a.name) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Book> searchByTitleOrAuthor(String query, Pageable pageable);
-
     // Filter and sort by popularity (number of reviews + reading statuses)
     @Query("SELECT b FROM Book b " +
            "LEFT JOIN b.genres g " +
@@ -41,15 +37,34 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            ") DESC")
     List<Book> findBooksFilteredAndSortedByPopularity(String genre, Integer minYear, Integer maxYear, Pageable pageable);
 
-    // Filter and sort by average rating
+    // Books matching the filter by review count, read from the precomputed book_rating_stats counters
+    @Query("SELECT s.bookId FROM BookRatingStats s JOIN Book b ON b.id = s.bookId " +
+           "WHERE (:genre IS NULL OR EXISTS (SELECT g FROM b.genres g WHERE g.name = :genre)) " +
+           "AND (:minYear IS NULL OR b.publishedYear >= :minYear) " +
+           "AND (:maxYear IS NULL OR b.publishedYear <= :maxYear) " +
+           "ORDER BY s.ratingCount DESC, s.bookId")
+    List<Long> findBookIdsFilteredAndSortedByRatingCount(String genre, Integer minYear, Integer maxYear, Pageable pageable);
+
+    // Books matching the filter in id order, to fill up when few books have reviews
+    @Query("SELECT b.id FROM Book b " +
+           "WHERE (:genre IS NULL OR EXISTS (SELECT g FROM b.genres g WHERE g.name = :genre)) " +
+           "AND (:minYear IS NULL OR b.publishedYear >= :minYear) " +
+           "AND (:maxYear IS NULL OR b.publishedYear <= :maxYear) " +
+           "ORDER BY b.id")
+    List<Long> findBookIdsFiltered(String genre, Integer minYear, Integer maxYear, Pageable pageable);
+
+    // Rows of [bookId, genreId], straight from the join table
+    @Query(value = "SELECT book_id, genre_id FROM book_genres WHERE book_id IN (:bookIds)", nativeQuery = true)
+    List<Object[]> findGenreIdsByBookIdIn(Collection<Long> bookIds);
+
+    // Filter and sort by average rating (precomputed in book_rating_stats; unrated books last)
     @Query("SELECT b FROM Book b " +
            "LEFT JOIN b.genres g " +
+           "LEFT JOIN BookRatingStats s ON s.bookId = b.id " +
            "WHERE (:genre IS NULL OR g.name = :genre) " +
            "AND (:minYear IS NULL OR b.publishedYear >= :minYear) " +
            "AND (:maxYear IS NULL OR b.publishedYear <= :maxYear) " +
-           "ORDER BY (" +
-           "  SELECT COALESCE(AVG(r.rating), 0) FROM Review r WHERE r.book.id = b.id AND r.isDeleted = false" +
-           ") DESC")
+           "ORDER BY s.ratingAvg DESC NULLS LAST")
     List<Book> findBooksFilteredAndSortedByRating(String genre, Integer minYear, Integer maxYear, Pageable pageable);
 
     // Filter and sort by newest (publication year descending)
@@ -69,4 +84,26 @@ public interface BookRepository extends JpaRepository<Book, Long> {
            "AND (:maxYear IS NULL OR b.publishedYear <= :maxYear) " +
            "ORDER BY b.publishedYear ASC NULLS LAST")
     List<Book> findBooksFilteredAndSortedByOldest(String genre, Integer minYear, Integer maxYear, Pageable pageable);
+
+    @Query("SELECT DISTINCT b FROM Book b LEFT JOIN FETCH b.authors WHERE b.id IN :ids")
+    List<Book> findAllWithAuthorsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Book b ORDER BY b.id")
+    List<Long> findAllIds(Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.updatedAt > :since")
+    List<Long> findIdsUpdatedSince(LocalDateTime since);
+
+    @Query("SELECT DISTINCT b.id FROM Book b JOIN b.authors a WHERE a.updatedAt > :since")
+    List<Long> findIdsWithAuthorsUpdatedSince(LocalDateTime since);
+
+    // What one user has done with each book: [bookId, status, favorited, own rating].
+    // Every join matches at most one row thanks to the (user, book) unique keys.
+    @Query("SELECT b.id, rs.status, CASE WHEN f.id.userId IS NULL THEN false ELSE true END, r.rating " +
+           "FROM Book b " +
+           "LEFT JOIN ReadingStatus rs ON rs.book.id = b.id AND rs.user.id = :userId " +
+           "LEFT JOIN FavoriteBook f ON f.id.bookId = b.id AND f.id.userId = :userId " +
+           "LEFT JOIN Review r ON r.book.id = b.id AND r.user.id = :userId AND r.isDeleted = false " +
+           "WHERE b.id IN :bookIds")
+    List<Object[]> findViewerState(Long userId, Collection<Long> bookIds);
 }
@@ -0,0 +1,25 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.BookSearchDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for BookSearchDocument entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface BookSearchDocumentRepository extends JpaRepository<BookSearchDocument, Long> {
+
+    // PostgreSQL full-text search over the generated tsvector column, best matches first
+    @Query(value = "SELECT d.book_id FROM book_search_documents d, to_tsquery('spanish', :tsQuery) q " +
+                   "WHERE d.search_vector @@ q " +
+                   "ORDER BY ts_rank(d.search_vector, q) DESC, d.book_id " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Number> searchRanked(String tsQuery, int limit, int offset);
+}
@@ -0,0 +1,56 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.EmailOutboxMessage;
+import com.parchelector.model.entity.EmailOutboxMessage.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for EmailOutboxMessage entity (queued emails).
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // Pending messages that are due, plus SENDING ones whose dispatcher lease ran out
+    @Query("SELECT m.id FROM EmailOutboxMessage m " +
+           "WHERE m.status IN ('PENDING', 'SENDING') AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<Long> findDueIds(LocalDateTime now, Pageable pageable);
+
+    // Claim a due message for one dispatcher; returns 0 if another one got it first
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'SENDING', m.nextAttemptAt = :leaseUntil " +
+           "WHERE m.id = :id AND m.status IN ('PENDING', 'SENDING') AND m.nextAttemptAt <= :now")
+    int claim(Long id, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.body = NULL, " +
+           "m.attempts = m.attempts + 1, m.lastError = NULL WHERE m.id = :id")
+    int markSent(Long id, LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int markFailed(Long id, Status status, LocalDateTime nextAttemptAt, String error);
+
+    // Give up on a message; its body goes like a sent one's, and nextAttemptAt records when
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = 'DEAD', m.body = NULL, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :deadAt, m.lastError = :error WHERE m.id = :id")
+    int markDead(Long id, LocalDateTime deadAt, String error);
+
+    long countByStatus(Status status);
+
+    // Sent messages, and dead ones by when they were given up on
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE (m.status = 'SENT' AND m.sentAt < :before) " +
+           "OR (m.status = 'DEAD' AND m.nextAttemptAt < :before)")
+    int deleteFinishedBefore(LocalDateTime before);
+}
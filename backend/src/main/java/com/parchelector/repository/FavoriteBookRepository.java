@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -21,4 +22,8 @@ public interface FavoriteBookRepository extends JpaRepository<FavoriteBook, Favo
     boolean existsByUserIdAndBookId(Long userId, Long bookId);
     
     void deleteByUserIdAndBookId(Long userId, Long bookId);
+
+    // Trending events: [userId, bookId, createdAt] of favorites added since the given instant
+    @Query("SELECT fb.user.id, fb.book.id, fb.createdAt FROM FavoriteBook fb WHERE fb.createdAt >= :since")
+    List<Object[]> findTrendingEventsSince(LocalDateTime since);
 }
@@ -0,0 +1,77 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.FeedEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for FeedEntry entity (materialized social timelines).
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, Long> {
+
+    @Query("SELECT e FROM FeedEntry e WHERE e.ownerUserId = :userId " +
+           "ORDER BY e.createdAt DESC, e.itemType DESC, e.itemId DESC")
+    List<FeedEntry> findTimeline(Long userId, Pageable pageable);
+
+    // Keyset page: entries strictly after the cursor in timeline order. The redundant
+    // createdAt bound lets the index range scan start at the cursor instead of the head.
+    @Query("SELECT e FROM FeedEntry e WHERE e.ownerUserId = :userId " +
+           "AND e.createdAt <= :createdAt " +
+           "AND (e.createdAt < :createdAt " +
+           "  OR (e.createdAt = :createdAt AND (e.itemType < :itemType " +
+           "      OR (e.itemType = :itemType AND e.itemId < :itemId)))) " +
+           "ORDER BY e.createdAt DESC, e.itemType DESC, e.itemId DESC")
+    List<FeedEntry> findTimelineAfter(Long userId, LocalDateTime createdAt, String itemType, Long itemId, Pageable pageable);
+
+    // Fan-out on write: one entry per follower of the actor, in a single statement
+    @Modifying
+    @Query("INSERT INTO FeedEntry (ownerUserId, actorUserId, itemType, itemId, createdAt) " +
+           "SELECT f.followerId, f.followedId, :itemType, :itemId, :createdAt " +
+           "FROM Follow f WHERE f.followedId = :actorUserId")
+    int fanOut(Long actorUserId, String itemType, Long itemId, LocalDateTime createdAt);
+
+    @Modifying
+    @Query("INSERT INTO FeedEntry (ownerUserId, actorUserId, itemType, itemId, createdAt) " +
+           "SELECT :ownerUserId, r.user.id, 'REVIEW', r.id, r.createdAt " +
+           "FROM Review r WHERE r.user.id = :actorUserId AND r.isDeleted = false")
+    int copyReviewsOf(Long ownerUserId, Long actorUserId);
+
+    @Modifying
+    @Query("INSERT INTO FeedEntry (ownerUserId, actorUserId, itemType, itemId, createdAt) " +
+           "SELECT :ownerUserId, l.user.id, 'LIST', l.id, l.createdAt " +
+           "FROM LibraryList l WHERE l.user.id = :actorUserId AND l.visibility <> 'PRIVATE'")
+    int copyListsOf(Long ownerUserId, Long actorUserId);
+
+    @Modifying
+    @Query("INSERT INTO FeedEntry (ownerUserId, actorUserId, itemType, itemId, createdAt) " +
+           "SELECT f.followerId, r.user.id, 'REVIEW', r.id, r.createdAt " +
+           "FROM Review r, Follow f WHERE f.followedId = r.user.id AND r.isDeleted = false")
+    int rebuildReviewEntries();
+
+    @Modifying
+    @Query("INSERT INTO FeedEntry (ownerUserId, actorUserId, itemType, itemId, createdAt) " +
+           "SELECT f.followerId, l.user.id, 'LIST', l.id, l.createdAt " +
+           "FROM LibraryList l, Follow f WHERE f.followedId = l.user.id AND l.visibility <> 'PRIVATE'")
+    int rebuildListEntries();
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.ownerUserId = :ownerUserId AND e.actorUserId = :actorUserId")
+    int deleteByOwnerAndActor(Long ownerUserId, Long actorUserId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.itemType = :itemType AND e.itemId = :itemId")
+    int deleteByItem(String itemType, Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry e")
+    int deleteAllEntries();
+}
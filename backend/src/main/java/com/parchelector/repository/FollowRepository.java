@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +32,8 @@ public interface FollowRepository extends JpaRepository<Follow, FollowId> {
 
     @Query("SELECT f.followedId FROM Follow f WHERE f.followerId = :userId")
     List<Long> findFollowedUserIds(Long userId);
+
+    // Those of the given users that follow the user
+    @Query("SELECT f.followerId FROM Follow f WHERE f.followedId = :userId AND f.followerId IN :followerIds")
+    List<Long> findFollowerIdsIn(Long userId, Collection<Long> followerIds);
 }
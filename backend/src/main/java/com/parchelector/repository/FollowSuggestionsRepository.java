@@ -0,0 +1,61 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.FollowSuggestions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for FollowSuggestions entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface FollowSuggestionsRepository extends JpaRepository<FollowSuggestions, Long> {
+
+    // Those of the given users that the user already follows
+    @Query("SELECT f.followedId FROM Follow f WHERE f.followerId = :userId AND f.followedId IN :userIds")
+    List<Long> findFollowedUserIdsIn(Long userId, Collection<Long> userIds);
+
+    // The queries below are only used to compute suggestions
+
+    // Rows of [followerId, followedId]
+    @Query("SELECT f.followerId, f.followedId FROM Follow f")
+    Stream<Object[]> streamFollows();
+
+    // Rows of [userId, bookId]
+    @Query("SELECT fb.user.id, fb.book.id FROM FavoriteBook fb")
+    Stream<Object[]> streamFavorites();
+
+    // Rows of [userId, genreId]: genres the user picked and genres of their favorite books
+    @Query(value = "SELECT user_id, genre_id FROM user_genres " +
+                   "UNION SELECT fb.user_id, bg.genre_id FROM favorite_books fb " +
+                   "JOIN book_genres bg ON bg.book_id = fb.book_id",
+           nativeQuery = true)
+    Stream<Object[]> streamGenres();
+
+    // Rows of [followerId, followedId] of the given followers
+    @Query("SELECT f.followerId, f.followedId FROM Follow f WHERE f.followerId IN :followerIds")
+    List<Object[]> findFollowsOf(Collection<Long> followerIds);
+
+    // Followers of the given users, skipping users with more than maxFollowers followers
+    @Query("SELECT f.followerId FROM Follow f WHERE f.followedId IN :userIds AND f.followedId IN " +
+           "(SELECT g.followedId FROM Follow g WHERE g.followedId IN :userIds " +
+           "GROUP BY g.followedId HAVING COUNT(g) <= :maxFollowers)")
+    List<Long> findFollowerIdsOf(Collection<Long> userIds, long maxFollowers);
+
+    // Rows of [userId, bookId] of the given users
+    @Query("SELECT fb.user.id, fb.book.id FROM FavoriteBook fb WHERE fb.user.id IN :userIds")
+    List<Object[]> findFavoritesOf(Collection<Long> userIds);
+
+    // Rows of [userId, genreId] of the given users, as in streamGenres
+    @Query(value = "SELECT user_id, genre_id FROM user_genres WHERE user_id IN (:userIds) " +
+                   "UNION SELECT fb.user_id, bg.genre_id FROM favorite_books fb " +
+                   "JOIN book_genres bg ON bg.book_id = fb.book_id WHERE fb.user_id IN (:userIds)",
+           nativeQuery = true)
+    List<Object[]> findGenresOf(Collection<Long> userIds);
+}
@@ -1,11 +1,16 @@
 package com.parchelector.repository;
 
 import com.parchelector.model.entity.LibraryList;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repository interface for LibraryList entity.
@@ -16,13 +21,47 @@ import java.util.List;
 public interface LibraryListRepository extends JpaRepository<LibraryList, Long> {
     
     List<LibraryList> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // One page of a user's lists, newest first
+    @Query("SELECT l FROM LibraryList l WHERE l.user.id = :userId ORDER BY l.createdAt DESC, l.id DESC")
+    List<LibraryList> findPageByUserId(Long userId, Pageable pageable);
     
     @Query("SELECT COUNT(lb) FROM ListBook lb WHERE lb.list.id = :listId")
     int countBooksByListId(Long listId);
 
+    @Query("SELECT lb.list.id, COUNT(lb) FROM ListBook lb WHERE lb.list.id IN :listIds GROUP BY lb.list.id")
+    List<Object[]> countBooksByListIdIn(Collection<Long> listIds);
+
+    /**
+     * Book counts for a batch of lists in a single grouped query (empty lists are absent).
+     */
+    default Map<Long, Integer> bookCountsForLists(Collection<Long> listIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        if (listIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : countBooksByListIdIn(listIds)) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+
     @Query("SELECT l FROM LibraryList l WHERE l.user.id IN :userIds ORDER BY l.createdAt DESC")
     List<LibraryList> findByUserIdsOrderByCreatedAtDesc(List<Long> userIds);
 
     @Query("SELECT l FROM LibraryList l WHERE l.user.id = :userId AND (l.visibility = 'PUBLIC' OR (l.visibility = 'FOLLOWERS_ONLY' AND :isFollower = true)) ORDER BY l.createdAt DESC")
     List<LibraryList> findPublicListsByUserId(Long userId, boolean isFollower);
+
+    @Query("SELECT l FROM LibraryList l JOIN FETCH l.user WHERE l.id IN :ids")
+    List<LibraryList> findAllWithUserByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE LibraryList l SET l.likeCount = l.likeCount + :delta WHERE l.id = :listId")
+    int adjustLikeCount(Long listId, int delta);
+
+    // Reconciliation: rewrite only the counters that drifted from list_likes
+    @Modifying
+    @Query("UPDATE LibraryList l SET l.likeCount = (SELECT COUNT(ll) FROM ListLike ll WHERE ll.list.id = l.id) " +
+           "WHERE l.likeCount <> (SELECT COUNT(ll) FROM ListLike ll WHERE ll.list.id = l.id)")
+    int repairLikeCounts();
 }
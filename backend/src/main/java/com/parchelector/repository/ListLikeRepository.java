@@ -15,4 +15,8 @@ public interface ListLikeRepository extends JpaRepository<ListLike, ListLike.Lis
     
     @Query("SELECT COUNT(ll) FROM ListLike ll WHERE ll.list.id = :listId")
     int countByListId(Long listId);
+
+    boolean existsByListIdAndUserId(Long listId, Long userId);
+
+    long deleteByListIdAndUserId(Long listId, Long userId);
 }
@@ -0,0 +1,50 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for Notification entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.id DESC")
+    List<Notification> findLatest(Long userId, Pageable pageable);
+
+    // Keyset page: notifications older than the last one the client has seen
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.id < :beforeId ORDER BY n.id DESC")
+    List<Notification> findBefore(Long userId, Long beforeId, Pageable pageable);
+
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.isRead = false")
+    long countUnread(Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.userId = :userId AND n.isRead = false")
+    int markRead(Long id, Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
+    int markAllRead(Long userId);
+
+    // Rows of [userId, dedupeKey] of the given users' unread notifications with the given keys
+    @Query("SELECT n.userId, n.dedupeKey FROM Notification n " +
+           "WHERE n.isRead = false AND n.userId IN :userIds AND n.dedupeKey IN :dedupeKeys")
+    List<Object[]> findUnreadDedupeKeys(Collection<Long> userIds, Collection<String> dedupeKeys);
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.isRead = true AND n.createdAt < :before")
+    int deleteReadBefore(LocalDateTime before);
+}
@@ -2,6 +2,8 @@ package com.parchelector.repository;
 
 import com.parchelector.model.entity.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -15,9 +17,11 @@ import java.util.Optional;
 @Repository
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     
-    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
-    
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    Optional<PasswordResetToken> findBySelector(String selector);
     
     void deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt < :now OR t.usedAt IS NOT NULL")
+    int deleteExpiredOrUsed(LocalDateTime now);
 }
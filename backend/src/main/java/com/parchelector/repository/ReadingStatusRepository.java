@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,16 +26,20 @@ public interface ReadingStatusRepository extends JpaRepository<ReadingStatus, Lo
 
     @Query("SELECT rs FROM ReadingStatus rs WHERE rs.user.id = :userId AND rs.book.id = :bookId")
     Optional<ReadingStatus> findByUserIdAndBookId(Long userId, Long bookId);
+
+    @Query("SELECT rs FROM ReadingStatus rs JOIN FETCH rs.book WHERE rs.user.id = :userId AND rs.book.id = :bookId")
+    Optional<ReadingStatus> findWithBookByUserIdAndBookId(Long userId, Long bookId);
+
+    @Query("SELECT rs FROM ReadingStatus rs JOIN FETCH rs.book WHERE rs.user.id = :userId AND rs.status = :status " +
+           "ORDER BY rs.updatedAt DESC")
+    List<ReadingStatus> findWithBookByUserIdAndStatus(Long userId, ReadingStatus.ReadingStatusEnum status);
     
     @Query("SELECT COUNT(rs) FROM ReadingStatus rs WHERE rs.user.id = :userId AND rs.status = :status")
     int countByUserIdAndStatus(Long userId, ReadingStatus.ReadingStatusEnum status);
 
-    @Query("SELECT SUM(b.pageCount) FROM ReadingStatus rs JOIN rs.book b WHERE rs.user.id = :userId AND rs.status = 'READ' AND b.pageCount IS NOT NULL")
-    Long sumPagesReadByUserId(Long userId);
-
-    @Query("SELECT COUNT(rs) FROM ReadingStatus rs WHERE rs.user.id = :userId AND rs.status = 'READ' AND EXTRACT(YEAR FROM rs.finishedAt) = EXTRACT(YEAR FROM CURRENT_DATE) AND EXTRACT(MONTH FROM rs.finishedAt) = EXTRACT(MONTH FROM CURRENT_DATE)")
-    int countBooksReadThisMonth(Long userId);
-
-    @Query("SELECT COUNT(rs) FROM ReadingStatus rs WHERE rs.user.id = :userId AND rs.status = 'READ' AND EXTRACT(YEAR FROM rs.finishedAt) = EXTRACT(YEAR FROM CURRENT_DATE)")
-    int countBooksReadThisYear(Long userId);
+    // Trending events: [id, bookId, status, statusChangedAt] of statuses set since the given instant;
+    // rows written before status_changed_at existed fall back to updated_at
+    @Query("SELECT rs.id, rs.book.id, rs.status, COALESCE(rs.statusChangedAt, rs.updatedAt) FROM ReadingStatus rs " +
+           "WHERE COALESCE(rs.statusChangedAt, rs.updatedAt) >= :since")
+    List<Object[]> findTrendingEventsSince(LocalDateTime since);
 }
@@ -14,5 +14,5 @@ public interface ReviewLikeRepository extends JpaRepository<ReviewLike, ReviewLi
 
     boolean existsByReviewIdAndUserId(Long reviewId, Long userId);
 
-    void deleteByReviewIdAndUserId(Long reviewId, Long userId);
+    long deleteByReviewIdAndUserId(Long reviewId, Long userId);
 }
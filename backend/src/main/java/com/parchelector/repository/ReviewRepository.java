@@ -1,10 +1,14 @@
 package com.parchelector.repository;
 
 import com.parchelector.model.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,11 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     @Query("SELECT r FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false ORDER BY r.createdAt DESC")
     List<Review> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    // One page of a user's reviews, newest first, with the book for the activity view
+    @Query("SELECT r FROM Review r JOIN FETCH r.book WHERE r.user.id = :userId AND r.isDeleted = false " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findPageByUserId(Long userId, Pageable pageable);
     
     @Query("SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false")
     int countByUserId(Long userId);
@@ -31,15 +40,6 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false")
     Double getAverageRatingByUserId(Long userId);
 
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false AND r.rating >= :minRating AND r.rating < :maxRating")
-    int countByUserIdAndRatingRange(Long userId, Double minRating, Double maxRating);
-
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false AND EXTRACT(YEAR FROM r.createdAt) = EXTRACT(YEAR FROM CURRENT_DATE) AND EXTRACT(MONTH FROM r.createdAt) = EXTRACT(MONTH FROM CURRENT_DATE)")
-    int countReviewsThisMonth(Long userId);
-
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.user.id = :userId AND r.isDeleted = false AND EXTRACT(YEAR FROM r.createdAt) = EXTRACT(YEAR FROM CURRENT_DATE)")
-    int countReviewsThisYear(Long userId);
-    
     @Query("SELECT COUNT(rl) FROM ReviewLike rl WHERE rl.review.id = :reviewId")
     int countLikesByReviewId(Long reviewId);
     
@@ -54,4 +54,38 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.book WHERE r.user.id IN :userIds AND r.isDeleted = false ORDER BY r.createdAt DESC")
     List<Review> findByUserIdsOrderByCreatedAtDesc(List<Long> userIds);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.user JOIN FETCH r.book WHERE r.id IN :ids AND r.isDeleted = false")
+    List<Review> findAllWithUserAndBookByIdIn(Collection<Long> ids);
+
+    // Soft delete that only succeeds once, so concurrent deletes cannot both retract the rating
+    @Modifying
+    @Query("UPDATE Review r SET r.isDeleted = true, r.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE r.id = :reviewId AND r.isDeleted = false")
+    int markDeleted(Long reviewId);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.likeCount = r.likeCount + :delta WHERE r.id = :reviewId")
+    int adjustLikeCount(Long reviewId, int delta);
+
+    @Modifying
+    @Query("UPDATE Review r SET r.commentCount = r.commentCount + :delta WHERE r.id = :reviewId")
+    int adjustCommentCount(Long reviewId, int delta);
+
+    // Reconciliation: rewrite only the counters that drifted from the source rows
+    @Modifying
+    @Query("UPDATE Review r SET r.likeCount = (SELECT COUNT(rl) FROM ReviewLike rl WHERE rl.review.id = r.id) " +
+           "WHERE r.likeCount <> (SELECT COUNT(rl) FROM ReviewLike rl WHERE rl.review.id = r.id)")
+    int repairLikeCounts();
+
+    @Modifying
+    @Query("UPDATE Review r SET r.commentCount = " +
+           "(SELECT COUNT(rc) FROM ReviewComment rc WHERE rc.review.id = r.id AND rc.isDeleted = false) " +
+           "WHERE r.commentCount <> " +
+           "(SELECT COUNT(rc) FROM ReviewComment rc WHERE rc.review.id = r.id AND rc.isDeleted = false)")
+    int repairCommentCounts();
+
+    // Trending events: [reviewId, bookId, createdAt] of live reviews written since the given instant
+    @Query("SELECT r.id, r.book.id, r.createdAt FROM Review r WHERE r.isDeleted = false AND r.createdAt >= :since")
+    List<Object[]> findTrendingEventsSince(LocalDateTime since);
 }
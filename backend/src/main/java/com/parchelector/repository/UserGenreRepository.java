@@ -0,0 +1,31 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.UserGenre;
+import com.parchelector.model.entity.UserGenreId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for UserGenre entity.
+ * 
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface UserGenreRepository extends JpaRepository<UserGenre, UserGenreId> {
+
+    @Query("SELECT ug.genreId FROM UserGenre ug WHERE ug.userId = :userId")
+    List<Long> findGenreIdsByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserGenre ug WHERE ug.userId = :userId AND ug.genreId IN :genreIds")
+    int deleteByUserIdAndGenreIdIn(Long userId, Collection<Long> genreIds);
+
+    // Which of the given genre IDs exist, to reject unknown ones before writing
+    @Query("SELECT g.id FROM Genre g WHERE g.id IN :genreIds")
+    List<Long> findExistingGenreIds(Collection<Long> genreIds);
+}
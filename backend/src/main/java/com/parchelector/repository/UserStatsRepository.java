@@ -0,0 +1,95 @@
+package com.parchelector.repository;
+
+import com.parchelector.model.entity.UserStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for UserStats entity.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Row lock so concurrent writes of the same user apply their deltas one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStats s WHERE s.userId = :userId")
+    Optional<UserStats> findByUserIdForUpdate(Long userId);
+
+    // Creates the empty row if missing, so the first writes of a user can lock it instead of racing to insert.
+    // The genre affinity stays null until the row is locked and seeded from user_genres.
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, books_read, books_reading, books_to_read, pages_read, " +
+                   "review_count, rating_sum, rating_histogram, list_count, genre_counts, genre_affinity, " +
+                   "books_read_by_month, reviews_by_month, reading_days, current_streak, longest_streak, " +
+                   "daily_pages, updated_at) " +
+                   "VALUES (:userId, 0, 0, 0, 0, 0, 0, :ratingHistogram, 0, JSON '{}', NULL, JSON '{}', JSON '{}', " +
+                   "0, 0, 0, :dailyPages, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(Long userId, int[] ratingHistogram, int[] dailyPages);
+
+    // The queries below are only used to rebuild the table
+
+    // Rows of [userId, status, count, pages]
+    @Query("SELECT rs.user.id, rs.status, COUNT(rs), SUM(b.pageCount) FROM ReadingStatus rs JOIN rs.book b " +
+           "GROUP BY rs.user.id, rs.status")
+    List<Object[]> aggregateReadingStatuses();
+
+    // Rows of [userId, year, month, count] of read books by finish date
+    @Query("SELECT rs.user.id, EXTRACT(YEAR FROM rs.finishedAt), EXTRACT(MONTH FROM rs.finishedAt), COUNT(rs) " +
+           "FROM ReadingStatus rs WHERE rs.status = 'READ' AND rs.finishedAt IS NOT NULL " +
+           "GROUP BY rs.user.id, EXTRACT(YEAR FROM rs.finishedAt), EXTRACT(MONTH FROM rs.finishedAt)")
+    List<Object[]> aggregateBooksReadByMonth();
+
+    // Rows of [userId, genre name, count] of read books
+    @Query("SELECT rs.user.id, g.name, COUNT(rs) FROM ReadingStatus rs JOIN rs.book b JOIN b.genres g " +
+           "WHERE rs.status = 'READ' GROUP BY rs.user.id, g.name")
+    List<Object[]> aggregateBooksReadByGenre();
+
+    // Rows of [userId, genreId, count] of read books
+    @Query("SELECT rs.user.id, g.id, COUNT(rs) FROM ReadingStatus rs JOIN rs.book b JOIN b.genres g " +
+           "WHERE rs.status = 'READ' GROUP BY rs.user.id, g.id")
+    List<Object[]> aggregateBooksReadByGenreId();
+
+    // Rows of [userId, genreId, rating sum, count] over live reviews
+    @Query("SELECT r.user.id, g.id, SUM(r.rating), COUNT(r) FROM Review r JOIN r.book b JOIN b.genres g " +
+           "WHERE r.isDeleted = false GROUP BY r.user.id, g.id")
+    List<Object[]> aggregateReviewRatingsByGenreId();
+
+    // Rows of [userId, genreId]
+    @Query("SELECT ug.userId, ug.genreId FROM UserGenre ug")
+    List<Object[]> findPreferredGenres();
+
+    // Rows of [userId, rating, count] over live reviews
+    @Query("SELECT r.user.id, r.rating, COUNT(r) FROM Review r WHERE r.isDeleted = false GROUP BY r.user.id, r.rating")
+    List<Object[]> aggregateReviewRatings();
+
+    // Rows of [userId, year, month, count] over live reviews
+    @Query("SELECT r.user.id, EXTRACT(YEAR FROM r.createdAt), EXTRACT(MONTH FROM r.createdAt), COUNT(r) " +
+           "FROM Review r WHERE r.isDeleted = false " +
+           "GROUP BY r.user.id, EXTRACT(YEAR FROM r.createdAt), EXTRACT(MONTH FROM r.createdAt)")
+    List<Object[]> aggregateReviewsByMonth();
+
+    // Rows of [userId, count]
+    @Query("SELECT l.user.id, COUNT(l) FROM LibraryList l GROUP BY l.user.id")
+    List<Object[]> aggregateLists();
+
+    // Rows of [userId, bookId, eventType, value, createdAt, pageCount] in the order they happened, per user
+    @Query("SELECT e.userId, e.bookId, e.eventType, e.value, e.createdAt, b.pageCount " +
+           "FROM ReadingEvent e, Book b WHERE b.id = e.bookId ORDER BY e.userId, e.createdAt, e.id")
+    Stream<Object[]> streamReadingEvents();
+
+    // Clears the persistence context so the rebuilt rows are inserted, not merged into stale ones
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserStats s")
+    int deleteAllStats();
+}
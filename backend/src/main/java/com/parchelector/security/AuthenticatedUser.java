@@ -0,0 +1,41 @@
+package com.parchelector.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Principal of a request authenticated with a JWT. Carries the user ID so controllers
+ * do not need to look the user up again; {@link #getName()} is the username, so
+ * {@code Authentication.getName()} keeps working.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class AuthenticatedUser implements Principal, Serializable {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
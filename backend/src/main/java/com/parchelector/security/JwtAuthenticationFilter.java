@@ -1,5 +1,6 @@
 package com.parchelector.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,17 +8,18 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 /**
  * JWT authentication filter to validate tokens on each request.
+ * The token is parsed once and the principal comes from {@link PrincipalCache},
+ * so authenticated requests normally do not touch the database.
  * 
  * @author Nicolas Arciniegas
  */
@@ -28,7 +30,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private PrincipalCache principalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -41,24 +43,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             logger.debug("JWT Token present: " + (jwt != null));
 
             if (StringUtils.hasText(jwt)) {
-                boolean isValid = tokenProvider.validateToken(jwt);
-                logger.debug("JWT Token valid: " + isValid);
+                Claims claims = tokenProvider.parseClaims(jwt);
+                logger.debug("JWT Token valid: " + (claims != null));
                 
-                if (isValid) {
-                    String username = tokenProvider.getUsernameFromToken(jwt);
-                    logger.debug("Username from token: " + username);
+                if (claims != null) {
+                    Optional<AuthenticatedUser> principal = resolvePrincipal(claims);
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    if (principal.isPresent()) {
+                        AuthenticatedUser user = principal.get();
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(
+                                        user,
+                                        null,
+                                        user.getAuthorities()
+                                );
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    logger.debug("Authentication set successfully for user: " + username);
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                        logger.debug("Authentication set successfully for user: " + user.getUsername());
+                    }
                 }
             }
         } catch (Exception ex) {
@@ -68,6 +71,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Principal for the token's user ID; tokens issued before the ID claim existed
+     * are resolved by username.
+     */
+    private Optional<AuthenticatedUser> resolvePrincipal(Claims claims) {
+        Number userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class);
+        if (userId != null) {
+            return principalCache.get(userId.longValue());
+        }
+        return principalCache.getByUsername(claims.getSubject());
+    }
+
     /**
      * Extract JWT token from Authorization header.
      */
@@ -1,5 +1,6 @@
 package com.parchelector.security;
 
+import com.parchelector.model.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -13,17 +14,27 @@ import java.util.Date;
 
 /**
  * Utility class for generating and validating JWT tokens.
+ * The signing key and the (immutable, thread-safe) parser are built once at startup.
  * 
  * @author Nicolas Arciniegas
  */
 @Component
 public class JwtTokenProvider {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    public static final String USER_ID_CLAIM = "uid";
 
-    @Value("${app.jwt.expiration-ms}")
-    private long jwtExpirationMs;
+    private final SecretKey signingKey;
+
+    private final JwtParser parser;
+
+    private final long jwtExpirationMs;
+
+    public JwtTokenProvider(@Value("${app.jwt.secret}") String jwtSecret,
+                            @Value("${app.jwt.expiration-ms}") long jwtExpirationMs) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
 
     /**
      * Generate JWT token from authentication.
@@ -37,7 +48,25 @@ public class JwtTokenProvider {
                 .subject(userDetails.getUsername())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
+                .compact();
+    }
+
+    /**
+     * Generate JWT token for a user, carrying the user ID so requests can be authenticated
+     * without looking the user up by username. The role is not a claim: it is read with the
+     * user, so a change applies without waiting for tokens to expire.
+     */
+    public String generateToken(User user) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -52,7 +81,7 @@ public class JwtTokenProvider {
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -60,10 +89,7 @@ public class JwtTokenProvider {
      * Get username from JWT token.
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return parser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
@@ -72,12 +98,17 @@ public class JwtTokenProvider {
      * Validate JWT token.
      */
     public boolean validateToken(String token) {
+        return parseClaims(token) != null;
+    }
+
+    /**
+     * Validate a token and return its claims in a single parse.
+     *
+     * @return the claims, or null if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (io.jsonwebtoken.security.SignatureException ex) {
             System.err.println("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -89,14 +120,6 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             System.err.println("JWT claims string is empty");
         }
-        return false;
-    }
-
-    /**
-     * Get signing key from secret.
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return null;
     }
 }
@@ -0,0 +1,105 @@
+package com.parchelector.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, time-evicted cache of authenticated principals keyed by user ID, so the JWT
+ * filter does not read the users table on every request. Missing and inactive users are
+ * cached too, for a shorter TTL, so tokens of deleted users do not reach the database on
+ * every request either.
+ * <p>
+ * Entries are dropped when the user's profile changes. The application never deactivates
+ * users or changes roles; when that is done in the database, the TTL bounds how long the
+ * old principal is still served.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+
+    // Empty for a user that does not exist or is inactive
+    private final Cache<Long, Optional<AuthenticatedUser>> cache;
+
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expireAfterWrite(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(negativeTtlSeconds)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+    }
+
+    /**
+     * Principal of an active user, from the cache or loaded once from the database.
+     *
+     * @return the principal, or empty if the user does not exist or is inactive
+     */
+    public Optional<AuthenticatedUser> get(Long userId) {
+        return cache.get(userId, id -> userRepository.findById(id)
+                .filter(User::getActive)
+                .map(PrincipalCache::toPrincipal));
+    }
+
+    /**
+     * Principal of a token issued before tokens carried the user ID. Loads by username
+     * and caches the result under the user's ID.
+     */
+    public Optional<AuthenticatedUser> getByUsername(String username) {
+        Optional<AuthenticatedUser> principal = userRepository.findByUsername(username)
+                .filter(User::getActive)
+                .map(PrincipalCache::toPrincipal);
+        principal.ifPresent(p -> cache.put(p.getId(), principal));
+        return principal;
+    }
+
+    /**
+     * Drop the cached principal of a user whose profile or status changed.
+     */
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    // Like expireAfterWrite, with its own duration for empty entries
+    private static Expiry<Long, Optional<AuthenticatedUser>> expireAfterWrite(Duration ttl, Duration negativeTtl) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long userId, Optional<AuthenticatedUser> principal, long currentTime) {
+                return (principal.isPresent() ? ttl : negativeTtl).toNanos();
+            }
+
+            @Override
+            public long expireAfterUpdate(Long userId, Optional<AuthenticatedUser> principal,
+                                          long currentTime, long currentDuration) {
+                return expireAfterCreate(userId, principal, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Long userId, Optional<AuthenticatedUser> principal,
+                                        long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static AuthenticatedUser toPrincipal(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+    }
+}
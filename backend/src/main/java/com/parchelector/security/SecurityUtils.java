@@ -0,0 +1,40 @@
+package com.parchelector.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Access to the user of the current request, read from the security context
+ * without touching the database.
+ *
+ * @author Nicolas Arciniegas
+ */
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+    }
+
+    /**
+     * ID of the authenticated user.
+     *
+     * @throws IllegalArgumentException if the request is not authenticated with a JWT
+     */
+    public static Long getCurrentUserId() {
+        Long userId = getCurrentUserIdOrNull();
+        if (userId == null) {
+            throw new IllegalArgumentException("User not found");
+        }
+        return userId;
+    }
+
+    /**
+     * ID of the authenticated user, or null for anonymous requests.
+     */
+    public static Long getCurrentUserIdOrNull() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.parchelector.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Keyed hash (HMAC-SHA256) for single-use tokens sent by email. Tokens are long random
+ * values, so a fast hash is enough; a server-side key means a leaked table alone cannot
+ * be used to check candidate tokens.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Component
+public class TokenHasher {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public TokenHasher(@Value("${app.security.token-hmac-key:${app.jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String hash(String value) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * Constant-time check of a value against a stored hash.
+     */
+    public boolean matches(String value, String expectedHash) {
+        if (value == null || expectedHash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                hash(value).getBytes(StandardCharsets.UTF_8),
+                expectedHash.getBytes(StandardCharsets.UTF_8));
+    }
+}
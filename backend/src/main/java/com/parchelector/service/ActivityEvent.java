@@ -0,0 +1,63 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.ActivityLog;
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Application event published by write paths when a user does something worth recording
+ * in the activity log. Published inside the originating transaction; ActivityLogWriter
+ * only picks it up once that transaction has committed.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class ActivityEvent {
+
+    private final Long userId;
+    private final String type;
+    private final Long bookId;
+    private final Long reviewId;
+    private final Long listId;
+    private final Long targetUserId;
+    private final LocalDateTime occurredAt;
+
+    public static ActivityEvent reviewCreated(Long userId, Long bookId, Long reviewId, LocalDateTime createdAt) {
+        return new ActivityEvent(userId, ActivityLog.TYPE_REVIEW_CREATED, bookId, reviewId, null, null, orNow(createdAt));
+    }
+
+    public static ActivityEvent listCreated(Long userId, Long listId, LocalDateTime createdAt) {
+        return new ActivityEvent(userId, ActivityLog.TYPE_LIST_CREATED, null, null, listId, null, orNow(createdAt));
+    }
+
+    public static ActivityEvent userFollowed(Long userId, Long followedId) {
+        return new ActivityEvent(userId, ActivityLog.TYPE_USER_FOLLOWED, null, null, null, followedId, LocalDateTime.now());
+    }
+
+    public static ActivityEvent readingStatusChanged(Long userId, Long bookId, ReadingStatusEnum status) {
+        String type;
+        switch (status) {
+            case READING:
+                type = ActivityLog.TYPE_STARTED_READING;
+                break;
+            case READ:
+                type = ActivityLog.TYPE_FINISHED_READING;
+                break;
+            default:
+                type = ActivityLog.TYPE_WANT_TO_READ;
+        }
+        return new ActivityEvent(userId, type, bookId, null, null, null, LocalDateTime.now());
+    }
+
+    public static ActivityEvent bookFavorited(Long userId, Long bookId) {
+        return new ActivityEvent(userId, ActivityLog.TYPE_BOOK_FAVORITED, bookId, null, null, null, LocalDateTime.now());
+    }
+
+    private static LocalDateTime orNow(LocalDateTime time) {
+        return time != null ? time : LocalDateTime.now();
+    }
+}
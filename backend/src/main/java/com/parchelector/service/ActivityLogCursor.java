@@ -0,0 +1,56 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.ActivityLog;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the activity log: the (createdAt, id) position of the last
+ * row a client has seen, encoded as URL-safe Base64 like {@link FeedCursor}.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class ActivityLogCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    /**
+     * Cursor pointing right after the given row.
+     */
+    public static ActivityLogCursor after(ActivityLog entry) {
+        return new ActivityLogCursor(entry.getCreatedAt(), entry.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor received from a client.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static ActivityLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid activity cursor");
+            }
+            return new ActivityLogCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid activity cursor");
+        }
+    }
+}
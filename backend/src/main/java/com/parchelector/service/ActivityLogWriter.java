@@ -0,0 +1,86 @@
+package com.parchelector.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batched asynchronous writer of the activity log: committed activity events are inserted
+ * in JDBC batches. The log is a history view, not a source of truth, so events lost with a
+ * killed process are acceptable.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class ActivityLogWriter extends BatchedEventWriter<ActivityEvent> {
+
+    // Events are written after their transaction committed, so a subject may be gone by then:
+    // it is looked up by primary key and stored as null, like the FKs' ON DELETE SET NULL would,
+    // and events of deleted users are dropped, like ON DELETE CASCADE
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_log (user_id, type, subject_book_id, subject_review_id, subject_list_id, " +
+            "subject_user_id, created_at) " +
+            "SELECT u.id, ?, (SELECT b.id FROM books b WHERE b.id = ?), (SELECT r.id FROM reviews r WHERE r.id = ?), " +
+            "(SELECT l.id FROM library_lists l WHERE l.id = ?), (SELECT t.id FROM users t WHERE t.id = ?), ? " +
+            "FROM users u WHERE u.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.activity-log.queue-capacity:10000}") int queueCapacity,
+                             @Value("${app.activity-log.batch-size:500}") int batchSize) {
+        super(meterRegistry, "parche.activity_log", "activity events", queueCapacity, batchSize);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queue an event once its transaction has committed (immediately if there is none).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        enqueue(event);
+    }
+
+    /**
+     * Write queued events, every half second by default.
+     */
+    @Scheduled(initialDelayString = "${app.activity-log.flush-interval-ms:500}",
+               fixedDelayString = "${app.activity-log.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        flushOrLog();
+    }
+
+    @Override
+    protected int write(List<ActivityEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+            statement.setString(1, event.getType());
+            setNullableLong(statement, 2, event.getBookId());
+            setNullableLong(statement, 3, event.getReviewId());
+            setNullableLong(statement, 4, event.getListId());
+            setNullableLong(statement, 5, event.getTargetUserId());
+            statement.setTimestamp(6, Timestamp.valueOf(event.getOccurredAt()));
+            statement.setLong(7, event.getUserId());
+        });
+        return batch.size();
+    }
+
+    private static void setNullableLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value != null) {
+            statement.setLong(index, value);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+}
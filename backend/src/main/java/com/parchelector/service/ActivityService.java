@@ -1,19 +1,32 @@
 package com.parchelector.service;
 
+import com.parchelector.dto.response.ActivityLogResponse;
+import com.parchelector.dto.response.ActivityLogResponse.ActivityLogItem;
+import com.parchelector.dto.response.ActivityPageResponse;
 import com.parchelector.dto.response.UserActivityResponse;
 import com.parchelector.dto.response.UserActivityResponse.ActivityStats;
 import com.parchelector.dto.response.UserActivityResponse.ReadListActivity;
 import com.parchelector.dto.response.UserActivityResponse.ReviewActivity;
+import com.parchelector.model.entity.ActivityLog;
+import com.parchelector.model.entity.Book;
 import com.parchelector.model.entity.LibraryList;
-import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
 import com.parchelector.model.entity.Review;
+import com.parchelector.model.entity.User;
+import com.parchelector.model.entity.UserStats;
 import com.parchelector.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -31,64 +44,171 @@ public class ActivityService {
     private LibraryListRepository libraryListRepository;
 
     @Autowired
-    private ReadingStatusRepository readingStatusRepository;
+    private UserStatsService userStatsService;
 
     @Autowired
-    private ListLikeRepository listLikeRepository;
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    public static final int MAX_LIMIT = 50;
+
     /**
-     * Get user activity including reviews, read lists, and stats.
+     * Get user activity including recent reviews, recent read lists, and stats.
+     * Reads at most reviewLimit reviews and listLimit lists, whatever the user's history;
+     * older items are paged with {@link #getUserReviews} and {@link #getUserLists}.
      */
     @Transactional(readOnly = true)
-    public UserActivityResponse getUserActivity(Long userId) {
+    public UserActivityResponse getUserActivity(Long userId, int reviewLimit, int listLimit) {
+        OffsetWindow.validateLimit(reviewLimit, MAX_LIMIT);
+        OffsetWindow.validateLimit(listLimit, MAX_LIMIT);
+
         // Get stats
         ActivityStats stats = getActivityStats(userId);
 
         // Get recent reviews
-        List<Review> reviews = reviewRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        List<ReviewActivity> reviewActivities = reviews.stream()
-                .limit(10) // Last 10 reviews
-                .map(this::mapToReviewActivity)
-                .collect(Collectors.toList());
+        List<ReviewActivity> reviewActivities = loadReviews(userId, reviewLimit, 0);
 
         // Get read lists
-        List<LibraryList> lists = libraryListRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        List<ReadListActivity> readListActivities = lists.stream()
-                .map(this::mapToReadListActivity)
-                .collect(Collectors.toList());
+        List<ReadListActivity> readListActivities = loadLists(userId, listLimit, 0);
 
         return new UserActivityResponse(stats, reviewActivities, readListActivities);
     }
 
-    private ActivityStats getActivityStats(Long userId) {
-        int totalReviews = reviewRepository.countByUserId(userId);
-        int totalReadLists = (int) libraryListRepository.findByUserIdOrderByCreatedAtDesc(userId).size();
-        
-        int booksRead = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatusEnum.READ);
-        int booksReading = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatusEnum.READING);
-        int booksToRead = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatusEnum.WANT_TO_READ);
-        
-        Double averageRating = reviewRepository.getAverageRatingByUserId(userId);
-        if (averageRating == null) {
-            averageRating = 0.0;
+    /**
+     * One page of a user's reviews, newest first.
+     */
+    @Transactional(readOnly = true)
+    public ActivityPageResponse<ReviewActivity> getUserReviews(Long userId, int limit, int offset) {
+        OffsetWindow.validate(limit, offset, MAX_LIMIT);
+        int total = userStatsService.getStats(userId).getReviewCount();
+        List<ReviewActivity> items = loadReviews(userId, limit, offset);
+        return new ActivityPageResponse<>(items, total, limit, offset, offset + items.size() < total);
+    }
+
+    /**
+     * One page of a user's read lists, newest first.
+     */
+    @Transactional(readOnly = true)
+    public ActivityPageResponse<ReadListActivity> getUserLists(Long userId, int limit, int offset) {
+        OffsetWindow.validate(limit, offset, MAX_LIMIT);
+        int total = userStatsService.getStats(userId).getListCount();
+        List<ReadListActivity> items = loadLists(userId, limit, offset);
+        return new ActivityPageResponse<>(items, total, limit, offset, offset + items.size() < total);
+    }
+
+    /**
+     * One keyset page of a user's activity log, newest first: a single range scan on
+     * (user_id, created_at) plus one batched lookup per kind of subject on the page.
+     *
+     * @param cursor cursor returned by the previous page, or empty for the first page
+     */
+    @Transactional(readOnly = true)
+    public ActivityLogResponse getActivityLog(Long userId, int limit, String cursor) {
+        OffsetWindow.validateLimit(limit, MAX_LIMIT);
+
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<ActivityLog> entries;
+        if (cursor == null || cursor.isEmpty()) {
+            entries = activityLogRepository.findByUser(userId, window);
+        } else {
+            ActivityLogCursor position = ActivityLogCursor.decode(cursor);
+            entries = activityLogRepository.findByUserAfter(userId, position.getCreatedAt(), position.getId(), window);
         }
 
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        String nextCursor = hasMore ? ActivityLogCursor.after(entries.get(entries.size() - 1)).encode() : null;
+
+        return new ActivityLogResponse(hydrateLog(entries), limit, hasMore, nextCursor);
+    }
+
+    private List<ActivityLogItem> hydrateLog(List<ActivityLog> entries) {
+        Map<Long, Book> books = byId(collect(entries, ActivityLog::getSubjectBookId), bookRepository::findAllById, Book::getId);
+        Map<Long, Review> reviews = byId(collect(entries, ActivityLog::getSubjectReviewId), reviewRepository::findAllById, Review::getId);
+        Map<Long, LibraryList> lists = byId(collect(entries, ActivityLog::getSubjectListId), libraryListRepository::findAllById, LibraryList::getId);
+        Map<Long, User> users = byId(collect(entries, ActivityLog::getSubjectUserId), userRepository::findAllById, User::getId);
+
+        return entries.stream().map(entry -> {
+            ActivityLogItem item = new ActivityLogItem();
+            item.setId(entry.getId());
+            item.setType(entry.getType());
+            item.setCreatedAt(entry.getCreatedAt());
+
+            Book book = books.get(entry.getSubjectBookId());
+            if (book != null) {
+                item.setBookId(book.getId());
+                item.setBookTitle(book.getTitle());
+                item.setBookCover(book.getCoverUrl());
+            }
+            Review review = reviews.get(entry.getSubjectReviewId());
+            if (review != null && !Boolean.TRUE.equals(review.getIsDeleted())) {
+                item.setReviewId(review.getId());
+                item.setRating(review.getRating() != null ? review.getRating().doubleValue() : null);
+            }
+            LibraryList list = lists.get(entry.getSubjectListId());
+            if (list != null) {
+                item.setListId(list.getId());
+                item.setListName(list.getName());
+            }
+            User user = users.get(entry.getSubjectUserId());
+            if (user != null) {
+                item.setTargetUserId(user.getId());
+                item.setTargetUsername(user.getUsername());
+            }
+            return item;
+        }).collect(Collectors.toList());
+    }
+
+    private static Set<Long> collect(List<ActivityLog> entries, Function<ActivityLog, Long> subject) {
+        return entries.stream().map(subject).filter(Objects::nonNull).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static <T> Map<Long, T> byId(Set<Long> ids, Function<Set<Long>, List<T>> query, Function<T, Long> idOf) {
+        // Not Map.of(): lookups use null keys for events without that kind of subject
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return query.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private List<ReviewActivity> loadReviews(Long userId, int limit, int offset) {
+        return reviewRepository.findPageByUserId(userId, OffsetWindow.of(offset, limit)).stream()
+                .map(this::mapToReviewActivity)
+                .collect(Collectors.toList());
+    }
+
+    private List<ReadListActivity> loadLists(Long userId, int limit, int offset) {
+        List<LibraryList> lists = libraryListRepository.findPageByUserId(userId, OffsetWindow.of(offset, limit));
+        List<Long> listIds = lists.stream().map(LibraryList::getId).collect(Collectors.toList());
+        Map<Long, Integer> bookCounts = libraryListRepository.bookCountsForLists(listIds);
+        return lists.stream()
+                .map(list -> mapToReadListActivity(list, bookCounts.getOrDefault(list.getId(), 0)))
+                .collect(Collectors.toList());
+    }
+
+    private ActivityStats getActivityStats(Long userId) {
+        UserStats stats = userStatsService.getStats(userId);
+
         return new ActivityStats(
-                totalReviews,
-                totalReadLists,
-                booksRead,
-                booksReading,
-                booksToRead,
-                averageRating
+                stats.getReviewCount(),
+                stats.getListCount(),
+                stats.getBooksRead(),
+                stats.getBooksReading(),
+                stats.getBooksToRead(),
+                StatsService.averageRating(stats)
         );
     }
 
     private ReviewActivity mapToReviewActivity(Review review) {
-        int likes = reviewRepository.countLikesByReviewId(review.getId());
-        int comments = reviewRepository.countCommentsByReviewId(review.getId());
-
         return new ReviewActivity(
                 review.getId(),
                 review.getBook().getId(),
@@ -98,15 +218,12 @@ public class ActivityService {
                 review.getTitle(),
                 review.getBody(),
                 review.getCreatedAt().format(DATE_FORMATTER),
-                likes,
-                comments
+                review.getLikeCount(),
+                review.getCommentCount()
         );
     }
 
-    private ReadListActivity mapToReadListActivity(LibraryList list) {
-        int bookCount = libraryListRepository.countBooksByListId(list.getId());
-        int likes = listLikeRepository.countByListId(list.getId());
-
+    private ReadListActivity mapToReadListActivity(LibraryList list, int bookCount) {
         return new ReadListActivity(
                 list.getId(),
                 list.getName(),
@@ -114,7 +231,7 @@ public class ActivityService {
                 list.getVisibility(),
                 bookCount,
                 list.getCreatedAt().format(DATE_FORMATTER),
-                likes
+                list.getLikeCount()
         );
     }
 }
@@ -8,11 +8,15 @@ import com.parchelector.model.entity.User;
 import com.parchelector.repository.PasswordResetTokenRepository;
 import com.parchelector.repository.UserRepository;
 import com.parchelector.security.JwtTokenProvider;
+import com.parchelector.security.TokenHasher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +33,8 @@ import java.util.Base64;
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -47,8 +53,13 @@ public class AuthService {
     @Autowired
     private IEmailService emailService;
 
+    @Autowired
+    private TokenHasher tokenHasher;
+
     private static final SecureRandom secureRandom = new SecureRandom();
 
+    private static final char TOKEN_SEPARATOR = '.';
+
     /**
      * Register a new user.
      */
@@ -75,7 +86,7 @@ public class AuthService {
         User savedUser = userRepository.save(user);
 
         // Generate token
-        String token = tokenProvider.generateTokenFromUsername(savedUser.getUsername());
+        String token = tokenProvider.generateToken(savedUser);
 
         return new AuthResponse(
                 token,
@@ -108,7 +119,7 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         // Generate token
-        String token = tokenProvider.generateToken(authentication);
+        String token = tokenProvider.generateToken(user);
 
         return new AuthResponse(
                 token,
@@ -135,26 +146,21 @@ public class AuthService {
         // Delete any existing tokens for this user
         tokenRepository.deleteByUserId(user.getId());
 
-        // Generate secure random token
-        byte[] randomBytes = new byte[32];
-        secureRandom.nextBytes(randomBytes);
-        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+        // Generate secure random token: public selector + secret verifier
+        String selector = randomToken(12);
+        String verifier = randomToken(32);
+        String token = selector + TOKEN_SEPARATOR + verifier;
 
         // Create and save token
         PasswordResetToken resetToken = new PasswordResetToken();
         resetToken.setUser(user);
-        resetToken.setTokenHash(passwordEncoder.encode(token));
+        resetToken.setSelector(selector);
+        resetToken.setTokenHash(tokenHasher.hash(verifier));
         resetToken.setExpiresAt(LocalDateTime.now().plusHours(1));
         tokenRepository.save(resetToken);
 
-        // Try to send email - if it fails, log but don't throw exception
-        try {
-            emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), token);
-        } catch (Exception e) {
-            // Log error but don't expose it to the user
-            System.err.println("Failed to send password reset email: " + e.getMessage());
-            throw new RuntimeException("Failed to send password reset email. Please check email configuration.");
-        }
+        // Queued in the outbox with this transaction; delivered and retried in the background
+        emailService.sendPasswordResetEmail(user.getEmail(), user.getUsername(), token);
     }
 
     /**
@@ -162,10 +168,13 @@ public class AuthService {
      */
     @Transactional
     public void confirmPasswordReset(String token, String newPassword) {
-        // Find all tokens and check which one matches
-        PasswordResetToken resetToken = tokenRepository.findAll().stream()
-                .filter(t -> passwordEncoder.matches(token, t.getTokenHash()))
-                .findFirst()
+        // Find the token by its selector, then check the verifier in constant time
+        int separator = token.indexOf(TOKEN_SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid or expired reset token");
+        }
+        PasswordResetToken resetToken = tokenRepository.findBySelector(token.substring(0, separator))
+                .filter(t -> tokenHasher.matches(token.substring(separator + 1), t.getTokenHash()))
                 .orElseThrow(() -> new IllegalArgumentException("Invalid or expired reset token"));
 
         // Validate token
@@ -186,4 +195,23 @@ public class AuthService {
         resetToken.setUsedAt(LocalDateTime.now());
         tokenRepository.save(resetToken);
     }
+
+    /**
+     * Delete reset tokens that expired or were already used.
+     */
+    @Scheduled(initialDelayString = "${app.auth.reset-token-purge-interval-ms:3600000}",
+               fixedDelayString = "${app.auth.reset-token-purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeResetTokens() {
+        int deleted = tokenRepository.deleteExpiredOrUsed(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired or used password reset tokens", deleted);
+        }
+    }
+
+    private static String randomToken(int bytes) {
+        byte[] randomBytes = new byte[bytes];
+        secureRandom.nextBytes(randomBytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+    }
 }
@@ -0,0 +1,334 @@
+package com.parchelector.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable in-memory trigram index for search-as-you-type over book titles and author names.
+ *
+ * <p>Text is normalized with {@link BookSearchService#normalize(String)}, so it only contains
+ * {@code [a-z0-9 ]}: a 37-symbol alphabet, which makes every trigram a number below 37^3.
+ * Each word is indexed with two leading blanks, so the first trigrams of a word ("  c", " ci")
+ * let one- and two-letter prefixes match as well.
+ *
+ * <p>Postings are stored in CSR form: the documents of trigram {@code g} are
+ * {@code postings[offsets[g] .. offsets[g + 1])}, sorted by document number. Documents are
+ * parallel arrays indexed by document number. No boxed collections are kept after building.
+ *
+ * @author Nicolas Arciniegas
+ */
+public final class AutocompleteIndex {
+
+    private static final int ALPHABET = 37;
+    private static final int GRAMS = ALPHABET * ALPHABET * ALPHABET;
+
+    /** Upper bound on candidates verified per query, to keep latency flat for very common prefixes. */
+    private static final int MAX_CANDIDATES = 20_000;
+
+    private final long[] bookIds;
+    private final String[] titles;
+    private final String[] authors;
+    private final String[] covers;
+    private final String[] texts;
+    private final int[] titleLengths;
+    private final int[] offsets;
+    private final int[] postings;
+
+    private AutocompleteIndex(long[] bookIds, String[] titles, String[] authors, String[] covers,
+                              String[] texts, int[] titleLengths, int[] offsets, int[] postings) {
+        this.bookIds = bookIds;
+        this.titles = titles;
+        this.authors = authors;
+        this.covers = covers;
+        this.texts = texts;
+        this.titleLengths = titleLengths;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * A suggestion returned by {@link #suggest(String, int)}.
+     */
+    public static final class Suggestion {
+        public final long bookId;
+        public final String title;
+        public final String author;
+        public final String cover;
+        // Lower is better; comparable across indexes, so results of two indexes can be merged
+        final long rank;
+
+        Suggestion(long bookId, String title, String author, String cover, long rank) {
+            this.bookId = bookId;
+            this.title = title;
+            this.author = author;
+            this.cover = cover;
+            this.rank = rank;
+        }
+    }
+
+    public int size() {
+        return bookIds.length;
+    }
+
+    /**
+     * A builder pre-filled with every document of this index except the given books,
+     * so changed books can be re-added without reloading the whole catalogue.
+     */
+    public Builder copyExcept(Set<Long> excludedBookIds) {
+        Builder builder = new Builder();
+        for (int doc = 0; doc < bookIds.length; doc++) {
+            if (!excludedBookIds.contains(bookIds[doc])) {
+                builder.add(bookIds[doc], titles[doc], authors[doc], covers[doc]);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Books whose title or author names contain a word starting with every query term.
+     * Books whose title starts with the query come first, then title matches, then author
+     * matches; shorter titles win ties.
+     */
+    public List<Suggestion> suggest(String query, int limit) {
+        return suggest(query, limit, Set.of());
+    }
+
+    /**
+     * Like {@link #suggest(String, int)}, leaving out the given books, e.g. because a newer
+     * index holds their current version.
+     */
+    public List<Suggestion> suggest(String query, int limit, Set<Long> excludedBookIds) {
+        String normalized = BookSearchService.normalize(query);
+        if (normalized.isEmpty() || limit <= 0 || bookIds.length == 0) {
+            return new ArrayList<>();
+        }
+        String[] terms = normalized.split(" ");
+
+        // Distinct trigrams of the query, rarest first
+        int[] order = distinct(gramsOf(terms));
+        for (int i = 1; i < order.length; i++) {
+            int gram = order[i];
+            int j = i;
+            while (j > 0 && postingLength(order[j - 1]) > postingLength(gram)) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = gram;
+        }
+        int rarest = order[0];
+        if (postingLength(rarest) == 0) {
+            return new ArrayList<>();
+        }
+
+        int[] topDocs = new int[limit];
+        long[] topKeys = new long[limit];
+        int found = 0;
+        int checked = 0;
+
+        for (int p = offsets[rarest]; p < offsets[rarest + 1] && checked < MAX_CANDIDATES; p++) {
+            int doc = postings[p];
+            checked++;
+            if (!inAllPostings(doc, order) || !matchesAllTerms(texts[doc], terms)
+                    || (!excludedBookIds.isEmpty() && excludedBookIds.contains(bookIds[doc]))) {
+                continue;
+            }
+
+            long key = rank(doc, normalized, terms[0]);
+            if (found < limit) {
+                found++;
+            } else if (key >= topKeys[found - 1]) {
+                continue;
+            }
+            // Insertion into the small sorted top-N buffer
+            int i = found - 1;
+            while (i > 0 && topKeys[i - 1] > key) {
+                topKeys[i] = topKeys[i - 1];
+                topDocs[i] = topDocs[i - 1];
+                i--;
+            }
+            topKeys[i] = key;
+            topDocs[i] = doc;
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int doc = topDocs[i];
+            suggestions.add(new Suggestion(bookIds[doc], titles[doc], authors[doc], covers[doc], topKeys[i]));
+        }
+        return suggestions;
+    }
+
+    private int postingLength(int gram) {
+        return offsets[gram + 1] - offsets[gram];
+    }
+
+    private boolean inAllPostings(int doc, int[] grams) {
+        for (int i = 1; i < grams.length; i++) {
+            int gram = grams[i];
+            if (Arrays.binarySearch(postings, offsets[gram], offsets[gram + 1], doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matchesAllTerms(String text, String[] terms) {
+        for (String term : terms) {
+            if (!startsWord(text, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWord(String text, String term) {
+        int from = 0;
+        while (true) {
+            int at = text.indexOf(term, from);
+            if (at < 0) {
+                return false;
+            }
+            if (at == 0 || text.charAt(at - 1) == ' ') {
+                return true;
+            }
+            from = at + 1;
+        }
+    }
+
+    /**
+     * Lower is better: match tier in the high bits, title length in the low bits.
+     */
+    private long rank(int doc, String query, String firstTerm) {
+        String text = texts[doc];
+        int titleLength = titleLengths[doc];
+        long tier;
+        if (text.startsWith(query)) {
+            tier = 0;
+        } else {
+            int at = text.indexOf(firstTerm);
+            tier = at >= 0 && at < titleLength ? 1 : 2;
+        }
+        return (tier << 32) | titleLength;
+    }
+
+    private static int[] gramsOf(String[] words) {
+        int count = 0;
+        for (String word : words) {
+            count += word.length();
+        }
+        int[] grams = new int[count];
+        int n = 0;
+        for (String word : words) {
+            int c1 = 0;
+            int c2 = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int c3 = symbol(word.charAt(i));
+                grams[n++] = (c1 * ALPHABET + c2) * ALPHABET + c3;
+                c1 = c2;
+                c2 = c3;
+            }
+        }
+        return grams;
+    }
+
+    private static int[] distinct(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    /**
+     * Accumulates documents and builds the index.
+     */
+    public static final class Builder {
+
+        private long[] bookIds = new long[1024];
+        private String[] titles = new String[1024];
+        private String[] authors = new String[1024];
+        private String[] covers = new String[1024];
+        private String[] texts = new String[1024];
+        private int[] titleLengths = new int[1024];
+        private int size;
+
+        // (gram << 32 | doc) pairs; sorting them groups postings by gram, docs ascending
+        private long[] pairs = new long[8192];
+        private int pairCount;
+
+        public Builder add(long bookId, String title, String authorNames, String cover) {
+            if (size == bookIds.length) {
+                int capacity = size * 2;
+                bookIds = Arrays.copyOf(bookIds, capacity);
+                titles = Arrays.copyOf(titles, capacity);
+                authors = Arrays.copyOf(authors, capacity);
+                covers = Arrays.copyOf(covers, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                titleLengths = Arrays.copyOf(titleLengths, capacity);
+            }
+
+            String normalizedTitle = BookSearchService.normalize(title);
+            String normalizedAuthors = BookSearchService.normalize(authorNames);
+            String text = normalizedAuthors.isEmpty() ? normalizedTitle : normalizedTitle + " " + normalizedAuthors;
+
+            int doc = size++;
+            bookIds[doc] = bookId;
+            titles[doc] = title;
+            authors[doc] = authorNames;
+            covers[doc] = cover;
+            texts[doc] = text;
+            titleLengths[doc] = normalizedTitle.length();
+
+            if (!text.isEmpty()) {
+                for (int gram : distinct(gramsOf(text.split(" ")))) {
+                    if (pairCount == pairs.length) {
+                        pairs = Arrays.copyOf(pairs, pairCount * 2);
+                    }
+                    pairs[pairCount++] = ((long) gram << 32) | doc;
+                }
+            }
+            return this;
+        }
+
+        public AutocompleteIndex build() {
+            Arrays.sort(pairs, 0, pairCount);
+
+            int[] offsets = new int[GRAMS + 1];
+            int[] postings = new int[pairCount];
+            for (int i = 0; i < pairCount; i++) {
+                offsets[(int) (pairs[i] >>> 32) + 1]++;
+                postings[i] = (int) pairs[i];
+            }
+            for (int g = 0; g < GRAMS; g++) {
+                offsets[g + 1] += offsets[g];
+            }
+
+            return new AutocompleteIndex(
+                    Arrays.copyOf(bookIds, size),
+                    Arrays.copyOf(titles, size),
+                    Arrays.copyOf(authors, size),
+                    Arrays.copyOf(covers, size),
+                    Arrays.copyOf(texts, size),
+                    Arrays.copyOf(titleLengths, size),
+                    offsets,
+                    postings
+            );
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.parchelector.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Base of the writers that take committed events off request threads: events are queued in
+ * memory and written in batches by a scheduled flush, so request threads only pay for an
+ * enqueue. When the queue is full the caller flushes it synchronously, which slows writers
+ * down instead of dropping events. Events still queued when the process is killed without
+ * a shutdown are lost.
+ * Subclasses call {@link #enqueue(Object)} from their event listener and
+ * {@link #flushOrLog()} from their {@code @Scheduled} method, and write one batch in
+ * {@link #write(List)}.
+ *
+ * @author Nicolas Arciniegas
+ */
+abstract class BatchedEventWriter<E> {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final BlockingQueue<E> queue;
+    private final int batchSize;
+    private final String description;
+    private final Counter writtenCounter;
+
+    /**
+     * @param metricPrefix prefix of the {@code .written} counter and {@code .queued} gauge
+     * @param description  what is written, for metric descriptions and logs (e.g. "notifications")
+     */
+    BatchedEventWriter(MeterRegistry meterRegistry, String metricPrefix, String description,
+                       int queueCapacity, int batchSize) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.description = description;
+        this.writtenCounter = Counter.builder(metricPrefix + ".written")
+                .description("Rows of " + description + " inserted")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".queued", queue, BlockingQueue::size)
+                .description("Events of " + description + " waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Write one batch.
+     *
+     * @return number of rows written
+     */
+    protected abstract int write(List<E> batch);
+
+    protected void enqueue(E event) {
+        while (!queue.offer(event)) {
+            flush();
+        }
+    }
+
+    /**
+     * Flush for the scheduler: a failed batch is logged and the next run goes on.
+     */
+    protected void flushOrLog() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to write batch of {}", description, e);
+        }
+    }
+
+    /**
+     * Write every queued event in batches.
+     *
+     * @return number of rows written
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<E> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            int batchWritten = write(batch);
+            writtenCounter.increment(batchWritten);
+            written += batchWritten;
+            batch.clear();
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        if (written > 0) {
+            log.info("Wrote {} queued {} on shutdown", written, description);
+        }
+    }
+}
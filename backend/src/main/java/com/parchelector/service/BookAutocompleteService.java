@@ -0,0 +1,178 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.response.BookSuggestionResponse;
+import com.parchelector.model.entity.Author;
+import com.parchelector.model.entity.Book;
+import com.parchelector.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Search-as-you-type suggestions served from an in-memory {@link AutocompleteIndex}.
+ *
+ * <p>The index is built on startup and swapped atomically: requests only read the current
+ * snapshot and never touch the database. Books whose row or authors changed since the last
+ * run go into a small delta index, which hides their old version in the full index; queries
+ * merge the results of both. The hourly full rebuild folds the delta in and drops deleted books.
+ * Like the search sync, the watermark is the database clock with a short overlap re-read.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class BookAutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookAutocompleteService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_LIMIT = 20;
+
+    private static final AutocompleteIndex EMPTY = new AutocompleteIndex.Builder().build();
+
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration syncOverlap;
+
+    private volatile Snapshot snapshot = new Snapshot(EMPTY, EMPTY, Set.of());
+
+    private LocalDateTime watermark;
+
+    @Autowired
+    public BookAutocompleteService(BookRepository bookRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${app.autocomplete.sync-overlap-ms:300000}") long syncOverlapMs) {
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.syncOverlap = Duration.ofMillis(syncOverlapMs);
+    }
+
+    /**
+     * Suggestions for a partially typed query, best first.
+     */
+    public List<BookSuggestionResponse> suggest(String query, int limit) {
+        return snapshot.suggest(query, Math.min(Math.max(limit, 0), MAX_LIMIT)).stream()
+                .map(s -> new BookSuggestionResponse(s.bookId, s.title, s.author, s.cover))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuildAll();
+    }
+
+    /**
+     * Move books whose row or authors changed since the last run (minus the overlap) into
+     * the delta index. Only the delta is rebuilt, so the cost follows the changes since the
+     * last full rebuild, not the catalogue.
+     */
+    @Scheduled(initialDelayString = "${app.autocomplete.sync-interval-ms:60000}",
+               fixedDelayString = "${app.autocomplete.sync-interval-ms:60000}")
+    public synchronized void syncChanges() {
+        if (watermark == null) {
+            return;
+        }
+        LocalDateTime startedAt = databaseNow();
+        LocalDateTime since = watermark.minus(syncOverlap);
+
+        Set<Long> changed = new HashSet<>(bookRepository.findIdsUpdatedSince(since));
+        changed.addAll(bookRepository.findIdsWithAuthorsUpdatedSince(since));
+        if (!changed.isEmpty()) {
+            Snapshot current = snapshot;
+            AutocompleteIndex.Builder builder = current.delta.copyExcept(changed);
+            addBooks(builder, changed);
+            Set<Long> replaced = new HashSet<>(current.replaced);
+            replaced.addAll(changed);
+            snapshot = new Snapshot(current.base, builder.build(), replaced);
+            log.debug("Updated {} books in the autocomplete delta ({} until the next rebuild)",
+                    changed.size(), replaced.size());
+        }
+        watermark = startedAt;
+    }
+
+    /**
+     * Build the index from the whole catalogue and swap it in, with an empty delta.
+     *
+     * @return number of books indexed
+     */
+    @Scheduled(initialDelayString = "${app.autocomplete.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${app.autocomplete.rebuild-interval-ms:3600000}")
+    public synchronized int rebuildAll() {
+        LocalDateTime startedAt = databaseNow();
+        AutocompleteIndex.Builder builder = new AutocompleteIndex.Builder();
+        for (int page = 0; ; page++) {
+            List<Long> ids = bookRepository.findAllIds(PageRequest.of(page, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            addBooks(builder, ids);
+        }
+
+        AutocompleteIndex index = builder.build();
+        snapshot = new Snapshot(index, EMPTY, Set.of());
+        watermark = startedAt;
+        log.info("Built autocomplete index with {} books", index.size());
+        return index.size();
+    }
+
+    private void addBooks(AutocompleteIndex.Builder builder, Collection<Long> bookIds) {
+        List<Long> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            for (Book book : bookRepository.findAllWithAuthorsByIdIn(batch)) {
+                String authors = book.getAuthors().stream()
+                        .map(Author::getName)
+                        .collect(Collectors.joining(", "));
+                builder.add(book.getId(), book.getTitle(), authors, book.getCoverUrl());
+            }
+        }
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+
+    /**
+     * The full index, the delta of books changed since it was built, and the books the delta
+     * replaces (also the deleted ones, which the delta does not hold). Never modified.
+     */
+    private static final class Snapshot {
+
+        final AutocompleteIndex base;
+        final AutocompleteIndex delta;
+        final Set<Long> replaced;
+
+        Snapshot(AutocompleteIndex base, AutocompleteIndex delta, Set<Long> replaced) {
+            this.base = base;
+            this.delta = delta;
+            this.replaced = replaced;
+        }
+
+        List<AutocompleteIndex.Suggestion> suggest(String query, int limit) {
+            List<AutocompleteIndex.Suggestion> suggestions = new ArrayList<>(base.suggest(query, limit, replaced));
+            if (delta.size() == 0) {
+                return suggestions;
+            }
+            suggestions.addAll(delta.suggest(query, limit));
+            // Stable, so base results win ties like lower document numbers do within one index
+            suggestions.sort(Comparator.comparingLong(suggestion -> suggestion.rank));
+            return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+        }
+    }
+}
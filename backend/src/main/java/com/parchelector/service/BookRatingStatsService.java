@@ -0,0 +1,155 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.BookRatingStats;
+import com.parchelector.repository.BookRatingStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Service that maintains the per-book rating aggregates (sum, count, average, histogram).
+ * Review writes apply deltas in the same transaction, so reads never aggregate reviews.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class BookRatingStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookRatingStatsService.class);
+
+    @Autowired
+    private BookRatingStatsRepository bookRatingStatsRepository;
+
+    /**
+     * Account for a new rating.
+     */
+    @Transactional
+    public void addRating(Long bookId, BigDecimal rating) {
+        applyChange(bookId, null, rating);
+    }
+
+    /**
+     * Account for an edited rating.
+     */
+    @Transactional
+    public void replaceRating(Long bookId, BigDecimal oldRating, BigDecimal newRating) {
+        if (oldRating != null && newRating != null && oldRating.compareTo(newRating) == 0) {
+            return;
+        }
+        applyChange(bookId, oldRating, newRating);
+    }
+
+    /**
+     * Account for a removed rating (deleted review).
+     */
+    @Transactional
+    public void removeRating(Long bookId, BigDecimal rating) {
+        applyChange(bookId, rating, null);
+    }
+
+    /**
+     * Stats of a single book; books without reviews get an empty aggregate.
+     */
+    @Transactional(readOnly = true)
+    public BookRatingStats getStats(Long bookId) {
+        return bookRatingStatsRepository.findById(bookId).orElseGet(() -> emptyStats(bookId));
+    }
+
+    /**
+     * Recompute every aggregate from the reviews table (backfill).
+     *
+     * @return number of books with stats
+     */
+    @Transactional
+    public int rebuildAll() {
+        bookRatingStatsRepository.deleteAllStats();
+
+        Map<Long, BookRatingStats> statsByBook = new HashMap<>();
+        for (Object[] row : bookRatingStatsRepository.aggregateReviewRatings()) {
+            Long bookId = (Long) row[0];
+            BigDecimal rating = (BigDecimal) row[1];
+            int count = ((Number) row[2]).intValue();
+
+            BookRatingStats stats = statsByBook.computeIfAbsent(bookId, this::emptyStats);
+            stats.getHistogram()[bucketOf(rating)] += count;
+            stats.setRatingCount(stats.getRatingCount() + count);
+            stats.setRatingSum(stats.getRatingSum().add(rating.multiply(BigDecimal.valueOf(count))));
+        }
+        statsByBook.values().forEach(BookRatingStatsService::updateAverage);
+
+        bookRatingStatsRepository.saveAll(statsByBook.values());
+        return statsByBook.size();
+    }
+
+    /**
+     * Backfill on the first start after the table was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (bookRatingStatsRepository.count() == 0) {
+            int books = rebuildAll();
+            if (books > 0) {
+                log.info("Backfilled rating stats for {} books", books);
+            }
+        }
+    }
+
+    /**
+     * Bucket of a rating: 0.5 steps, so 0.5 -> 0, 1.0 -> 1, ..., 5.0 -> 9.
+     */
+    public static int bucketOf(BigDecimal rating) {
+        return clampBucket(rating.multiply(BigDecimal.valueOf(2)).setScale(0, RoundingMode.CEILING).intValue() - 1);
+    }
+
+    private void applyChange(Long bookId, BigDecimal removed, BigDecimal added) {
+        bookRatingStatsRepository.insertIfAbsent(bookId, new int[BookRatingStats.BUCKETS]);
+        BookRatingStats stats = bookRatingStatsRepository.findByBookIdForUpdate(bookId)
+                .orElseThrow(() -> new IllegalStateException("Rating stats missing for book " + bookId));
+
+        applyDelta(stats, removed, added);
+        bookRatingStatsRepository.save(stats);
+    }
+
+    /**
+     * Move a rating out of and/or into the aggregate; either side may be null.
+     */
+    static void applyDelta(BookRatingStats stats, BigDecimal removed, BigDecimal added) {
+        if (removed != null) {
+            stats.getHistogram()[bucketOf(removed)]--;
+            stats.setRatingCount(stats.getRatingCount() - 1);
+            stats.setRatingSum(stats.getRatingSum().subtract(removed));
+        }
+        if (added != null) {
+            stats.getHistogram()[bucketOf(added)]++;
+            stats.setRatingCount(stats.getRatingCount() + 1);
+            stats.setRatingSum(stats.getRatingSum().add(added));
+        }
+        updateAverage(stats);
+    }
+
+    private static void updateAverage(BookRatingStats stats) {
+        stats.setRatingAvg(stats.getRatingCount() > 0
+                ? stats.getRatingSum().divide(BigDecimal.valueOf(stats.getRatingCount()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+    }
+
+    private BookRatingStats emptyStats(Long bookId) {
+        BookRatingStats stats = new BookRatingStats();
+        stats.setBookId(bookId);
+        return stats;
+    }
+
+    private static int clampBucket(int bucket) {
+        return Math.max(0, Math.min(BookRatingStats.BUCKETS - 1, bucket));
+    }
+}
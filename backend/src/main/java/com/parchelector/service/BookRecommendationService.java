@@ -0,0 +1,173 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.BookNeighbors;
+import com.parchelector.repository.BookNeighborsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * "Readers who liked this also liked" recommendations. A periodic job reads who liked which
+ * book (reviews rated 4 or more, favorites, read books), computes item-item similarity with
+ * {@link ItemSimilarity} and replaces book_neighbors with the top neighbours of every book.
+ * Similar books are a single primary-key read of that table; a user's recommendations are
+ * the neighbours of their most recent liked books, read in one query and summed.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class BookRecommendationService extends PrecomputedTableJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BookRecommendationService.class);
+
+    public static final BigDecimal LIKED_RATING = new BigDecimal("4.0");
+
+    private static final String INSERT_SQL =
+            "INSERT INTO book_neighbors (book_id, neighbor_ids, scores, updated_at) VALUES (?, ?, ?, ?)";
+
+    private final BookNeighborsRepository bookNeighborsRepository;
+    private final int neighborCount;
+    private final int minCoOccurrence;
+    private final int maxBooksPerUser;
+    private final int seedBooks;
+
+    @Autowired
+    public BookRecommendationService(BookNeighborsRepository bookNeighborsRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.recommendations.neighbors:50}") int neighborCount,
+                                     @Value("${app.recommendations.min-co-occurrence:2}") int minCoOccurrence,
+                                     @Value("${app.recommendations.max-books-per-user:2000}") int maxBooksPerUser,
+                                     @Value("${app.recommendations.seed-books:20}") int seedBooks,
+                                     @Value("${app.recommendations.parallelism:0}") int parallelism) {
+        super(jdbcTemplate, transactionManager, parallelism);
+        this.bookNeighborsRepository = bookNeighborsRepository;
+        this.neighborCount = neighborCount;
+        this.minCoOccurrence = minCoOccurrence;
+        this.maxBooksPerUser = maxBooksPerUser;
+        this.seedBooks = seedBooks;
+    }
+
+    /**
+     * IDs of the books most similar to a book, most similar first; empty when the book has
+     * no neighbours yet.
+     */
+    public List<Long> getSimilarBookIds(Long bookId, int limit) {
+        return bookNeighborsRepository.findById(bookId)
+                .map(neighbors -> Arrays.stream(neighbors.getNeighborIds())
+                        .limit(limit)
+                        .boxed()
+                        .collect(Collectors.toList()))
+                .orElseGet(ArrayList::new);
+    }
+
+    /**
+     * IDs of recommended books for a user, best first: neighbours of the user's most recent
+     * liked books, scored by the sum of their similarities, leaving out books the user
+     * already has. Empty for users without liked books.
+     */
+    public List<Long> getRecommendedBookIds(Long userId, int limit) {
+        List<Long> seeds = bookNeighborsRepository.findLikedBooks(userId, LIKED_RATING, seedBooks).stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .collect(Collectors.toList());
+        if (seeds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (BookNeighbors neighbors : bookNeighborsRepository.findAllById(seeds)) {
+            long[] neighborIds = neighbors.getNeighborIds();
+            float[] similarities = neighbors.getScores();
+            for (int i = 0; i < neighborIds.length; i++) {
+                scores.merge(neighborIds[i], (double) similarities[i], Double::sum);
+            }
+        }
+        seeds.forEach(scores::remove);
+        if (scores.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<Long> known = bookNeighborsRepository.findKnownBookIds(userId, scores.keySet()).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        return scores.entrySet().stream()
+                .filter(entry -> !known.contains(entry.getKey()))
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recompute the neighbours of every book, once a day by default.
+     */
+    @Scheduled(initialDelayString = "${app.recommendations.rebuild-interval-ms:86400000}",
+               fixedDelayString = "${app.recommendations.rebuild-interval-ms:86400000}")
+    public void scheduledRebuild() {
+        rebuildOrLog();
+    }
+
+    /**
+     * Recompute every book's neighbours and replace the table.
+     *
+     * @return number of books with neighbours
+     */
+    @Override
+    public synchronized int rebuildAll() {
+        long start = System.currentTimeMillis();
+        ItemSimilarity.Builder builder = new ItemSimilarity.Builder();
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            addLikes(builder, bookNeighborsRepository.streamLikedReviews(LIKED_RATING));
+            addLikes(builder, bookNeighborsRepository.streamFavorites());
+            addLikes(builder, bookNeighborsRepository.streamReadBooks());
+        });
+        ItemSimilarity similarity = compute(pool -> builder.build(pool, neighborCount, minCoOccurrence, maxBooksPerUser));
+
+        List<Integer> books = IntStream.range(0, similarity.size())
+                .filter(book -> similarity.neighborIds(book).length > 0)
+                .boxed()
+                .collect(Collectors.toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        replaceAll("book_neighbors", INSERT_SQL, books, (statement, book) -> {
+            Connection connection = statement.getConnection();
+            statement.setLong(1, similarity.bookId(book));
+            statement.setArray(2, SqlArrays.bigintArray(connection, similarity.neighborIds(book)));
+            statement.setArray(3, SqlArrays.realArray(connection, similarity.scores(book)));
+            statement.setTimestamp(4, now);
+        });
+
+        log.info("Rebuilt book recommendations: {} of {} books have neighbours ({} ms)",
+                books.size(), similarity.size(), System.currentTimeMillis() - start);
+        return books.size();
+    }
+
+    @Override
+    protected boolean isEmpty() {
+        return bookNeighborsRepository.count() == 0;
+    }
+
+    private static void addLikes(ItemSimilarity.Builder builder, Stream<Object[]> likes) {
+        forEachRow(likes, row -> builder.add((Long) row[0], (Long) row[1]));
+    }
+}
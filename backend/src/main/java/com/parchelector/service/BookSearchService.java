@@ -0,0 +1,274 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Author;
+import com.parchelector.model.entity.Book;
+import com.parchelector.repository.BookRepository;
+import com.parchelector.repository.BookSearchDocumentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over book titles and author names.
+ *
+ * <p>Every book has a search document with its accent-free, lower-cased text. On PostgreSQL
+ * the documents carry a generated tsvector (Spanish configuration) with a GIN index, and
+ * queries are ranked and paginated in the database. Other databases (H2 in tests) fall back
+ * to LIKE over the same normalized text, with the same semantics: every term must start a word.
+ *
+ * <p>Documents are kept in sync by a periodic job that reindexes books whose row or
+ * authors changed since the last run. The watermark is the database clock, and every run
+ * re-reads a short overlap before it, so rows committed late or written by a skewed clock
+ * are still picked up; reindexing a book twice is harmless. Adding or removing a book's authors touches the book
+ * (a trigger on book_authors), since the links carry no timestamp of their own.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class BookSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSearchService.class);
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO book_search_documents (book_id, content, updated_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (book_id) DO UPDATE SET content = EXCLUDED.content, updated_at = EXCLUDED.updated_at";
+
+    // H2 has no ON CONFLICT ... DO UPDATE
+    private static final String MERGE_SQL =
+            "MERGE INTO book_search_documents (book_id, content, updated_at) KEY (book_id) VALUES (?, ?, ?)";
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Bumps books.updated_at when a book gains, loses or changes an author, so syncChanges sees it
+    private static final String TOUCH_BOOK_FUNCTION =
+            "CREATE OR REPLACE FUNCTION touch_book_on_author_change() RETURNS trigger AS $$ " +
+            "BEGIN " +
+            "  IF TG_OP <> 'INSERT' THEN " +
+            "    UPDATE books SET updated_at = LOCALTIMESTAMP WHERE id = OLD.book_id; " +
+            "  END IF; " +
+            "  IF TG_OP <> 'DELETE' THEN " +
+            "    UPDATE books SET updated_at = LOCALTIMESTAMP WHERE id = NEW.book_id; " +
+            "  END IF; " +
+            "  RETURN NULL; " +
+            "END $$ LANGUAGE plpgsql";
+
+    private final BookSearchDocumentRepository bookSearchDocumentRepository;
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration syncOverlap;
+
+    private volatile boolean fullTextEnabled;
+
+    private LocalDateTime watermark;
+
+    @Autowired
+    public BookSearchService(BookSearchDocumentRepository bookSearchDocumentRepository,
+                             BookRepository bookRepository,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.search.sync-overlap-ms:300000}") long syncOverlapMs) {
+        this.bookSearchDocumentRepository = bookSearchDocumentRepository;
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.syncOverlap = Duration.ofMillis(syncOverlapMs);
+    }
+
+    /**
+     * Search books, best matches first.
+     *
+     * @return IDs of the matching books for the requested page
+     */
+    @Transactional(readOnly = true)
+    public List<Long> search(String query, int limit, int offset) {
+        OffsetWindow.validate(limit, offset, MAX_LIMIT);
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (fullTextEnabled) {
+            // Prefix match on every term, so partially typed words still match
+            String tsQuery = tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & "));
+            return bookSearchDocumentRepository.searchRanked(tsQuery, limit, offset).stream()
+                    .map(Number::longValue)
+                    .collect(Collectors.toList());
+        }
+
+        return searchByContent(tokens, limit, offset);
+    }
+
+    /**
+     * Create the full-text column, index and author-link trigger if needed, then index books
+     * that have no document yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        fullTextEnabled = isPostgres();
+        if (fullTextEnabled) {
+            jdbcTemplate.execute("ALTER TABLE book_search_documents ADD COLUMN IF NOT EXISTS search_vector tsvector " +
+                    "GENERATED ALWAYS AS (to_tsvector('spanish', content)) STORED");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS book_search_documents_vector_idx " +
+                    "ON book_search_documents USING GIN (search_vector)");
+            jdbcTemplate.execute(TOUCH_BOOK_FUNCTION);
+            jdbcTemplate.execute("DROP TRIGGER IF EXISTS book_authors_touch_book ON book_authors");
+            jdbcTemplate.execute("CREATE TRIGGER book_authors_touch_book AFTER INSERT OR UPDATE OR DELETE ON book_authors " +
+                    "FOR EACH ROW EXECUTE FUNCTION touch_book_on_author_change()");
+        }
+
+        LocalDateTime startedAt = databaseNow();
+        if (bookSearchDocumentRepository.count() < bookRepository.count()) {
+            log.info("Indexed {} books for search", rebuildAll());
+        }
+        watermark = startedAt;
+    }
+
+    /**
+     * Reindex books whose row or authors changed since the last run, minus the overlap.
+     */
+    @Scheduled(initialDelayString = "${app.search.sync-interval-ms:60000}",
+               fixedDelayString = "${app.search.sync-interval-ms:60000}")
+    public synchronized void syncChanges() {
+        if (watermark == null) {
+            return;
+        }
+        LocalDateTime startedAt = databaseNow();
+        LocalDateTime since = watermark.minus(syncOverlap);
+
+        Set<Long> changed = new LinkedHashSet<>(bookRepository.findIdsUpdatedSince(since));
+        changed.addAll(bookRepository.findIdsWithAuthorsUpdatedSince(since));
+        if (!changed.isEmpty()) {
+            indexBooks(changed);
+            log.debug("Reindexed {} changed books for search", changed.size());
+        }
+        watermark = startedAt;
+    }
+
+    /**
+     * Reindex the whole catalogue, in batches.
+     *
+     * @return number of books indexed
+     */
+    public synchronized int rebuildAll() {
+        int indexed = 0;
+        for (int page = 0; ; page++) {
+            List<Long> ids = bookRepository.findAllIds(PageRequest.of(page, BATCH_SIZE));
+            if (ids.isEmpty()) {
+                return indexed;
+            }
+            indexBooks(ids);
+            indexed += ids.size();
+        }
+    }
+
+    /**
+     * Write the search documents of the given books: one upsert batch per batch of books,
+     * each batch in its own transaction.
+     */
+    public void indexBooks(Collection<Long> bookIds) {
+        String upsertSql = fullTextEnabled ? POSTGRES_UPSERT_SQL : MERGE_SQL;
+        List<Long> ids = new ArrayList<>(bookIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Book> books = bookRepository.findAllWithAuthorsByIdIn(batch);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(upsertSql, books, BATCH_SIZE, (statement, book) -> {
+                    statement.setLong(1, book.getId());
+                    statement.setString(2, documentText(book));
+                    statement.setTimestamp(3, now);
+                });
+            });
+        }
+    }
+
+    /**
+     * Lower-case, strip accents and collapse everything that is not a letter or digit,
+     * so "Cien Años" and "cien anos" produce the same terms.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String unaccented = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(unaccented).replaceAll(" ").trim();
+    }
+
+    // Every term must start a word of the normalized text, like the term:* prefixes on PostgreSQL
+    private List<Long> searchByContent(List<String> tokens, int limit, int offset) {
+        StringBuilder sql = new StringBuilder("SELECT book_id FROM book_search_documents WHERE ");
+        List<Object> params = new ArrayList<>();
+        for (String token : tokens) {
+            if (!params.isEmpty()) {
+                sql.append("AND ");
+            }
+            // Terms are [a-z0-9] only, so nothing needs escaping
+            sql.append("CONCAT(' ', content) LIKE ? ");
+            params.add("% " + token + "%");
+        }
+        sql.append("ORDER BY book_id LIMIT ? OFFSET ?");
+        params.add(limit);
+        params.add(offset);
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, params.toArray());
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+
+    private static List<String> tokenize(String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.asList(normalized.split(" "));
+    }
+
+    private static String documentText(Book book) {
+        StringBuilder text = new StringBuilder(book.getTitle());
+        for (Author author : book.getAuthors()) {
+            text.append(' ').append(author.getName());
+        }
+        return normalize(text.toString());
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            return metaData.getDatabaseProductName();
+        });
+        return product != null && product.toLowerCase(Locale.ROOT).contains("postgresql");
+    }
+}
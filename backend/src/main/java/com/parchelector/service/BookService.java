@@ -6,13 +6,22 @@ import com.parchelector.dto.response.BookResponse;
 import com.parchelector.model.entity.*;
 import com.parchelector.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,32 +32,90 @@ import java.util.stream.Collectors;
 @Service
 public class BookService {
 
+    /** Most reviewed books matching the filter that the personalized order chooses from. */
+    private static final int PERSONALIZED_CANDIDATES = 500;
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private ReadingStatusRepository readingStatusRepository;
 
-    @Autowired
-    private ReviewRepository reviewRepository;
-
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
     private FavoriteBookRepository favoriteBookRepository;
 
+    @Autowired
+    private BookRatingStatsRepository bookRatingStatsRepository;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookRecommendationService bookRecommendationService;
+
     /**
-     * Get trending books (most reviewed/rated books).
+     * Get trending books of the last week.
      */
     @Transactional(readOnly = true)
     public List<BookResponse> getTrendingBooks(Long userId, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Book> books = bookRepository.findAll(pageable).getContent();
+        return getTrendingBooks(userId, limit, TrendingWindow.WEEK);
+    }
 
-        return books.stream()
-                .map(book -> mapToBookResponse(book, userId))
-                .collect(Collectors.toList());
+    /**
+     * Get trending books for a time window, served from the trending engine snapshot.
+     * While the snapshot has fewer than {@code limit} books (e.g. a quiet catalogue),
+     * the rest of the page is filled with catalogue books.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> getTrendingBooks(Long userId, int limit, TrendingWindow window) {
+        List<Book> books = loadInOrder(trendingService.getTopBookIds(window, limit));
+
+        if (books.size() < limit) {
+            Set<Long> included = books.stream().map(Book::getId).collect(Collectors.toSet());
+            bookRepository.findAll(PageRequest.of(0, limit)).getContent().stream()
+                    .filter(book -> !included.contains(book.getId()))
+                    .limit(limit - books.size())
+                    .forEach(books::add);
+        }
+
+        return mapToBookResponses(books, userId);
+    }
+
+    /**
+     * Get the books most liked by readers who liked a book, from the precomputed neighbours.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> getSimilarBooks(Long bookId, Long userId, int limit) {
+        List<Long> bookIds = bookRecommendationService.getSimilarBookIds(bookId, limit);
+        if (bookIds.isEmpty() && !bookRepository.existsById(bookId)) {
+            throw new IllegalArgumentException("Book not found");
+        }
+        return mapToBookResponses(loadInOrder(bookIds), userId);
+    }
+
+    /**
+     * Get recommended books for a user from the neighbours of the books they liked.
+     * Users who have not liked any book yet get trending books.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> getRecommendedBooks(Long userId, int limit) {
+        List<Long> bookIds = bookRecommendationService.getRecommendedBookIds(userId, limit);
+        if (bookIds.isEmpty()) {
+            return getTrendingBooks(userId, limit);
+        }
+        return mapToBookResponses(loadInOrder(bookIds), userId);
     }
 
     /**
@@ -56,12 +123,16 @@ public class BookService {
      */
     @Transactional(readOnly = true)
     public List<BookResponse> searchBooks(String query, Long userId, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        List<Book> books = bookRepository.searchByTitleOrAuthor(query, pageable);
+        return searchBooks(query, userId, limit, 0);
+    }
 
-        return books.stream()
-                .map(book -> mapToBookResponse(book, userId))
-                .collect(Collectors.toList());
+    /**
+     * Search books by title or author using the full-text index, best matches first.
+     */
+    @Transactional(readOnly = true)
+    public List<BookResponse> searchBooks(String query, Long userId, int limit, int offset) {
+        List<Long> bookIds = bookSearchService.search(query, limit, offset);
+        return mapToBookResponses(loadInOrder(bookIds), userId);
     }
 
     /**
@@ -82,8 +153,14 @@ public class BookService {
         ReadingStatus.ReadingStatusEnum statusEnum = convertToEnum(request.getStatus());
 
         if (existingStatus != null) {
+            ReadingStatus.ReadingStatusEnum oldStatus = existingStatus.getStatus();
+            LocalDate oldFinishedAt = existingStatus.getFinishedAt();
+
             // Update existing status
             existingStatus.setStatus(statusEnum);
+            if (oldStatus != statusEnum) {
+                existingStatus.setStatusChangedAt(LocalDateTime.now());
+            }
             
             if (statusEnum == ReadingStatus.ReadingStatusEnum.READING && existingStatus.getStartedAt() == null) {
                 existingStatus.setStartedAt(LocalDate.now());
@@ -95,12 +172,18 @@ public class BookService {
             }
             
             readingStatusRepository.save(existingStatus);
+            userStatsService.replaceReadingStatus(userId, book, oldStatus, oldFinishedAt,
+                    statusEnum, existingStatus.getFinishedAt());
+            if (oldStatus != statusEnum) {
+                eventPublisher.publishEvent(ActivityEvent.readingStatusChanged(userId, book.getId(), statusEnum));
+            }
         } else {
             // Create new status
             ReadingStatus newStatus = new ReadingStatus();
             newStatus.setUser(user);
             newStatus.setBook(book);
             newStatus.setStatus(statusEnum);
+            newStatus.setStatusChangedAt(LocalDateTime.now());
             
             if (statusEnum == ReadingStatus.ReadingStatusEnum.READING) {
                 newStatus.setStartedAt(LocalDate.now());
@@ -113,13 +196,63 @@ public class BookService {
             }
             
             readingStatusRepository.save(newStatus);
+            userStatsService.replaceReadingStatus(userId, book, null, null, statusEnum, newStatus.getFinishedAt());
+            eventPublisher.publishEvent(ActivityEvent.readingStatusChanged(userId, book.getId(), statusEnum));
+        }
+    }
+
+    /**
+     * Load books (with authors) by ID, keeping the order of the given IDs.
+     */
+    private List<Book> loadInOrder(List<Long> bookIds) {
+        List<Book> books = new ArrayList<>();
+        if (bookIds.isEmpty()) {
+            return books;
+        }
+        Map<Long, Book> byId = bookRepository.findAllWithAuthorsByIdIn(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        for (Long bookId : bookIds) {
+            Book book = byId.get(bookId);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Map a page of books, loading the rating stats and the user's state of all of them
+     * in one query each.
+     */
+    private List<BookResponse> mapToBookResponses(List<Book> books, Long userId) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        List<Long> bookIds = books.stream().map(Book::getId).collect(Collectors.toList());
+        Map<Long, BookRatingStats> ratingStats = bookRatingStatsRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(BookRatingStats::getBookId, Function.identity()));
+        Map<Long, BookViewerState> viewerState = loadViewerState(userId, bookIds);
+
+        return books.stream()
+                .map(book -> mapToBookResponse(book, ratingStats.get(book.getId()), viewerState.get(book.getId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reading status, favorite flag and own rating of the user for each book, in one query.
+     */
+    private Map<Long, BookViewerState> loadViewerState(Long userId, List<Long> bookIds) {
+        if (userId == null) {
+            return Map.of();
         }
+        return bookRepository.findViewerState(userId, bookIds).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], BookViewerState::fromRow));
     }
 
     /**
      * Map Book entity to BookResponse DTO.
      */
-    private BookResponse mapToBookResponse(Book book, Long userId) {
+    private BookResponse mapToBookResponse(Book book, BookRatingStats ratingStats, BookViewerState viewerState) {
         BookResponse response = new BookResponse();
         response.setId(book.getId());
         response.setTitle(book.getTitle());
@@ -131,19 +264,18 @@ public class BookService {
                 .orElse("Unknown Author");
         response.setAuthor(authorName);
 
-        // Calculate average rating from reviews
-        Double avgRating = reviewRepository.getAverageRatingByBookId(book.getId());
-        response.setRating(avgRating != null ? avgRating : 0.0);
+        // Average rating from the precomputed aggregate
+        response.setRating(ratingStats != null ? ratingStats.getRatingAvg().doubleValue() : 0.0);
 
         response.setCover(book.getCoverUrl());
 
-        // Get user's reading status if exists
-        if (userId != null) {
-            readingStatusRepository.findByUserIdAndBookId(userId, book.getId())
-                    .ifPresent(status -> {
-                        String frontendStatus = convertStatusToFrontend(status.getStatus());
-                        response.setStatus(frontendStatus);
-                    });
+        // User's own state, when there is a logged-in user
+        if (viewerState != null) {
+            if (viewerState.getStatus() != null) {
+                response.setStatus(convertStatusToFrontend(viewerState.getStatus()));
+            }
+            response.setFavorite(viewerState.isFavorite());
+            response.setUserRating(viewerState.getRating() != null ? viewerState.getRating().doubleValue() : null);
         }
 
         return response;
@@ -203,6 +335,7 @@ public class BookService {
         favoriteBook.setBook(book);
 
         favoriteBookRepository.save(favoriteBook);
+        eventPublisher.publishEvent(ActivityEvent.bookFavorited(userId, book.getId()));
     }
 
     /**
@@ -236,6 +369,8 @@ public class BookService {
                             author,
                             0.0,
                             book.getCoverUrl(),
+                            null,
+                            true,
                             null
                     );
                 })
@@ -244,7 +379,7 @@ public class BookService {
 
     /**
      * Filter and sort books with advanced options.
-     * @param sortBy Options: "popular", "rating", "newest", "oldest"
+     * @param sortBy Options: "popular", "rating", "newest", "oldest", "personalized"
      */
     @Transactional(readOnly = true)
     public List<BookResponse> filterAndSortBooks(Long userId, String genre, 
@@ -252,8 +387,8 @@ public class BookService {
                                                    String sortBy, int limit) {
         // Validate sortBy parameter
         if (!sortBy.equals("popular") && !sortBy.equals("rating") && 
-            !sortBy.equals("newest") && !sortBy.equals("oldest")) {
-            throw new IllegalArgumentException("Invalid sortBy parameter. Must be 'popular', 'rating', 'newest', or 'oldest'");
+            !sortBy.equals("newest") && !sortBy.equals("oldest") && !sortBy.equals("personalized")) {
+            throw new IllegalArgumentException("Invalid sortBy parameter. Must be 'popular', 'rating', 'newest', 'oldest', or 'personalized'");
         }
 
         Pageable pageable = PageRequest.of(0, limit);
@@ -273,13 +408,67 @@ public class BookService {
                 books = bookRepository.findBooksFilteredAndSortedByOldest(
                     genre, minYear, maxYear, pageable);
                 break;
+            case "personalized":
+                books = loadInOrder(getPersonalizedBookIds(userId, genre, minYear, maxYear, limit));
+                break;
             default: // popular
                 books = bookRepository.findBooksFilteredAndSortedByPopularity(
                     genre, minYear, maxYear, pageable);
         }
 
-        return books.stream()
-                .map(book -> mapToBookResponse(book, userId))
+        return mapToBookResponses(books, userId);
+    }
+
+    /**
+     * The most reviewed books matching the filter, reordered by the user's genre affinity.
+     * Candidates come from the review counters in book_rating_stats, topped up in id order
+     * when fewer books than asked for have reviews. Users without affinities get that order.
+     */
+    private List<Long> getPersonalizedBookIds(Long userId, String genre, Integer minYear, Integer maxYear, int limit) {
+        Map<Long, Double> affinity = userId != null ? userStatsService.getGenreAffinity(userId) : Map.of();
+        int candidates = affinity.isEmpty() ? limit : Math.max(limit, PERSONALIZED_CANDIDATES);
+        List<Long> bookIds = new ArrayList<>(bookRepository.findBookIdsFilteredAndSortedByRatingCount(
+                genre, minYear, maxYear, PageRequest.of(0, candidates)));
+        if (bookIds.size() < limit) {
+            Set<Long> seen = new HashSet<>(bookIds);
+            for (Long bookId : bookRepository.findBookIdsFiltered(
+                    genre, minYear, maxYear, PageRequest.of(0, limit + bookIds.size()))) {
+                if (bookIds.size() < limit && seen.add(bookId)) {
+                    bookIds.add(bookId);
+                }
+            }
+        }
+        if (affinity.isEmpty() || bookIds.isEmpty()) {
+            return bookIds.subList(0, Math.min(limit, bookIds.size()));
+        }
+
+        Map<Long, List<Long>> genreIdsByBook = new HashMap<>();
+        for (Object[] row : bookRepository.findGenreIdsByBookIdIn(bookIds)) {
+            genreIdsByBook.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                    .add(((Number) row[1]).longValue());
+        }
+        return rankByAffinity(bookIds, genreIdsByBook, affinity, limit);
+    }
+
+    /**
+     * Order books by the dot product of their genres with the user's genre affinity, over
+     * the square root of their genre count so books are not favoured just for having many
+     * genres. The sort is stable: equal scores keep the order of {@code bookIds}.
+     */
+    static List<Long> rankByAffinity(List<Long> bookIds, Map<Long, List<Long>> genreIdsByBook,
+                                     Map<Long, Double> affinity, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long bookId : bookIds) {
+            List<Long> genreIds = genreIdsByBook.getOrDefault(bookId, List.of());
+            double score = 0.0;
+            for (Long genreId : genreIds) {
+                score += affinity.getOrDefault(genreId, 0.0);
+            }
+            scores.put(bookId, genreIds.isEmpty() ? 0.0 : score / Math.sqrt(genreIds.size()));
+        }
+        return bookIds.stream()
+                .sorted(Comparator.comparing(scores::get, Comparator.reverseOrder()))
+                .limit(limit)
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,26 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * What the current user has done with a book: reading status, favorite flag and own rating.
+ * Loaded for a whole page of books at once with {@code BookRepository.findViewerState}.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class BookViewerState {
+
+    private final ReadingStatusEnum status;
+    private final boolean favorite;
+    private final BigDecimal rating;
+
+    public static BookViewerState fromRow(Object[] row) {
+        return new BookViewerState((ReadingStatusEnum) row[1], Boolean.TRUE.equals(row[2]), (BigDecimal) row[3]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.parchelector.service;
+
+import com.parchelector.repository.LibraryListRepository;
+import com.parchelector.repository.ReviewRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service that repairs drift in the denormalized like/comment counters of reviews and lists.
+ * Counters are maintained transactionally on every interaction, so repairs should be rare;
+ * the "parche.counters.repaired" metric shows how often they are actually needed.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class CounterReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+    private final ReviewRepository reviewRepository;
+    private final LibraryListRepository libraryListRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter reviewLikesRepaired;
+    private final Counter reviewCommentsRepaired;
+    private final Counter listLikesRepaired;
+    private final Timer reconcileTimer;
+
+    @Autowired
+    public CounterReconciliationService(ReviewRepository reviewRepository,
+                                        LibraryListRepository libraryListRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.reviewRepository = reviewRepository;
+        this.libraryListRepository = libraryListRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reviewLikesRepaired = repairedCounter(meterRegistry, "review_likes");
+        this.reviewCommentsRepaired = repairedCounter(meterRegistry, "review_comments");
+        this.listLikesRepaired = repairedCounter(meterRegistry, "list_likes");
+        this.reconcileTimer = Timer.builder("parche.counters.reconcile")
+                .description("Duration of counter reconciliation runs")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Periodic reconciliation, hourly by default.
+     */
+    @Scheduled(initialDelayString = "${app.counters.reconcile-interval-ms:3600000}",
+               fixedDelayString = "${app.counters.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        reconcileTimer.record(this::reconcile);
+    }
+
+    /**
+     * Recompute every counter that differs from its source rows, in one transaction of its own
+     * so it also works when called from inside this bean (the scheduled run is a self-call).
+     *
+     * @return number of rows repaired
+     */
+    public int reconcile() {
+        int[] repairs = transactionTemplate.execute(status -> new int[] {
+                reviewRepository.repairLikeCounts(),
+                reviewRepository.repairCommentCounts(),
+                libraryListRepository.repairLikeCounts()
+        });
+        int reviewLikes = repairs[0];
+        int reviewComments = repairs[1];
+        int listLikes = repairs[2];
+
+        reviewLikesRepaired.increment(reviewLikes);
+        reviewCommentsRepaired.increment(reviewComments);
+        listLikesRepaired.increment(listLikes);
+
+        int repaired = reviewLikes + reviewComments + listLikes;
+        if (repaired > 0) {
+            log.warn("Repaired drifted counters: {} review likes, {} review comments, {} list likes",
+                    reviewLikes, reviewComments, listLikes);
+        }
+        return repaired;
+    }
+
+    private static Counter repairedCounter(MeterRegistry meterRegistry, String counter) {
+        return Counter.builder("parche.counters.repaired")
+                .description("Denormalized counter rows found out of sync and repaired")
+                .tag("counter", counter)
+                .register(meterRegistry);
+    }
+}
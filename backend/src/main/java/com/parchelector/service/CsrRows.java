@@ -0,0 +1,110 @@
+package com.parchelector.service;
+
+import java.util.Arrays;
+
+/**
+ * Rows of numbers in CSR form, each sorted and without duplicates: row {@code r} is
+ * {@code values[offsets[r] .. offsets[r + 1])}. Built with a counting sort of (row, value)
+ * pairs, so memory stays proportional to the number of pairs.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class CsrRows {
+
+    final int[] offsets;
+    final int[] values;
+
+    private CsrRows(int[] offsets, int[] values) {
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    /**
+     * Group (row, value) pairs into rows.
+     *
+     * @param maxRowLength rows with more distinct values are left empty
+     */
+    static CsrRows of(int rowCount, int[] rows, int[] values, int maxRowLength) {
+        int[] starts = new int[rowCount + 1];
+        for (int row : rows) {
+            starts[row + 1]++;
+        }
+        for (int r = 0; r < rowCount; r++) {
+            starts[r + 1] += starts[r];
+        }
+        int[] grouped = new int[rows.length];
+        int[] next = Arrays.copyOf(starts, rowCount);
+        for (int i = 0; i < rows.length; i++) {
+            grouped[next[rows[i]]++] = values[i];
+        }
+
+        // Sort each row and compact it in place, dropping duplicates
+        int[] offsets = new int[rowCount + 1];
+        int length = 0;
+        for (int r = 0; r < rowCount; r++) {
+            int start = length;
+            Arrays.sort(grouped, starts[r], starts[r + 1]);
+            for (int p = starts[r]; p < starts[r + 1]; p++) {
+                if (length == start || grouped[length - 1] != grouped[p]) {
+                    grouped[length++] = grouped[p];
+                }
+            }
+            if (length - start > maxRowLength) {
+                length = start;
+            }
+            offsets[r + 1] = length;
+        }
+        return new CsrRows(offsets, Arrays.copyOf(grouped, length));
+    }
+
+    /**
+     * The transpose: row {@code c} of the result holds the rows that contain {@code c}, in
+     * increasing order.
+     */
+    CsrRows transpose(int columnCount) {
+        int[] columnOffsets = new int[columnCount + 1];
+        for (int value : values) {
+            columnOffsets[value + 1]++;
+        }
+        for (int c = 0; c < columnCount; c++) {
+            columnOffsets[c + 1] += columnOffsets[c];
+        }
+        int[] columnRows = new int[values.length];
+        int[] next = Arrays.copyOf(columnOffsets, columnCount);
+        for (int r = 0; r < rowCount(); r++) {
+            for (int p = offsets[r]; p < offsets[r + 1]; p++) {
+                columnRows[next[values[p]]++] = r;
+            }
+        }
+        return new CsrRows(columnOffsets, columnRows);
+    }
+
+    int rowCount() {
+        return offsets.length - 1;
+    }
+
+    int length(int row) {
+        return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * Number of values two rows have in common: a merge of two sorted runs.
+     */
+    int shared(int row, int otherRow) {
+        int count = 0;
+        int i = offsets[row];
+        int j = offsets[otherRow];
+        while (i < offsets[row + 1] && j < offsets[otherRow + 1]) {
+            if (values[i] < values[j]) {
+                i++;
+            } else if (values[i] > values[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,228 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.EmailOutboxMessage;
+import com.parchelector.model.entity.EmailOutboxMessage.Status;
+import com.parchelector.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background sender for the email outbox. Each run claims the due messages with a
+ * time-limited lease, sends them on a small fixed pool, and records the outcome:
+ * sent, retried later with exponential backoff, or dead-lettered after too many attempts.
+ * A message whose lease expires (e.g. the process died mid-send) is picked up again.
+ * Runs do not wait for their sends, so a slow SMTP server never holds the scheduler thread;
+ * they only claim as many messages as there are idle senders, and never one still in flight.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final MailTransport mailTransport;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService senders;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final int maxConcurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+
+    @Autowired
+    public EmailDispatcher(EmailOutboxRepository outboxRepository,
+                           MailTransport mailTransport,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.email.max-concurrency:4}") int maxConcurrency,
+                           @Value("${app.email.batch-size:50}") int batchSize,
+                           @Value("${app.email.max-attempts:8}") int maxAttempts,
+                           @Value("${app.email.base-backoff-seconds:30}") long baseBackoffSeconds,
+                           @Value("${app.email.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                           @Value("${app.email.lease-seconds:300}") long leaseSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.mailTransport = mailTransport;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.senders = Executors.newFixedThreadPool(maxConcurrency, senderThreadFactory());
+        this.maxConcurrency = maxConcurrency;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.sentCounter = outcomeCounter(meterRegistry, "sent");
+        this.retriedCounter = outcomeCounter(meterRegistry, "retried");
+        this.deadCounter = outcomeCounter(meterRegistry, "dead");
+        Gauge.builder("parche.email.outbox.pending", outboxRepository, r -> r.countByStatus(Status.PENDING))
+                .description("Emails waiting in the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Poll the outbox, every 2 seconds by default.
+     */
+    @Scheduled(initialDelayString = "${app.email.dispatch-interval-ms:2000}",
+               fixedDelayString = "${app.email.dispatch-interval-ms:2000}")
+    public void scheduledDispatch() {
+        dispatch();
+    }
+
+    /**
+     * Hand due messages to idle senders, at most max-concurrency in flight at a time,
+     * without waiting for them to be sent.
+     *
+     * @return number of messages handed to the senders
+     */
+    public int dispatch() {
+        int idle = maxConcurrency - inFlight.size();
+        if (idle <= 0) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(lease);
+        List<Long> dueIds = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+
+        int submitted = 0;
+        for (Long id : dueIds) {
+            if (submitted == idle) {
+                break;
+            }
+            // A send that outlived its lease is still ours; claiming it again would send it twice
+            if (inFlight.contains(id)) {
+                continue;
+            }
+            Integer claimed = transactionTemplate.execute(status -> outboxRepository.claim(id, now, leaseUntil));
+            if (claimed != null && claimed == 1) {
+                inFlight.add(id);
+                senders.execute(() -> send(id));
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Delete sent and dead messages after a week, daily by default.
+     */
+    @Scheduled(initialDelayString = "${app.email.purge-interval-ms:86400000}",
+               fixedDelayString = "${app.email.purge-interval-ms:86400000}")
+    public void purgeSent() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(7)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} sent and dead emails from the outbox", deleted);
+        }
+    }
+
+    private void send(Long id) {
+        try {
+            deliver(id);
+        } catch (RuntimeException e) {
+            log.error("Email dispatch task failed", e);
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    void deliver(Long id) {
+        EmailOutboxMessage message = outboxRepository.findById(id).orElse(null);
+        if (message == null) {
+            return;
+        }
+
+        try {
+            mailTransport.send(message.getRecipient(), message.getSubject(), message.getBody());
+        } catch (Exception e) {
+            recordFailure(message, e);
+            return;
+        }
+
+        transactionTemplate.execute(status -> outboxRepository.markSent(id, LocalDateTime.now()));
+        sentCounter.increment();
+    }
+
+    private void recordFailure(EmailOutboxMessage message, Exception e) {
+        int attempts = message.getAttempts() + 1;
+        String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+
+        if (attempts >= maxAttempts) {
+            transactionTemplate.execute(status -> outboxRepository.markDead(
+                    message.getId(), LocalDateTime.now(), error));
+            deadCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempts, error);
+        } else {
+            LocalDateTime nextAttemptAt = LocalDateTime.now().plus(backoff(attempts));
+            transactionTemplate.execute(status -> outboxRepository.markFailed(
+                    message.getId(), Status.PENDING, nextAttemptAt, error));
+            retriedCounter.increment();
+            log.warn("Email {} failed (attempt {}), retrying at {}: {}",
+                    message.getId(), attempts, nextAttemptAt, error);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: base * 2^(attempts - 1), capped at max-backoff.
+     */
+    Duration backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        Duration delay = baseBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("parche.email.dispatched")
+                .description("Outbox emails by delivery outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -1,17 +1,17 @@
 package com.parchelector.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.parchelector.model.entity.EmailOutboxMessage;
+import com.parchelector.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.util.Map;
 
 /**
- * Service for sending real emails via SMTP.
+ * Service that renders emails and queues them in the email outbox.
+ * Delivery happens in the background (see EmailDispatcher), so callers never wait on SMTP;
+ * the outbox row is written in the caller's transaction and is only sent if it commits.
  * 
  * @author Nicolas Arciniegas
  */
@@ -19,42 +19,31 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 public class EmailService implements IEmailService {
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxRepository outboxRepository;
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer templateRenderer;
 
     @Value("${app.frontend.url}")
     private String frontendUrl;
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
     /**
-     * Send password reset email with token.
+     * Queue password reset email with token.
      */
     public void sendPasswordResetEmail(String toEmail, String username, String token) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Parche Lector - Restablecer Contraseña");
-
-            // Create context for Thymeleaf template
-            Context context = new Context();
-            context.setVariable("username", username);
-            context.setVariable("resetUrl", frontendUrl + "/reset-password?token=" + token);
-            context.setVariable("expirationMinutes", 60);
-
-            // Process template
-            String htmlContent = templateEngine.process("password-reset-email", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Failed to send password reset email", e);
-        }
+        String htmlContent = templateRenderer.render("password-reset-email", Map.of(
+                "username", username,
+                "resetUrl", frontendUrl + "/reset-password?token=" + token,
+                "expirationMinutes", 60));
+
+        enqueue(toEmail, "Parche Lector - Restablecer Contraseña", htmlContent);
+    }
+
+    private void enqueue(String toEmail, String subject, String htmlBody) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setRecipient(toEmail);
+        message.setSubject(subject);
+        message.setBody(htmlBody);
+        outboxRepository.save(message);
     }
 }
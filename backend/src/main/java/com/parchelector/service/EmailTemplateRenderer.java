@@ -0,0 +1,100 @@
+package com.parchelector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders email templates with a template engine of its own, separate from the one
+ * configured by spring.thymeleaf.*. Parsed templates are always cached here (mail
+ * templates only change on deploy) and SpEL expressions are compiled to bytecode,
+ * so a send only evaluates an already-parsed template.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class EmailTemplateRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateRenderer.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    @Value("${app.email.templates:password-reset-email}")
+    private List<String> templates = List.of();
+
+    public EmailTemplateRenderer() {
+        this(true);
+    }
+
+    /**
+     * @param cacheable false only to measure the cost of re-parsing on every render
+     */
+    public EmailTemplateRenderer(boolean cacheable) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(cacheable);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+    }
+
+    /**
+     * Parse every known email template at startup, so the first send does not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompile() {
+        for (String template : templates) {
+            templateEngine.process(template, new Context());
+        }
+        log.info("Precompiled {} email templates", templates.size());
+    }
+
+    /**
+     * Render one message.
+     */
+    public String render(String template, Map<String, Object> variables) {
+        return templateEngine.process(template, new Context(Locale.getDefault(), variables));
+    }
+
+    /**
+     * Render one message per recipient from the same parsed template, e.g. for digests.
+     *
+     * @param variablesPerRecipient template variables of each message, in order
+     * @return rendered messages, in the same order
+     */
+    public List<String> renderAll(String template, List<Map<String, Object>> variablesPerRecipient) {
+        List<String> rendered = new ArrayList<>(variablesPerRecipient.size());
+        Context context = new Context();
+        int sizeHint = 1024;
+
+        for (Map<String, Object> variables : variablesPerRecipient) {
+            context.clearVariables();
+            context.setVariables(variables);
+
+            StringWriter writer = new StringWriter(sizeHint);
+            templateEngine.process(template, context, writer);
+            String html = writer.toString();
+            sizeHint = html.length() + 64;
+            rendered.add(html);
+        }
+        return rendered;
+    }
+}
@@ -0,0 +1,57 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.FeedEntry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for the social feed: the (createdAt, type, id) position of the
+ * last item a client has seen. Encoded as URL-safe Base64 so clients treat it as a token.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class FeedCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final String itemType;
+    private final Long itemId;
+
+    /**
+     * Cursor pointing right after the given timeline entry.
+     */
+    public static FeedCursor after(FeedEntry entry) {
+        return new FeedCursor(entry.getCreatedAt(), entry.getItemType(), entry.getItemId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + itemType + SEPARATOR + itemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor received from a client.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static FeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+            return new FeedCursor(LocalDateTime.parse(parts[0]), parts[1], Long.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+    }
+}
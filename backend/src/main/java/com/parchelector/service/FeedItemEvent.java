@@ -0,0 +1,19 @@
+package com.parchelector.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published when a review or list was fanned out to the timelines of
+ * its author's followers. Published inside the originating transaction.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class FeedItemEvent {
+
+    private final Long actorUserId;
+    private final String itemType;
+    private final Long itemId;
+}
@@ -0,0 +1,102 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.FeedEntry;
+import com.parchelector.model.entity.LibraryList;
+import com.parchelector.model.entity.Review;
+import com.parchelector.repository.FeedEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service that maintains the materialized per-user feed timelines (fan-out on write).
+ * Writes happen in the same transaction as the review/list/follow change that triggers them.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class FeedTimelineService {
+
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Append a new review to the timeline of every follower of its author.
+     */
+    @Transactional
+    public void publishReview(Review review) {
+        feedEntryRepository.fanOut(
+                review.getUser().getId(),
+                FeedEntry.TYPE_REVIEW,
+                review.getId(),
+                review.getCreatedAt()
+        );
+        eventPublisher.publishEvent(new FeedItemEvent(review.getUser().getId(), FeedEntry.TYPE_REVIEW, review.getId()));
+    }
+
+    /**
+     * Append a new list to the timeline of every follower of its owner.
+     * Private lists never reach other users' timelines.
+     */
+    @Transactional
+    public void publishList(LibraryList list) {
+        if ("PRIVATE".equals(list.getVisibility())) {
+            return;
+        }
+        feedEntryRepository.fanOut(
+                list.getUser().getId(),
+                FeedEntry.TYPE_LIST,
+                list.getId(),
+                list.getCreatedAt()
+        );
+        eventPublisher.publishEvent(new FeedItemEvent(list.getUser().getId(), FeedEntry.TYPE_LIST, list.getId()));
+    }
+
+    /**
+     * Remove a review from every timeline (e.g. after it was deleted).
+     */
+    @Transactional
+    public void retractReview(Long reviewId) {
+        feedEntryRepository.deleteByItem(FeedEntry.TYPE_REVIEW, reviewId);
+    }
+
+    /**
+     * Remove a list from every timeline (e.g. after it was deleted or made private).
+     */
+    @Transactional
+    public void retractList(Long listId) {
+        feedEntryRepository.deleteByItem(FeedEntry.TYPE_LIST, listId);
+    }
+
+    /**
+     * Copy the existing content of a newly followed user into the follower's timeline.
+     */
+    @Transactional
+    public void onFollow(Long followerId, Long followedId) {
+        feedEntryRepository.copyReviewsOf(followerId, followedId);
+        feedEntryRepository.copyListsOf(followerId, followedId);
+    }
+
+    /**
+     * Drop the content of an unfollowed user from the follower's timeline.
+     */
+    @Transactional
+    public void onUnfollow(Long followerId, Long followedId) {
+        feedEntryRepository.deleteByOwnerAndActor(followerId, followedId);
+    }
+
+    /**
+     * Rebuild every timeline from reviews, lists and follows (backfill).
+     *
+     * @return number of entries written
+     */
+    @Transactional
+    public int rebuildAll() {
+        feedEntryRepository.deleteAllEntries();
+        return feedEntryRepository.rebuildReviewEntries() + feedEntryRepository.rebuildListEntries();
+    }
+}
@@ -0,0 +1,17 @@
+package com.parchelector.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published when a user follows or unfollows someone, inside the
+ * transaction that made the change.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class FollowChangedEvent {
+
+    private final Long followerId;
+}
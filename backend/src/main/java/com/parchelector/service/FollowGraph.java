@@ -0,0 +1,243 @@
+package com.parchelector.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable snapshot of who follows whom, plus each user's favorite books and genres, used to
+ * suggest people to follow.
+ *
+ * <p>Users, books and genres are numbered densely while building ({@link IdPairs}). Adjacency
+ * and the favorite book and genre sets are {@link CsrRows}: the users followed by user
+ * {@code u} are {@code follows.values[follows.offsets[u] .. follows.offsets[u + 1])}, sorted,
+ * so shared favorites and genres are a merge of two sorted runs.
+ *
+ * <p>The candidates for a user are the users followed by the users they follow (second
+ * degree), leaving out themselves and those they already follow. A candidate scores one per
+ * followed user who follows them, plus {@link #SHARED_FAVORITE_WEIGHT} per shared favorite
+ * book and {@link #SHARED_GENRE_WEIGHT} per shared genre.
+ *
+ * @author Nicolas Arciniegas
+ */
+public final class FollowGraph {
+
+    public static final float SHARED_FAVORITE_WEIGHT = 0.5f;
+
+    public static final float SHARED_GENRE_WEIGHT = 0.25f;
+
+    /** Users per fork-join leaf task. */
+    private static final int USERS_PER_TASK = 256;
+
+    private final long[] userIds;
+    private final CsrRows follows;
+    private final CsrRows favorites;
+    private final CsrRows genres;
+
+    private FollowGraph(long[] userIds, CsrRows follows, CsrRows favorites, CsrRows genres) {
+        this.userIds = userIds;
+        this.follows = follows;
+        this.favorites = favorites;
+        this.genres = genres;
+    }
+
+    /**
+     * Number of users, including those who follow nobody.
+     */
+    public int size() {
+        return userIds.length;
+    }
+
+    public long userId(int user) {
+        return userIds[user];
+    }
+
+    /**
+     * IDs of the users who follow someone: the only ones that can get suggestions.
+     */
+    public long[] followerIds() {
+        int count = 0;
+        long[] ids = new long[userIds.length];
+        for (int user = 0; user < userIds.length; user++) {
+            if (follows.length(user) > 0) {
+                ids[count++] = userIds[user];
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    /**
+     * Compute the best suggestions of each of the given users; users missing from the graph
+     * get none.
+     *
+     * @param suggestionCount suggestions kept per user
+     * @param maxFollowing    followed users who follow more people than this are not used to
+     *                        reach candidates (bulk follow accounts): they would make almost
+     *                        everyone a candidate and say little about who fits
+     */
+    public Suggestions suggest(ForkJoinPool pool, long[] forUserIds, int suggestionCount, int maxFollowing) {
+        if (suggestionCount < 1) {
+            throw new IllegalArgumentException("Suggestion count must be at least 1");
+        }
+        int userCount = userIds.length;
+        int[][] topUsers = new int[forUserIds.length][];
+        float[][] topScores = new float[forUserIds.length][];
+        int[][] topMutual = new int[forUserIds.length][];
+        ThreadLocal<SparseCounter> counters = ThreadLocal.withInitial(() -> new SparseCounter(userCount));
+        // followedBy[v] == user + 1 marks v as followed by the user being computed
+        ThreadLocal<int[]> marks = ThreadLocal.withInitial(() -> new int[userCount]);
+        ParallelRanges.forEach(pool, forUserIds.length, USERS_PER_TASK, (from, to) -> {
+            SparseCounter counter = counters.get();
+            int[] followedBy = marks.get();
+            TopN top = new TopN(suggestionCount);
+            for (int i = from; i < to; i++) {
+                top.clear();
+                int user = IdPairs.numberOf(userIds, forUserIds[i]);
+                if (user >= 0) {
+                    rank(user, maxFollowing, counter, followedBy, top);
+                }
+                topUsers[i] = top.items();
+                topScores[i] = top.scores();
+                topMutual[i] = top.tags();
+            }
+        });
+
+        int[] offsets = new int[forUserIds.length + 1];
+        for (int i = 0; i < forUserIds.length; i++) {
+            offsets[i + 1] = offsets[i] + topUsers[i].length;
+        }
+        long[] suggested = new long[offsets[forUserIds.length]];
+        float[] scores = new float[suggested.length];
+        int[] mutualFollows = new int[suggested.length];
+        for (int i = 0; i < forUserIds.length; i++) {
+            for (int j = 0; j < topUsers[i].length; j++) {
+                suggested[offsets[i] + j] = userIds[topUsers[i][j]];
+                scores[offsets[i] + j] = topScores[i][j];
+                mutualFollows[offsets[i] + j] = topMutual[i][j];
+            }
+        }
+        return new Suggestions(forUserIds.clone(), offsets, suggested, scores, mutualFollows);
+    }
+
+    // Count the second-degree candidates of a user and keep the best, tagged with their mutual follows
+    private void rank(int user, int maxFollowing, SparseCounter counter, int[] followedBy, TopN top) {
+        for (int p = follows.offsets[user]; p < follows.offsets[user + 1]; p++) {
+            followedBy[follows.values[p]] = user + 1;
+        }
+        for (int p = follows.offsets[user]; p < follows.offsets[user + 1]; p++) {
+            int followed = follows.values[p];
+            if (follows.length(followed) > maxFollowing) {
+                continue;
+            }
+            for (int q = follows.offsets[followed]; q < follows.offsets[followed + 1]; q++) {
+                int candidate = follows.values[q];
+                if (candidate != user && followedBy[candidate] != user + 1) {
+                    counter.increment(candidate);
+                }
+            }
+        }
+
+        for (int t = 0; t < counter.size(); t++) {
+            int candidate = counter.item(t);
+            int mutual = counter.count(candidate);
+            top.offer(candidate, mutual
+                    + SHARED_FAVORITE_WEIGHT * favorites.shared(user, candidate)
+                    + SHARED_GENRE_WEIGHT * genres.shared(user, candidate), mutual);
+        }
+        counter.clear();
+    }
+
+    /**
+     * Suggestions of a set of users, in CSR form: the suggestions of the i-th user, best
+     * first, are {@code suggested[offsets[i] .. offsets[i + 1])}.
+     */
+    public static final class Suggestions {
+
+        private final long[] userIds;
+        private final int[] offsets;
+        private final long[] suggested;
+        private final float[] scores;
+        private final int[] mutualFollows;
+
+        private Suggestions(long[] userIds, int[] offsets, long[] suggested, float[] scores, int[] mutualFollows) {
+            this.userIds = userIds;
+            this.offsets = offsets;
+            this.suggested = suggested;
+            this.scores = scores;
+            this.mutualFollows = mutualFollows;
+        }
+
+        public int size() {
+            return userIds.length;
+        }
+
+        public long userId(int i) {
+            return userIds[i];
+        }
+
+        public long[] suggestedUserIds(int i) {
+            return Arrays.copyOfRange(suggested, offsets[i], offsets[i + 1]);
+        }
+
+        public float[] scores(int i) {
+            return Arrays.copyOfRange(scores, offsets[i], offsets[i + 1]);
+        }
+
+        /**
+         * How many of the users the i-th user follows follow each suggestion.
+         */
+        public int[] mutualFollows(int i) {
+            return Arrays.copyOfRange(mutualFollows, offsets[i], offsets[i + 1]);
+        }
+    }
+
+    /**
+     * Collects follows, favorite books and genres; duplicates are ignored.
+     */
+    public static final class Builder {
+
+        private final IdPairs follows = new IdPairs();
+        private final IdPairs favorites = new IdPairs();
+        private final IdPairs genres = new IdPairs();
+
+        public Builder addFollow(long followerId, long followedId) {
+            follows.add(followerId, followedId);
+            return this;
+        }
+
+        public Builder addFavorite(long userId, long bookId) {
+            favorites.add(userId, bookId);
+            return this;
+        }
+
+        public Builder addGenre(long userId, long genreId) {
+            genres.add(userId, genreId);
+            return this;
+        }
+
+        public FollowGraph build() {
+            long[] userIds = IdPairs.distinctSorted(concat(follows.firsts(), follows.seconds(),
+                    favorites.firsts(), genres.firsts()));
+            int userCount = userIds.length;
+            long[] bookIds = IdPairs.distinctSorted(favorites.seconds());
+            long[] genreIds = IdPairs.distinctSorted(genres.seconds());
+
+            return new FollowGraph(userIds,
+                    CsrRows.of(userCount, follows.firstNumbers(userIds), follows.secondNumbers(userIds),
+                            Integer.MAX_VALUE),
+                    CsrRows.of(userCount, favorites.firstNumbers(userIds), favorites.secondNumbers(bookIds),
+                            Integer.MAX_VALUE),
+                    CsrRows.of(userCount, genres.firstNumbers(userIds), genres.secondNumbers(genreIds),
+                            Integer.MAX_VALUE));
+        }
+
+        private static long[] concat(long[]... parts) {
+            long[] all = new long[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+            int at = 0;
+            for (long[] part : parts) {
+                System.arraycopy(part, 0, all, at, part.length);
+                at += part.length;
+            }
+            return all;
+        }
+    }
+}
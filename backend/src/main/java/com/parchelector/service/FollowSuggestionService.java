@@ -0,0 +1,291 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.FollowSuggestions;
+import com.parchelector.repository.FollowSuggestionsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * "People you may know" suggestions. A periodic job loads follows, favorite books and genres
+ * into a {@link FollowGraph}, ranks every user's second-degree connections and replaces
+ * follow_suggestions, so serving suggestions is a single primary-key read.
+ * <p>
+ * A follow or unfollow marks the follower as changed; every minute by default the changed
+ * users are recomputed in one batch from the part of the graph they reach (their follows,
+ * the follows of those users, and the candidates' favorites and genres). The follower's own
+ * followers, whose second degree moved with that follow, are queued for the next batch;
+ * users with more followers than {@code max-refreshed-followers} leave theirs to the next
+ * full rebuild.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class FollowSuggestionService extends PrecomputedTableJob {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowSuggestionService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO follow_suggestions (user_id, suggested_user_ids, scores, mutual_follows, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    /** IDs per IN list when loading the part of the graph changed users reach. */
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    private final FollowSuggestionsRepository followSuggestionsRepository;
+    private final int suggestionCount;
+    private final int maxFollowing;
+    private final int refreshBatchSize;
+    private final int maxRefreshedFollowers;
+
+    // Users who followed or unfollowed someone
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+
+    // Followers of changed users: their second degree moved, their own follows did not
+    private final Set<Long> staleUsers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public FollowSuggestionService(FollowSuggestionsRepository followSuggestionsRepository,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.follow-suggestions.count:50}") int suggestionCount,
+                                   @Value("${app.follow-suggestions.max-following:5000}") int maxFollowing,
+                                   @Value("${app.follow-suggestions.refresh-batch-size:500}") int refreshBatchSize,
+                                   @Value("${app.follow-suggestions.max-refreshed-followers:10000}") int maxRefreshedFollowers,
+                                   @Value("${app.follow-suggestions.parallelism:0}") int parallelism) {
+        super(jdbcTemplate, transactionManager, parallelism);
+        this.followSuggestionsRepository = followSuggestionsRepository;
+        this.suggestionCount = suggestionCount;
+        this.maxFollowing = maxFollowing;
+        this.refreshBatchSize = refreshBatchSize;
+        this.maxRefreshedFollowers = maxRefreshedFollowers;
+    }
+
+    /**
+     * Suggested users for a user, best first, with how many of the users they follow follow
+     * each one. Users followed since the suggestions were computed are left out.
+     */
+    public Map<Long, Integer> getSuggestions(Long userId, int limit) {
+        Map<Long, Integer> suggestions = new LinkedHashMap<>();
+        FollowSuggestions row = followSuggestionsRepository.findById(userId).orElse(null);
+        if (row == null) {
+            return suggestions;
+        }
+        long[] suggestedUserIds = row.getSuggestedUserIds();
+        Set<Long> followed = new HashSet<>(followSuggestionsRepository.findFollowedUserIdsIn(userId,
+                Arrays.stream(suggestedUserIds).boxed().collect(Collectors.toList())));
+        for (int i = 0; i < suggestedUserIds.length && suggestions.size() < limit; i++) {
+            if (!followed.contains(suggestedUserIds[i])) {
+                suggestions.put(suggestedUserIds[i], row.getMutualFollows()[i]);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Queue the follower for recomputation once the follow or unfollow committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        changedUsers.add(event.getFollowerId());
+    }
+
+    /**
+     * Recompute the suggestions of users who followed or unfollowed someone, and then of their
+     * followers, every minute by default.
+     */
+    @Scheduled(initialDelayString = "${app.follow-suggestions.refresh-interval-ms:60000}",
+               fixedDelayString = "${app.follow-suggestions.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        try {
+            while (refreshChangedUsers() == refreshBatchSize) {
+                // Keep going while full batches are waiting
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh follow suggestions", e);
+        }
+    }
+
+    /**
+     * Recompute one batch of changed users, then of stale ones; on failure they stay queued.
+     *
+     * @return number of users recomputed
+     */
+    public synchronized int refreshChangedUsers() {
+        List<Long> changed = take(changedUsers, refreshBatchSize);
+        List<Long> stale = take(staleUsers, refreshBatchSize - changed.size());
+        List<Long> users = new ArrayList<>(changed);
+        users.addAll(stale);
+        if (users.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            FollowGraph.Builder builder = new FollowGraph.Builder();
+            Set<Long> followers = new HashSet<>();
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                Set<Long> followed = new HashSet<>();
+                for (Object[] row : followSuggestionsRepository.findFollowsOf(users)) {
+                    addFollow(builder, row);
+                    followed.add(((Number) row[1]).longValue());
+                }
+                Set<Long> reached = new HashSet<>(users);
+                forEachChunk(followed, chunk -> {
+                    for (Object[] row : followSuggestionsRepository.findFollowsOf(chunk)) {
+                        addFollow(builder, row);
+                        reached.add(((Number) row[1]).longValue());
+                    }
+                });
+                forEachChunk(reached, chunk -> {
+                    followSuggestionsRepository.findFavoritesOf(chunk).forEach(row -> addFavorite(builder, row));
+                    followSuggestionsRepository.findGenresOf(chunk).forEach(row -> addGenre(builder, row));
+                });
+                forEachChunk(changed, chunk ->
+                        followers.addAll(followSuggestionsRepository.findFollowerIdsOf(chunk, maxRefreshedFollowers)));
+            });
+
+            FollowGraph graph = builder.build();
+            FollowGraph.Suggestions suggestions = compute(pool ->
+                    graph.suggest(pool, users.stream().mapToLong(Long::longValue).toArray(), suggestionCount, maxFollowing));
+            transactionTemplate.executeWithoutResult(status -> {
+                followSuggestionsRepository.deleteAllByIdInBatch(users);
+                insert(INSERT_SQL, rowsWithSuggestions(suggestions), setter(suggestions));
+            });
+
+            // Those just recomputed already saw the new follows
+            users.forEach(followers::remove);
+            staleUsers.addAll(followers);
+            return users.size();
+        } catch (RuntimeException e) {
+            changedUsers.addAll(changed);
+            staleUsers.addAll(stale);
+            throw e;
+        }
+    }
+
+    /**
+     * Recompute the suggestions of every user, once a day by default.
+     */
+    @Scheduled(initialDelayString = "${app.follow-suggestions.rebuild-interval-ms:86400000}",
+               fixedDelayString = "${app.follow-suggestions.rebuild-interval-ms:86400000}")
+    public void scheduledRebuild() {
+        rebuildOrLog();
+    }
+
+    /**
+     * Recompute every user's suggestions and replace the table.
+     *
+     * @return number of users with suggestions
+     */
+    @Override
+    public synchronized int rebuildAll() {
+        long start = System.currentTimeMillis();
+        // Changes committed before the graph is read are part of it
+        Set<Long> covered = new HashSet<>(changedUsers);
+        changedUsers.removeAll(covered);
+        Set<Long> coveredStale = new HashSet<>(staleUsers);
+        staleUsers.removeAll(coveredStale);
+
+        FollowGraph graph;
+        int written;
+        try {
+            FollowGraph.Builder builder = new FollowGraph.Builder();
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                forEachRow(followSuggestionsRepository.streamFollows(), row -> addFollow(builder, row));
+                forEachRow(followSuggestionsRepository.streamFavorites(), row -> addFavorite(builder, row));
+                forEachRow(followSuggestionsRepository.streamGenres(), row -> addGenre(builder, row));
+            });
+
+            graph = builder.build();
+            FollowGraph.Suggestions suggestions = compute(pool ->
+                    graph.suggest(pool, graph.followerIds(), suggestionCount, maxFollowing));
+            written = replaceAll("follow_suggestions", INSERT_SQL, rowsWithSuggestions(suggestions), setter(suggestions));
+        } catch (RuntimeException e) {
+            changedUsers.addAll(covered);
+            staleUsers.addAll(coveredStale);
+            throw e;
+        }
+
+        log.info("Rebuilt follow suggestions: {} of {} users have suggestions ({} ms)",
+                written, graph.size(), System.currentTimeMillis() - start);
+        return written;
+    }
+
+    @Override
+    protected boolean isEmpty() {
+        return followSuggestionsRepository.count() == 0;
+    }
+
+    private static List<Integer> rowsWithSuggestions(FollowGraph.Suggestions suggestions) {
+        return IntStream.range(0, suggestions.size())
+                .filter(i -> suggestions.suggestedUserIds(i).length > 0)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    private static ParameterizedPreparedStatementSetter<Integer> setter(FollowGraph.Suggestions suggestions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return (statement, i) -> {
+            Connection connection = statement.getConnection();
+            statement.setLong(1, suggestions.userId(i));
+            statement.setArray(2, SqlArrays.bigintArray(connection, suggestions.suggestedUserIds(i)));
+            statement.setArray(3, SqlArrays.realArray(connection, suggestions.scores(i)));
+            statement.setArray(4, SqlArrays.integerArray(connection, suggestions.mutualFollows(i)));
+            statement.setTimestamp(5, now);
+        };
+    }
+
+    private static List<Long> take(Set<Long> queue, int max) {
+        List<Long> taken = new ArrayList<>();
+        Iterator<Long> iterator = queue.iterator();
+        while (iterator.hasNext() && taken.size() < max) {
+            taken.add(iterator.next());
+            iterator.remove();
+        }
+        return taken;
+    }
+
+    private static void forEachChunk(Collection<Long> ids, Consumer<List<Long>> action) {
+        List<Long> list = new ArrayList<>(ids);
+        for (int from = 0; from < list.size(); from += QUERY_CHUNK_SIZE) {
+            action.accept(list.subList(from, Math.min(list.size(), from + QUERY_CHUNK_SIZE)));
+        }
+    }
+
+    // Native queries return the ID column types of the schema, so read them as numbers
+    private static void addFollow(FollowGraph.Builder builder, Object[] row) {
+        builder.addFollow(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+
+    private static void addFavorite(FollowGraph.Builder builder, Object[] row) {
+        builder.addFavorite(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+
+    private static void addGenre(FollowGraph.Builder builder, Object[] row) {
+        builder.addGenre(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+    }
+}
@@ -0,0 +1,84 @@
+package com.parchelector.service;
+
+import java.util.Arrays;
+
+/**
+ * Growable (first, second) pairs of IDs collected by the graph builders, and the dense
+ * numbering they are turned into. The distinct IDs are sorted once and an ID's number is its
+ * index there, found by binary search, so no boxed map is kept. Numbers follow ID order:
+ * ties broken by the lower number are broken by the lower ID.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class IdPairs {
+
+    private long[] firsts = new long[1024];
+    private long[] seconds = new long[1024];
+    private int size;
+
+    void add(long first, long second) {
+        if (size == firsts.length) {
+            firsts = Arrays.copyOf(firsts, size * 2);
+            seconds = Arrays.copyOf(seconds, size * 2);
+        }
+        firsts[size] = first;
+        seconds[size] = second;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] firsts() {
+        return Arrays.copyOf(firsts, size);
+    }
+
+    long[] seconds() {
+        return Arrays.copyOf(seconds, size);
+    }
+
+    /**
+     * Numbers of the first IDs, which must all be in {@code ids}.
+     */
+    int[] firstNumbers(long[] ids) {
+        return numbers(ids, firsts);
+    }
+
+    /**
+     * Numbers of the second IDs, which must all be in {@code ids}.
+     */
+    int[] secondNumbers(long[] ids) {
+        return numbers(ids, seconds);
+    }
+
+    private int[] numbers(long[] ids, long[] values) {
+        int[] numbers = new int[size];
+        for (int i = 0; i < size; i++) {
+            numbers[i] = Arrays.binarySearch(ids, values[i]);
+        }
+        return numbers;
+    }
+
+    /**
+     * The distinct values, sorted; sorts {@code values} in place.
+     */
+    static long[] distinctSorted(long[] values) {
+        Arrays.sort(values);
+        int length = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (length == 0 || values[length - 1] != values[i]) {
+                values[length++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, length);
+    }
+
+    /**
+     * Number of an ID, or -1 when it is not in {@code ids}.
+     */
+    static int numberOf(long[] ids, long id) {
+        int number = Arrays.binarySearch(ids, id);
+        return number >= 0 ? number : -1;
+    }
+}
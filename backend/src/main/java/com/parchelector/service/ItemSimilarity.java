@@ -0,0 +1,144 @@
+package com.parchelector.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable item-item similarity of books, computed from which users liked which books.
+ *
+ * <p>Users and books are numbered densely while building ({@link IdPairs}). The user-book
+ * matrix is kept as {@link CsrRows} twice: the books of each user and, transposed, the users
+ * of each book. The co-occurrence row of a book is accumulated by walking its users' books
+ * into a {@link SparseCounter}, so memory stays proportional to the number of likes. Rows are
+ * independent and are computed in parallel on a fork-join pool.
+ *
+ * <p>Similarity is the cosine of the two books' user sets:
+ * {@code co(a, b) / sqrt(users(a) * users(b))}. Results are stored in CSR form as well:
+ * the neighbours of book {@code b}, most similar first, are
+ * {@code neighbors[offsets[b] .. offsets[b + 1])}.
+ *
+ * @author Nicolas Arciniegas
+ */
+public final class ItemSimilarity {
+
+    /** Books per fork-join leaf task. */
+    private static final int BOOKS_PER_TASK = 256;
+
+    private final long[] bookIds;
+    private final int[] offsets;
+    private final long[] neighbors;
+    private final float[] scores;
+
+    private ItemSimilarity(long[] bookIds, int[] offsets, long[] neighbors, float[] scores) {
+        this.bookIds = bookIds;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.scores = scores;
+    }
+
+    /**
+     * Number of books, including those without neighbours.
+     */
+    public int size() {
+        return bookIds.length;
+    }
+
+    public long bookId(int book) {
+        return bookIds[book];
+    }
+
+    /**
+     * IDs of the most similar books, most similar first.
+     */
+    public long[] neighborIds(int book) {
+        return Arrays.copyOfRange(neighbors, offsets[book], offsets[book + 1]);
+    }
+
+    /**
+     * Similarities of {@link #neighborIds(int)}, in the same order.
+     */
+    public float[] scores(int book) {
+        return Arrays.copyOfRange(scores, offsets[book], offsets[book + 1]);
+    }
+
+    /**
+     * Collects (user, book) likes; duplicates are ignored.
+     */
+    public static final class Builder {
+
+        private final IdPairs likes = new IdPairs();
+
+        public Builder add(long userId, long bookId) {
+            likes.add(userId, bookId);
+            return this;
+        }
+
+        /**
+         * Compute the top neighbours of every book.
+         *
+         * @param neighborCount   neighbours kept per book
+         * @param minCoOccurrence users two books need in common to be neighbours
+         * @param maxBooksPerUser users who liked more books are left out (bulk imports, bots):
+         *                        their cost grows with the square of their books and they say
+         *                        little about which books go together
+         */
+        public ItemSimilarity build(ForkJoinPool pool, int neighborCount, int minCoOccurrence, int maxBooksPerUser) {
+            if (neighborCount < 1) {
+                throw new IllegalArgumentException("Neighbor count must be at least 1");
+            }
+            long[] userIds = IdPairs.distinctSorted(likes.firsts());
+            long[] bookIds = IdPairs.distinctSorted(likes.seconds());
+            int bookCount = bookIds.length;
+
+            CsrRows userBooks = CsrRows.of(userIds.length, likes.firstNumbers(userIds),
+                    likes.secondNumbers(bookIds), maxBooksPerUser);
+            CsrRows bookUsers = userBooks.transpose(bookCount);
+
+            int[][] topBooks = new int[bookCount][];
+            float[][] topScores = new float[bookCount][];
+            ThreadLocal<SparseCounter> counters = ThreadLocal.withInitial(() -> new SparseCounter(bookCount));
+            ParallelRanges.forEach(pool, bookCount, BOOKS_PER_TASK, (from, to) -> {
+                SparseCounter counter = counters.get();
+                TopN top = new TopN(neighborCount);
+                for (int book = from; book < to; book++) {
+                    for (int p = bookUsers.offsets[book]; p < bookUsers.offsets[book + 1]; p++) {
+                        int user = bookUsers.values[p];
+                        for (int q = userBooks.offsets[user]; q < userBooks.offsets[user + 1]; q++) {
+                            int other = userBooks.values[q];
+                            if (other != book) {
+                                counter.increment(other);
+                            }
+                        }
+                    }
+
+                    top.clear();
+                    for (int t = 0; t < counter.size(); t++) {
+                        int other = counter.item(t);
+                        int common = counter.count(other);
+                        if (common >= minCoOccurrence) {
+                            top.offer(other, (float) (common
+                                    / Math.sqrt((double) bookUsers.length(book) * bookUsers.length(other))), common);
+                        }
+                    }
+                    counter.clear();
+                    topBooks[book] = top.items();
+                    topScores[book] = top.scores();
+                }
+            });
+
+            int[] offsets = new int[bookCount + 1];
+            for (int b = 0; b < bookCount; b++) {
+                offsets[b + 1] = offsets[b] + topBooks[b].length;
+            }
+            long[] neighbors = new long[offsets[bookCount]];
+            float[] scores = new float[offsets[bookCount]];
+            for (int b = 0; b < bookCount; b++) {
+                for (int i = 0; i < topBooks[b].length; i++) {
+                    neighbors[offsets[b] + i] = bookIds[topBooks[b][i]];
+                    scores[offsets[b] + i] = topScores[b][i];
+                }
+            }
+            return new ItemSimilarity(bookIds, offsets, neighbors, scores);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.parchelector.dto.response.ListResponse.BookInList;
 import com.parchelector.model.entity.*;
 import com.parchelector.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,6 +42,15 @@ public class ListService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private FeedTimelineService feedTimelineService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -58,6 +68,9 @@ public class ListService {
         list.setVisibility(request.getVisibility());
 
         LibraryList savedList = libraryListRepository.save(list);
+        userStatsService.changeListCount(userId, 1);
+        feedTimelineService.publishList(savedList);
+        eventPublisher.publishEvent(ActivityEvent.listCreated(userId, savedList.getId(), savedList.getCreatedAt()));
         return mapToListResponse(savedList);
     }
 
@@ -79,11 +92,20 @@ public class ListService {
         if (request.getDescription() != null) {
             list.setDescription(request.getDescription());
         }
+        boolean wasPrivate = "PRIVATE".equals(list.getVisibility());
         if (request.getVisibility() != null) {
             list.setVisibility(request.getVisibility());
         }
 
         LibraryList updatedList = libraryListRepository.save(list);
+
+        // Keep followers' timelines in line with the new visibility
+        boolean isPrivate = "PRIVATE".equals(updatedList.getVisibility());
+        if (!wasPrivate && isPrivate) {
+            feedTimelineService.retractList(listId);
+        } else if (wasPrivate && !isPrivate) {
+            feedTimelineService.publishList(updatedList);
+        }
         return mapToListResponse(updatedList);
     }
 
@@ -99,7 +121,9 @@ public class ListService {
             throw new IllegalArgumentException("You don't have permission to delete this list");
         }
 
+        feedTimelineService.retractList(listId);
         libraryListRepository.delete(list);
+        userStatsService.changeListCount(userId, -1);
     }
 
     /**
@@ -168,6 +192,50 @@ public class ListService {
         listBookRepository.delete(listBook);
     }
 
+    /**
+     * Like a reading list.
+     */
+    @Transactional
+    public void likeList(Long userId, Long listId) {
+        LibraryList list = libraryListRepository.findById(listId)
+                .orElseThrow(() -> new IllegalArgumentException("List not found"));
+
+        if (list.getVisibility().equals("PRIVATE") && !list.getUser().getId().equals(userId)) {
+            throw new IllegalArgumentException("You don't have permission to view this list");
+        }
+
+        if (listLikeRepository.existsByListIdAndUserId(listId, userId)) {
+            throw new IllegalArgumentException("You have already liked this list");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        ListLike listLike = new ListLike();
+        listLike.setId(new ListLike.ListLikeId(listId, userId));
+        listLike.setList(list);
+        listLike.setUser(user);
+
+        listLikeRepository.save(listLike);
+        libraryListRepository.adjustLikeCount(listId, 1);
+        eventPublisher.publishEvent(NotificationEvent.listLiked(list, user));
+    }
+
+    /**
+     * Unlike a reading list.
+     */
+    @Transactional
+    public void unlikeList(Long userId, Long listId) {
+        if (!listLikeRepository.existsByListIdAndUserId(listId, userId)) {
+            throw new IllegalArgumentException("You have not liked this list");
+        }
+
+        // Only the request that actually removed the row moves the counter
+        if (listLikeRepository.deleteByListIdAndUserId(listId, userId) > 0) {
+            libraryListRepository.adjustLikeCount(listId, -1);
+        }
+    }
+
     /**
      * Get public lists for a user.
      */
@@ -191,7 +259,7 @@ public class ListService {
     private ListResponse mapToListResponse(LibraryList list) {
         List<ListBook> listBooks = listBookRepository.findByListIdWithBooks(list.getId());
         int bookCount = listBooks.size();
-        int likeCount = listLikeRepository.countByListId(list.getId());
+        int likeCount = list.getLikeCount();
 
         List<BookInList> books = listBooks.stream()
                 .map(lb -> {
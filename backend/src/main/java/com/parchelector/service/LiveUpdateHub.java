@@ -0,0 +1,417 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.response.FeedResponse.FeedItem;
+import com.parchelector.model.entity.ActivityLog;
+import com.parchelector.repository.FollowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process hub of Server-Sent Events connections. Connections are async servlet requests
+ * (SseEmitter), so an idle client holds a socket but no thread. Committed feed fan-outs,
+ * follows and unread count changes arrive as application events and are queued per
+ * connection; a small sender pool writes them out, one drain at a time per connection.
+ * <p>
+ * Backpressure: a connection holds at most {@code max-pending-events} feed items. When a
+ * client falls further behind, its queued items are dropped and it gets a single
+ * feed-resync event telling it to reload the feed. Unread counts are coalesced, so only
+ * the latest count is sent. A heartbeat comment keeps idle connections from being closed
+ * by proxies and detects dead clients.
+ * <p>
+ * Sends are blocking writes, so a client that stops reading would hold a sender thread once
+ * its socket buffer is full. A send that takes longer than {@code send-timeout-ms} closes its
+ * connection and interrupts the sender; the write itself gives up after the container's socket
+ * write timeout ({@code server.tomcat.connection-timeout}).
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class LiveUpdateHub {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateHub.class);
+
+    public static final String EVENT_FEED_ITEM = "feed-item";
+    public static final String EVENT_FEED_RESYNC = "feed-resync";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+
+    /** Connected user IDs per IN list when looking up the followers of an author. */
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    private final FollowRepository followRepository;
+    private final SocialService socialService;
+    private final NotificationService notificationService;
+    private final ExecutorService senders;
+    private final long timeoutMs;
+    private final long sendTimeoutNanos;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int maxPendingEvents;
+
+    private final Map<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter droppedCounter;
+    private final Counter sendTimeoutCounter;
+
+    @Autowired
+    public LiveUpdateHub(FollowRepository followRepository,
+                         SocialService socialService,
+                         NotificationService notificationService,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.live.sender-threads:4}") int senderThreads,
+                         @Value("${app.live.timeout-ms:1800000}") long timeoutMs,
+                         @Value("${app.live.send-timeout-ms:10000}") long sendTimeoutMs,
+                         @Value("${app.live.max-connections:20000}") int maxConnections,
+                         @Value("${app.live.max-connections-per-user:5}") int maxConnectionsPerUser,
+                         @Value("${app.live.max-pending-events:50}") int maxPendingEvents) {
+        this(followRepository, socialService, notificationService, meterRegistry,
+                Executors.newFixedThreadPool(senderThreads, senderThreadFactory()),
+                timeoutMs, sendTimeoutMs, maxConnections, maxConnectionsPerUser, maxPendingEvents);
+    }
+
+    LiveUpdateHub(FollowRepository followRepository,
+                  SocialService socialService,
+                  NotificationService notificationService,
+                  MeterRegistry meterRegistry,
+                  ExecutorService senders,
+                  long timeoutMs,
+                  long sendTimeoutMs,
+                  int maxConnections,
+                  int maxConnectionsPerUser,
+                  int maxPendingEvents) {
+        this.followRepository = followRepository;
+        this.socialService = socialService;
+        this.notificationService = notificationService;
+        this.senders = senders;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.maxPendingEvents = maxPendingEvents;
+        this.droppedCounter = Counter.builder("parche.live.dropped")
+                .description("Feed items dropped because a live connection fell behind")
+                .register(meterRegistry);
+        this.sendTimeoutCounter = Counter.builder("parche.live.send.timeouts")
+                .description("Live connections closed because a send was blocked too long")
+                .register(meterRegistry);
+        Gauge.builder("parche.live.connections", connectionCount, AtomicInteger::get)
+                .description("Open live update connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a live connection for a user. The first event is the current unread count.
+     * Past the per-user limit the user's oldest connection is closed.
+     *
+     * @throws IllegalStateException if the server-wide connection limit is reached
+     */
+    public SseEmitter connect(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException("Too many live connections");
+        }
+
+        Connection connection = new Connection(userId, new SseEmitter(timeoutMs));
+        connection.emitter.onCompletion(() -> close(connection));
+        connection.emitter.onTimeout(() -> {
+            // Ends the response normally; clients reconnect (EventSource does so on its own)
+            close(connection);
+            connection.emitter.complete();
+        });
+        connection.emitter.onError(e -> close(connection));
+
+        List<Connection> userConnections = connectionsByUser.compute(userId, (id, list) -> {
+            List<Connection> connections = list != null ? list : new CopyOnWriteArrayList<>();
+            connections.add(connection);
+            return connections;
+        });
+        while (userConnections.size() > maxConnectionsPerUser) {
+            Connection oldest = userConnections.get(0);
+            close(oldest);
+            oldest.emitter.complete();
+        }
+
+        synchronized (connection) {
+            connection.unreadCountChanged = true;
+        }
+        schedule(connection);
+        return connection.emitter;
+    }
+
+    /**
+     * Push a new review or list to the connected followers of its author.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeedItem(FeedItemEvent event) {
+        if (connectionsByUser.isEmpty()) {
+            return;
+        }
+        // Off the writer's thread: reading followers and the item are not part of the write
+        senders.execute(() -> {
+            try {
+                pushFeedItem(event);
+            } catch (RuntimeException e) {
+                log.warn("Failed to push feed item {} {}", event.getItemType(), event.getItemId(), e);
+            }
+        });
+    }
+
+    /**
+     * A follow copies the followed user's content into the follower's timeline, so the
+     * follower's open feeds reload.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        if (ActivityLog.TYPE_USER_FOLLOWED.equals(event.getType())) {
+            for (Connection connection : connectionsOf(event.getUserId())) {
+                synchronized (connection) {
+                    connection.pending.clear();
+                    connection.resync = true;
+                }
+                schedule(connection);
+            }
+        }
+    }
+
+    @EventListener
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        for (Connection connection : connectionsOf(event.getUserId())) {
+            synchronized (connection) {
+                connection.unreadCountChanged = true;
+            }
+            schedule(connection);
+        }
+    }
+
+    /**
+     * Send a heartbeat comment on every connection, every 25 seconds by default.
+     */
+    @Scheduled(initialDelayString = "${app.live.heartbeat-ms:25000}",
+               fixedDelayString = "${app.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                synchronized (connection) {
+                    connection.heartbeat = true;
+                }
+                schedule(connection);
+            }
+        }
+    }
+
+    /**
+     * Close connections whose current send has been blocked for longer than the send timeout,
+     * checked every {@code send-timeout-ms}. Only flags and interrupts: completing the emitter
+     * here would wait for the blocked send to release it.
+     */
+    @Scheduled(initialDelayString = "${app.live.send-timeout-ms:10000}",
+               fixedDelayString = "${app.live.send-timeout-ms:10000}")
+    public void closeStuckConnections() {
+        long now = System.nanoTime();
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                synchronized (connection) {
+                    if (connection.sender != null && now - connection.sendStartedNanos > sendTimeoutNanos) {
+                        connection.sendTimedOut = true;
+                        close(connection);
+                        connection.sender.interrupt();
+                        sendTimeoutCounter.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                close(connection);
+                connection.emitter.complete();
+            }
+        }
+        senders.shutdownNow();
+    }
+
+    private void pushFeedItem(FeedItemEvent event) {
+        // Only connected users can receive it, and there are far fewer of them than followers
+        List<Long> connectedUserIds = new ArrayList<>(connectionsByUser.keySet());
+        List<Connection> recipients = new ArrayList<>();
+        for (int from = 0; from < connectedUserIds.size(); from += QUERY_CHUNK_SIZE) {
+            List<Long> chunk = connectedUserIds.subList(from, Math.min(connectedUserIds.size(), from + QUERY_CHUNK_SIZE));
+            for (Long followerId : followRepository.findFollowerIdsIn(event.getActorUserId(), chunk)) {
+                recipients.addAll(connectionsOf(followerId));
+            }
+        }
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        // Hydrated once for every recipient
+        FeedItem item = socialService.getFeedItem(event.getItemType(), event.getItemId());
+        if (item == null) {
+            return;
+        }
+        for (Connection connection : recipients) {
+            offer(connection, item);
+        }
+    }
+
+    void offer(Connection connection, FeedItem item) {
+        synchronized (connection) {
+            if (connection.resync) {
+                droppedCounter.increment();
+            } else if (connection.pending.size() >= maxPendingEvents) {
+                droppedCounter.increment(connection.pending.size() + 1);
+                connection.pending.clear();
+                connection.resync = true;
+            } else {
+                connection.pending.add(item);
+            }
+        }
+        schedule(connection);
+    }
+
+    private void schedule(Connection connection) {
+        if (!connection.closed.get() && connection.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(connection));
+        }
+    }
+
+    // Sends until the connection has nothing left; at most one drain runs per connection
+    private void drain(Connection connection) {
+        try {
+            while (!connection.closed.get()) {
+                SseEmitter.SseEventBuilder event;
+                boolean sendUnreadCount = false;
+                synchronized (connection) {
+                    if (connection.resync) {
+                        connection.resync = false;
+                        event = SseEmitter.event().name(EVENT_FEED_RESYNC).data(Map.of());
+                    } else if (!connection.pending.isEmpty()) {
+                        event = SseEmitter.event().name(EVENT_FEED_ITEM).data(connection.pending.poll());
+                    } else if (connection.unreadCountChanged) {
+                        connection.unreadCountChanged = false;
+                        event = null;
+                        sendUnreadCount = true;
+                    } else if (connection.heartbeat) {
+                        connection.heartbeat = false;
+                        event = SseEmitter.event().comment("heartbeat");
+                    } else {
+                        connection.draining.set(false);
+                        return;
+                    }
+                }
+                if (sendUnreadCount) {
+                    long unread = notificationService.getUnreadCount(connection.userId);
+                    event = SseEmitter.event().name(EVENT_UNREAD_COUNT).data(Map.of("unreadCount", unread));
+                }
+                send(connection, event);
+            }
+        } catch (Exception e) {
+            // Client went away or the emitter already completed
+            close(connection);
+            connection.emitter.completeWithError(e);
+        }
+        connection.draining.set(false);
+    }
+
+    // Runs one blocking write where closeStuckConnections can see how long it has been going
+    void send(Connection connection, SseEmitter.SseEventBuilder event) throws IOException {
+        synchronized (connection) {
+            connection.sender = Thread.currentThread();
+            connection.sendStartedNanos = System.nanoTime();
+        }
+        boolean timedOut;
+        try {
+            connection.emitter.send(event);
+        } finally {
+            synchronized (connection) {
+                connection.sender = null;
+                timedOut = connection.sendTimedOut;
+                if (timedOut) {
+                    // The interrupt was meant for this send, not for the sender's next task
+                    Thread.interrupted();
+                }
+            }
+        }
+        if (timedOut) {
+            throw new SocketTimeoutException("Live update send timed out");
+        }
+    }
+
+    List<Connection> connectionsOf(Long userId) {
+        return connectionsByUser.getOrDefault(userId, List.of());
+    }
+
+    private void close(Connection connection) {
+        if (connection.closed.compareAndSet(false, true)) {
+            connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+                connections.remove(connection);
+                return connections.isEmpty() ? null : connections;
+            });
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private static ThreadFactory senderThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "live-sender-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One open SSE connection and what is waiting to be sent on it; guarded by its own monitor.
+     */
+    static final class Connection {
+
+        final Long userId;
+        final SseEmitter emitter;
+        final ArrayDeque<FeedItem> pending = new ArrayDeque<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+        boolean resync;
+        boolean unreadCountChanged;
+        boolean heartbeat;
+        Thread sender;
+        long sendStartedNanos;
+        boolean sendTimedOut;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
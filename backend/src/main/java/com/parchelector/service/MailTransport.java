@@ -0,0 +1,18 @@
+package com.parchelector.service;
+
+/**
+ * Delivers one already-rendered email. Called only by the email dispatcher, never
+ * from request threads.
+ * Implemented by SmtpMailTransport (real SMTP) and MockEmailService (console).
+ *
+ * @author Nicolas Arciniegas
+ */
+public interface MailTransport {
+
+    /**
+     * Send an HTML email.
+     *
+     * @throws RuntimeException if delivery fails; the dispatcher retries later
+     */
+    void send(String toEmail, String subject, String htmlBody);
+}
@@ -1,39 +1,50 @@
 package com.parchelector.service;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
- * Mock Email Service for testing without real email.
- * Active only in 'mock' profile.
- * Logs password reset information to console instead of sending emails.
+ * Mock mail transport for running without real email.
+ * Active only in 'mock' and 'test' profiles.
+ * Emails still go through the outbox and dispatcher; this just logs them to console
+ * instead of sending them, including any links (e.g. the password reset link).
  * 
  * @author Nicolas Arciniegas
  */
 @Service
-@Profile("mock")
-public class MockEmailService implements IEmailService {
+@Profile({"mock", "test"})
+public class MockEmailService implements MailTransport {
 
-    @Value("${app.frontend.url}")
-    private String frontendUrl;
+    private static final Pattern LINK = Pattern.compile("href=\"([^\"]+)\"");
 
     /**
-     * Mock sending password reset email - just logs to console.
+     * Mock sending an email - just logs to console.
      */
-    public void sendPasswordResetEmail(String toEmail, String username, String token) {
+    @Override
+    public void send(String toEmail, String subject, String htmlBody) {
         System.out.println("\n╔════════════════════════════════════════════════════════════════╗");
-        System.out.println("║          🔒 PASSWORD RESET EMAIL (MOCK)                       ║");
+        System.out.println("║          ✉️  EMAIL (MOCK)                                      ║");
         System.out.println("╠════════════════════════════════════════════════════════════════╣");
         System.out.println("║  To: " + toEmail);
-        System.out.println("║  Username: " + username);
-        System.out.println("║");
-        System.out.println("║  Reset Link:");
-        System.out.println("║  " + frontendUrl + "/reset-password?token=" + token);
-        System.out.println("║");
-        System.out.println("║  Token: " + token);
+        System.out.println("║  Subject: " + subject);
         System.out.println("║");
-        System.out.println("║  This link expires in 1 hour.");
+        for (String link : links(htmlBody)) {
+            System.out.println("║  Link: " + link);
+        }
         System.out.println("╚════════════════════════════════════════════════════════════════╝\n");
     }
+
+    private static Set<String> links(String htmlBody) {
+        Set<String> links = new LinkedHashSet<>();
+        Matcher matcher = LINK.matcher(htmlBody != null ? htmlBody : "");
+        while (matcher.find()) {
+            links.add(matcher.group(1).replace("&amp;", "&"));
+        }
+        return links;
+    }
 }
@@ -0,0 +1,100 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.LibraryList;
+import com.parchelector.model.entity.Notification;
+import com.parchelector.model.entity.Review;
+import com.parchelector.model.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Application event published by write paths when a user should be notified. Published
+ * inside the originating transaction; NotificationWriter only picks it up once that
+ * transaction has committed.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class NotificationEvent {
+
+    // Payload entries that identify what the notification is about
+    private static final List<String> SUBJECT_KEYS = List.of("reviewId", "commentId", "listId");
+
+    private final Long recipientId;
+    private final String type;
+    private final Long actorId;
+    private final Map<String, Object> payload;
+    private final LocalDateTime occurredAt;
+
+    public static NotificationEvent reviewLiked(Review review, User actor) {
+        Map<String, Object> payload = actorPayload(actor);
+        putReview(payload, review);
+        return new NotificationEvent(review.getUser().getId(), Notification.TYPE_REVIEW_LIKED,
+                actor.getId(), payload, LocalDateTime.now());
+    }
+
+    public static NotificationEvent reviewCommented(Review review, User actor, Long commentId) {
+        Map<String, Object> payload = actorPayload(actor);
+        putReview(payload, review);
+        payload.put("commentId", commentId);
+        return new NotificationEvent(review.getUser().getId(), Notification.TYPE_REVIEW_COMMENTED,
+                actor.getId(), payload, LocalDateTime.now());
+    }
+
+    public static NotificationEvent userFollowed(Long followedId, User follower) {
+        return new NotificationEvent(followedId, Notification.TYPE_USER_FOLLOWED,
+                follower.getId(), actorPayload(follower), LocalDateTime.now());
+    }
+
+    public static NotificationEvent listLiked(LibraryList list, User actor) {
+        Map<String, Object> payload = actorPayload(actor);
+        payload.put("listId", list.getId());
+        payload.put("listName", list.getName());
+        return new NotificationEvent(list.getUser().getId(), Notification.TYPE_LIST_LIKED,
+                actor.getId(), payload, LocalDateTime.now());
+    }
+
+    /**
+     * Whether the actor acted on their own content, which is not worth a notification.
+     */
+    public boolean isSelfAction() {
+        return recipientId.equals(actorId);
+    }
+
+    /**
+     * What makes two notifications of one recipient the same (e.g. like, unlike, like again):
+     * the type, the actor and the subject, but not names captured in the payload.
+     */
+    public String dedupeKey() {
+        StringBuilder key = new StringBuilder(type).append(':').append(actorId);
+        for (String subjectKey : SUBJECT_KEYS) {
+            Object subjectId = payload.get(subjectKey);
+            if (subjectId != null) {
+                key.append(':').append(subjectId);
+            }
+        }
+        return key.toString();
+    }
+
+    private static Map<String, Object> actorPayload(User actor) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("actorId", actor.getId());
+        payload.put("actorUsername", actor.getUsername());
+        if (actor.getAvatarUrl() != null) {
+            payload.put("actorAvatar", actor.getAvatarUrl());
+        }
+        return payload;
+    }
+
+    private static void putReview(Map<String, Object> payload, Review review) {
+        payload.put("reviewId", review.getId());
+        payload.put("bookId", review.getBook().getId());
+        payload.put("bookTitle", review.getBook().getTitle());
+    }
+}
@@ -0,0 +1,172 @@
+package com.parchelector.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parchelector.dto.response.NotificationPageResponse;
+import com.parchelector.dto.response.NotificationResponse;
+import com.parchelector.model.entity.Notification;
+import com.parchelector.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for reading notifications and marking them read. Unread counts are cached per
+ * user, so polling for the badge only reads the table after something changed: the entry
+ * is dropped when new notifications are written or the user marks some read, and the
+ * next poll counts once more.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class NotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
+    public static final int MAX_LIMIT = 50;
+
+    private final NotificationRepository notificationRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Cache<Long, Long> unreadCounts;
+
+    @Value("${app.notifications.read-retention-days:90}")
+    private int readRetentionDays = 90;
+
+    @Autowired
+    public NotificationService(NotificationRepository notificationRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.notifications.unread-cache.max-size:50000}") long maxSize,
+                               @Value("${app.notifications.unread-cache.ttl-seconds:600}") long ttlSeconds) {
+        this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.unreadCounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, unreadCounts, "notification_unread_counts");
+    }
+
+    /**
+     * One page of a user's notifications, newest first.
+     *
+     * @param before ID of the last notification of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public NotificationPageResponse getNotifications(Long userId, int limit, Long before) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<Notification> notifications = before == null
+                ? notificationRepository.findLatest(userId, window)
+                : notificationRepository.findBefore(userId, before, window);
+
+        boolean hasMore = notifications.size() > limit;
+        if (hasMore) {
+            notifications = notifications.subList(0, limit);
+        }
+        Long nextBefore = hasMore ? notifications.get(notifications.size() - 1).getId() : null;
+
+        List<NotificationResponse> items = notifications.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new NotificationPageResponse(items, getUnreadCount(userId), limit, hasMore, nextBefore);
+    }
+
+    /**
+     * Number of unread notifications, counted at most once between changes.
+     */
+    public long getUnreadCount(Long userId) {
+        return unreadCounts.get(userId, notificationRepository::countUnread);
+    }
+
+    /**
+     * Mark one notification of the user as read.
+     */
+    @Transactional
+    public void markRead(Long userId, Long notificationId) {
+        if (notificationRepository.markRead(notificationId, userId) == 0
+                && !notificationRepository.existsByIdAndUserId(notificationId, userId)) {
+            throw new IllegalArgumentException("Notification not found");
+        }
+        invalidateAfterCommit(userId);
+    }
+
+    /**
+     * Mark every notification of the user as read.
+     *
+     * @return number of notifications that were unread
+     */
+    @Transactional
+    public int markAllRead(Long userId) {
+        int updated = notificationRepository.markAllRead(userId);
+        invalidateAfterCommit(userId);
+        return updated;
+    }
+
+    /**
+     * Drop the cached unread count of a user after it changed (new notifications written,
+     * some marked read) and let live connections of the user pick up the new count.
+     */
+    public void invalidateUnreadCount(Long userId) {
+        unreadCounts.invalidate(userId);
+        eventPublisher.publishEvent(new UnreadCountChangedEvent(userId));
+    }
+
+    /**
+     * Delete read notifications older than the retention period, once a day by default.
+     */
+    @Scheduled(initialDelayString = "${app.notifications.purge-interval-ms:86400000}",
+               fixedDelayString = "${app.notifications.purge-interval-ms:86400000}")
+    @Transactional
+    public void purgeRead() {
+        int deleted = notificationRepository.deleteReadBefore(LocalDateTime.now().minusDays(readRetentionDays));
+        if (deleted > 0) {
+            log.info("Purged {} read notifications", deleted);
+        }
+    }
+
+    // A poll between the update and the commit would cache the old count, so drop it after commit
+    private void invalidateAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateUnreadCount(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateUnreadCount(userId);
+            }
+        });
+    }
+
+    private NotificationResponse mapToResponse(Notification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getType(),
+                notification.getPayload(),
+                notification.getIsRead(),
+                notification.getCreatedAt()
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Notification;
+import com.parchelector.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Batched asynchronous writer of notifications. Each batch is saved in one transaction,
+ * without repeats: an event is dropped when an earlier one with the same recipient and
+ * {@link NotificationEvent#dedupeKey()} is in the batch or still unread. The cached unread
+ * counts of the recipients are dropped after the commit.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class NotificationWriter extends BatchedEventWriter<NotificationEvent> {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter coalescedCounter;
+
+    @Autowired
+    public NotificationWriter(NotificationRepository notificationRepository,
+                              NotificationService notificationService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notifications.queue-capacity:10000}") int queueCapacity,
+                              @Value("${app.notifications.batch-size:500}") int batchSize) {
+        super(meterRegistry, "parche.notifications", "notifications", queueCapacity, batchSize);
+        this.notificationRepository = notificationRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coalescedCounter = Counter.builder("parche.notifications.coalesced")
+                .description("Repeated notification events dropped for an earlier one in the batch or still unread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an event once its transaction has committed (immediately if there is none).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotification(NotificationEvent event) {
+        if (event.isSelfAction()) {
+            return;
+        }
+        enqueue(event);
+    }
+
+    /**
+     * Write queued notifications, every half second by default.
+     */
+    @Scheduled(initialDelayString = "${app.notifications.flush-interval-ms:500}",
+               fixedDelayString = "${app.notifications.flush-interval-ms:500}")
+    public void scheduledFlush() {
+        flushOrLog();
+    }
+
+    @Override
+    protected int write(List<NotificationEvent> batch) {
+        Map<List<Object>, NotificationEvent> unique = new LinkedHashMap<>();
+        for (NotificationEvent event : batch) {
+            unique.putIfAbsent(List.of(event.getRecipientId(), event.dedupeKey()), event);
+        }
+
+        // Flushes of one instance are serialized, so the check and the insert do not race here
+        List<Notification> notifications = transactionTemplate.execute(status -> {
+            Set<List<Object>> unread = notificationRepository.findUnreadDedupeKeys(
+                            unique.values().stream().map(NotificationEvent::getRecipientId).collect(Collectors.toSet()),
+                            unique.values().stream().map(NotificationEvent::dedupeKey).collect(Collectors.toSet()))
+                    .stream()
+                    .map(row -> List.of(row[0], row[1]))
+                    .collect(Collectors.toSet());
+            List<Notification> fresh = unique.entrySet().stream()
+                    .filter(entry -> !unread.contains(entry.getKey()))
+                    .map(entry -> toNotification(entry.getValue()))
+                    .collect(Collectors.toList());
+            return notificationRepository.saveAll(fresh);
+        });
+        coalescedCounter.increment(batch.size() - notifications.size());
+
+        // After commit, so a count reloaded from the table includes the new rows
+        Set<Long> recipients = notifications.stream().map(Notification::getUserId).collect(Collectors.toSet());
+        recipients.forEach(notificationService::invalidateUnreadCount);
+        return notifications.size();
+    }
+
+    private static Notification toNotification(NotificationEvent event) {
+        Notification notification = new Notification();
+        notification.setUserId(event.getRecipientId());
+        notification.setType(event.getType());
+        notification.setPayload(event.getPayload());
+        notification.setDedupeKey(event.dedupeKey());
+        notification.setIsRead(false);
+        notification.setCreatedAt(event.getOccurredAt());
+        return notification;
+    }
+}
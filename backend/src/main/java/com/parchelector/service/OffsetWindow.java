@@ -0,0 +1,100 @@
+package com.parchelector.service;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page request for the offset-paged endpoints: rows [offset, offset + limit) of a query,
+ * also when the offset is not a multiple of the limit, so a page never reads the rows before it.
+ * New offset endpoints cap offsets at {@link #MAX_OFFSET}; deeper pages go through their keyset
+ * cursors. Endpoints that older clients already page through clamp instead of rejecting.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class OffsetWindow implements Pageable {
+
+    static final int MAX_OFFSET = 1000;
+
+    private final int offset;
+    private final int limit;
+
+    private OffsetWindow(int offset, int limit) {
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    static OffsetWindow of(int offset, int limit) {
+        return new OffsetWindow(offset, limit);
+    }
+
+    /**
+     * Reject limits outside [1, maxLimit] and offsets outside [0, MAX_OFFSET].
+     */
+    static void validate(int limit, int offset, int maxLimit) {
+        validateLimit(limit, maxLimit);
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        if (offset > MAX_OFFSET) {
+            throw new IllegalArgumentException("Offset must not exceed " + MAX_OFFSET + "; use the cursor for older items");
+        }
+    }
+
+    static void validateLimit(int limit, int maxLimit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+    }
+
+    /**
+     * The limit moved into [1, maxLimit], for endpoints that never rejected a limit.
+     */
+    static int clampLimit(int limit, int maxLimit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    @Override
+    public int getPageNumber() {
+        return offset / limit;
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetWindow(offset + limit, limit);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetWindow(Math.max(offset - limit, 0), limit) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetWindow(0, limit);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetWindow(pageNumber * limit, limit);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,56 @@
+package com.parchelector.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs independent rows of a computation in parallel on a fork-join pool, splitting the
+ * range in halves down to a leaf size.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class ParallelRanges {
+
+    private ParallelRanges() {
+    }
+
+    /**
+     * Work on the rows {@code [from, to)}.
+     */
+    @FunctionalInterface
+    interface RangeAction {
+        void run(int from, int to);
+    }
+
+    /**
+     * Run the action over {@code [0, size)} and wait for it to finish.
+     */
+    static void forEach(ForkJoinPool pool, int size, int leafSize, RangeAction action) {
+        pool.invoke(new RangeTask(action, leafSize, 0, size));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final RangeAction action;
+        private final int leafSize;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeAction action, int leafSize, int from, int to) {
+            this.action = action;
+            this.leafSize = leafSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(action, leafSize, from, middle), new RangeTask(action, leafSize, middle, to));
+                return;
+            }
+            action.run(from, to);
+        }
+    }
+}
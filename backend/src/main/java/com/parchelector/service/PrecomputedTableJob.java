@@ -0,0 +1,120 @@
+package com.parchelector.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Base of the jobs that load a graph into memory, rank it on a fork-join pool and replace a
+ * precomputed table with the result (book neighbours, follow suggestions). Subclasses read
+ * in {@link #readOnlyTransactionTemplate}, compute with {@link #compute(Function)} and write
+ * with {@link #replaceAll(String, String, List, ParameterizedPreparedStatementSetter)}.
+ *
+ * @author Nicolas Arciniegas
+ */
+abstract class PrecomputedTableJob {
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    protected final JdbcTemplate jdbcTemplate;
+    protected final TransactionTemplate transactionTemplate;
+    protected final TransactionTemplate readOnlyTransactionTemplate;
+    private final int parallelism;
+
+    /**
+     * @param parallelism fork-join threads per run; 0 uses one per available processor
+     */
+    PrecomputedTableJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Recompute the whole table.
+     *
+     * @return number of rows written
+     */
+    public abstract int rebuildAll();
+
+    /**
+     * Whether the table has no rows, as on the first start after it was introduced.
+     */
+    protected abstract boolean isEmpty();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (isEmpty()) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Full rebuild for the scheduler: a failure is logged and the next run tries again.
+     */
+    protected void rebuildOrLog() {
+        try {
+            rebuildAll();
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild", e);
+        }
+    }
+
+    /**
+     * Run the computation on a pool of its own: the pool's threads, and the thread-local
+     * counter arrays the computation keeps on them, go away with it.
+     */
+    protected <T> T compute(Function<ForkJoinPool, T> computation) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return computation.apply(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Delete every row of the table and insert the new ones in one transaction, so readers
+     * see either the old or the new rows.
+     *
+     * @return number of rows written
+     */
+    protected int replaceAll(String table, String insertSql, List<Integer> rows,
+                             ParameterizedPreparedStatementSetter<Integer> setter) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM " + table);
+            return insert(insertSql, rows, setter);
+        });
+    }
+
+    /**
+     * Batch-insert result rows, by index; runs in the caller's transaction.
+     *
+     * @return number of rows written
+     */
+    protected int insert(String insertSql, List<Integer> rows, ParameterizedPreparedStatementSetter<Integer> setter) {
+        jdbcTemplate.batchUpdate(insertSql, rows, INSERT_BATCH_SIZE, setter);
+        return rows.size();
+    }
+
+    protected static void forEachRow(Stream<Object[]> rows, Consumer<Object[]> action) {
+        try (rows) {
+            rows.forEach(action);
+        }
+    }
+}
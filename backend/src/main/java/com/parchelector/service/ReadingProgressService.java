@@ -0,0 +1,339 @@
+package com.parchelector.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.parchelector.dto.request.ReadingProgressRequest;
+import com.parchelector.model.entity.ActivityLog;
+import com.parchelector.model.entity.ReadingEvent;
+import com.parchelector.model.entity.ReadingStatus;
+import com.parchelector.repository.ReadingStatusRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for high-frequency reading progress updates. Reports are coalesced in memory per
+ * user and book, keeping only the latest position, and a scheduled flush writes one
+ * reading_events row per pair and the new position of its reading_status in JDBC batches,
+ * so a burst of page turns costs one map write each instead of one transaction. The same
+ * flush folds the pages read into each user's streak and pace counters (UserStatsService).
+ * <p>
+ * Whether the book is being read (and its page count) is looked up on the first report and
+ * then cached until the reading status changes, so repeated reports do not touch the
+ * database. The flush re-checks the status in SQL, so reports for a book that left the
+ * READING shelf in the meantime are dropped. Progress not yet flushed when the process is
+ * killed without a shutdown is lost; the client reports it again on the next page turn.
+ * <p>
+ * Pages read are the forward moves between flushed positions. A book's first report only
+ * sets its starting point, so starting to report halfway through a book does not count the
+ * first half as read that day.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class ReadingProgressService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadingProgressService.class);
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO reading_events (user_id, book_id, event_type, value, created_at) " +
+            "SELECT ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM reading_status " +
+            "WHERE user_id = ? AND book_id = ? AND status = 'READING')";
+
+    // Progress is not a status change, so status_changed_at (read by TrendingService) is left alone
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE reading_status SET progress_percent = COALESCE(?, progress_percent), " +
+            "current_page = COALESCE(?, current_page) " +
+            "WHERE user_id = ? AND book_id = ? AND status = 'READING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadingStatusRepository readingStatusRepository;
+    private final UserStatsService userStatsService;
+    private final int batchSize;
+
+    private final Map<ProgressKey, Progress> pending = new ConcurrentHashMap<>();
+    private final Cache<ProgressKey, TrackedBook> trackedBooks;
+    private final Counter receivedCounter;
+    private final Counter writtenCounter;
+
+    @Autowired
+    public ReadingProgressService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ReadingStatusRepository readingStatusRepository,
+                                  UserStatsService userStatsService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.reading-progress.batch-size:500}") int batchSize,
+                                  @Value("${app.reading-progress.cache.max-size:100000}") long cacheMaxSize,
+                                  @Value("${app.reading-progress.cache.ttl-minutes:30}") long cacheTtlMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readingStatusRepository = readingStatusRepository;
+        this.userStatsService = userStatsService;
+        this.batchSize = batchSize;
+        this.trackedBooks = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, trackedBooks, "reading_progress_books");
+        this.receivedCounter = Counter.builder("parche.reading_progress.received")
+                .description("Reading progress reports accepted")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("parche.reading_progress.written")
+                .description("Coalesced reading progress updates written")
+                .register(meterRegistry);
+        Gauge.builder("parche.reading_progress.pending", pending, Map::size)
+                .description("User and book pairs with progress waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record the current position of a user in a book. The write happens on the next flush.
+     */
+    public void recordProgress(Long userId, ReadingProgressRequest request) {
+        if ((request.getPage() == null) == (request.getPercent() == null)) {
+            throw new IllegalArgumentException("Send either page or percent");
+        }
+
+        ProgressKey key = new ProgressKey(userId, request.getBookId());
+        TrackedBook book = trackedBooks.get(key, this::loadTrackedBook);
+
+        Progress progress;
+        if (request.getPage() != null) {
+            if (book.pageCount > 0 && request.getPage() > book.pageCount) {
+                throw new IllegalArgumentException("Page must be at most " + book.pageCount);
+            }
+            Integer percent = book.pageCount > 0 ? request.getPage() * 100 / book.pageCount : null;
+            progress = new Progress(book, ReadingEvent.TYPE_PAGE, request.getPage(), request.getPage(), percent);
+        } else {
+            Integer page = pageOf(ReadingEvent.TYPE_PERCENT, request.getPercent(), book.pageCount);
+            progress = new Progress(book, ReadingEvent.TYPE_PERCENT, request.getPercent(), page, request.getPercent());
+        }
+
+        pending.put(key, progress);
+        receivedCounter.increment();
+    }
+
+    /**
+     * Page a reading event stands for; null for a percentage of a book without page count.
+     */
+    public static Integer pageOf(String eventType, Integer value, Integer pageCount) {
+        if (ReadingEvent.TYPE_PAGE.equals(eventType)) {
+            return value;
+        }
+        return pageCount != null && pageCount > 0 ? value * pageCount / 100 : null;
+    }
+
+    /**
+     * A reading status change decides whether further reports are accepted, so the cached
+     * lookup for that book is dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        switch (event.getType()) {
+            case ActivityLog.TYPE_WANT_TO_READ:
+            case ActivityLog.TYPE_STARTED_READING:
+            case ActivityLog.TYPE_FINISHED_READING:
+                trackedBooks.invalidate(new ProgressKey(event.getUserId(), event.getBookId()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Write pending progress, every five seconds by default.
+     */
+    @Scheduled(initialDelayString = "${app.reading-progress.flush-interval-ms:5000}",
+               fixedDelayString = "${app.reading-progress.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to write reading progress batch", e);
+        }
+    }
+
+    /**
+     * Write the latest progress of every pending user and book.
+     *
+     * @return number of user and book pairs written
+     */
+    public synchronized int flush() {
+        List<Map.Entry<ProgressKey, Progress>> batch = new ArrayList<>(batchSize);
+        int written = 0;
+        for (ProgressKey key : pending.keySet()) {
+            // A report arriving after the removal stays pending for the next flush
+            Progress progress = pending.remove(key);
+            if (progress == null) {
+                continue;
+            }
+            batch.add(Map.entry(key, progress));
+            if (batch.size() == batchSize) {
+                written += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            written += write(batch);
+        }
+        writtenCounter.increment(written);
+        return written;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        if (written > 0) {
+            log.info("Wrote {} pending reading progress updates on shutdown", written);
+        }
+    }
+
+    private TrackedBook loadTrackedBook(ProgressKey key) {
+        ReadingStatus status = readingStatusRepository.findWithBookByUserIdAndBookId(key.userId, key.bookId)
+                .filter(rs -> rs.getStatus() == ReadingStatus.ReadingStatusEnum.READING)
+                .orElseThrow(() -> new IllegalArgumentException("Book is not on your READING shelf"));
+        Integer pageCount = status.getBook().getPageCount();
+        return new TrackedBook(pageCount != null ? pageCount : 0, status.getCurrentPage());
+    }
+
+    // Returns how many of the batch were written; the rest had left the READING shelf
+    private int write(List<Map.Entry<ProgressKey, Progress>> batch) {
+        List<Map.Entry<ProgressKey, Progress>> withPosition = batch.stream()
+                .filter(entry -> entry.getValue().page != null || entry.getValue().percent != null)
+                .toList();
+        Map<TrackedBook, Integer> positions = new HashMap<>();
+
+        int written = transactionTemplate.execute(status -> {
+            int[] inserted = jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch, batch.size(), (statement, entry) -> {
+                ProgressKey key = entry.getKey();
+                Progress progress = entry.getValue();
+                statement.setLong(1, key.userId);
+                statement.setLong(2, key.bookId);
+                statement.setString(3, progress.eventType);
+                statement.setInt(4, progress.value);
+                statement.setTimestamp(5, Timestamp.valueOf(progress.reportedAt));
+                statement.setLong(6, key.userId);
+                statement.setLong(7, key.bookId);
+            })[0];
+            if (!withPosition.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, withPosition, withPosition.size(), (statement, entry) -> {
+                    statement.setObject(1, entry.getValue().percent, Types.INTEGER);
+                    statement.setObject(2, entry.getValue().page, Types.INTEGER);
+                    statement.setLong(3, entry.getKey().userId);
+                    statement.setLong(4, entry.getKey().bookId);
+                });
+            }
+
+            // Pages read per user and day, users in id order so row locks are always taken alike
+            Map<Long, Map<LocalDate, Integer>> readingDays = new TreeMap<>();
+            int count = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                if (inserted[i] == 0) {
+                    continue;
+                }
+                count++;
+                Progress progress = batch.get(i).getValue();
+                int pages = 0;
+                if (progress.page != null) {
+                    Integer previous = progress.book.position;
+                    pages = previous != null ? Math.max(0, progress.page - previous) : 0;
+                    positions.put(progress.book, progress.page);
+                }
+                readingDays.computeIfAbsent(batch.get(i).getKey().userId, id -> new TreeMap<>())
+                        .merge(progress.reportedAt.toLocalDate(), pages, Integer::sum);
+            }
+            readingDays.forEach((userId, pagesByDay) ->
+                    pagesByDay.forEach((day, pages) -> userStatsService.addReadingDay(userId, day, pages)));
+            return count;
+        });
+
+        // Only once committed, so a failed flush does not skip the pages it would have counted
+        positions.forEach((book, page) -> book.position = page);
+        return written;
+    }
+
+    private static final class ProgressKey {
+
+        final Long userId;
+        final Long bookId;
+
+        ProgressKey(Long userId, Long bookId) {
+            this.userId = userId;
+            this.bookId = bookId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ProgressKey key && userId.equals(key.userId) && bookId.equals(key.bookId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, bookId);
+        }
+    }
+
+    /**
+     * A book on a user's READING shelf: its page count (0 when unknown) and the last page
+     * written for it, which only the flush changes.
+     */
+    private static final class TrackedBook {
+
+        final int pageCount;
+        volatile Integer position;
+
+        TrackedBook(int pageCount, Integer position) {
+            this.pageCount = pageCount;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Latest report for a user and book, as sent (event type and value) and as a position;
+     * page is null for a percentage of a book without page count.
+     */
+    private static final class Progress {
+
+        final TrackedBook book;
+        final String eventType;
+        final int value;
+        final Integer page;
+        final Integer percent;
+        final LocalDateTime reportedAt = LocalDateTime.now();
+
+        Progress(TrackedBook book, String eventType, int value, Integer page, Integer percent) {
+            this.book = book;
+            this.eventType = eventType;
+            this.value = value;
+            this.page = page;
+            this.percent = percent;
+        }
+    }
+}
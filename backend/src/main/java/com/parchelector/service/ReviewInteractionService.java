@@ -12,6 +12,7 @@ import com.parchelector.repository.ReviewRepository;
 import com.parchelector.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -37,6 +38,9 @@ public class ReviewInteractionService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Like a review.
      */
@@ -69,6 +73,8 @@ public class ReviewInteractionService {
         reviewLike.setUser(user);
 
         reviewLikeRepository.save(reviewLike);
+        reviewRepository.adjustLikeCount(reviewId, 1);
+        eventPublisher.publishEvent(NotificationEvent.reviewLiked(review, user));
     }
 
     /**
@@ -81,7 +87,10 @@ public class ReviewInteractionService {
             throw new IllegalArgumentException("You have not liked this review");
         }
 
-        reviewLikeRepository.deleteByReviewIdAndUserId(reviewId, userId);
+        // Only the request that actually removed the row moves the counter
+        if (reviewLikeRepository.deleteByReviewIdAndUserId(reviewId, userId) > 0) {
+            reviewRepository.adjustLikeCount(reviewId, -1);
+        }
     }
 
     /**
@@ -108,6 +117,8 @@ public class ReviewInteractionService {
         comment.setIsDeleted(false);
 
         comment = reviewCommentRepository.save(comment);
+        reviewRepository.adjustCommentCount(reviewId, 1);
+        eventPublisher.publishEvent(NotificationEvent.reviewCommented(review, user, comment.getId()));
 
         return mapToCommentResponse(comment);
     }
@@ -147,6 +158,7 @@ public class ReviewInteractionService {
 
         comment.setIsDeleted(true);
         reviewCommentRepository.save(comment);
+        reviewRepository.adjustCommentCount(comment.getReview().getId(), -1);
     }
 
     /**
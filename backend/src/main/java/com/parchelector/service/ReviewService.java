@@ -5,12 +5,14 @@ import com.parchelector.dto.request.UpdateReviewRequest;
 import com.parchelector.dto.response.BookReviewsResponse;
 import com.parchelector.dto.response.ReviewResponse;
 import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.BookRatingStats;
 import com.parchelector.model.entity.Review;
 import com.parchelector.model.entity.User;
 import com.parchelector.repository.BookRepository;
 import com.parchelector.repository.ReviewRepository;
 import com.parchelector.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +38,18 @@ public class ReviewService {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private FeedTimelineService feedTimelineService;
+
+    @Autowired
+    private BookRatingStatsService bookRatingStatsService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
@@ -64,6 +78,11 @@ public class ReviewService {
         review.setIsDeleted(false);
 
         Review savedReview = reviewRepository.save(review);
+        bookRatingStatsService.addRating(book.getId(), savedReview.getRating());
+        userStatsService.addReview(userId, book, savedReview.getRating(), savedReview.getCreatedAt());
+        feedTimelineService.publishReview(savedReview);
+        eventPublisher.publishEvent(ActivityEvent.reviewCreated(
+                userId, book.getId(), savedReview.getId(), savedReview.getCreatedAt()));
         return mapToReviewResponse(savedReview);
     }
 
@@ -84,6 +103,8 @@ public class ReviewService {
         }
 
         if (request.getRating() != null) {
+            bookRatingStatsService.replaceRating(review.getBook().getId(), review.getRating(), request.getRating());
+            userStatsService.replaceRating(userId, review.getBook(), review.getRating(), request.getRating());
             review.setRating(request.getRating());
         }
         if (request.getTitle() != null) {
@@ -109,8 +130,14 @@ public class ReviewService {
             throw new IllegalArgumentException("You don't have permission to delete this review");
         }
 
-        review.setIsDeleted(true);
-        reviewRepository.save(review);
+        // Only the request that actually flipped the flag moves the rating aggregates
+        if (review.getIsDeleted() || reviewRepository.markDeleted(reviewId) == 0) {
+            throw new IllegalArgumentException("Review is already deleted");
+        }
+
+        bookRatingStatsService.removeRating(review.getBook().getId(), review.getRating());
+        userStatsService.removeReview(userId, review.getBook(), review.getRating(), review.getCreatedAt());
+        feedTimelineService.retractReview(reviewId);
     }
 
     /**
@@ -122,8 +149,7 @@ public class ReviewService {
                 .orElseThrow(() -> new IllegalArgumentException("Book not found"));
 
         List<Review> reviews = reviewRepository.findByBookIdOrderByCreatedAtDesc(bookId);
-        Double averageRating = reviewRepository.getAverageRatingByBookId(bookId);
-        int totalReviews = reviewRepository.countByBookId(bookId);
+        BookRatingStats ratingStats = bookRatingStatsService.getStats(bookId);
 
         List<ReviewResponse> reviewResponses = reviews.stream()
                 .map(this::mapToReviewResponse)
@@ -132,8 +158,9 @@ public class ReviewService {
         return new BookReviewsResponse(
                 bookId,
                 book.getTitle(),
-                averageRating != null ? averageRating : 0.0,
-                totalReviews,
+                ratingStats.getRatingAvg().doubleValue(),
+                ratingStats.getRatingCount(),
+                ratingStats.getHistogram(),
                 reviewResponses
         );
     }
@@ -168,9 +195,6 @@ public class ReviewService {
      * Map Review entity to ReviewResponse DTO.
      */
     private ReviewResponse mapToReviewResponse(Review review) {
-        int likes = reviewRepository.countLikesByReviewId(review.getId());
-        int comments = reviewRepository.countCommentsByReviewId(review.getId());
-
         return new ReviewResponse(
                 review.getId(),
                 review.getBook().getId(),
@@ -184,8 +208,8 @@ public class ReviewService {
                 review.getBody(),
                 review.getCreatedAt().format(DATE_FORMATTER),
                 review.getUpdatedAt().format(DATE_FORMATTER),
-                likes,
-                comments
+                review.getLikeCount(),
+                review.getCommentCount()
         );
     }
 }
@@ -7,16 +7,20 @@ import com.parchelector.dto.response.FeedResponse.FeedItem;
 import com.parchelector.dto.response.FeedResponse.ReviewData;
 import com.parchelector.dto.response.FeedResponse.ListData;
 import com.parchelector.dto.response.FollowResponse;
+import com.parchelector.dto.response.FollowSuggestionResponse;
 import com.parchelector.dto.response.UserFollowStatsResponse;
 import com.parchelector.model.entity.*;
 import com.parchelector.repository.*;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -46,7 +50,18 @@ public class SocialService {
     private LibraryListRepository libraryListRepository;
 
     @Autowired
-    private ListLikeRepository listLikeRepository;
+    private FeedEntryRepository feedEntryRepository;
+
+    @Autowired
+    private FeedTimelineService feedTimelineService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    public static final int MAX_FEED_LIMIT = 50;
 
     /**
      * Follow a user.
@@ -77,6 +92,12 @@ public class SocialService {
         follow.setFollowedId(followedId);
         follow = followRepository.save(follow);
 
+        // Bring the followed user's existing content into the follower's timeline
+        feedTimelineService.onFollow(followerId, followedId);
+        eventPublisher.publishEvent(ActivityEvent.userFollowed(followerId, followedId));
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId));
+        eventPublisher.publishEvent(NotificationEvent.userFollowed(followedId, follower));
+
         return new FollowResponse(
                 followerId,
                 follower.getUsername(),
@@ -97,6 +118,35 @@ public class SocialService {
         }
 
         followRepository.deleteByFollowerIdAndFollowedId(followerId, followedId);
+        feedTimelineService.onUnfollow(followerId, followedId);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId));
+    }
+
+    /**
+     * Get people the user may know: users followed by the users they follow, from the
+     * precomputed suggestions.
+     */
+    public List<FollowSuggestionResponse> getFollowSuggestions(Long userId, int limit) {
+        Map<Long, Integer> suggestions = followSuggestionService.getSuggestions(userId, limit);
+        if (suggestions.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, User> users = userRepository.findAllById(suggestions.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<FollowSuggestionResponse> responses = new ArrayList<>();
+        suggestions.forEach((suggestedUserId, mutualFollows) -> {
+            User user = users.get(suggestedUserId);
+            if (user != null && !Boolean.FALSE.equals(user.getActive())) {
+                responses.add(new FollowSuggestionResponse(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getAvatarUrl(),
+                        mutualFollows
+                ));
+            }
+        });
+        return responses;
     }
 
     /**
@@ -178,88 +228,161 @@ public class SocialService {
     }
 
     /**
-     * Get social feed with recent activity from followed users.
+     * Get social feed with recent activity from followed users (offset pagination).
+     * Served from the materialized timeline, so the cost depends only on the page size.
+     * The total is only counted for the first page; later pages carry null.
      */
     public FeedResponse getFeed(Long userId, Integer limit, Integer offset) {
-        // Get list of followed user IDs
-        List<Long> followedUserIds = followRepository.findFollowedUserIds(userId);
-        
-        if (followedUserIds.isEmpty()) {
-            return new FeedResponse(new ArrayList<>(), 0, limit, offset, false);
+        // Old clients page with any offset and limit, so clamp rather than reject
+        int pageSize = OffsetWindow.clampLimit(limit, MAX_FEED_LIMIT);
+        int skip = Math.max(offset, 0);
+
+        // One row past the page tells whether there is a next one, without counting the timeline
+        List<FeedEntry> entries = feedEntryRepository.findTimeline(userId, OffsetWindow.of(skip, pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
         }
 
-        // Fetch reviews from followed users
-        List<Review> reviews = reviewRepository.findByUserIdsOrderByCreatedAtDesc(followedUserIds);
-        
-        // Fetch lists from followed users
-        List<LibraryList> lists = libraryListRepository.findByUserIdsOrderByCreatedAtDesc(followedUserIds);
+        // Only known for free on the last page; counting would read the whole timeline
+        Integer total = !hasMore && (skip == 0 || !entries.isEmpty()) ? skip + entries.size() : null;
+        String nextCursor = hasMore ? FeedCursor.after(entries.get(entries.size() - 1)).encode() : null;
 
-        // Convert to feed items
-        List<FeedItem> feedItems = new ArrayList<>();
+        return new FeedResponse(hydrate(entries), total, pageSize, skip, hasMore, nextCursor);
+    }
 
-        // Add reviews to feed
-        for (Review review : reviews) {
-            FeedItem item = new FeedItem();
-            item.setType("REVIEW");
-            item.setUserId(review.getUser().getId());
-            item.setUsername(review.getUser().getUsername());
-            item.setUserAvatar(review.getUser().getAvatarUrl());
-            item.setCreatedAt(review.getCreatedAt());
-
-            ReviewData reviewData = new ReviewData();
-            reviewData.setReviewId(review.getId());
-            reviewData.setBookId(review.getBook().getId());
-            reviewData.setBookTitle(review.getBook().getTitle());
-            reviewData.setBookCover(review.getBook().getCoverUrl());
-            reviewData.setRating(review.getRating().doubleValue());
-            reviewData.setTitle(review.getTitle());
-            reviewData.setBody(review.getBody());
-            reviewData.setLikes(reviewRepository.countLikesByReviewId(review.getId()));
-            reviewData.setComments(reviewRepository.countCommentsByReviewId(review.getId()));
-
-            item.setReview(reviewData);
-            feedItems.add(item);
+    /**
+     * Get social feed using keyset pagination.
+     * Fetches only limit + 1 rows after the cursor, so every page costs the same as the first one.
+     *
+     * @param cursor cursor returned by the previous page, or empty for the first page
+     */
+    public FeedResponse getFeedAfter(Long userId, Integer limit, String cursor) {
+        OffsetWindow.validateLimit(limit, MAX_FEED_LIMIT);
+
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<FeedEntry> entries;
+        if (cursor == null || cursor.isEmpty()) {
+            entries = feedEntryRepository.findTimeline(userId, window);
+        } else {
+            FeedCursor position = FeedCursor.decode(cursor);
+            entries = feedEntryRepository.findTimelineAfter(
+                    userId,
+                    position.getCreatedAt(),
+                    position.getItemType(),
+                    position.getItemId(),
+                    window
+            );
         }
 
-        // Add lists to feed
-        for (LibraryList list : lists) {
-            // Skip private lists or followers-only lists if needed
-            if ("PRIVATE".equals(list.getVisibility())) {
-                continue;
-            }
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        String nextCursor = hasMore ? FeedCursor.after(entries.get(entries.size() - 1)).encode() : null;
+
+        return new FeedResponse(hydrate(entries), null, limit, null, hasMore, nextCursor);
+    }
+
+    /**
+     * A single feed item as followers see it, e.g. to push it to connected clients.
+     *
+     * @return the item, or null if it was deleted or made private meanwhile
+     */
+    @Transactional
+    public FeedItem getFeedItem(String itemType, Long itemId) {
+        FeedEntry entry = new FeedEntry();
+        entry.setItemType(itemType);
+        entry.setItemId(itemId);
+        List<FeedItem> items = hydrate(List.of(entry));
+        return items.isEmpty() ? null : items.get(0);
+    }
 
-            User listUser = list.getUser();
-            if (listUser == null) continue;
-
-            FeedItem item = new FeedItem();
-            item.setType("LIST");
-            item.setUserId(listUser.getId());
-            item.setUsername(listUser.getUsername());
-            item.setUserAvatar(listUser.getAvatarUrl());
-            item.setCreatedAt(list.getCreatedAt());
-
-            ListData listData = new ListData();
-            listData.setListId(list.getId());
-            listData.setName(list.getName());
-            listData.setDescription(list.getDescription());
-            listData.setVisibility(list.getVisibility());
-            listData.setBookCount(libraryListRepository.countBooksByListId(list.getId()));
-            listData.setLikes(listLikeRepository.countByListId(list.getId()));
-
-            item.setList(listData);
-            feedItems.add(item);
+    /**
+     * Load the reviews and lists referenced by timeline entries and map them to feed items,
+     * preserving timeline order.
+     */
+    private List<FeedItem> hydrate(List<FeedEntry> entries) {
+        List<Long> reviewIds = new ArrayList<>();
+        List<Long> listIds = new ArrayList<>();
+        for (FeedEntry entry : entries) {
+            if (FeedEntry.TYPE_REVIEW.equals(entry.getItemType())) {
+                reviewIds.add(entry.getItemId());
+            } else {
+                listIds.add(entry.getItemId());
+            }
         }
 
-        // Sort all feed items by createdAt descending
-        feedItems.sort(Comparator.comparing(FeedItem::getCreatedAt).reversed());
+        Map<Long, Review> reviews = reviewIds.isEmpty() ? Map.of()
+                : reviewRepository.findAllWithUserAndBookByIdIn(reviewIds).stream()
+                        .collect(Collectors.toMap(Review::getId, Function.identity()));
+        Map<Long, LibraryList> lists = listIds.isEmpty() ? Map.of()
+                : libraryListRepository.findAllWithUserByIdIn(listIds).stream()
+                        .collect(Collectors.toMap(LibraryList::getId, Function.identity()));
+
+        // Book counts for the whole page in one grouped query; like/comment counters live on the rows
+        Map<Long, Integer> bookCounts = libraryListRepository.bookCountsForLists(lists.keySet());
 
-        // Apply pagination
-        int total = feedItems.size();
-        int start = Math.min(offset, total);
-        int end = Math.min(offset + limit, total);
-        List<FeedItem> paginatedItems = feedItems.subList(start, end);
-        boolean hasMore = end < total;
+        List<FeedItem> feedItems = new ArrayList<>();
+        for (FeedEntry entry : entries) {
+            if (FeedEntry.TYPE_REVIEW.equals(entry.getItemType())) {
+                Review review = reviews.get(entry.getItemId());
+                if (review != null) {
+                    feedItems.add(mapReviewToFeedItem(review));
+                }
+            } else {
+                LibraryList list = lists.get(entry.getItemId());
+                // Skip private lists in case visibility changed after fan-out
+                if (list != null && !"PRIVATE".equals(list.getVisibility())) {
+                    feedItems.add(mapListToFeedItem(list, bookCounts.getOrDefault(list.getId(), 0)));
+                }
+            }
+        }
+        return feedItems;
+    }
+
+    private FeedItem mapReviewToFeedItem(Review review) {
+        FeedItem item = new FeedItem();
+        item.setType("REVIEW");
+        item.setUserId(review.getUser().getId());
+        item.setUsername(review.getUser().getUsername());
+        item.setUserAvatar(review.getUser().getAvatarUrl());
+        item.setCreatedAt(review.getCreatedAt());
+
+        ReviewData reviewData = new ReviewData();
+        reviewData.setReviewId(review.getId());
+        reviewData.setBookId(review.getBook().getId());
+        reviewData.setBookTitle(review.getBook().getTitle());
+        reviewData.setBookCover(review.getBook().getCoverUrl());
+        reviewData.setRating(review.getRating().doubleValue());
+        reviewData.setTitle(review.getTitle());
+        reviewData.setBody(review.getBody());
+        reviewData.setLikes(review.getLikeCount());
+        reviewData.setComments(review.getCommentCount());
+
+        item.setReview(reviewData);
+        return item;
+    }
 
-        return new FeedResponse(paginatedItems, total, limit, offset, hasMore);
+    private FeedItem mapListToFeedItem(LibraryList list, int bookCount) {
+        User listUser = list.getUser();
+
+        FeedItem item = new FeedItem();
+        item.setType("LIST");
+        item.setUserId(listUser.getId());
+        item.setUsername(listUser.getUsername());
+        item.setUserAvatar(listUser.getAvatarUrl());
+        item.setCreatedAt(list.getCreatedAt());
+
+        ListData listData = new ListData();
+        listData.setListId(list.getId());
+        listData.setName(list.getName());
+        listData.setDescription(list.getDescription());
+        listData.setVisibility(list.getVisibility());
+        listData.setBookCount(bookCount);
+        listData.setLikes(list.getLikeCount());
+
+        item.setList(listData);
+        return item;
     }
 }
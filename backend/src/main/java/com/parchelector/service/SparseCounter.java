@@ -0,0 +1,51 @@
+package com.parchelector.service;
+
+/**
+ * Dense counters over item numbers plus the list of items touched, so the counts of one row
+ * are read and reset without clearing the whole array. Not thread-safe: each worker thread
+ * keeps its own.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class SparseCounter {
+
+    private final int[] counts;
+    private final int[] touched;
+    private int size;
+
+    SparseCounter(int capacity) {
+        this.counts = new int[capacity];
+        this.touched = new int[capacity];
+    }
+
+    void increment(int item) {
+        if (counts[item]++ == 0) {
+            touched[size++] = item;
+        }
+    }
+
+    /**
+     * Number of items counted since the last {@link #clear()}.
+     */
+    int size() {
+        return size;
+    }
+
+    int item(int i) {
+        return touched[i];
+    }
+
+    int count(int item) {
+        return counts[item];
+    }
+
+    /**
+     * Reset the touched counters only.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            counts[touched[i]] = 0;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,41 @@
+package com.parchelector.service;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * JDBC arrays from primitive arrays, for the precomputed neighbour and suggestion rows
+ * written in batches by the rebuild jobs.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class SqlArrays {
+
+    private SqlArrays() {
+    }
+
+    static Array bigintArray(Connection connection, long[] values) throws SQLException {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return connection.createArrayOf("bigint", boxed);
+    }
+
+    static Array realArray(Connection connection, float[] values) throws SQLException {
+        Float[] boxed = new Float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return connection.createArrayOf("real", boxed);
+    }
+
+    static Array integerArray(Connection connection, int[] values) throws SQLException {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return connection.createArrayOf("integer", boxed);
+    }
+}
@@ -2,13 +2,16 @@ package com.parchelector.service;
 
 import com.parchelector.dto.response.ReadingStatsResponse;
 import com.parchelector.dto.response.ReadingStatsResponse.*;
+import com.parchelector.model.entity.ReadingEvent;
 import com.parchelector.model.entity.ReadingStatus;
-import com.parchelector.repository.*;
+import com.parchelector.model.entity.UserStats;
+import com.parchelector.repository.ReadingStatusRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -21,145 +24,148 @@ import java.util.stream.Collectors;
 @Service
 public class StatsService {
 
-    @Autowired
-    private ReadingStatusRepository readingStatusRepository;
-
-    @Autowired
-    private ReviewRepository reviewRepository;
+    private static final int TOP_GENRES = 10;
 
     @Autowired
-    private LibraryListRepository libraryListRepository;
+    private UserStatsService userStatsService;
 
     @Autowired
-    private UserRepository userRepository;
+    private ReadingStatusRepository readingStatusRepository;
 
     /**
-     * Get comprehensive reading statistics for a user.
+     * Get comprehensive reading statistics for a user, from the user's stats snapshot.
      */
     public ReadingStatsResponse getReadingStats(Long userId) {
-        // Validate user exists
-        userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        UserStats stats = userStatsService.getStats(userId);
 
         // Get reading counts
-        ReadingCounts counts = getReadingCounts(userId);
+        ReadingCounts counts = new ReadingCounts(
+                stats.getBooksRead(),
+                stats.getBooksReading(),
+                stats.getBooksToRead(),
+                stats.getPagesRead(),
+                stats.getReviewCount(),
+                stats.getListCount()
+        );
 
         // Get rating statistics
-        RatingStats ratingStats = getRatingStats(userId);
+        int[] histogram = stats.getRatingHistogram();
+        RatingStats ratingStats = new RatingStats(
+                averageRating(stats),
+                stats.getReviewCount(),
+                histogram[4],
+                histogram[3],
+                histogram[2],
+                histogram[1],
+                histogram[0]
+        );
 
         // Get top genres
-        List<GenreStats> topGenres = getTopGenres(userId);
+        List<GenreStats> topGenres = getTopGenres(stats);
 
         // Get reading trends
-        ReadingTrends trends = getReadingTrends(userId);
+        YearMonth thisMonth = YearMonth.now();
+        ReadingTrends trends = new ReadingTrends(
+                stats.getBooksReadByMonth().getOrDefault(thisMonth.toString(), 0),
+                sumForYear(stats.getBooksReadByMonth(), thisMonth.getYear()),
+                stats.getReviewsByMonth().getOrDefault(thisMonth.toString(), 0),
+                sumForYear(stats.getReviewsByMonth(), thisMonth.getYear())
+        );
+
+        // Get streaks and pace
+        ReadingPace pace = getReadingPace(userId, stats, LocalDate.now());
 
-        return new ReadingStatsResponse(counts, ratingStats, topGenres, trends);
+        return new ReadingStatsResponse(counts, ratingStats, topGenres, trends, pace);
     }
 
     /**
-     * Get reading counts.
+     * Average of the user's ratings, 0 without reviews.
      */
-    private ReadingCounts getReadingCounts(Long userId) {
-        int booksRead = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatus.ReadingStatusEnum.READ);
-        int booksReading = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatus.ReadingStatusEnum.READING);
-        int booksToRead = readingStatusRepository.countByUserIdAndStatus(userId, ReadingStatus.ReadingStatusEnum.WANT_TO_READ);
-        
-        Long pagesRead = readingStatusRepository.sumPagesReadByUserId(userId);
-        int totalPagesRead = (pagesRead != null) ? pagesRead.intValue() : 0;
-
-        int totalReviews = reviewRepository.countByUserId(userId);
-        int totalLists = libraryListRepository.findByUserIdOrderByCreatedAtDesc(userId).size();
-
-        return new ReadingCounts(
-                booksRead,
-                booksReading,
-                booksToRead,
-                totalPagesRead,
-                totalReviews,
-                totalLists
-        );
+    public static double averageRating(UserStats stats) {
+        return stats.getReviewCount() > 0
+                ? stats.getRatingSum().doubleValue() / stats.getReviewCount()
+                : 0.0;
     }
 
     /**
-     * Get rating statistics.
+     * Get top genres read by the user.
      */
-    private RatingStats getRatingStats(Long userId) {
-        Double averageRating = reviewRepository.getAverageRatingByUserId(userId);
-        if (averageRating == null) {
-            averageRating = 0.0;
-        }
-
-        int totalRatings = reviewRepository.countByUserId(userId);
-
-        // Count books by star rating
-        int fiveStarBooks = reviewRepository.countByUserIdAndRatingRange(userId, 4.5, 5.1);
-        int fourStarBooks = reviewRepository.countByUserIdAndRatingRange(userId, 3.5, 4.5);
-        int threeStarBooks = reviewRepository.countByUserIdAndRatingRange(userId, 2.5, 3.5);
-        int twoStarBooks = reviewRepository.countByUserIdAndRatingRange(userId, 1.5, 2.5);
-        int oneStarBooks = reviewRepository.countByUserIdAndRatingRange(userId, 0.0, 1.5);
-
-        return new RatingStats(
-                averageRating,
-                totalRatings,
-                fiveStarBooks,
-                fourStarBooks,
-                threeStarBooks,
-                twoStarBooks,
-                oneStarBooks
-        );
+    private List<GenreStats> getTopGenres(UserStats stats) {
+        int totalBooksRead = stats.getBooksRead();
+        return stats.getGenreCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_GENRES)
+                .map(entry -> {
+                    int bookCount = entry.getValue();
+                    double percentage = totalBooksRead > 0 ? (bookCount * 100.0 / totalBooksRead) : 0.0;
+                    return new GenreStats(entry.getKey(), bookCount, Math.round(percentage * 10.0) / 10.0);
+                })
+                .collect(Collectors.toList());
     }
 
     /**
-     * Get top genres read by the user.
+     * Get reading streaks, pages per day over the last 30 days, and when each book being read
+     * would be finished at that pace. The streak is still current when the last reading day
+     * was yesterday.
      */
-    private List<GenreStats> getTopGenres(Long userId) {
-        // Get all read books with genres
-        List<ReadingStatus> readStatuses = readingStatusRepository.findByUserIdWithBooks(userId);
-        
-        // Count books by genre
-        Map<String, Integer> genreCounts = new HashMap<>();
-        int totalBooks = 0;
-
-        for (ReadingStatus rs : readStatuses) {
-            if (rs.getStatus() == ReadingStatus.ReadingStatusEnum.READ) {
-                totalBooks++;
-                for (var genre : rs.getBook().getGenres()) {
-                    String genreName = genre.getName();
-                    genreCounts.put(genreName, genreCounts.getOrDefault(genreName, 0) + 1);
-                }
+    private ReadingPace getReadingPace(Long userId, UserStats stats, LocalDate today) {
+        LocalDate lastReadingDate = stats.getLastReadingDate();
+        long daysSinceLastReading = lastReadingDate != null
+                ? Math.max(0, ChronoUnit.DAYS.between(lastReadingDate, today))
+                : UserStats.PACE_DAYS;
+        int currentStreak = daysSinceLastReading <= 1 && stats.getCurrentStreak() != null
+                ? stats.getCurrentStreak()
+                : 0;
+
+        // Slot i of the counters is lastReadingDate minus i days; keep those within the last 30 days
+        long readingDayBits = stats.getReadingDays() != null ? stats.getReadingDays() : 0L;
+        int readingDays = 0;
+        int pages = 0;
+        for (int i = 0; i + daysSinceLastReading < UserStats.PACE_DAYS; i++) {
+            if ((readingDayBits & (1L << i)) != 0) {
+                readingDays++;
+            }
+            if (stats.getDailyPages() != null) {
+                pages += stats.getDailyPages()[i];
             }
         }
-
-        // Convert to GenreStats and calculate percentages
-        final int finalTotalBooks = totalBooks;
-        List<GenreStats> genreStatsList = genreCounts.entrySet().stream()
-                .map(entry -> {
-                    String genreName = entry.getKey();
-                    Integer bookCount = entry.getValue();
-                    Double percentage = finalTotalBooks > 0 ? (bookCount * 100.0 / finalTotalBooks) : 0.0;
-                    return new GenreStats(genreName, bookCount, Math.round(percentage * 10.0) / 10.0);
+        double pagesPerDay = (double) pages / UserStats.PACE_DAYS;
+
+        List<ReadingStatus> reading = stats.getBooksReading() > 0
+                ? readingStatusRepository.findWithBookByUserIdAndStatus(userId, ReadingStatus.ReadingStatusEnum.READING)
+                : List.of();
+        List<BookPace> currentlyReading = reading.stream()
+                .map(rs -> {
+                    Integer pageCount = rs.getBook().getPageCount();
+                    Integer currentPage = rs.getCurrentPage();
+                    if (currentPage == null && rs.getProgressPercent() != null) {
+                        currentPage = ReadingProgressService.pageOf(ReadingEvent.TYPE_PERCENT, rs.getProgressPercent(), pageCount);
+                    }
+                    LocalDate projectedFinishDate = null;
+                    if (pagesPerDay > 0 && pageCount != null && currentPage != null) {
+                        int remainingPages = Math.max(0, pageCount - currentPage);
+                        projectedFinishDate = today.plusDays((long) Math.ceil(remainingPages / pagesPerDay));
+                    }
+                    return new BookPace(rs.getBook().getId(), rs.getBook().getTitle(), currentPage,
+                            pageCount, rs.getProgressPercent(), projectedFinishDate);
                 })
-                .sorted((a, b) -> b.getBookCount().compareTo(a.getBookCount()))
-                .limit(10) // Top 10 genres
                 .collect(Collectors.toList());
 
-        return genreStatsList.isEmpty() ? new ArrayList<>() : genreStatsList;
+        return new ReadingPace(
+                currentStreak,
+                stats.getLongestStreak() != null ? stats.getLongestStreak() : 0,
+                readingDays,
+                Math.round(pagesPerDay * 10.0) / 10.0,
+                currentlyReading
+        );
     }
 
-    /**
-     * Get reading trends.
-     */
-    private ReadingTrends getReadingTrends(Long userId) {
-        int booksReadThisMonth = readingStatusRepository.countBooksReadThisMonth(userId);
-        int booksReadThisYear = readingStatusRepository.countBooksReadThisYear(userId);
-        int reviewsThisMonth = reviewRepository.countReviewsThisMonth(userId);
-        int reviewsThisYear = reviewRepository.countReviewsThisYear(userId);
-
-        return new ReadingTrends(
-                booksReadThisMonth,
-                booksReadThisYear,
-                reviewsThisMonth,
-                reviewsThisYear
-        );
+    private static int sumForYear(Map<String, Integer> countsByMonth, int year) {
+        String prefix = year + "-";
+        return countsByMonth.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
     }
 }
@@ -0,0 +1,60 @@
+package com.parchelector.service;
+
+import java.util.Arrays;
+
+/**
+ * The best N items of a row by score, kept sorted, higher score first; the lower item number
+ * wins ties, so results are deterministic. Each item can carry an int tag (e.g. a count
+ * shown next to it). For the few dozen items kept, shifting into place beats a heap.
+ *
+ * @author Nicolas Arciniegas
+ */
+final class TopN {
+
+    private final int[] items;
+    private final float[] scores;
+    private final int[] tags;
+    private int size;
+
+    TopN(int capacity) {
+        this.items = new int[capacity];
+        this.scores = new float[capacity];
+        this.tags = new int[capacity];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void offer(int item, float score, int tag) {
+        if (size == items.length && !better(score, item, scores[size - 1], items[size - 1])) {
+            return;
+        }
+        int i = size < items.length ? size++ : size - 1;
+        while (i > 0 && better(score, item, scores[i - 1], items[i - 1])) {
+            items[i] = items[i - 1];
+            scores[i] = scores[i - 1];
+            tags[i] = tags[i - 1];
+            i--;
+        }
+        items[i] = item;
+        scores[i] = score;
+        tags[i] = tag;
+    }
+
+    int[] items() {
+        return Arrays.copyOf(items, size);
+    }
+
+    float[] scores() {
+        return Arrays.copyOf(scores, size);
+    }
+
+    int[] tags() {
+        return Arrays.copyOf(tags, size);
+    }
+
+    private static boolean better(float score, int item, float otherScore, int otherItem) {
+        return score > otherScore || (score == otherScore && item < otherItem);
+    }
+}
@@ -0,0 +1,281 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import com.parchelector.repository.FavoriteBookRepository;
+import com.parchelector.repository.ReadingStatusRepository;
+import com.parchelector.repository.ReviewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Trending engine: scores books from review, reading-status and favorite events with
+ * exponential time decay and keeps the top books of every window in memory.
+ *
+ * <p>Scores use forward decay: an event at time t adds {@code weight * 2^((t - landmark) / halfLife)},
+ * so new events are simply added and older ones never need to be rescaled; dividing every
+ * score by the same factor at read time would not change the ranking. A periodic rebuild
+ * moves the landmark forward and drops events that left the window. A reading status counts
+ * once per change of status, not on every write to its row.
+ *
+ * <p>Requests only read the published snapshot and never touch the event tables.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final double REVIEW_WEIGHT = 3.0;
+    private static final double FAVORITE_WEIGHT = 2.0;
+    private static final double READING_WEIGHT = 2.0;
+    private static final double READ_WEIGHT = 1.5;
+    private static final double WANT_TO_READ_WEIGHT = 1.0;
+
+    private final ReviewRepository reviewRepository;
+    private final ReadingStatusRepository readingStatusRepository;
+    private final FavoriteBookRepository favoriteBookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int topK;
+    private final Duration overlap;
+
+    private final Map<TrendingWindow, WindowScores> windows = new EnumMap<>(TrendingWindow.class);
+
+    // Events already in the scores that the next run may read again
+    private final Set<EventKey> counted = new HashSet<>();
+
+    private volatile Map<TrendingWindow, List<Long>> snapshot = Collections.emptyMap();
+
+    private LocalDateTime watermark;
+
+    @Autowired
+    public TrendingService(ReviewRepository reviewRepository,
+                           ReadingStatusRepository readingStatusRepository,
+                           FavoriteBookRepository favoriteBookRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${app.trending.top-k:200}") int topK,
+                           @Value("${app.trending.overlap-ms:300000}") long overlapMs) {
+        this.reviewRepository = reviewRepository;
+        this.readingStatusRepository = readingStatusRepository;
+        this.favoriteBookRepository = favoriteBookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.topK = topK;
+        this.overlap = Duration.ofMillis(overlapMs);
+    }
+
+    /**
+     * Top books of a window, best first. Reads the in-memory snapshot only.
+     */
+    public List<Long> getTopBookIds(TrendingWindow window, int limit) {
+        List<Long> top = snapshot.getOrDefault(window, Collections.emptyList());
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Build the scores from scratch on startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Recompute every window from all events still inside the longest window.
+     * Resets the decay landmarks and drops events that aged out since the last rebuild.
+     */
+    @Scheduled(initialDelayString = "${app.trending.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${app.trending.rebuild-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        LocalDateTime now = databaseNow();
+
+        windows.clear();
+        for (TrendingWindow window : TrendingWindow.values()) {
+            windows.put(window, new WindowScores(window, now.minus(window.getLength())));
+        }
+        counted.clear();
+
+        int events = applyEventsSince(now.minus(TrendingWindow.MONTH.getLength()));
+        advanceWatermark(now);
+        publish();
+        log.info("Rebuilt trending scores from {} events", events);
+    }
+
+    /**
+     * Fold the events recorded since the last run into the scores. The watermark is the
+     * database clock when the last run started, and the window before it is read again so
+     * rows that committed late are not missed; events already counted are skipped.
+     */
+    @Scheduled(initialDelayString = "${app.trending.refresh-interval-ms:60000}",
+               fixedDelayString = "${app.trending.refresh-interval-ms:60000}")
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        if (watermark == null) {
+            return;
+        }
+        LocalDateTime now = databaseNow();
+        int events = applyEventsSince(watermark.minus(overlap));
+        advanceWatermark(now);
+        if (events > 0) {
+            publish();
+        }
+    }
+
+    private int applyEventsSince(LocalDateTime since) {
+        int events = 0;
+
+        for (Object[] row : reviewRepository.findTrendingEventsSince(since)) {
+            events += addEvent(new EventKey("review", (Long) row[0], (Long) row[1], (LocalDateTime) row[2]),
+                    REVIEW_WEIGHT);
+        }
+        for (Object[] row : readingStatusRepository.findTrendingEventsSince(since)) {
+            events += addEvent(new EventKey("status", (Long) row[0], (Long) row[1], (LocalDateTime) row[3]),
+                    statusWeight((ReadingStatusEnum) row[2]));
+        }
+        for (Object[] row : favoriteBookRepository.findTrendingEventsSince(since)) {
+            events += addEvent(new EventKey("favorite", (Long) row[0], (Long) row[1], (LocalDateTime) row[2]),
+                    FAVORITE_WEIGHT);
+        }
+        return events;
+    }
+
+    private int addEvent(EventKey event, double weight) {
+        if (!counted.add(event)) {
+            return 0;
+        }
+        for (WindowScores scores : windows.values()) {
+            scores.add(event.bookId, event.at, weight);
+        }
+        return 1;
+    }
+
+    // Events before the next run's overlap are never read again
+    private void advanceWatermark(LocalDateTime now) {
+        watermark = now;
+        LocalDateTime horizon = now.minus(overlap);
+        counted.removeIf(event -> event.at.isBefore(horizon));
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+
+    private void publish() {
+        Map<TrendingWindow, List<Long>> next = new EnumMap<>(TrendingWindow.class);
+        for (WindowScores scores : windows.values()) {
+            next.put(scores.window, scores.top(topK));
+        }
+        snapshot = next;
+    }
+
+    private static double statusWeight(ReadingStatusEnum status) {
+        switch (status) {
+            case READING:
+                return READING_WEIGHT;
+            case READ:
+                return READ_WEIGHT;
+            default:
+                return WANT_TO_READ_WEIGHT;
+        }
+    }
+
+    /**
+     * Forward-decayed scores of one window.
+     */
+    static class WindowScores {
+
+        private final TrendingWindow window;
+        private final LocalDateTime landmark;
+        private final double halfLifeSeconds;
+        private final Map<Long, Double> scores = new HashMap<>();
+
+        WindowScores(TrendingWindow window, LocalDateTime landmark) {
+            this.window = window;
+            this.landmark = landmark;
+            this.halfLifeSeconds = window.getHalfLife().getSeconds();
+        }
+
+        void add(Long bookId, LocalDateTime at, double weight) {
+            if (at.isBefore(landmark)) {
+                return; // Outside the window
+            }
+            double age = Duration.between(landmark, at).getSeconds();
+            scores.merge(bookId, weight * Math.pow(2, age / halfLifeSeconds), Double::sum);
+        }
+
+        double score(Long bookId) {
+            return scores.getOrDefault(bookId, 0.0);
+        }
+
+        List<Long> top(int k) {
+            PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (heap.size() < k) {
+                    heap.add(entry);
+                } else if (entry.getValue() > heap.peek().getValue()) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+
+            List<Long> top = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                top.add(heap.poll().getKey());
+            }
+            Collections.reverse(top);
+            return Collections.unmodifiableList(top);
+        }
+    }
+
+    /**
+     * One event row: the source table, the row's key (review or reading status ID, or the
+     * user of a favorite), the book and the event time. A status row that changes again
+     * gets a new time, so it counts as a new event.
+     */
+    private static final class EventKey {
+
+        final String source;
+        final Long sourceId;
+        final Long bookId;
+        final LocalDateTime at;
+
+        EventKey(String source, Long sourceId, Long bookId, LocalDateTime at) {
+            this.source = source;
+            this.sourceId = sourceId;
+            this.bookId = bookId;
+            this.at = at;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof EventKey key && source.equals(key.source) && sourceId.equals(key.sourceId)
+                    && bookId.equals(key.bookId) && at.equals(key.at);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, sourceId, bookId, at);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.parchelector.service;
+
+import java.time.Duration;
+
+/**
+ * Time windows supported by the trending engine. Within a window, an event's weight
+ * halves every {@code halfLife}; events older than the window are dropped.
+ *
+ * @author Nicolas Arciniegas
+ */
+public enum TrendingWindow {
+
+    DAY("24h", Duration.ofHours(24), Duration.ofHours(6)),
+    WEEK("7d", Duration.ofDays(7), Duration.ofDays(2)),
+    MONTH("30d", Duration.ofDays(30), Duration.ofDays(7));
+
+    private final String param;
+    private final Duration length;
+    private final Duration halfLife;
+
+    TrendingWindow(String param, Duration length, Duration halfLife) {
+        this.param = param;
+        this.length = length;
+        this.halfLife = halfLife;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public Duration getLength() {
+        return length;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+
+    /**
+     * Parse the value of the {@code window} request parameter.
+     */
+    public static TrendingWindow fromParam(String param) {
+        for (TrendingWindow window : values()) {
+            if (window.param.equalsIgnoreCase(param)) {
+                return window;
+            }
+        }
+        throw new IllegalArgumentException("Invalid window parameter. Must be '24h', '7d', or '30d'");
+    }
+}
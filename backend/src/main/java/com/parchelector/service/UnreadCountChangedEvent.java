@@ -0,0 +1,17 @@
+package com.parchelector.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published when a user's unread notification count may have changed
+ * (new notifications written, or some marked read). Published after the change committed.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Getter
+@AllArgsConstructor
+public final class UnreadCountChangedEvent {
+
+    private final Long userId;
+}
@@ -8,12 +8,16 @@ import com.parchelector.model.entity.User;
 import com.parchelector.repository.FollowRepository;
 import com.parchelector.repository.ReadingStatusRepository;
 import com.parchelector.repository.ReviewRepository;
+import com.parchelector.repository.UserGenreRepository;
 import com.parchelector.repository.UserRepository;
+import com.parchelector.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +40,15 @@ public class UserService {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private UserGenreRepository userGenreRepository;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
     /**
      * Get user profile with books and statistics.
      */
@@ -135,8 +148,28 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.invalidate(userId);
 
         // Return updated profile
         return getUserProfile(userId);
     }
+
+    /**
+     * Replace the genres the user likes; the personalized book order follows at once.
+     *
+     * @return the picked genre IDs, sorted
+     */
+    @Transactional
+    public List<Long> updatePreferredGenres(Long userId, List<Long> genreIds) {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
+        Set<Long> picked = new HashSet<>(genreIds);
+        if (!picked.isEmpty() && userGenreRepository.findExistingGenreIds(picked).size() != picked.size()) {
+            throw new IllegalArgumentException("Genre not found");
+        }
+
+        userStatsService.replacePreferredGenres(userId, picked);
+        return picked.stream().sorted().collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,480 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.Genre;
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import com.parchelector.model.entity.UserGenre;
+import com.parchelector.model.entity.UserStats;
+import com.parchelector.repository.UserGenreRepository;
+import com.parchelector.repository.UserRepository;
+import com.parchelector.repository.UserStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Service that maintains the per-user stats snapshot (books per status, pages, reviews,
+ * rating histogram, genres, monthly counters). Reading status, review and list writes
+ * apply deltas in the same transaction, so stats reads never aggregate raw rows.
+ * Edits to a book's page count or genres after it was read are picked up by a rebuild.
+ * Reading streaks and pace are folded in from reading progress as it is flushed; a rebuild
+ * replays reading_events once, in order, through the same fold.
+ * The genre affinity vector starts from the genres in user_genres when the snapshot is
+ * created and moves with every read book, rating and change of the picked genres.
+ *
+ * @author Nicolas Arciniegas
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    public static final double PREFERRED_GENRE_AFFINITY = 3.0;
+
+    public static final double READ_BOOK_AFFINITY = 1.0;
+
+    private static final double NEUTRAL_RATING = 3.0;
+
+    @Autowired
+    private UserStatsRepository userStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserGenreRepository userGenreRepository;
+
+    /**
+     * Account for a reading status change; a null old status means the book was just added.
+     */
+    @Transactional
+    public void replaceReadingStatus(Long userId, Book book,
+                                     ReadingStatusEnum oldStatus, LocalDate oldFinishedAt,
+                                     ReadingStatusEnum newStatus, LocalDate newFinishedAt) {
+        if (oldStatus == newStatus && (oldStatus != ReadingStatusEnum.READ || sameMonth(oldFinishedAt, newFinishedAt))) {
+            return;
+        }
+
+        UserStats stats = lockStats(userId);
+        if (oldStatus != null) {
+            applyReadingStatus(stats, book, oldStatus, oldFinishedAt, -1);
+        }
+        if (newStatus != null) {
+            applyReadingStatus(stats, book, newStatus, newFinishedAt, 1);
+        }
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Account for a new review of a book.
+     */
+    @Transactional
+    public void addReview(Long userId, Book book, BigDecimal rating, LocalDateTime createdAt) {
+        UserStats stats = lockStats(userId);
+        applyReview(stats, book, rating, createdAt, 1);
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Account for an edited rating of a book.
+     */
+    @Transactional
+    public void replaceRating(Long userId, Book book, BigDecimal oldRating, BigDecimal newRating) {
+        if (oldRating.compareTo(newRating) == 0) {
+            return;
+        }
+        UserStats stats = lockStats(userId);
+        applyRating(stats, book, oldRating, -1);
+        applyRating(stats, book, newRating, 1);
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Account for a removed review of a book (soft delete).
+     */
+    @Transactional
+    public void removeReview(Long userId, Book book, BigDecimal rating, LocalDateTime createdAt) {
+        UserStats stats = lockStats(userId);
+        applyReview(stats, book, rating, createdAt, -1);
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Account for a created (+1) or deleted (-1) list.
+     */
+    @Transactional
+    public void changeListCount(Long userId, int delta) {
+        UserStats stats = lockStats(userId);
+        stats.setListCount(stats.getListCount() + delta);
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Replace the genres a user picked, adding or taking away their affinity. The rows are
+     * read and written under the stats row lock, so concurrent edits apply one after another.
+     */
+    @Transactional
+    public void replacePreferredGenres(Long userId, Set<Long> genreIds) {
+        UserStats stats = lockStats(userId);
+        Set<Long> current = new HashSet<>(userGenreRepository.findGenreIdsByUserId(userId));
+
+        Set<Long> removed = new HashSet<>(current);
+        removed.removeAll(genreIds);
+        Set<Long> added = new HashSet<>(genreIds);
+        added.removeAll(current);
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        if (!removed.isEmpty()) {
+            userGenreRepository.deleteByUserIdAndGenreIdIn(userId, removed);
+        }
+        List<UserGenre> rows = new ArrayList<>();
+        for (Long genreId : added) {
+            rows.add(new UserGenre(userId, genreId));
+        }
+        userGenreRepository.saveAll(rows);
+
+        for (Long genreId : removed) {
+            addAffinity(stats.getGenreAffinity(), genreId, -PREFERRED_GENRE_AFFINITY);
+        }
+        for (Long genreId : added) {
+            addAffinity(stats.getGenreAffinity(), genreId, PREFERRED_GENRE_AFFINITY);
+        }
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Account for reading progress: pages a user read on a day. Every report marks the day as
+     * a reading day, also one that moved no pages forward.
+     */
+    @Transactional
+    public void addReadingDay(Long userId, LocalDate day, int pages) {
+        UserStats stats = lockStats(userId);
+        applyReadingDay(stats, day, pages);
+        userStatsRepository.save(stats);
+    }
+
+    /**
+     * Stats of a single user; users without activity get an empty snapshot.
+     */
+    @Transactional(readOnly = true)
+    public UserStats getStats(Long userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> {
+            if (!userRepository.existsById(userId)) {
+                throw new IllegalArgumentException("User not found");
+            }
+            return emptyStats(userId);
+        });
+    }
+
+    /**
+     * Genre affinity of a user by genre id. Users without a snapshot, or with one built
+     * before affinities were kept, get the genres they picked.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Double> getGenreAffinity(Long userId) {
+        return userStatsRepository.findById(userId)
+                .map(UserStats::getGenreAffinity)
+                .orElseGet(() -> preferredGenreAffinity(userId));
+    }
+
+    /**
+     * Recompute every snapshot from the reading status, review and list tables (backfill).
+     *
+     * @return number of users with stats
+     */
+    @Transactional
+    public int rebuildAll() {
+        userStatsRepository.deleteAllStats();
+
+        Map<Long, UserStats> statsByUser = new HashMap<>();
+        for (Object[] row : userStatsRepository.aggregateReadingStatuses()) {
+            UserStats stats = statsByUser.computeIfAbsent((Long) row[0], this::emptyStats);
+            int count = ((Number) row[2]).intValue();
+            switch ((ReadingStatusEnum) row[1]) {
+                case READ:
+                    stats.setBooksRead(count);
+                    stats.setPagesRead(row[3] != null ? ((Number) row[3]).intValue() : 0);
+                    break;
+                case READING:
+                    stats.setBooksReading(count);
+                    break;
+                case WANT_TO_READ:
+                    stats.setBooksToRead(count);
+                    break;
+            }
+        }
+        for (Object[] row : userStatsRepository.aggregateBooksReadByMonth()) {
+            statsByUser.computeIfAbsent((Long) row[0], this::emptyStats)
+                    .getBooksReadByMonth().put(monthKey(row[1], row[2]), ((Number) row[3]).intValue());
+        }
+        for (Object[] row : userStatsRepository.aggregateBooksReadByGenre()) {
+            statsByUser.computeIfAbsent((Long) row[0], this::emptyStats)
+                    .getGenreCounts().put((String) row[1], ((Number) row[2]).intValue());
+        }
+        for (Object[] row : userStatsRepository.aggregateReviewRatings()) {
+            UserStats stats = statsByUser.computeIfAbsent((Long) row[0], this::emptyStats);
+            BigDecimal rating = (BigDecimal) row[1];
+            int count = ((Number) row[2]).intValue();
+            stats.getRatingHistogram()[starBucketOf(rating)] += count;
+            stats.setReviewCount(stats.getReviewCount() + count);
+            stats.setRatingSum(stats.getRatingSum().add(rating.multiply(BigDecimal.valueOf(count))));
+        }
+        for (Object[] row : userStatsRepository.aggregateReviewsByMonth()) {
+            statsByUser.computeIfAbsent((Long) row[0], this::emptyStats)
+                    .getReviewsByMonth().put(monthKey(row[1], row[2]), ((Number) row[3]).intValue());
+        }
+        for (Object[] row : userStatsRepository.aggregateLists()) {
+            statsByUser.computeIfAbsent((Long) row[0], this::emptyStats)
+                    .setListCount(((Number) row[1]).intValue());
+        }
+        for (Object[] row : userStatsRepository.findPreferredGenres()) {
+            addAffinity(statsByUser.computeIfAbsent((Long) row[0], this::emptyStats).getGenreAffinity(),
+                    (Long) row[1], PREFERRED_GENRE_AFFINITY);
+        }
+        for (Object[] row : userStatsRepository.aggregateBooksReadByGenreId()) {
+            addAffinity(statsByUser.computeIfAbsent((Long) row[0], this::emptyStats).getGenreAffinity(),
+                    (Long) row[1], READ_BOOK_AFFINITY * ((Number) row[2]).intValue());
+        }
+        for (Object[] row : userStatsRepository.aggregateReviewRatingsByGenreId()) {
+            int count = ((Number) row[3]).intValue();
+            double ratingSum = ((BigDecimal) row[2]).doubleValue();
+            addAffinity(statsByUser.computeIfAbsent((Long) row[0], this::emptyStats).getGenreAffinity(),
+                    (Long) row[1], (ratingSum - NEUTRAL_RATING * count) / 2);
+        }
+        replayReadingEvents(statsByUser);
+
+        userStatsRepository.saveAll(statsByUser.values());
+        return statsByUser.size();
+    }
+
+    /**
+     * Backfill on the first start after the table was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (userStatsRepository.count() == 0) {
+            int users = rebuildAll();
+            if (users > 0) {
+                log.info("Backfilled stats for {} users", users);
+            }
+        }
+    }
+
+    /**
+     * Star bucket of a rating: rounded half up, so 4.5 counts as 5 stars and 1.4 as 1 star.
+     */
+    public static int starBucketOf(BigDecimal rating) {
+        int stars = rating.setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.max(0, Math.min(UserStats.STAR_BUCKETS - 1, stars - 1));
+    }
+
+    /**
+     * Affinity a rating adds to each genre of the book: 5 stars add 1, 3 stars nothing and
+     * 1 star takes 1 away.
+     */
+    public static double ratingAffinity(BigDecimal rating) {
+        return (rating.doubleValue() - NEUTRAL_RATING) / 2;
+    }
+
+    /**
+     * Key of the monthly counters, e.g. "2025-03".
+     */
+    public static String monthKey(LocalDate date) {
+        return YearMonth.from(date).toString();
+    }
+
+    /**
+     * Fold one reading day into the streak and pace counters. A day after the last reading
+     * date shifts the bitmap and the daily pages; an earlier one (a report flushed late) is
+     * set in place and may join the current streak to the run before it.
+     */
+    static void applyReadingDay(UserStats stats, LocalDate day, int pages) {
+        long readingDays = stats.getReadingDays() != null ? stats.getReadingDays() : 0L;
+        int[] dailyPages = stats.getDailyPages() != null ? stats.getDailyPages() : new int[UserStats.PACE_DAYS];
+        int currentStreak = stats.getCurrentStreak() != null ? stats.getCurrentStreak() : 0;
+        int longestStreak = stats.getLongestStreak() != null ? stats.getLongestStreak() : 0;
+        LocalDate lastReadingDate = stats.getLastReadingDate();
+
+        long offset;
+        if (lastReadingDate == null || day.isAfter(lastReadingDate)) {
+            long shift = lastReadingDate != null
+                    ? ChronoUnit.DAYS.between(lastReadingDate, day)
+                    : UserStats.READING_DAYS_WINDOW;
+            readingDays = shift < UserStats.READING_DAYS_WINDOW ? (readingDays << shift) | 1L : 1L;
+            dailyPages = shiftDailyPages(dailyPages, shift);
+            currentStreak = shift == 1 ? currentStreak + 1 : 1;
+            lastReadingDate = day;
+            offset = 0;
+        } else {
+            offset = ChronoUnit.DAYS.between(day, lastReadingDate);
+            if (offset >= UserStats.READING_DAYS_WINDOW) {
+                return;
+            }
+            readingDays |= 1L << offset;
+            // Length of the run of reading days ending at the last reading date
+            int run = Long.numberOfTrailingZeros(~readingDays);
+            currentStreak = run < UserStats.READING_DAYS_WINDOW ? run : Math.max(currentStreak, run);
+        }
+        if (offset < UserStats.PACE_DAYS) {
+            dailyPages[(int) offset] += pages;
+        }
+
+        stats.setLastReadingDate(lastReadingDate);
+        stats.setReadingDays(readingDays);
+        stats.setDailyPages(dailyPages);
+        stats.setCurrentStreak(currentStreak);
+        stats.setLongestStreak(Math.max(longestStreak, currentStreak));
+    }
+
+    private static int[] shiftDailyPages(int[] dailyPages, long shift) {
+        int[] shifted = new int[UserStats.PACE_DAYS];
+        if (shift < UserStats.PACE_DAYS) {
+            System.arraycopy(dailyPages, 0, shifted, (int) shift, UserStats.PACE_DAYS - (int) shift);
+        }
+        return shifted;
+    }
+
+    // Same pages-per-report rule as ReadingProgressService: a book's first report is its starting point
+    private void replayReadingEvents(Map<Long, UserStats> statsByUser) {
+        Map<Long, Integer> positions = new HashMap<>();
+        Long currentUserId = null;
+        try (Stream<Object[]> rows = userStatsRepository.streamReadingEvents()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                Long userId = (Long) row[0];
+                if (!userId.equals(currentUserId)) {
+                    positions.clear();
+                    currentUserId = userId;
+                }
+                Integer page = ReadingProgressService.pageOf((String) row[2], (Integer) row[3], (Integer) row[5]);
+                int pages = 0;
+                if (page != null) {
+                    Integer previous = positions.put((Long) row[1], page);
+                    pages = previous != null ? Math.max(0, page - previous) : 0;
+                }
+                applyReadingDay(statsByUser.computeIfAbsent(userId, this::emptyStats),
+                        ((LocalDateTime) row[4]).toLocalDate(), pages);
+            }
+        }
+    }
+
+    private void applyReadingStatus(UserStats stats, Book book, ReadingStatusEnum status,
+                                    LocalDate finishedAt, int delta) {
+        switch (status) {
+            case READ:
+                stats.setBooksRead(stats.getBooksRead() + delta);
+                if (book.getPageCount() != null) {
+                    stats.setPagesRead(stats.getPagesRead() + delta * book.getPageCount());
+                }
+                for (Genre genre : book.getGenres()) {
+                    addTo(stats.getGenreCounts(), genre.getName(), delta);
+                    addAffinity(genreAffinityOf(stats), genre.getId(), delta * READ_BOOK_AFFINITY);
+                }
+                if (finishedAt != null) {
+                    addTo(stats.getBooksReadByMonth(), monthKey(finishedAt), delta);
+                }
+                break;
+            case READING:
+                stats.setBooksReading(stats.getBooksReading() + delta);
+                break;
+            case WANT_TO_READ:
+                stats.setBooksToRead(stats.getBooksToRead() + delta);
+                break;
+        }
+    }
+
+    private void applyReview(UserStats stats, Book book, BigDecimal rating, LocalDateTime createdAt, int delta) {
+        stats.setReviewCount(stats.getReviewCount() + delta);
+        applyRating(stats, book, rating, delta);
+        addTo(stats.getReviewsByMonth(), monthKey(createdAt.toLocalDate()), delta);
+    }
+
+    private void applyRating(UserStats stats, Book book, BigDecimal rating, int delta) {
+        stats.getRatingHistogram()[starBucketOf(rating)] += delta;
+        stats.setRatingSum(stats.getRatingSum().add(rating.multiply(BigDecimal.valueOf(delta))));
+        double affinity = delta * ratingAffinity(rating);
+        for (Genre genre : book.getGenres()) {
+            addAffinity(genreAffinityOf(stats), genre.getId(), affinity);
+        }
+    }
+
+    private UserStats lockStats(Long userId) {
+        userStatsRepository.insertIfAbsent(userId, new int[UserStats.STAR_BUCKETS], new int[UserStats.PACE_DAYS]);
+        UserStats stats = userStatsRepository.findByUserIdForUpdate(userId)
+                .orElseThrow(() -> new IllegalStateException("Stats missing for user " + userId));
+        genreAffinityOf(stats);
+        return stats;
+    }
+
+    // Snapshots built before affinities were kept start from the picked genres; a rebuild adds their history
+    private Map<Long, Double> genreAffinityOf(UserStats stats) {
+        if (stats.getGenreAffinity() == null) {
+            stats.setGenreAffinity(preferredGenreAffinity(stats.getUserId()));
+        }
+        return stats.getGenreAffinity();
+    }
+
+    private Map<Long, Double> preferredGenreAffinity(Long userId) {
+        Map<Long, Double> affinity = new HashMap<>();
+        for (Long genreId : userGenreRepository.findGenreIdsByUserId(userId)) {
+            affinity.put(genreId, PREFERRED_GENRE_AFFINITY);
+        }
+        return affinity;
+    }
+
+    private UserStats emptyStats(Long userId) {
+        UserStats stats = new UserStats();
+        stats.setUserId(userId);
+        return stats;
+    }
+
+    // Entries that drop to zero are removed so the maps only hold live keys
+    private static void addTo(Map<String, Integer> counts, String key, int delta) {
+        counts.merge(key, delta, Integer::sum);
+        if (counts.get(key) == 0) {
+            counts.remove(key);
+        }
+    }
+
+    // Same for affinities, which are sums of fractions and may end a hair off zero
+    private static void addAffinity(Map<Long, Double> affinity, Long genreId, double delta) {
+        double value = affinity.merge(genreId, delta, Double::sum);
+        if (Math.abs(value) < 1e-9) {
+            affinity.remove(genreId);
+        }
+    }
+
+    private static String monthKey(Object year, Object month) {
+        return YearMonth.of(((Number) year).intValue(), ((Number) month).intValue()).toString();
+    }
+
+    private static boolean sameMonth(LocalDate a, LocalDate b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return YearMonth.from(a).equals(YearMonth.from(b));
+    }
+}
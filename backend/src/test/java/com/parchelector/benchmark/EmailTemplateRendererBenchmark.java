@@ -0,0 +1,81 @@
+package com.parchelector.benchmark;
+
+import com.parchelector.service.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders per second of the password reset email with the cached, precompiled engine of
+ * {@link EmailTemplateRenderer}, in batches of 100 recipients, and with template caching
+ * off (what spring.thymeleaf.cache=false did on every send). Three forks and a long warmup
+ * keep the error bars tight.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile -Dbenchmark=EmailTemplateRendererBenchmark}.
+ *
+ * @author Nicolas Arciniegas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+public class EmailTemplateRendererBenchmark {
+
+    private static final String TEMPLATE = "password-reset-email";
+    private static final int BATCH_SIZE = 100;
+
+    private EmailTemplateRenderer cached;
+    private EmailTemplateRenderer uncached;
+    private Map<String, Object> variables;
+    private List<Map<String, Object>> batch;
+
+    @Setup
+    public void setUp() {
+        cached = new EmailTemplateRenderer();
+        uncached = new EmailTemplateRenderer(false);
+
+        variables = variables(0);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(variables(i));
+        }
+    }
+
+    @Benchmark
+    public String cachedRender() {
+        return cached.render(TEMPLATE, variables);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> cachedBatchRender() {
+        return cached.renderAll(TEMPLATE, batch);
+    }
+
+    @Benchmark
+    public String uncachedRender() {
+        return uncached.render(TEMPLATE, variables);
+    }
+
+    private static Map<String, Object> variables(int i) {
+        return Map.of(
+                "username", "lector_" + i,
+                "resetUrl", "http://localhost:5173/reset-password?token=selector" + i + ".verifier" + i,
+                "expirationMinutes", 60);
+    }
+}
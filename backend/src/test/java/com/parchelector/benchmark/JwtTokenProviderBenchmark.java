@@ -0,0 +1,79 @@
+package com.parchelector.benchmark;
+
+import com.parchelector.model.entity.User;
+import com.parchelector.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of validating a token, with the memoized key and parser of
+ * {@link JwtTokenProvider} against the previous behaviour of decoding the secret and
+ * building a parser on every call. Single-threaded: the parser holds no locks, so the
+ * per-call cost is the same under concurrency, and extra threads on a small machine only
+ * add scheduling noise. Three forks and a long warmup keep the error bars tight.
+ *
+ * <p>Run with {@code mvn -Pbenchmark test-compile -Dbenchmark=JwtTokenProviderBenchmark}.
+ *
+ * @author Nicolas Arciniegas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@Threads(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "dGVzdC1zZWNyZXQta2V5LWZvci1wYXJjaGUtbGVjdG9yLXVuaXQtdGVzdHMtb25seQ==";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(SECRET, 3_600_000L);
+
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("benchmark");
+        user.setRole("USER");
+        token = provider.generateToken(user);
+    }
+
+    @Benchmark
+    public Claims memoizedParser() {
+        return provider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims parserPerCallTwice() {
+        // The old filter validated the token and then parsed it again for the username
+        parserPerCall();
+        return parserPerCall();
+    }
+}
@@ -1,5 +1,6 @@
 package com.parchelector.security;
 
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,7 +11,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 
@@ -35,9 +35,7 @@ class JwtTokenProviderTest {
 
     @BeforeEach
     void setUp() {
-        jwtTokenProvider = new JwtTokenProvider();
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", TEST_SECRET);
-        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", TEST_EXPIRATION_MS);
+        jwtTokenProvider = new JwtTokenProvider(TEST_SECRET, TEST_EXPIRATION_MS);
     }
 
     @Nested
@@ -60,6 +58,25 @@ class JwtTokenProviderTest {
             assertTrue(token.split("\\.").length == 3); // JWT has 3 parts
         }
 
+        @Test
+        @DisplayName("Should carry user ID but not role in JWT token from user")
+        void shouldGenerateTokenFromUser() {
+            // Arrange
+            com.parchelector.model.entity.User user = new com.parchelector.model.entity.User();
+            user.setId(42L);
+            user.setUsername("testuser");
+            user.setRole("USER");
+
+            // Act
+            Claims claims = jwtTokenProvider.parseClaims(jwtTokenProvider.generateToken(user));
+
+            // Assert
+            assertNotNull(claims);
+            assertEquals("testuser", claims.getSubject());
+            assertEquals(42L, claims.get(JwtTokenProvider.USER_ID_CLAIM, Number.class).longValue());
+            assertNull(claims.get("role"));
+        }
+
         @Test
         @DisplayName("Should generate valid JWT token from username")
         void shouldGenerateTokenFromUsername() {
@@ -154,9 +171,7 @@ class JwtTokenProviderTest {
         @DisplayName("Should return false for expired token")
         void shouldReturnFalseForExpiredToken() {
             // Arrange - create provider with very short expiration
-            JwtTokenProvider shortExpirationProvider = new JwtTokenProvider();
-            ReflectionTestUtils.setField(shortExpirationProvider, "jwtSecret", TEST_SECRET);
-            ReflectionTestUtils.setField(shortExpirationProvider, "jwtExpirationMs", 1L); // 1ms expiration
+            JwtTokenProvider shortExpirationProvider = new JwtTokenProvider(TEST_SECRET, 1L); // 1ms expiration
 
             String token = shortExpirationProvider.generateTokenFromUsername("testuser");
 
@@ -178,10 +193,8 @@ class JwtTokenProviderTest {
         @DisplayName("Should return false for token with invalid signature")
         void shouldReturnFalseForTokenWithInvalidSignature() {
             // Arrange - create token with different secret
-            JwtTokenProvider otherProvider = new JwtTokenProvider();
             String differentSecret = "YW5vdGhlci1zZWNyZXQta2V5LWZvci10ZXN0aW5nLWludmFsaWQtc2lnbmF0dXJlcw==";
-            ReflectionTestUtils.setField(otherProvider, "jwtSecret", differentSecret);
-            ReflectionTestUtils.setField(otherProvider, "jwtExpirationMs", TEST_EXPIRATION_MS);
+            JwtTokenProvider otherProvider = new JwtTokenProvider(differentSecret, TEST_EXPIRATION_MS);
 
             String tokenWithDifferentSignature = otherProvider.generateTokenFromUsername("testuser");
 
@@ -0,0 +1,79 @@
+package com.parchelector.security;
+
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PrincipalCache.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PrincipalCache Tests")
+class PrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, 300, 30);
+    }
+
+    @Nested
+    @DisplayName("Get Tests")
+    class GetTests {
+
+        @Test
+        @DisplayName("Should load an active user once")
+        void shouldCacheActiveUser() {
+            User user = new User();
+            user.setId(1L);
+            user.setUsername("reader");
+            user.setRole("USER");
+            user.setActive(true);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+            assertEquals("reader", principalCache.get(1L).orElseThrow().getName());
+            assertEquals("ROLE_USER", principalCache.get(1L).orElseThrow().getAuthorities().get(0).getAuthority());
+
+            verify(userRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should cache a missing user as empty")
+        void shouldCacheMissingUser() {
+            when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+            assertTrue(principalCache.get(2L).isEmpty());
+            assertTrue(principalCache.get(2L).isEmpty());
+
+            verify(userRepository, times(1)).findById(2L);
+        }
+
+        @Test
+        @DisplayName("Should reload a user after invalidation")
+        void shouldReloadAfterInvalidate() {
+            when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+            principalCache.get(2L);
+            principalCache.invalidate(2L);
+            principalCache.get(2L);
+
+            verify(userRepository, times(2)).findById(2L);
+        }
+    }
+}
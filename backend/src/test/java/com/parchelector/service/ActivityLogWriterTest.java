@@ -0,0 +1,100 @@
+package com.parchelector.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ActivityLogWriter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ActivityLogWriter Tests")
+class ActivityLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ActivityLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        writer = new ActivityLogWriter(jdbcTemplate, new SimpleMeterRegistry(), 3, 2);
+    }
+
+    @Nested
+    @DisplayName("Flush Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should write queued events in batches")
+        void shouldWriteQueuedEventsInBatches() {
+            writer.onActivity(ActivityEvent.userFollowed(1L, 2L));
+            writer.onActivity(ActivityEvent.bookFavorited(1L, 5L));
+            writer.onActivity(ActivityEvent.listCreated(1L, 9L, null));
+
+            assertEquals(3, writer.flush());
+
+            // Batch size 2: one full batch and one with the remaining event
+            verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(0, writer.flush());
+        }
+
+        @Test
+        @DisplayName("Should not touch the database when nothing is queued")
+        void shouldSkipEmptyFlush() {
+            assertEquals(0, writer.flush());
+
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("Should flush in the caller thread when the queue is full")
+        void shouldFlushWhenQueueIsFull() {
+            for (long bookId = 1; bookId <= 4; bookId++) {
+                writer.onActivity(ActivityEvent.bookFavorited(1L, bookId));
+            }
+
+            // The fourth event did not fit, so the first three were written to make room
+            verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(1, writer.flush());
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should look subjects up at insert time so deleted ones are stored as null")
+        void shouldGuardSubjectsInInsert() throws Exception {
+            writer.onActivity(ActivityEvent.listCreated(1L, 9L, null));
+            writer.flush();
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<ParameterizedPreparedStatementSetter<ActivityEvent>> setter =
+                    ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+            verify(jdbcTemplate).batchUpdate(sql.capture(), anyList(), anyInt(), setter.capture());
+            assertTrue(sql.getValue().contains("(SELECT l.id FROM library_lists l WHERE l.id = ?)"));
+            assertTrue(sql.getValue().endsWith("FROM users u WHERE u.id = ?"));
+
+            PreparedStatement statement = mock(PreparedStatement.class);
+            setter.getValue().setValues(statement, ActivityEvent.listCreated(1L, 9L, null));
+            verify(statement).setLong(4, 9L);
+            verify(statement).setNull(2, Types.BIGINT);
+            verify(statement).setLong(7, 1L);
+        }
+    }
+}
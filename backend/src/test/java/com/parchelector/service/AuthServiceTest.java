@@ -6,20 +6,25 @@ import com.parchelector.dto.response.AuthResponse;
 import com.parchelector.model.entity.User;
 import com.parchelector.repository.PasswordResetTokenRepository;
 import com.parchelector.repository.UserRepository;
+import com.parchelector.model.entity.PasswordResetToken;
 import com.parchelector.security.JwtTokenProvider;
+import com.parchelector.security.TokenHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -54,6 +59,9 @@ class AuthServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Spy
+    private TokenHasher tokenHasher = new TokenHasher("test-hmac-key");
+
     @InjectMocks
     private AuthService authService;
 
@@ -91,7 +99,7 @@ class AuthServiceTest {
                 user.setId(1L);
                 return user;
             });
-            when(tokenProvider.generateTokenFromUsername("newuser")).thenReturn("jwt_token");
+            when(tokenProvider.generateToken(any(User.class))).thenReturn("jwt_token");
 
             // Act
             AuthResponse response = authService.register(request);
@@ -159,7 +167,7 @@ class AuthServiceTest {
                     .thenReturn(authentication);
             when(userRepository.findByUsernameOrEmail("testuser", "testuser"))
                     .thenReturn(Optional.of(testUser));
-            when(tokenProvider.generateToken(authentication)).thenReturn("jwt_token");
+            when(tokenProvider.generateToken(testUser)).thenReturn("jwt_token");
 
             // Act
             AuthResponse response = authService.login(request);
@@ -185,7 +193,7 @@ class AuthServiceTest {
                     .thenReturn(authentication);
             when(userRepository.findByUsernameOrEmail("test@example.com", "test@example.com"))
                     .thenReturn(Optional.of(testUser));
-            when(tokenProvider.generateToken(authentication)).thenReturn("jwt_token");
+            when(tokenProvider.generateToken(testUser)).thenReturn("jwt_token");
 
             // Act
             AuthResponse response = authService.login(request);
@@ -236,15 +244,87 @@ class AuthServiceTest {
         void shouldCreateTokenAndSendEmail() {
             // Arrange
             when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-            when(passwordEncoder.encode(anyString())).thenReturn("encoded_token");
+            ArgumentCaptor<PasswordResetToken> saved = ArgumentCaptor.forClass(PasswordResetToken.class);
+            ArgumentCaptor<String> sent = ArgumentCaptor.forClass(String.class);
 
             // Act
             authService.requestPasswordReset("test@example.com");
 
             // Assert
             verify(tokenRepository).deleteByUserId(testUser.getId());
-            verify(tokenRepository).save(any());
-            verify(emailService).sendPasswordResetEmail(eq("test@example.com"), eq("testuser"), anyString());
+            verify(tokenRepository).save(saved.capture());
+            verify(emailService).sendPasswordResetEmail(eq("test@example.com"), eq("testuser"), sent.capture());
+
+            // Sent as <selector>.<verifier>; only the verifier's keyed hash is stored
+            String[] parts = sent.getValue().split("\\.");
+            assertEquals(2, parts.length);
+            assertEquals(parts[0], saved.getValue().getSelector());
+            assertNotEquals(parts[1], saved.getValue().getTokenHash());
+            assertTrue(tokenHasher.matches(parts[1], saved.getValue().getTokenHash()));
+        }
+    }
+
+    @Nested
+    @DisplayName("confirmPasswordReset tests")
+    class ConfirmPasswordResetTests {
+
+        private PasswordResetToken resetToken;
+
+        @BeforeEach
+        void setUp() {
+            resetToken = new PasswordResetToken();
+            resetToken.setUser(testUser);
+            resetToken.setSelector("selector");
+            resetToken.setTokenHash(tokenHasher.hash("verifier"));
+            resetToken.setExpiresAt(LocalDateTime.now().plusHours(1));
+        }
+
+        @Test
+        @DisplayName("Should reset password with a valid token")
+        void shouldResetPassword() {
+            // Arrange
+            when(tokenRepository.findBySelector("selector")).thenReturn(Optional.of(resetToken));
+            when(passwordEncoder.encode("newpassword")).thenReturn("new_hash");
+
+            // Act
+            authService.confirmPasswordReset("selector.verifier", "newpassword");
+
+            // Assert
+            assertEquals("new_hash", testUser.getPasswordHash());
+            assertNotNull(resetToken.getUsedAt());
+            verify(tokenRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Should reject a token with the wrong verifier")
+        void shouldRejectWrongVerifier() {
+            // Arrange
+            when(tokenRepository.findBySelector("selector")).thenReturn(Optional.of(resetToken));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> authService.confirmPasswordReset("selector.guess", "newpassword"));
+            verify(userRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should reject malformed tokens without a lookup")
+        void shouldRejectMalformedToken() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> authService.confirmPasswordReset("no-separator", "newpassword"));
+            verify(tokenRepository, never()).findBySelector(any());
+        }
+
+        @Test
+        @DisplayName("Should reject expired tokens")
+        void shouldRejectExpiredToken() {
+            // Arrange
+            resetToken.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+            when(tokenRepository.findBySelector("selector")).thenReturn(Optional.of(resetToken));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> authService.confirmPasswordReset("selector.verifier", "newpassword"));
         }
     }
 
@@ -269,7 +349,7 @@ class AuthServiceTest {
                 u.setId(1L);
                 return u;
             });
-            when(tokenProvider.generateTokenFromUsername(anyString())).thenReturn("token");
+            when(tokenProvider.generateToken(any(User.class))).thenReturn("token");
 
             // Act
             authService.register(request);
@@ -298,7 +378,7 @@ class AuthServiceTest {
                 u.setId(1L);
                 return u;
             });
-            when(tokenProvider.generateTokenFromUsername(anyString())).thenReturn("token");
+            when(tokenProvider.generateToken(any(User.class))).thenReturn("token");
 
             // Act
             authService.register(request);
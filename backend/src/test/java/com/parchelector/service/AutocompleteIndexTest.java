@@ -0,0 +1,121 @@
+package com.parchelector.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AutocompleteIndex.
+ */
+@DisplayName("AutocompleteIndex Tests")
+class AutocompleteIndexTest {
+
+    private AutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AutocompleteIndex.Builder()
+                .add(1L, "Cien años de soledad", "Gabriel García Márquez", "cover-1")
+                .add(2L, "Rayuela", "Julio Cortázar", "cover-2")
+                .add(3L, "El amor en los tiempos del cólera", "Gabriel García Márquez", "cover-3")
+                .add(4L, "Ciencia ficción para principiantes", "Ana Soler", null)
+                .add(5L, "Crónica de una muerte anunciada", "Gabriel García Márquez", null)
+                .build();
+    }
+
+    private List<Long> ids(String query, int limit) {
+        return index.suggest(query, limit).stream().map(s -> s.bookId).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("Should match one- and two-letter prefixes")
+        void shouldMatchShortPrefixes() {
+            assertEquals(List.of(2L), ids("r", 10));
+            assertEquals(List.of(1L, 4L), ids("ci", 10));
+        }
+
+        @Test
+        @DisplayName("Should ignore case and accents")
+        void shouldIgnoreCaseAndAccents() {
+            assertEquals(List.of(3L), ids("COLERA", 10));
+            assertEquals(List.of(2L), ids("cortazar", 10));
+        }
+
+        @Test
+        @DisplayName("Should require every term to prefix a word")
+        void shouldRequireEveryTerm() {
+            assertEquals(List.of(1L), ids("cien de", 10));
+            assertTrue(ids("ien", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should rank title prefixes before author matches")
+        void shouldRankTitlePrefixFirst() {
+            index = new AutocompleteIndex.Builder()
+                    .add(10L, "Poemas", "Gabriel Celaya", null)
+                    .add(11L, "Gabriela, clavo y canela", "Jorge Amado", null)
+                    .add(12L, "Retrato de Gabriel", "Ana Soler", null)
+                    .build();
+
+            assertEquals(List.of(11L, 12L, 10L), ids("gabriel", 10));
+            assertEquals(List.of(11L), ids("gabriel", 1));
+        }
+
+        @Test
+        @DisplayName("Should return nothing for blank queries or unknown terms")
+        void shouldReturnEmpty() {
+            assertTrue(ids("  ", 10).isEmpty());
+            assertTrue(ids("zzz", 10).isEmpty());
+            assertTrue(ids("cien", 0).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Should replace changed books when copying the index")
+        void shouldReplaceChangedBooks() {
+            index = index.copyExcept(Set.of(2L))
+                    .add(2L, "Rayuela (edición conmemorativa)", "Julio Cortázar", "cover-2")
+                    .build();
+
+            assertEquals(5, index.size());
+            assertEquals(List.of(2L), ids("conmemorativa", 10));
+            assertEquals("cover-2", index.suggest("rayuela", 1).get(0).cover);
+        }
+
+        @Test
+        @DisplayName("Should leave out excluded books without shrinking the result")
+        void shouldSkipExcludedBooks() {
+            List<Long> ids = index.suggest("gabriel", 2, Set.of(1L)).stream()
+                    .map(s -> s.bookId)
+                    .collect(Collectors.toList());
+
+            assertEquals(List.of(5L, 3L), ids);
+        }
+
+        @Test
+        @DisplayName("Should rank the same match the same way in different indexes")
+        void shouldRankAcrossIndexes() {
+            AutocompleteIndex other = new AutocompleteIndex.Builder()
+                    .add(1L, "Cien años de soledad", "Gabriel García Márquez", "cover-1")
+                    .build();
+
+            assertEquals(index.suggest("cien", 1).get(0).rank, other.suggest("cien", 1).get(0).rank);
+            assertTrue(index.suggest("cien", 1).get(0).rank < index.suggest("marquez", 1).get(0).rank);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.response.BookSuggestionResponse;
+import com.parchelector.model.entity.Book;
+import com.parchelector.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookAutocompleteService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookAutocompleteService Tests")
+class BookAutocompleteServiceTest {
+
+    private static final LocalDateTime BUILT_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private BookAutocompleteService bookAutocompleteService;
+
+    // What the database holds
+    private final Map<Long, Book> catalogue = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        bookAutocompleteService = new BookAutocompleteService(bookRepository, jdbcTemplate, 300000);
+        catalogue.put(1L, book(1L, "Rayuela"));
+        catalogue.put(2L, book(2L, "Cien años de soledad"));
+
+        when(jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class))
+                .thenReturn(BUILT_AT, BUILT_AT.plusMinutes(1), BUILT_AT.plusMinutes(2));
+        when(bookRepository.findAllIds(any(Pageable.class))).thenAnswer(invocation -> {
+            Pageable page = invocation.getArgument(0);
+            return page.getPageNumber() == 0 ? new ArrayList<>(catalogue.keySet()) : List.of();
+        });
+        when(bookRepository.findAllWithAuthorsByIdIn(anyList())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(catalogue::get).filter(b -> b != null).collect(Collectors.toList());
+        });
+        bookAutocompleteService.rebuildAll();
+    }
+
+    private static Book book(Long id, String title) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        return book;
+    }
+
+    private List<Long> ids(String query) {
+        return bookAutocompleteService.suggest(query, 10).stream()
+                .map(BookSuggestionResponse::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void changed(Long... bookIds) {
+        when(bookRepository.findIdsUpdatedSince(any())).thenReturn(List.of(bookIds));
+        when(bookRepository.findIdsWithAuthorsUpdatedSince(any())).thenReturn(List.of());
+    }
+
+    @Nested
+    @DisplayName("Sync Tests")
+    class SyncTests {
+
+        @Test
+        @DisplayName("Should serve changed books from the delta without rebuilding the catalogue")
+        void shouldServeChangedBooksFromDelta() {
+            catalogue.put(1L, book(1L, "Rayuela (edición conmemorativa)"));
+            changed(1L);
+
+            bookAutocompleteService.syncChanges();
+
+            assertEquals(List.of(1L), ids("conmemorativa"));
+            assertEquals(List.of(1L), ids("rayuela"));
+            assertEquals(List.of(2L), ids("cien"));
+            // Page 0 and the empty page 1 of the startup rebuild only
+            verify(bookRepository, times(2)).findAllIds(any(Pageable.class));
+            verify(bookRepository).findAllWithAuthorsByIdIn(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("Should hide deleted books until the next rebuild folds the delta in")
+        void shouldHideDeletedBooks() {
+            catalogue.remove(2L);
+            catalogue.put(3L, book(3L, "Cien sonetos de amor"));
+            changed(2L, 3L);
+
+            bookAutocompleteService.syncChanges();
+            assertEquals(List.of(3L), ids("cien"));
+
+            assertEquals(2, bookAutocompleteService.rebuildAll());
+            assertEquals(List.of(3L), ids("cien"));
+        }
+
+        @Test
+        @DisplayName("Should read changes from the database clock, re-reading the overlap")
+        void shouldReadOverlapFromDatabaseClock() {
+            changed();
+
+            bookAutocompleteService.syncChanges();
+            bookAutocompleteService.syncChanges();
+
+            verify(bookRepository).findIdsUpdatedSince(BUILT_AT.minusMinutes(5));
+            verify(bookRepository).findIdsUpdatedSince(BUILT_AT.plusMinutes(1).minusMinutes(5));
+        }
+    }
+}
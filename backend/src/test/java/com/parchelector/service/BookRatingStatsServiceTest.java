@@ -0,0 +1,137 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.BookRatingStats;
+import com.parchelector.repository.BookRatingStatsRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BookRatingStatsService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BookRatingStatsService Tests")
+class BookRatingStatsServiceTest {
+
+    @Mock
+    private BookRatingStatsRepository bookRatingStatsRepository;
+
+    @InjectMocks
+    private BookRatingStatsService bookRatingStatsService;
+
+    private static BookRatingStats stats() {
+        BookRatingStats stats = new BookRatingStats();
+        stats.setBookId(1L);
+        return stats;
+    }
+
+    @Nested
+    @DisplayName("Bucket Tests")
+    class BucketTests {
+
+        @Test
+        @DisplayName("Should map every half star to its own bucket")
+        void shouldMapHalfStars() {
+            assertEquals(0, BookRatingStatsService.bucketOf(new BigDecimal("0.5")));
+            assertEquals(1, BookRatingStatsService.bucketOf(new BigDecimal("1.0")));
+            assertEquals(6, BookRatingStatsService.bucketOf(new BigDecimal("3.5")));
+            assertEquals(9, BookRatingStatsService.bucketOf(new BigDecimal("5.0")));
+        }
+
+        @Test
+        @DisplayName("Should round up between half stars and clamp out-of-range ratings")
+        void shouldRoundUpAndClamp() {
+            assertEquals(7, BookRatingStatsService.bucketOf(new BigDecimal("3.6")));
+            assertEquals(0, BookRatingStatsService.bucketOf(BigDecimal.ZERO));
+            assertEquals(9, BookRatingStatsService.bucketOf(new BigDecimal("7.0")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Delta Tests")
+    class DeltaTests {
+
+        @Test
+        @DisplayName("Should add ratings to the sum, count, histogram and average")
+        void shouldAddRatings() {
+            BookRatingStats stats = stats();
+
+            BookRatingStatsService.applyDelta(stats, null, new BigDecimal("4.0"));
+            BookRatingStatsService.applyDelta(stats, null, new BigDecimal("2.5"));
+
+            assertEquals(2, stats.getRatingCount());
+            assertEquals(0, new BigDecimal("6.5").compareTo(stats.getRatingSum()));
+            assertEquals(new BigDecimal("3.25"), stats.getRatingAvg());
+            assertEquals(1, stats.getHistogram()[7]);
+            assertEquals(1, stats.getHistogram()[4]);
+        }
+
+        @Test
+        @DisplayName("Should move an edited rating between buckets")
+        void shouldReplaceRatings() {
+            BookRatingStats stats = stats();
+            BookRatingStatsService.applyDelta(stats, null, new BigDecimal("4.0"));
+
+            BookRatingStatsService.applyDelta(stats, new BigDecimal("4.0"), new BigDecimal("1.0"));
+
+            assertEquals(1, stats.getRatingCount());
+            assertEquals(new BigDecimal("1.00"), stats.getRatingAvg());
+            assertEquals(0, stats.getHistogram()[7]);
+            assertEquals(1, stats.getHistogram()[1]);
+        }
+
+        @Test
+        @DisplayName("Should go back to an empty aggregate when the last rating is removed")
+        void shouldRemoveLastRating() {
+            BookRatingStats stats = stats();
+            BookRatingStatsService.applyDelta(stats, null, new BigDecimal("5.0"));
+
+            BookRatingStatsService.applyDelta(stats, new BigDecimal("5.0"), null);
+
+            assertEquals(0, stats.getRatingCount());
+            assertEquals(0, BigDecimal.ZERO.compareTo(stats.getRatingSum()));
+            assertEquals(BigDecimal.ZERO, stats.getRatingAvg());
+            assertArrayEquals(new int[BookRatingStats.BUCKETS], stats.getHistogram());
+        }
+    }
+
+    @Nested
+    @DisplayName("Write Tests")
+    class WriteTests {
+
+        @Test
+        @DisplayName("Should create the row if missing before locking it")
+        void shouldInsertBeforeLocking() {
+            BookRatingStats stats = stats();
+            when(bookRatingStatsRepository.findByBookIdForUpdate(1L)).thenReturn(Optional.of(stats));
+
+            bookRatingStatsService.addRating(1L, new BigDecimal("3.0"));
+
+            InOrder inOrder = inOrder(bookRatingStatsRepository);
+            inOrder.verify(bookRatingStatsRepository).insertIfAbsent(eq(1L), any(int[].class));
+            inOrder.verify(bookRatingStatsRepository).findByBookIdForUpdate(1L);
+            inOrder.verify(bookRatingStatsRepository).save(stats);
+            assertEquals(1, stats.getRatingCount());
+        }
+
+        @Test
+        @DisplayName("Should not touch the row when an edit keeps the rating")
+        void shouldSkipUnchangedRating() {
+            bookRatingStatsService.replaceRating(1L, new BigDecimal("3.0"), new BigDecimal("3.00"));
+
+            verifyNoInteractions(bookRatingStatsRepository);
+        }
+    }
+}
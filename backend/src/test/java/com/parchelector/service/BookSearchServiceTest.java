@@ -0,0 +1,182 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Author;
+import com.parchelector.model.entity.Book;
+import com.parchelector.repository.AuthorRepository;
+import com.parchelector.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BookSearchService: text normalization, the search over H2 (LIKE fallback) and
+ * the change sync.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("BookSearchService Tests")
+class BookSearchServiceTest {
+
+    @Autowired
+    private BookSearchService bookSearchService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Unique per test, so books left by other tests never match
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        word = "w" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    }
+
+    @Nested
+    @DisplayName("Normalize Tests")
+    class NormalizeTests {
+
+        @Test
+        @DisplayName("Should lower-case and strip accents")
+        void shouldStripAccents() {
+            assertEquals("cien anos de soledad", BookSearchService.normalize("Cien Años de Soledad"));
+            assertEquals("garcia marquez", BookSearchService.normalize("GARCÍA MÁRQUEZ"));
+        }
+
+        @Test
+        @DisplayName("Should collapse punctuation and whitespace into single spaces")
+        void shouldCollapseSeparators() {
+            assertEquals("el otono del patriarca", BookSearchService.normalize("  ¡El otoño... del   patriarca!  "));
+            assertEquals("1984", BookSearchService.normalize("«1984»"));
+        }
+
+        @Test
+        @DisplayName("Should return an empty string for null or symbol-only text")
+        void shouldHandleEmptyText() {
+            assertEquals("", BookSearchService.normalize(null));
+            assertEquals("", BookSearchService.normalize(" ¿?! "));
+        }
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should match titles and author names regardless of case and accents")
+        void shouldMatchTitleAndAuthor() {
+            Book book = createBook("Crónica " + word, "Gabriel García Márquez");
+            Long other = createBook(word + " bis", "Laura Restrepo").getId();
+            bookSearchService.indexBooks(List.of(book.getId(), other));
+
+            assertEquals(List.of(book.getId()), bookSearchService.search("CRONICA " + word.toUpperCase(), 10, 0));
+            assertEquals(List.of(book.getId()), bookSearchService.search(word + " Gabriel García", 10, 0));
+            assertEquals(List.of(book.getId(), other), bookSearchService.search(word, 10, 0));
+            assertTrue(bookSearchService.search(word + " borges", 10, 0).isEmpty());
+            assertTrue(bookSearchService.search(" ¿? ", 10, 0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should require every term, in any order, as the start of a word")
+        void shouldMatchEveryTermAsPrefix() {
+            Book book = createBook("Crónica " + word, "Gabriel García Márquez");
+            bookSearchService.indexBooks(List.of(book.getId()));
+
+            assertEquals(List.of(book.getId()), bookSearchService.search("marq " + word + " cron", 10, 0));
+            assertEquals(List.of(book.getId()), bookSearchService.search(word.substring(0, 8), 10, 0));
+            assertTrue(bookSearchService.search(word + " arcia", 10, 0).isEmpty());
+            assertTrue(bookSearchService.search(word.substring(1), 10, 0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should update the document of a book indexed again")
+        void shouldReplaceDocument() {
+            Book book = createBook("Crónica " + word, "Gabriel García Márquez");
+            bookSearchService.indexBooks(List.of(book.getId()));
+
+            book.setTitle("Relato " + word);
+            bookRepository.saveAndFlush(book);
+            bookSearchService.indexBooks(List.of(book.getId()));
+
+            assertEquals(List.of(book.getId()), bookSearchService.search("relato " + word, 10, 0));
+            assertTrue(bookSearchService.search("cronica " + word, 10, 0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should return exactly the requested rows for offsets that are not page-aligned")
+        void shouldReadExplicitWindow() {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                ids.add(createBook("Otoño " + word + " " + i, "Autor " + i).getId());
+            }
+            bookSearchService.indexBooks(ids);
+            List<Long> all = bookSearchService.search(word, 10, 0);
+            assertEquals(5, all.size());
+
+            assertEquals(all.subList(1, 3), bookSearchService.search(word, 2, 1));
+            assertEquals(all.subList(3, 5), bookSearchService.search(word, 3, 3));
+        }
+
+        @Test
+        @DisplayName("Should reject limits and offsets out of range")
+        void shouldRejectOutOfRange() {
+            assertThrows(IllegalArgumentException.class, () -> bookSearchService.search(word, 0, 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> bookSearchService.search(word, BookSearchService.MAX_LIMIT + 1, 0));
+            assertThrows(IllegalArgumentException.class, () -> bookSearchService.search(word, 10, -1));
+            assertThrows(IllegalArgumentException.class,
+                    () -> bookSearchService.search(word, 10, OffsetWindow.MAX_OFFSET + 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Sync Tests")
+    class SyncTests {
+
+        @Test
+        @DisplayName("Should reindex changed books, also when the change is dated just before the last run")
+        void shouldReindexWithinOverlap() {
+            Book book = createBook("Crónica " + word, "Gabriel García Márquez");
+            bookSearchService.syncChanges();
+            assertEquals(List.of(book.getId()), bookSearchService.search(word, 10, 0));
+
+            // A writer whose transaction started before the last run and committed after it
+            book.setTitle("Relato " + word);
+            bookRepository.saveAndFlush(book);
+            jdbcTemplate.update("UPDATE books SET updated_at = LOCALTIMESTAMP - INTERVAL '1' MINUTE WHERE id = ?",
+                    book.getId());
+            bookSearchService.syncChanges();
+
+            assertEquals(List.of(book.getId()), bookSearchService.search("relato " + word, 10, 0));
+        }
+    }
+
+    private Book createBook(String title, String authorName) {
+        Author author = new Author();
+        author.setName(authorName);
+        author = authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle(title);
+        book.getAuthors().add(author);
+        return bookRepository.save(book);
+    }
+}
@@ -13,10 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,7 +40,13 @@ class BookServiceTest {
     private ReadingStatusRepository readingStatusRepository;
 
     @Mock
-    private ReviewRepository reviewRepository;
+    private BookRatingStatsRepository bookRatingStatsRepository;
+
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private BookSearchService bookSearchService;
 
     @Mock
     private UserRepository userRepository;
@@ -45,6 +54,12 @@ class BookServiceTest {
     @Mock
     private FavoriteBookRepository favoriteBookRepository;
 
+    @Mock
+    private UserStatsService userStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookService bookService;
 
@@ -73,6 +88,13 @@ class BookServiceTest {
         testBook.setAuthors(new HashSet<>(Collections.singletonList(testAuthor)));
     }
 
+    private BookRatingStats ratingStats(double average) {
+        BookRatingStats stats = new BookRatingStats();
+        stats.setBookId(testBook.getId());
+        stats.setRatingAvg(BigDecimal.valueOf(average));
+        return stats;
+    }
+
     @Nested
     @DisplayName("getTrendingBooks tests")
     class GetTrendingBooksTests {
@@ -85,7 +107,7 @@ class BookServiceTest {
             Page<Book> bookPage = new PageImpl<>(books);
             
             when(bookRepository.findAll(any(Pageable.class))).thenReturn(bookPage);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(4.5);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.5)));
 
             // Act
             List<BookResponse> result = bookService.getTrendingBooks(1L, 10);
@@ -98,6 +120,49 @@ class BookServiceTest {
             assertEquals(4.5, result.get(0).getRating());
         }
 
+        @Test
+        @DisplayName("Should serve trending books in snapshot order before catalogue books")
+        void shouldServeTrendingSnapshotFirst() {
+            // Arrange
+            Book otherBook = new Book();
+            otherBook.setId(2L);
+            otherBook.setTitle("Other Book");
+
+            when(trendingService.getTopBookIds(TrendingWindow.DAY, 2)).thenReturn(List.of(2L));
+            when(bookRepository.findAllWithAuthorsByIdIn(List.of(2L))).thenReturn(List.of(otherBook));
+            when(bookRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(otherBook, testBook)));
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.5)));
+
+            // Act
+            List<BookResponse> result = bookService.getTrendingBooks(1L, 2, TrendingWindow.DAY);
+
+            // Assert
+            assertEquals(2, result.size());
+            assertEquals("Other Book", result.get(0).getTitle());
+            assertEquals("Test Book", result.get(1).getTitle());
+            assertEquals(4.5, result.get(1).getRating());
+        }
+
+        @Test
+        @DisplayName("Should load the user's state for the whole page in one query")
+        void shouldLoadViewerStateInOneQuery() {
+            // Arrange
+            when(bookRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(testBook)));
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.5)));
+            List<Object[]> viewerState = new ArrayList<>();
+            viewerState.add(new Object[]{1L, ReadingStatus.ReadingStatusEnum.READING, true, new BigDecimal("4.0")});
+            when(bookRepository.findViewerState(1L, List.of(1L))).thenReturn(viewerState);
+
+            // Act
+            List<BookResponse> result = bookService.getTrendingBooks(1L, 10);
+
+            // Assert
+            assertEquals("leyendo", result.get(0).getStatus());
+            assertTrue(result.get(0).getFavorite());
+            assertEquals(4.0, result.get(0).getUserRating());
+            verify(readingStatusRepository, never()).findByUserIdAndBookId(anyLong(), anyLong());
+        }
+
         @Test
         @DisplayName("Should return empty list when no books exist")
         void shouldReturnEmptyListWhenNoBooks() {
@@ -121,7 +186,7 @@ class BookServiceTest {
             Page<Book> bookPage = new PageImpl<>(books);
             
             when(bookRepository.findAll(any(Pageable.class))).thenReturn(bookPage);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(null);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
 
             // Act
             List<BookResponse> result = bookService.getTrendingBooks(1L, 10);
@@ -141,9 +206,9 @@ class BookServiceTest {
             // Arrange
             List<Book> books = Arrays.asList(testBook);
             
-            when(bookRepository.searchByTitleOrAuthor(eq("Test"), any(Pageable.class)))
-                    .thenReturn(books);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(4.0);
+            when(bookSearchService.search("Test", 10, 0)).thenReturn(List.of(1L));
+            when(bookRepository.findAllWithAuthorsByIdIn(List.of(1L))).thenReturn(books);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.0)));
 
             // Act
             List<BookResponse> result = bookService.searchBooks("Test", 1L, 10);
@@ -158,8 +223,7 @@ class BookServiceTest {
         @DisplayName("Should return empty list for no matches")
         void shouldReturnEmptyListForNoMatches() {
             // Arrange
-            when(bookRepository.searchByTitleOrAuthor(eq("NonExistent"), any(Pageable.class)))
-                    .thenReturn(Collections.emptyList());
+            when(bookSearchService.search("NonExistent", 10, 0)).thenReturn(Collections.emptyList());
 
             // Act
             List<BookResponse> result = bookService.searchBooks("NonExistent", 1L, 10);
@@ -190,6 +254,10 @@ class BookServiceTest {
 
             // Assert
             verify(readingStatusRepository).save(any(ReadingStatus.class));
+            verify(userStatsService).replaceReadingStatus(1L, testBook, null, null,
+                    ReadingStatus.ReadingStatusEnum.READING, null);
+            verify(eventPublisher).publishEvent(argThat((ActivityEvent event) ->
+                    ActivityLog.TYPE_STARTED_READING.equals(event.getType()) && event.getBookId().equals(1L)));
         }
 
         @Test
@@ -216,6 +284,9 @@ class BookServiceTest {
             // Assert
             verify(readingStatusRepository).save(existingStatus);
             assertEquals(ReadingStatus.ReadingStatusEnum.READ, existingStatus.getStatus());
+            verify(userStatsService).replaceReadingStatus(1L, testBook,
+                    ReadingStatus.ReadingStatusEnum.WANT_TO_READ, null,
+                    ReadingStatus.ReadingStatusEnum.READ, existingStatus.getFinishedAt());
         }
 
         @Test
@@ -354,7 +425,7 @@ class BookServiceTest {
             List<Book> books = Arrays.asList(testBook);
             when(bookRepository.findBooksFilteredAndSortedByRating(any(), any(), any(), any(Pageable.class)))
                     .thenReturn(books);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(4.5);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.5)));
 
             // Act
             List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "rating", 10);
@@ -371,7 +442,7 @@ class BookServiceTest {
             List<Book> books = Arrays.asList(testBook);
             when(bookRepository.findBooksFilteredAndSortedByNewest(any(), any(), any(), any(Pageable.class)))
                     .thenReturn(books);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(4.0);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.0)));
 
             // Act
             List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "newest", 10);
@@ -388,7 +459,7 @@ class BookServiceTest {
             List<Book> books = Arrays.asList(testBook);
             when(bookRepository.findBooksFilteredAndSortedByPopularity(any(), any(), any(), any(Pageable.class)))
                     .thenReturn(books);
-            when(reviewRepository.getAverageRatingByBookId(testBook.getId())).thenReturn(4.0);
+            when(bookRatingStatsRepository.findAllById(anyCollection())).thenReturn(List.of(ratingStats(4.0)));
 
             // Act
             List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "popular", 10);
@@ -397,6 +468,70 @@ class BookServiceTest {
             assertNotNull(result);
             assertEquals(1, result.size());
         }
+
+        @Test
+        @DisplayName("Should order the most reviewed books by genre affinity")
+        void shouldOrderBooksByGenreAffinity() {
+            // Arrange: book 3 has a liked and a disliked genre, book 1 none the user cares about
+            when(userStatsService.getGenreAffinity(1L)).thenReturn(Map.of(20L, 3.0, 30L, -1.0));
+            when(bookRepository.findBookIdsFilteredAndSortedByRatingCount(any(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(1L, 2L, 3L));
+            when(bookRepository.findGenreIdsByBookIdIn(anyCollection())).thenReturn(List.of(
+                    new Object[]{1L, 10L}, new Object[]{2L, 20L}, new Object[]{3L, 20L}, new Object[]{3L, 30L}));
+            when(bookRepository.findAllWithAuthorsByIdIn(anyCollection()))
+                    .thenReturn(List.of(book(1L), book(2L), book(3L)));
+
+            // Act
+            List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "personalized", 10);
+
+            // Assert
+            assertEquals(List.of(2L, 3L, 1L), result.stream().map(BookResponse::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Should keep the review count order without genre affinity")
+        void shouldKeepPopularOrderWithoutAffinity() {
+            // Arrange
+            when(userStatsService.getGenreAffinity(1L)).thenReturn(Map.of());
+            when(bookRepository.findBookIdsFilteredAndSortedByRatingCount(any(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(2L, 1L));
+            when(bookRepository.findAllWithAuthorsByIdIn(anyCollection()))
+                    .thenReturn(List.of(book(1L), book(2L)));
+
+            // Act
+            List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "personalized", 10);
+
+            // Assert
+            assertEquals(List.of(2L, 1L), result.stream().map(BookResponse::getId).toList());
+            verify(bookRepository, never()).findGenreIdsByBookIdIn(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should top up with unreviewed books in id order when few books have reviews")
+        void shouldTopUpWithUnreviewedBooks() {
+            // Arrange
+            when(userStatsService.getGenreAffinity(1L)).thenReturn(Map.of());
+            when(bookRepository.findBookIdsFilteredAndSortedByRatingCount(any(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(3L));
+            when(bookRepository.findBookIdsFiltered(any(), any(), any(), any(Pageable.class)))
+                    .thenReturn(List.of(1L, 2L, 3L, 4L));
+            when(bookRepository.findAllWithAuthorsByIdIn(anyCollection()))
+                    .thenReturn(List.of(book(1L), book(2L), book(3L)));
+
+            // Act
+            List<BookResponse> result = bookService.filterAndSortBooks(1L, null, null, null, "personalized", 3);
+
+            // Assert
+            assertEquals(List.of(3L, 1L, 2L), result.stream().map(BookResponse::getId).toList());
+            verify(bookRepository).findBookIdsFiltered(null, null, null, PageRequest.of(0, 4));
+        }
+
+        private Book book(Long id) {
+            Book book = new Book();
+            book.setId(id);
+            book.setTitle("Book " + id);
+            return book;
+        }
     }
 }
 
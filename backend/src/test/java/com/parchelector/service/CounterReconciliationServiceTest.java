@@ -0,0 +1,194 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.request.CreateCommentRequest;
+import com.parchelector.dto.response.CommentResponse;
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.LibraryList;
+import com.parchelector.model.entity.Review;
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.BookRepository;
+import com.parchelector.repository.LibraryListRepository;
+import com.parchelector.repository.ReviewRepository;
+import com.parchelector.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the denormalized like/comment counters against H2.
+ * Not transactional on purpose: every service call commits on its own, like in production,
+ * so the context (and its create-drop schema) is discarded afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+@DisplayName("CounterReconciliationService Tests")
+class CounterReconciliationServiceTest {
+
+    @Autowired
+    private CounterReconciliationService counterReconciliationService;
+
+    @Autowired
+    private ReviewInteractionService reviewInteractionService;
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private LibraryListRepository libraryListRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+    private User reader;
+    private Review review;
+    private LibraryList list;
+
+    @BeforeEach
+    void setUp() {
+        author = createUser();
+        reader = createUser();
+
+        Book book = new Book();
+        book.setTitle("Cien años de soledad");
+        book = bookRepository.save(book);
+
+        review = new Review();
+        review.setUser(author);
+        review.setBook(book);
+        review.setRating(new BigDecimal("4.0"));
+        review = reviewRepository.save(review);
+
+        list = new LibraryList();
+        list.setUser(author);
+        list.setName("Favoritos");
+        list = libraryListRepository.save(list);
+    }
+
+    @Nested
+    @DisplayName("Adjust Tests")
+    class AdjustTests {
+
+        @Test
+        @DisplayName("Should move the review like count on like and unlike")
+        void shouldAdjustReviewLikes() {
+            reviewInteractionService.likeReview(reader.getId(), review.getId());
+            reviewInteractionService.likeReview(author.getId(), review.getId());
+            assertEquals(2, reviewLikeCount());
+
+            reviewInteractionService.unlikeReview(reader.getId(), review.getId());
+            assertEquals(1, reviewLikeCount());
+        }
+
+        @Test
+        @DisplayName("Should not move the review like count on a rejected like or unlike")
+        void shouldNotAdjustReviewLikesOnRejectedCalls() {
+            reviewInteractionService.likeReview(reader.getId(), review.getId());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> reviewInteractionService.likeReview(reader.getId(), review.getId()));
+            assertThrows(IllegalArgumentException.class,
+                    () -> reviewInteractionService.unlikeReview(author.getId(), review.getId()));
+            assertEquals(1, reviewLikeCount());
+        }
+
+        @Test
+        @DisplayName("Should move the review comment count on add and delete, only once per comment")
+        void shouldAdjustReviewComments() {
+            CreateCommentRequest request = new CreateCommentRequest();
+            request.setBody("Muy buena");
+            CommentResponse first = reviewInteractionService.addComment(reader.getId(), review.getId(), request);
+            reviewInteractionService.addComment(reader.getId(), review.getId(), request);
+            assertEquals(2, reviewCommentCount());
+
+            reviewInteractionService.deleteComment(reader.getId(), first.getId());
+            assertThrows(IllegalArgumentException.class,
+                    () -> reviewInteractionService.deleteComment(reader.getId(), first.getId()));
+            assertEquals(1, reviewCommentCount());
+        }
+
+        @Test
+        @DisplayName("Should move the list like count on like and unlike")
+        void shouldAdjustListLikes() {
+            listService.likeList(reader.getId(), list.getId());
+            assertThrows(IllegalArgumentException.class, () -> listService.likeList(reader.getId(), list.getId()));
+            assertEquals(1, listLikeCount());
+
+            listService.unlikeList(reader.getId(), list.getId());
+            assertThrows(IllegalArgumentException.class, () -> listService.unlikeList(reader.getId(), list.getId()));
+            assertEquals(0, listLikeCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconcile Tests")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("Should repair drifted counters from the scheduled run")
+        void shouldRepairDriftedCounters() {
+            reviewInteractionService.likeReview(reader.getId(), review.getId());
+            listService.likeList(reader.getId(), list.getId());
+            jdbcTemplate.update("UPDATE reviews SET like_count = 7, comment_count = 3 WHERE id = ?", review.getId());
+            jdbcTemplate.update("UPDATE library_lists SET like_count = 0 WHERE id = ?", list.getId());
+
+            counterReconciliationService.scheduledReconcile();
+
+            assertEquals(1, reviewLikeCount());
+            assertEquals(0, reviewCommentCount());
+            assertEquals(1, listLikeCount());
+        }
+
+        @Test
+        @DisplayName("Should leave counters that match their source rows alone")
+        void shouldNotRepairCountersInSync() {
+            reviewInteractionService.likeReview(reader.getId(), review.getId());
+            counterReconciliationService.reconcile();
+
+            assertEquals(0, counterReconciliationService.reconcile());
+            assertEquals(1, reviewLikeCount());
+        }
+    }
+
+    private User createUser() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hash");
+        return userRepository.save(user);
+    }
+
+    private int reviewLikeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM reviews WHERE id = ?", Integer.class, review.getId());
+    }
+
+    private int reviewCommentCount() {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM reviews WHERE id = ?", Integer.class, review.getId());
+    }
+
+    private int listLikeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM library_lists WHERE id = ?", Integer.class, list.getId());
+    }
+}
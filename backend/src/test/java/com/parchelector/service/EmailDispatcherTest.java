@@ -0,0 +1,185 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.EmailOutboxMessage;
+import com.parchelector.model.entity.EmailOutboxMessage.Status;
+import com.parchelector.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmailDispatcher.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDispatcher Tests")
+class EmailDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+
+    @Mock
+    private MailTransport mailTransport;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailDispatcher dispatcher;
+
+    private EmailOutboxMessage message;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EmailDispatcher(outboxRepository, mailTransport, transactionManager,
+                new SimpleMeterRegistry(), 2, 50, 3, 30, 3600, 300);
+
+        message = new EmailOutboxMessage();
+        message.setId(7L);
+        message.setRecipient("test@example.com");
+        message.setSubject("Subject");
+        message.setBody("<p>body</p>");
+        message.setAttempts(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Dispatch Tests")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("Should send claimed message and mark it sent")
+        void shouldSendClaimedMessage() {
+            when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(7L));
+            when(outboxRepository.claim(eq(7L), any(), any())).thenReturn(1);
+            when(outboxRepository.findById(7L)).thenReturn(Optional.of(message));
+
+            assertEquals(1, dispatcher.dispatch());
+
+            verify(mailTransport, timeout(1000)).send("test@example.com", "Subject", "<p>body</p>");
+            verify(outboxRepository, timeout(1000)).markSent(eq(7L), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should return without waiting and not claim beyond the idle senders")
+        void shouldNotWaitForSends() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch sending = new CountDownLatch(2);
+            when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class)))
+                    .thenReturn(List.of(7L, 8L, 9L));
+            when(outboxRepository.claim(anyLong(), any(), any())).thenReturn(1);
+            when(outboxRepository.findById(anyLong())).thenReturn(Optional.of(message));
+            doAnswer(invocation -> {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(mailTransport).send(any(), any(), any());
+
+            // Two senders: the third message stays unclaimed for the next run
+            assertEquals(2, dispatcher.dispatch());
+            assertTrue(sending.await(1, TimeUnit.SECONDS));
+            assertEquals(0, dispatcher.dispatch());
+            verify(outboxRepository, never()).claim(eq(9L), any(), any());
+
+            release.countDown();
+            verify(outboxRepository, timeout(1000).times(2)).markSent(anyLong(), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("Should not claim a message again while it is still being sent")
+        void shouldSkipMessageInFlight() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch sending = new CountDownLatch(1);
+            when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(7L));
+            when(outboxRepository.claim(eq(7L), any(), any())).thenReturn(1);
+            when(outboxRepository.findById(7L)).thenReturn(Optional.of(message));
+            doAnswer(invocation -> {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(mailTransport).send(any(), any(), any());
+
+            assertEquals(1, dispatcher.dispatch());
+            assertTrue(sending.await(1, TimeUnit.SECONDS));
+            // The lease ran out mid-send, so the message is due again
+            assertEquals(0, dispatcher.dispatch());
+
+            release.countDown();
+            verify(outboxRepository, times(1)).claim(eq(7L), any(), any());
+            verify(mailTransport, timeout(1000).times(1)).send(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should skip message claimed by another dispatcher")
+        void shouldSkipMessageClaimedElsewhere() {
+            when(outboxRepository.findDueIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(7L));
+            when(outboxRepository.claim(eq(7L), any(), any())).thenReturn(0);
+
+            assertEquals(0, dispatcher.dispatch());
+
+            verifyNoInteractions(mailTransport);
+            verify(outboxRepository, never()).markSent(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should schedule retry with backoff when sending fails")
+        void shouldRetryWithBackoff() {
+            when(outboxRepository.findById(7L)).thenReturn(Optional.of(message));
+            doThrow(new IllegalStateException("SMTP down")).when(mailTransport).send(any(), any(), any());
+
+            LocalDateTime before = LocalDateTime.now();
+            dispatcher.deliver(7L);
+
+            ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+            verify(outboxRepository).markFailed(eq(7L), eq(Status.PENDING), nextAttempt.capture(),
+                    contains("SMTP down"));
+            assertFalse(nextAttempt.getValue().isBefore(before.plusSeconds(30)));
+            verify(outboxRepository, never()).markSent(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should dead-letter message after max attempts")
+        void shouldDeadLetterAfterMaxAttempts() {
+            message.setAttempts(2);
+            when(outboxRepository.findById(7L)).thenReturn(Optional.of(message));
+            doThrow(new IllegalStateException("SMTP down")).when(mailTransport).send(any(), any(), any());
+
+            dispatcher.deliver(7L);
+
+            // Dead-lettering clears the body, as sending does
+            verify(outboxRepository).markDead(eq(7L), any(LocalDateTime.class), contains("SMTP down"));
+            verify(outboxRepository, never()).markFailed(any(), any(), any(), any());
+        }
+    }
+
+    @Test
+    @DisplayName("Backoff should double per attempt up to the cap")
+    void backoffShouldDoubleUpToCap() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(240), dispatcher.backoff(4));
+        assertEquals(Duration.ofSeconds(3600), dispatcher.backoff(20));
+    }
+}
@@ -0,0 +1,43 @@
+package com.parchelector.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmailTemplateRenderer.
+ */
+@DisplayName("EmailTemplateRenderer Tests")
+class EmailTemplateRendererTest {
+
+    private final EmailTemplateRenderer renderer = new EmailTemplateRenderer();
+
+    @Test
+    @DisplayName("Should render password reset email with variables")
+    void shouldRenderPasswordResetEmail() {
+        String html = renderer.render("password-reset-email", Map.of(
+                "username", "ana_lector",
+                "resetUrl", "http://localhost:5173/reset-password?token=abc.def",
+                "expirationMinutes", 60));
+
+        assertTrue(html.contains("ana_lector"));
+        assertTrue(html.contains("http://localhost:5173/reset-password?token=abc.def"));
+    }
+
+    @Test
+    @DisplayName("Should render one message per recipient in order")
+    void shouldRenderBatchInOrder() {
+        List<String> rendered = renderer.renderAll("password-reset-email", List.of(
+                Map.of("username", "ana", "resetUrl", "http://x/1", "expirationMinutes", 60),
+                Map.of("username", "luis", "resetUrl", "http://x/2", "expirationMinutes", 30)));
+
+        assertEquals(2, rendered.size());
+        assertTrue(rendered.get(0).contains("ana") && rendered.get(0).contains("http://x/1"));
+        assertTrue(rendered.get(1).contains("luis") && rendered.get(1).contains("http://x/2"));
+        assertFalse(rendered.get(1).contains("http://x/1"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.parchelector.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FollowGraph.
+ */
+@DisplayName("FollowGraph Tests")
+class FollowGraphTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    // User 1 follows 2 and 3; 2 follows 4 and 5, 3 follows 4 and 1
+    private static FollowGraph.Builder sample() {
+        return new FollowGraph.Builder()
+                .addFollow(1L, 2L).addFollow(1L, 3L)
+                .addFollow(2L, 4L).addFollow(2L, 5L)
+                .addFollow(3L, 4L).addFollow(3L, 1L);
+    }
+
+    @Nested
+    @DisplayName("Suggest Tests")
+    class SuggestTests {
+
+        @Test
+        @DisplayName("Should rank second-degree users by mutual follows")
+        void shouldRankByMutualFollows() {
+            FollowGraph.Suggestions suggestions = sample().build().suggest(pool, new long[] {1L}, 10, 100);
+
+            assertArrayEquals(new long[] {4L, 5L}, suggestions.suggestedUserIds(0));
+            assertArrayEquals(new int[] {2, 1}, suggestions.mutualFollows(0));
+        }
+
+        @Test
+        @DisplayName("Should leave out the user and the users they already follow")
+        void shouldLeaveOutSelfAndFollowed() {
+            FollowGraph graph = sample().addFollow(1L, 4L).build();
+
+            assertArrayEquals(new long[] {5L}, graph.suggest(pool, new long[] {1L}, 10, 100).suggestedUserIds(0));
+            // 3 follows 1 and 4; of 1's follows, 3 is itself and 4 is already followed
+            assertArrayEquals(new long[] {2L},
+                    graph.suggest(pool, new long[] {3L}, 10, 100).suggestedUserIds(0));
+        }
+
+        @Test
+        @DisplayName("Should add weight for shared favorite books and genres")
+        void shouldWeighSharedFavoritesAndGenres() {
+            FollowGraph graph = sample()
+                    .addFavorite(1L, 100L).addFavorite(1L, 200L)
+                    .addFavorite(5L, 100L).addFavorite(5L, 200L).addFavorite(5L, 200L)
+                    .addGenre(1L, 7L).addGenre(5L, 7L)
+                    .build();
+
+            FollowGraph.Suggestions suggestions = graph.suggest(pool, new long[] {1L}, 10, 100);
+
+            // 5: one mutual follow, two shared favorites and one shared genre beats 4's two mutual follows
+            assertArrayEquals(new long[] {5L, 4L}, suggestions.suggestedUserIds(0));
+            assertEquals(1 + 2 * FollowGraph.SHARED_FAVORITE_WEIGHT + FollowGraph.SHARED_GENRE_WEIGHT,
+                    suggestions.scores(0)[0], 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should not reach candidates through users who follow too many")
+        void shouldSkipBulkFollowers() {
+            FollowGraph.Suggestions suggestions = sample().build().suggest(pool, new long[] {1L}, 10, 1);
+
+            assertEquals(0, suggestions.suggestedUserIds(0).length);
+        }
+
+        @Test
+        @DisplayName("Should keep the best suggestions and none for unknown users")
+        void shouldLimitSuggestions() {
+            FollowGraph.Suggestions suggestions = sample().build().suggest(pool, new long[] {1L, 99L}, 1, 100);
+
+            assertArrayEquals(new long[] {4L}, suggestions.suggestedUserIds(0));
+            assertEquals(99L, suggestions.userId(1));
+            assertEquals(0, suggestions.suggestedUserIds(1).length);
+        }
+
+        @Test
+        @DisplayName("Should compute the same suggestions in parallel as sequentially")
+        void shouldMatchSequentialResults() {
+            Random random = new Random(42);
+            FollowGraph.Builder builder = new FollowGraph.Builder();
+            for (int i = 0; i < 20_000; i++) {
+                builder.addFollow(1 + random.nextInt(2_000), 1 + random.nextInt(2_000));
+                builder.addFavorite(1 + random.nextInt(2_000), random.nextInt(300));
+            }
+            FollowGraph graph = builder.build();
+            long[] users = graph.followerIds();
+
+            ForkJoinPool single = new ForkJoinPool(1);
+            FollowGraph.Suggestions sequential;
+            try {
+                sequential = graph.suggest(single, users, 20, 1_000);
+            } finally {
+                single.shutdown();
+            }
+            FollowGraph.Suggestions parallel = graph.suggest(pool, users, 20, 1_000);
+
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertArrayEquals(sequential.suggestedUserIds(i), parallel.suggestedUserIds(i));
+                assertArrayEquals(sequential.scores(i), parallel.scores(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.parchelector.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ItemSimilarity.
+ */
+@DisplayName("ItemSimilarity Tests")
+class ItemSimilarityTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static int numberOf(ItemSimilarity similarity, long bookId) {
+        for (int book = 0; book < similarity.size(); book++) {
+            if (similarity.bookId(book) == bookId) {
+                return book;
+            }
+        }
+        throw new AssertionError("Book " + bookId + " not found");
+    }
+
+    private static long[] neighbors(ItemSimilarity similarity, long bookId) {
+        return similarity.neighborIds(numberOf(similarity, bookId));
+    }
+
+    // Book 10 has 3 readers, 20 has 3 and 30 has 2; 10 shares 2 readers with each
+    private static ItemSimilarity.Builder sample() {
+        return new ItemSimilarity.Builder()
+                .add(1L, 10L).add(1L, 20L).add(1L, 30L)
+                .add(2L, 10L).add(2L, 20L)
+                .add(3L, 10L).add(3L, 30L)
+                .add(4L, 20L);
+    }
+
+    @Nested
+    @DisplayName("Build Tests")
+    class BuildTests {
+
+        @Test
+        @DisplayName("Should rank neighbours by cosine similarity")
+        void shouldRankByCosine() {
+            ItemSimilarity similarity = sample().build(pool, 10, 1, 100);
+
+            assertArrayEquals(new long[] {30L, 20L}, neighbors(similarity, 10L));
+            float[] scores = similarity.scores(numberOf(similarity, 10L));
+            assertEquals(2 / Math.sqrt(6), scores[0], 1e-6);
+            assertEquals(2 / Math.sqrt(9), scores[1], 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should drop pairs with too few readers in common")
+        void shouldApplyMinCoOccurrence() {
+            ItemSimilarity similarity = sample().build(pool, 10, 2, 100);
+
+            assertArrayEquals(new long[] {30L, 20L}, neighbors(similarity, 10L));
+            assertArrayEquals(new long[] {10L}, neighbors(similarity, 30L));
+        }
+
+        @Test
+        @DisplayName("Should keep only the requested number of neighbours")
+        void shouldLimitNeighbours() {
+            ItemSimilarity similarity = sample().build(pool, 1, 1, 100);
+
+            assertArrayEquals(new long[] {30L}, neighbors(similarity, 10L));
+        }
+
+        @Test
+        @DisplayName("Should count a repeated like once")
+        void shouldIgnoreDuplicateLikes() {
+            ItemSimilarity similarity = sample().add(1L, 10L).add(1L, 30L).build(pool, 10, 1, 100);
+
+            assertEquals(2 / Math.sqrt(6), similarity.scores(numberOf(similarity, 10L))[0], 1e-6);
+        }
+
+        @Test
+        @DisplayName("Should leave out users who liked too many books")
+        void shouldSkipHeavyUsers() {
+            ItemSimilarity similarity = sample().build(pool, 10, 1, 2);
+
+            // User 1 liked three books and no longer links 20 and 30
+            assertArrayEquals(new long[] {10L}, neighbors(similarity, 20L));
+            assertArrayEquals(new long[] {10L}, neighbors(similarity, 30L));
+        }
+
+        @Test
+        @DisplayName("Should give the same result on one thread and on many")
+        void shouldMatchSequentialResult() {
+            Random random = new Random(42);
+            ItemSimilarity.Builder builder = new ItemSimilarity.Builder();
+            for (int like = 0; like < 20_000; like++) {
+                builder.add(random.nextInt(500), random.nextInt(2_000));
+            }
+
+            ForkJoinPool single = new ForkJoinPool(1);
+            ItemSimilarity sequential;
+            try {
+                sequential = builder.build(single, 20, 1, 1_000);
+            } finally {
+                single.shutdown();
+            }
+            ItemSimilarity parallel = builder.build(pool, 20, 1, 1_000);
+
+            assertEquals(sequential.size(), parallel.size());
+            for (int book = 0; book < sequential.size(); book++) {
+                assertArrayEquals(sequential.neighborIds(book), parallel.neighborIds(book));
+                assertArrayEquals(sequential.scores(book), parallel.scores(book));
+            }
+        }
+    }
+}
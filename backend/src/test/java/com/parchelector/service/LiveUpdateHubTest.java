@@ -0,0 +1,192 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.response.FeedResponse.FeedItem;
+import com.parchelector.repository.FollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LiveUpdateHub.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LiveUpdateHub Tests")
+class LiveUpdateHubTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private SocialService socialService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ExecutorService senders;
+
+    private LiveUpdateHub hub;
+
+    @BeforeEach
+    void setUp() {
+        // Senders never run, so queued events stay where the tests can see them
+        hub = new LiveUpdateHub(followRepository, socialService, notificationService,
+                new SimpleMeterRegistry(), senders, 60000, 1000, 3, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Connection Limit Tests")
+    class ConnectionLimitTests {
+
+        @Test
+        @DisplayName("Should close the oldest connection past the per-user limit")
+        void shouldCloseOldestConnectionOfUser() {
+            hub.connect(1L);
+            hub.connect(1L);
+            hub.connect(1L);
+
+            assertEquals(2, hub.getConnectionCount());
+        }
+
+        @Test
+        @DisplayName("Should reject connections past the server-wide limit")
+        void shouldRejectPastServerLimit() {
+            hub.connect(1L);
+            hub.connect(2L);
+            hub.connect(3L);
+
+            assertThrows(IllegalStateException.class, () -> hub.connect(4L));
+            assertEquals(3, hub.getConnectionCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Backpressure Tests")
+    class BackpressureTests {
+
+        @Test
+        @DisplayName("Should replace queued feed items with a resync when a client falls behind")
+        void shouldResyncSlowClient() {
+            LiveUpdateHub.Connection connection = connectAndGet(1L);
+
+            hub.offer(connection, new FeedItem());
+            hub.offer(connection, new FeedItem());
+            assertEquals(2, connection.pending.size());
+            assertFalse(connection.resync);
+
+            hub.offer(connection, new FeedItem());
+            assertTrue(connection.pending.isEmpty());
+            assertTrue(connection.resync);
+
+            // Nothing more is queued until the resync was sent
+            hub.offer(connection, new FeedItem());
+            assertTrue(connection.pending.isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should push a new item only to connected followers of its author")
+        void shouldPushToConnectedFollowers() {
+            hub = new LiveUpdateHub(followRepository, socialService, notificationService,
+                    new SimpleMeterRegistry(), senders, 60000, 1000, 10, 2, 10);
+            // Its drain was handed to the no-op executor, so pushed items stay queued
+            LiveUpdateHub.Connection follower = connectAndGet(1L);
+            when(followRepository.findFollowerIdsIn(5L, List.of(1L))).thenReturn(List.of(1L));
+            when(socialService.getFeedItem("REVIEW", 9L)).thenReturn(new FeedItem());
+            doAnswer(invocation -> {
+                ((Runnable) invocation.getArgument(0)).run();
+                return null;
+            }).when(senders).execute(any(Runnable.class));
+
+            hub.onFeedItem(new FeedItemEvent(5L, "REVIEW", 9L));
+
+            assertEquals(1, follower.pending.size());
+            verify(socialService, times(1)).getFeedItem("REVIEW", 9L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Send Timeout Tests")
+    class SendTimeoutTests {
+
+        @Test
+        @DisplayName("Should close a connection whose send is blocked past the timeout and interrupt its sender")
+        void shouldCloseStuckConnection() {
+            LiveUpdateHub.Connection connection = connectAndGet(1L);
+            startedSending(connection, TimeUnit.SECONDS.toNanos(2));
+
+            hub.closeStuckConnections();
+
+            assertTrue(connection.closed.get());
+            assertTrue(connection.sendTimedOut);
+            assertEquals(0, hub.getConnectionCount());
+            assertTrue(Thread.interrupted());
+        }
+
+        @Test
+        @DisplayName("Should leave connections with a recent or no send alone")
+        void shouldKeepActiveConnections() {
+            LiveUpdateHub.Connection sending = connectAndGet(1L);
+            LiveUpdateHub.Connection idle = connectAndGet(2L);
+            startedSending(sending, 0);
+
+            hub.closeStuckConnections();
+
+            assertFalse(sending.closed.get());
+            assertFalse(idle.closed.get());
+            assertEquals(2, hub.getConnectionCount());
+            assertFalse(Thread.interrupted());
+        }
+
+        @Test
+        @DisplayName("Should fail a send that was cut off and clear the interrupt it left on the sender")
+        void shouldFailTimedOutSend() throws Exception {
+            SseEmitter emitter = mock(SseEmitter.class);
+            LiveUpdateHub.Connection connection = new LiveUpdateHub.Connection(1L, emitter);
+            doAnswer(invocation -> {
+                // What closeStuckConnections does while the write is blocked
+                synchronized (connection) {
+                    connection.sendTimedOut = true;
+                    connection.sender.interrupt();
+                }
+                return null;
+            }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+            assertThrows(SocketTimeoutException.class,
+                    () -> hub.send(connection, SseEmitter.event().comment("heartbeat")));
+            assertNull(connection.sender);
+            assertFalse(Thread.interrupted());
+        }
+    }
+
+    private void startedSending(LiveUpdateHub.Connection connection, long nanosAgo) {
+        synchronized (connection) {
+            connection.sender = Thread.currentThread();
+            connection.sendStartedNanos = System.nanoTime() - nanosAgo;
+        }
+    }
+
+    private LiveUpdateHub.Connection connectAndGet(Long userId) {
+        hub.connect(userId);
+        return hub.connectionsOf(userId).get(0);
+    }
+}
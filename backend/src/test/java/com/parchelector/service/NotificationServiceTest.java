@@ -0,0 +1,133 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.response.NotificationPageResponse;
+import com.parchelector.model.entity.Notification;
+import com.parchelector.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationService Tests")
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationRepository, eventPublisher, new SimpleMeterRegistry(), 100, 600);
+    }
+
+    @Nested
+    @DisplayName("Unread Count Tests")
+    class UnreadCountTests {
+
+        @Test
+        @DisplayName("Should count unread notifications once between changes")
+        void shouldCacheUnreadCount() {
+            when(notificationRepository.countUnread(1L)).thenReturn(3L, 4L);
+
+            assertEquals(3L, notificationService.getUnreadCount(1L));
+            assertEquals(3L, notificationService.getUnreadCount(1L));
+            verify(notificationRepository, times(1)).countUnread(1L);
+
+            notificationService.invalidateUnreadCount(1L);
+
+            assertEquals(4L, notificationService.getUnreadCount(1L));
+            verify(notificationRepository, times(2)).countUnread(1L);
+        }
+
+        @Test
+        @DisplayName("Should recount after marking all notifications read")
+        void shouldRecountAfterMarkAllRead() {
+            when(notificationRepository.countUnread(1L)).thenReturn(2L, 0L);
+            when(notificationRepository.markAllRead(1L)).thenReturn(2);
+
+            assertEquals(2L, notificationService.getUnreadCount(1L));
+            assertEquals(2, notificationService.markAllRead(1L));
+            assertEquals(0L, notificationService.getUnreadCount(1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Mark Read Tests")
+    class MarkReadTests {
+
+        @Test
+        @DisplayName("Should accept a notification that was already read")
+        void shouldAcceptAlreadyReadNotification() {
+            when(notificationRepository.markRead(5L, 1L)).thenReturn(0);
+            when(notificationRepository.existsByIdAndUserId(5L, 1L)).thenReturn(true);
+
+            assertDoesNotThrow(() -> notificationService.markRead(1L, 5L));
+        }
+
+        @Test
+        @DisplayName("Should throw exception for another user's notification")
+        void shouldThrowForForeignNotification() {
+            when(notificationRepository.markRead(5L, 2L)).thenReturn(0);
+            when(notificationRepository.existsByIdAndUserId(5L, 2L)).thenReturn(false);
+
+            assertThrows(IllegalArgumentException.class, () -> notificationService.markRead(2L, 5L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Paging Tests")
+    class PagingTests {
+
+        @Test
+        @DisplayName("Should return a cursor when there are more notifications")
+        void shouldReturnNextCursor() {
+            List<Notification> rows = new ArrayList<>();
+            for (long id = 10; id > 7; id--) {
+                Notification notification = new Notification();
+                notification.setId(id);
+                notification.setUserId(1L);
+                notification.setType(Notification.TYPE_USER_FOLLOWED);
+                notification.setCreatedAt(LocalDateTime.now());
+                rows.add(notification);
+            }
+            when(notificationRepository.findLatest(eq(1L), any(Pageable.class))).thenReturn(rows);
+            when(notificationRepository.countUnread(1L)).thenReturn(3L);
+
+            NotificationPageResponse page = notificationService.getNotifications(1L, 2, null);
+
+            assertEquals(2, page.getItems().size());
+            assertTrue(page.getHasMore());
+            assertEquals(9L, page.getNextBefore());
+            assertEquals(3L, page.getUnreadCount());
+        }
+
+        @Test
+        @DisplayName("Should reject a limit above the maximum")
+        void shouldRejectLargeLimit() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> notificationService.getNotifications(1L, NotificationService.MAX_LIMIT + 1, null));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Notification;
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for NotificationWriter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationWriter Tests")
+class NotificationWriterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationWriter writer;
+
+    private User follower;
+
+    @BeforeEach
+    void setUp() {
+        writer = new NotificationWriter(notificationRepository, notificationService, transactionManager,
+                new SimpleMeterRegistry(), 10, 10);
+        follower = new User();
+        follower.setId(2L);
+        follower.setUsername("follower");
+    }
+
+    @Nested
+    @DisplayName("Dedupe Tests")
+    class DedupeTests {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        @DisplayName("Should write one notification for repeats within a batch")
+        void shouldCoalesceRepeatsInBatch() {
+            when(notificationRepository.findUnreadDedupeKeys(anyCollection(), anyCollection())).thenReturn(List.of());
+            when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            writer.onNotification(NotificationEvent.userFollowed(1L, follower));
+            writer.onNotification(NotificationEvent.userFollowed(1L, follower));
+
+            assertEquals(1, writer.flush());
+            ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+            verify(notificationRepository).saveAll(saved.capture());
+            assertEquals("USER_FOLLOWED:2", saved.getValue().get(0).getDedupeKey());
+            verify(notificationService).invalidateUnreadCount(1L);
+        }
+
+        @Test
+        @DisplayName("Should skip a repeat of a notification that is still unread")
+        void shouldSkipRepeatOfUnread() {
+            when(notificationRepository.findUnreadDedupeKeys(anyCollection(), anyCollection()))
+                    .thenReturn(List.<Object[]>of(new Object[]{1L, "USER_FOLLOWED:2"}));
+            when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            writer.onNotification(NotificationEvent.userFollowed(1L, follower));
+
+            assertEquals(0, writer.flush());
+            verify(notificationRepository).saveAll(List.of());
+            verifyNoInteractions(notificationService);
+        }
+
+        @Test
+        @DisplayName("Should ignore actions on the actor's own content")
+        void shouldIgnoreSelfActions() {
+            writer.onNotification(NotificationEvent.userFollowed(2L, follower));
+
+            assertEquals(0, writer.flush());
+            verifyNoInteractions(notificationRepository);
+        }
+    }
+}
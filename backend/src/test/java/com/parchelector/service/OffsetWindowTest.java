@@ -0,0 +1,70 @@
+package com.parchelector.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OffsetWindow.
+ */
+@DisplayName("OffsetWindow Tests")
+class OffsetWindowTest {
+
+    @Nested
+    @DisplayName("Validation Tests")
+    class ValidationTests {
+
+        @Test
+        @DisplayName("Should accept limits and offsets within bounds")
+        void shouldAcceptBounds() {
+            assertDoesNotThrow(() -> OffsetWindow.validate(1, 0, 50));
+            assertDoesNotThrow(() -> OffsetWindow.validate(50, OffsetWindow.MAX_OFFSET, 50));
+        }
+
+        @Test
+        @DisplayName("Should reject limits and offsets out of bounds")
+        void shouldRejectOutOfBounds() {
+            assertThrows(IllegalArgumentException.class, () -> OffsetWindow.validate(0, 0, 50));
+            assertThrows(IllegalArgumentException.class, () -> OffsetWindow.validate(51, 0, 50));
+            assertThrows(IllegalArgumentException.class, () -> OffsetWindow.validate(10, -1, 50));
+            assertThrows(IllegalArgumentException.class,
+                    () -> OffsetWindow.validate(10, OffsetWindow.MAX_OFFSET + 1, 50));
+        }
+
+        @Test
+        @DisplayName("Should clamp limits into range for endpoints that never rejected them")
+        void shouldClampLimit() {
+            assertEquals(1, OffsetWindow.clampLimit(0, 50));
+            assertEquals(20, OffsetWindow.clampLimit(20, 50));
+            assertEquals(50, OffsetWindow.clampLimit(500, 50));
+        }
+    }
+
+    @Nested
+    @DisplayName("Window Tests")
+    class WindowTests {
+
+        @Test
+        @DisplayName("Should start at the exact offset, also when it is not page-aligned")
+        void shouldStartAtOffset() {
+            OffsetWindow window = OffsetWindow.of(5, 10);
+
+            assertEquals(5, window.getOffset());
+            assertEquals(10, window.getPageSize());
+            assertTrue(window.getSort().isUnsorted());
+        }
+
+        @Test
+        @DisplayName("Should step by the limit from the offset")
+        void shouldStepByLimit() {
+            OffsetWindow window = OffsetWindow.of(5, 10);
+
+            assertEquals(15, window.next().getOffset());
+            assertEquals(0, window.previousOrFirst().getOffset());
+            assertEquals(5, window.next().previousOrFirst().getOffset());
+            assertFalse(window.first().hasPrevious());
+        }
+    }
+}
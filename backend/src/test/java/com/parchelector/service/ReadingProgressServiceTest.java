@@ -0,0 +1,193 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.request.ReadingProgressRequest;
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.ReadingStatus;
+import com.parchelector.repository.ReadingStatusRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReadingProgressService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadingProgressService Tests")
+class ReadingProgressServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReadingStatusRepository readingStatusRepository;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    private ReadingProgressService readingProgressService;
+
+    @BeforeEach
+    void setUp() {
+        readingProgressService = new ReadingProgressService(jdbcTemplate, transactionManager, readingStatusRepository,
+                userStatsService, new SimpleMeterRegistry(), 500, 100, 30);
+    }
+
+    private void reading(Long bookId, Integer pageCount) {
+        reading(bookId, pageCount, null);
+    }
+
+    private void reading(Long bookId, Integer pageCount, Integer currentPage) {
+        Book book = new Book();
+        book.setId(bookId);
+        book.setPageCount(pageCount);
+        ReadingStatus status = new ReadingStatus();
+        status.setBook(book);
+        status.setStatus(ReadingStatus.ReadingStatusEnum.READING);
+        status.setCurrentPage(currentPage);
+        when(readingStatusRepository.findWithBookByUserIdAndBookId(1L, bookId)).thenReturn(Optional.of(status));
+    }
+
+    @Nested
+    @DisplayName("Record Progress Tests")
+    class RecordProgressTests {
+
+        @Test
+        @DisplayName("Should look up the reading status only on the first report")
+        void shouldCacheReadingStatusLookup() {
+            reading(5L, 200);
+
+            for (int page = 1; page <= 10; page++) {
+                readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, page, null));
+            }
+
+            verify(readingStatusRepository, times(1)).findWithBookByUserIdAndBookId(1L, 5L);
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the book is not being read")
+        void shouldRejectBookNotBeingRead() {
+            when(readingStatusRepository.findWithBookByUserIdAndBookId(1L, 5L)).thenReturn(Optional.empty());
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, null, 40)));
+        }
+
+        @Test
+        @DisplayName("Should throw exception when both page and percent are sent")
+        void shouldRejectPageAndPercent() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 10, 40)));
+            verifyNoInteractions(readingStatusRepository);
+        }
+
+        @Test
+        @DisplayName("Should throw exception for a page past the end of the book")
+        void shouldRejectPagePastEnd() {
+            reading(5L, 200);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 201, null)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void eventsInserted(int... counts) {
+        when(jdbcTemplate.batchUpdate(contains("reading_events"), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenReturn(new int[][] {counts});
+    }
+
+    @Nested
+    @DisplayName("Flush Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should write only the latest report per book")
+        @SuppressWarnings("unchecked")
+        void shouldCoalesceReports() {
+            reading(5L, 200);
+            reading(6L, null);
+
+            for (int page = 1; page <= 50; page++) {
+                readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, page, null));
+            }
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(6L, null, 30));
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(6L, null, 35));
+            eventsInserted(1, 1);
+
+            assertEquals(2, readingProgressService.flush());
+
+            ArgumentCaptor<List<?>> events = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(contains("reading_events"), events.capture(), eq(2),
+                    any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(2, events.getValue().size());
+            verify(jdbcTemplate).batchUpdate(contains("UPDATE reading_status"), anyList(), eq(2),
+                    any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(0, readingProgressService.flush());
+        }
+
+        @Test
+        @DisplayName("Should count pages read since the last written position")
+        void shouldCountPagesSinceLastPosition() {
+            reading(5L, 300, 100);
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 130, null));
+            eventsInserted(1);
+
+            assertEquals(1, readingProgressService.flush());
+            verify(userStatsService).addReadingDay(eq(1L), any(), eq(30));
+
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 125, null));
+            readingProgressService.flush();
+            verify(userStatsService).addReadingDay(eq(1L), any(), eq(0));
+        }
+
+        @Test
+        @DisplayName("Should only set the starting point on a book's first report")
+        void shouldNotCountFirstReport() {
+            reading(5L, 300);
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 150, null));
+            eventsInserted(1);
+
+            readingProgressService.flush();
+
+            verify(userStatsService).addReadingDay(eq(1L), any(), eq(0));
+        }
+
+        @Test
+        @DisplayName("Should skip reports for books no longer being read")
+        void shouldSkipDroppedReports() {
+            reading(5L, 300, 100);
+            readingProgressService.recordProgress(1L, new ReadingProgressRequest(5L, 130, null));
+            eventsInserted(0);
+
+            assertEquals(0, readingProgressService.flush());
+            verifyNoInteractions(userStatsService);
+        }
+
+        @Test
+        @DisplayName("Should not touch the database when nothing is pending")
+        void shouldSkipEmptyFlush() {
+            assertEquals(0, readingProgressService.flush());
+
+            verifyNoInteractions(jdbcTemplate);
+        }
+    }
+}
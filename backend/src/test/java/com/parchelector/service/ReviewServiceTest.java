@@ -0,0 +1,113 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.Review;
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReviewService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReviewService Tests")
+class ReviewServiceTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private FeedTimelineService feedTimelineService;
+
+    @Mock
+    private BookRatingStatsService bookRatingStatsService;
+
+    @Mock
+    private UserStatsService userStatsService;
+
+    @InjectMocks
+    private ReviewService reviewService;
+
+    private Review review;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(1L);
+        Book book = new Book();
+        book.setId(10L);
+
+        review = new Review();
+        review.setId(100L);
+        review.setUser(user);
+        review.setBook(book);
+        review.setRating(new BigDecimal("4.0"));
+        review.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Nested
+    @DisplayName("Delete Review Tests")
+    class DeleteReviewTests {
+
+        @Test
+        @DisplayName("Should retract the rating from the aggregates once")
+        void shouldRetractRating() {
+            when(reviewRepository.findById(100L)).thenReturn(Optional.of(review));
+            when(reviewRepository.markDeleted(100L)).thenReturn(1);
+
+            reviewService.deleteReview(1L, 100L);
+
+            verify(bookRatingStatsService).removeRating(10L, review.getRating());
+            verify(userStatsService).removeReview(1L, review.getBook(), review.getRating(), review.getCreatedAt());
+            verify(feedTimelineService).retractReview(100L);
+        }
+
+        @Test
+        @DisplayName("Should reject a review that is already deleted without touching the aggregates")
+        void shouldRejectDeletedReview() {
+            review.setIsDeleted(true);
+            when(reviewRepository.findById(100L)).thenReturn(Optional.of(review));
+
+            assertThrows(IllegalArgumentException.class, () -> reviewService.deleteReview(1L, 100L));
+
+            verify(reviewRepository, never()).markDeleted(anyLong());
+            verifyNoInteractions(bookRatingStatsService, userStatsService, feedTimelineService);
+        }
+
+        @Test
+        @DisplayName("Should not touch the aggregates when a concurrent delete won")
+        void shouldRejectConcurrentDelete() {
+            when(reviewRepository.findById(100L)).thenReturn(Optional.of(review));
+            when(reviewRepository.markDeleted(100L)).thenReturn(0);
+
+            assertThrows(IllegalArgumentException.class, () -> reviewService.deleteReview(1L, 100L));
+
+            verifyNoInteractions(bookRatingStatsService, userStatsService, feedTimelineService);
+        }
+
+        @Test
+        @DisplayName("Should reject deleting someone else's review")
+        void shouldRejectOtherUser() {
+            when(reviewRepository.findById(100L)).thenReturn(Optional.of(review));
+
+            assertThrows(IllegalArgumentException.class, () -> reviewService.deleteReview(2L, 100L));
+
+            verify(reviewRepository, never()).markDeleted(anyLong());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.parchelector.service;
+
+import com.parchelector.dto.request.CreateListRequest;
+import com.parchelector.dto.request.CreateReviewRequest;
+import com.parchelector.dto.request.FollowUserRequest;
+import com.parchelector.dto.response.FeedResponse;
+import com.parchelector.dto.response.FeedResponse.FeedItem;
+import com.parchelector.dto.response.ListResponse;
+import com.parchelector.dto.response.ReviewResponse;
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.User;
+import com.parchelector.repository.BookRepository;
+import com.parchelector.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the materialized social feed against H2: fan-out on write and paging.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("Social Feed Tests")
+class SocialFeedTest {
+
+    @Autowired
+    private SocialService socialService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ListService listService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private User reader;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        reader = createUser();
+        author = createUser();
+    }
+
+    @Nested
+    @DisplayName("Fan-out Tests")
+    class FanOutTests {
+
+        @Test
+        @DisplayName("Should deliver new reviews and public lists to followers only")
+        void shouldFanOutToFollowers() {
+            User stranger = createUser();
+            follow(reader, author);
+
+            ReviewResponse review = createReview(author);
+            ListResponse list = createList(author, "PUBLIC");
+            createList(author, "PRIVATE");
+
+            List<FeedItem> items = socialService.getFeed(reader.getId(), 20, 0).getItems();
+            assertEquals(2, items.size());
+            assertEquals(list.getId(), items.get(0).getList().getListId());
+            assertEquals(review.getId(), items.get(1).getReview().getReviewId());
+            assertTrue(socialService.getFeed(stranger.getId(), 20, 0).getItems().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should copy existing items on follow and drop them on unfollow")
+        void shouldCopyOnFollowAndDropOnUnfollow() {
+            createReview(author);
+            createList(author, "PUBLIC");
+
+            follow(reader, author);
+            assertEquals(2, socialService.getFeed(reader.getId(), 20, 0).getItems().size());
+
+            socialService.unfollowUser(reader.getId(), author.getId());
+            assertTrue(socialService.getFeed(reader.getId(), 20, 0).getItems().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should retract deleted reviews from timelines")
+        void shouldRetractDeletedReview() {
+            follow(reader, author);
+            ReviewResponse review = createReview(author);
+
+            reviewService.deleteReview(author.getId(), review.getId());
+
+            assertTrue(socialService.getFeed(reader.getId(), 20, 0).getItems().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Paging Tests")
+    class PagingTests {
+
+        private List<Long> timeline;
+
+        @BeforeEach
+        void setUpTimeline() {
+            follow(reader, author);
+            for (int i = 0; i < 5; i++) {
+                createList(author, "PUBLIC");
+            }
+            timeline = listIds(socialService.getFeed(reader.getId(), 20, 0));
+            assertEquals(5, timeline.size());
+        }
+
+        @Test
+        @DisplayName("Should return exactly the requested rows for offsets that are not page-aligned")
+        void shouldReadExplicitWindow() {
+            FeedResponse page = socialService.getFeed(reader.getId(), 2, 1);
+
+            assertEquals(timeline.subList(1, 3), listIds(page));
+            assertTrue(page.getHasMore());
+            assertNull(page.getTotal());
+        }
+
+        @Test
+        @DisplayName("Should report the total only on the last page, where it is known without counting")
+        void shouldReportTotalOnLastPage() {
+            FeedResponse first = socialService.getFeed(reader.getId(), 2, 0);
+            FeedResponse last = socialService.getFeed(reader.getId(), 2, 4);
+            FeedResponse pastEnd = socialService.getFeed(reader.getId(), 2, 8);
+
+            assertNull(first.getTotal());
+            assertTrue(first.getHasMore());
+            assertEquals(timeline.subList(4, 5), listIds(last));
+            assertEquals(5, last.getTotal());
+            assertFalse(last.getHasMore());
+            assertNull(last.getNextCursor());
+            assertTrue(pastEnd.getItems().isEmpty());
+            assertNull(pastEnd.getTotal());
+        }
+
+        @Test
+        @DisplayName("Should continue an offset page with its cursor")
+        void shouldContinueWithCursor() {
+            FeedResponse page = socialService.getFeed(reader.getId(), 2, 1);
+
+            FeedResponse next = socialService.getFeedAfter(reader.getId(), 2, page.getNextCursor());
+
+            assertEquals(timeline.subList(3, 5), listIds(next));
+            assertFalse(next.getHasMore());
+        }
+
+        @Test
+        @DisplayName("Should clamp limits and offsets out of range instead of rejecting them")
+        void shouldClampOutOfRange() {
+            Long userId = reader.getId();
+
+            FeedResponse tiny = socialService.getFeed(userId, 0, 0);
+            FeedResponse huge = socialService.getFeed(userId, SocialService.MAX_FEED_LIMIT + 1, -3);
+            FeedResponse deep = socialService.getFeed(userId, 10, OffsetWindow.MAX_OFFSET + 1);
+
+            assertEquals(timeline.subList(0, 1), listIds(tiny));
+            assertEquals(SocialService.MAX_FEED_LIMIT, huge.getLimit());
+            assertEquals(0, huge.getOffset());
+            assertEquals(timeline, listIds(huge));
+            assertTrue(deep.getItems().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should reject cursor page limits out of range")
+        void shouldRejectCursorLimitOutOfRange() {
+            Long userId = reader.getId();
+            String cursor = socialService.getFeed(userId, 1, 0).getNextCursor();
+
+            assertThrows(IllegalArgumentException.class, () -> socialService.getFeedAfter(userId, 0, ""));
+            assertThrows(IllegalArgumentException.class, () -> socialService.getFeedAfter(userId, 0, cursor));
+            assertThrows(IllegalArgumentException.class,
+                    () -> socialService.getFeedAfter(userId, SocialService.MAX_FEED_LIMIT + 1, cursor));
+        }
+    }
+
+    private User createUser() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPasswordHash("hash");
+        return userRepository.save(user);
+    }
+
+    private void follow(User follower, User followed) {
+        FollowUserRequest request = new FollowUserRequest();
+        request.setUserId(followed.getId());
+        socialService.followUser(follower.getId(), request);
+    }
+
+    private ReviewResponse createReview(User user) {
+        Book book = new Book();
+        book.setTitle("La vorágine");
+        book = bookRepository.save(book);
+
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setBookId(book.getId());
+        request.setRating(new BigDecimal("4.0"));
+        return reviewService.createReview(user.getId(), request);
+    }
+
+    private ListResponse createList(User user, String visibility) {
+        CreateListRequest request = new CreateListRequest();
+        request.setName("Lista");
+        request.setVisibility(visibility);
+        return listService.createList(user.getId(), request);
+    }
+
+    private static List<Long> listIds(FeedResponse feed) {
+        return feed.getItems().stream().map(item -> item.getList().getListId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,170 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import com.parchelector.repository.FavoriteBookRepository;
+import com.parchelector.repository.ReadingStatusRepository;
+import com.parchelector.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TrendingService: the decayed scores, the top-K selection and the refresh
+ * over the overlap window.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TrendingService Tests")
+class TrendingServiceTest {
+
+    private static final LocalDateTime LANDMARK = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private ReadingStatusRepository readingStatusRepository;
+
+    @Mock
+    private FavoriteBookRepository favoriteBookRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        trendingService = new TrendingService(reviewRepository, readingStatusRepository, favoriteBookRepository,
+                jdbcTemplate, 200, 300000);
+    }
+
+    @Nested
+    @DisplayName("Score Tests")
+    class ScoreTests {
+
+        @Test
+        @DisplayName("Should double an event's weight every half-life after the landmark")
+        void shouldDecayForward() {
+            TrendingService.WindowScores scores = new TrendingService.WindowScores(TrendingWindow.DAY, LANDMARK);
+
+            scores.add(1L, LANDMARK, 1.0);
+            scores.add(2L, LANDMARK.plusHours(6), 1.0);
+            scores.add(2L, LANDMARK.plusHours(12), 0.5);
+            scores.add(3L, LANDMARK.plusHours(3), 1.0);
+
+            assertEquals(1.0, scores.score(1L), 1e-9);
+            assertEquals(2.0 + 0.5 * 4.0, scores.score(2L), 1e-9);
+            assertEquals(Math.sqrt(2), scores.score(3L), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should ignore events before the window")
+        void shouldIgnoreEventsBeforeWindow() {
+            TrendingService.WindowScores scores = new TrendingService.WindowScores(TrendingWindow.DAY, LANDMARK);
+
+            scores.add(1L, LANDMARK.minusSeconds(1), 5.0);
+
+            assertEquals(0.0, scores.score(1L));
+            assertTrue(scores.top(10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep the K best books, best first")
+        void shouldKeepTopK() {
+            TrendingService.WindowScores scores = new TrendingService.WindowScores(TrendingWindow.WEEK, LANDMARK);
+            double[] weights = {2.0, 5.0, 1.0, 4.0, 3.0};
+            for (int i = 0; i < weights.length; i++) {
+                scores.add((long) i + 1, LANDMARK, weights[i]);
+            }
+
+            assertEquals(List.of(2L, 4L, 5L), scores.top(3));
+            assertEquals(List.of(2L, 4L, 5L, 1L, 3L), scores.top(10));
+        }
+
+        @Test
+        @DisplayName("Should rank a recent event above an older, heavier one once a half-life apart")
+        void shouldFavourRecentEvents() {
+            TrendingService.WindowScores scores = new TrendingService.WindowScores(TrendingWindow.DAY, LANDMARK);
+
+            scores.add(1L, LANDMARK, 1.5);
+            scores.add(2L, LANDMARK.plusHours(7), 1.0);
+
+            assertEquals(List.of(2L, 1L), scores.top(2));
+        }
+    }
+
+    @Nested
+    @DisplayName("Refresh Tests")
+    class RefreshTests {
+
+        @BeforeEach
+        void setUp() {
+            when(jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class))
+                    .thenReturn(NOW, NOW.plusMinutes(1), NOW.plusMinutes(2));
+        }
+
+        private void givenReviews(Object[]... rows) {
+            when(reviewRepository.findTrendingEventsSince(any())).thenReturn(List.of(rows));
+        }
+
+        private void givenStatuses(Object[]... rows) {
+            when(readingStatusRepository.findTrendingEventsSince(any())).thenReturn(List.of(rows));
+        }
+
+        @Test
+        @DisplayName("Should read the overlap before the watermark from the database clock")
+        void shouldReadOverlap() {
+            trendingService.rebuild();
+            trendingService.refresh();
+            trendingService.refresh();
+
+            verify(reviewRepository).findTrendingEventsSince(NOW.minus(TrendingWindow.MONTH.getLength()));
+            verify(reviewRepository).findTrendingEventsSince(NOW.minusMinutes(5));
+            verify(reviewRepository).findTrendingEventsSince(NOW.plusMinutes(1).minusMinutes(5));
+        }
+
+        @Test
+        @DisplayName("Should count a row that committed after the last run with an earlier time")
+        void shouldCountLateCommit() {
+            givenReviews(new Object[]{10L, 1L, NOW.minusMinutes(3)});
+            trendingService.rebuild();
+            assertEquals(List.of(1L), trendingService.getTopBookIds(TrendingWindow.DAY, 10));
+
+            // Both inside the overlap: the first one is read again but not counted twice
+            givenReviews(new Object[]{10L, 1L, NOW.minusMinutes(3)}, new Object[]{11L, 2L, NOW.minusMinutes(1)});
+            trendingService.refresh();
+
+            assertEquals(List.of(2L, 1L), trendingService.getTopBookIds(TrendingWindow.DAY, 10));
+        }
+
+        @Test
+        @DisplayName("Should count a reading status once per change, not on every read of the row")
+        void shouldCountStatusChangeOnce() {
+            // A review (3.0) above a READING status (2.0); counting the status twice would swap them
+            givenReviews(new Object[]{10L, 1L, NOW.minusMinutes(2)});
+            givenStatuses(new Object[]{20L, 2L, ReadingStatusEnum.READING, NOW.minusMinutes(2)});
+            trendingService.rebuild();
+            trendingService.refresh();
+            assertEquals(List.of(1L, 2L), trendingService.getTopBookIds(TrendingWindow.DAY, 10));
+
+            // The same row moves on to READ (1.5): a new change
+            givenStatuses(new Object[]{20L, 2L, ReadingStatusEnum.READ, NOW.plusMinutes(1)});
+            trendingService.refresh();
+            assertEquals(List.of(2L, 1L), trendingService.getTopBookIds(TrendingWindow.DAY, 10));
+        }
+    }
+}
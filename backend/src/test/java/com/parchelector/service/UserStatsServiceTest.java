@@ -0,0 +1,356 @@
+package com.parchelector.service;
+
+import com.parchelector.model.entity.Book;
+import com.parchelector.model.entity.Genre;
+import com.parchelector.model.entity.ReadingStatus.ReadingStatusEnum;
+import com.parchelector.model.entity.UserGenre;
+import com.parchelector.model.entity.UserStats;
+import com.parchelector.repository.UserGenreRepository;
+import com.parchelector.repository.UserStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserStatsService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserStatsService Tests")
+class UserStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @Mock
+    private UserGenreRepository userGenreRepository;
+
+    @InjectMocks
+    private UserStatsService userStatsService;
+
+    private UserStats stats;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        stats = new UserStats();
+        stats.setUserId(USER_ID);
+        stats.setGenreAffinity(null);
+
+        Genre novel = new Genre();
+        novel.setId(7L);
+        novel.setName("Novela");
+        book = new Book();
+        book.setId(10L);
+        book.setPageCount(300);
+        book.setGenres(new HashSet<>(Set.of(novel)));
+    }
+
+    private void givenLockedStats() {
+        when(userStatsRepository.findByUserIdForUpdate(USER_ID)).thenReturn(Optional.of(stats));
+    }
+
+    @Nested
+    @DisplayName("Star Bucket Tests")
+    class StarBucketTests {
+
+        @Test
+        @DisplayName("Should round ratings half up to whole stars")
+        void shouldRoundHalfUp() {
+            assertEquals(0, UserStatsService.starBucketOf(new BigDecimal("1.4")));
+            assertEquals(1, UserStatsService.starBucketOf(new BigDecimal("1.5")));
+            assertEquals(3, UserStatsService.starBucketOf(new BigDecimal("4.0")));
+            assertEquals(4, UserStatsService.starBucketOf(new BigDecimal("4.5")));
+        }
+
+        @Test
+        @DisplayName("Should clamp ratings outside one to five stars")
+        void shouldClamp() {
+            assertEquals(0, UserStatsService.starBucketOf(new BigDecimal("0.5")));
+            assertEquals(4, UserStatsService.starBucketOf(new BigDecimal("6.0")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lock Tests")
+    class LockTests {
+
+        @Test
+        @DisplayName("Should create the row if missing before locking it and seed the picked genres")
+        void shouldInsertBeforeLocking() {
+            givenLockedStats();
+            when(userGenreRepository.findGenreIdsByUserId(USER_ID)).thenReturn(List.of(7L, 8L));
+
+            userStatsService.changeListCount(USER_ID, 1);
+
+            InOrder inOrder = inOrder(userStatsRepository);
+            inOrder.verify(userStatsRepository).insertIfAbsent(eq(USER_ID), any(int[].class), any(int[].class));
+            inOrder.verify(userStatsRepository).findByUserIdForUpdate(USER_ID);
+            inOrder.verify(userStatsRepository).save(stats);
+            assertEquals(1, stats.getListCount());
+            assertEquals(Map.of(7L, UserStatsService.PREFERRED_GENRE_AFFINITY,
+                    8L, UserStatsService.PREFERRED_GENRE_AFFINITY), stats.getGenreAffinity());
+        }
+    }
+
+    @Nested
+    @DisplayName("Preferred Genre Tests")
+    class PreferredGenreTests {
+
+        @Test
+        @DisplayName("Should move the affinity of removed and added genres, keeping what reading added")
+        void shouldApplyGenreDelta() {
+            givenLockedStats();
+            when(userGenreRepository.findGenreIdsByUserId(USER_ID)).thenReturn(List.of(7L, 8L));
+            stats.setGenreAffinity(new HashMap<>(Map.of(7L, 4.0, 8L, UserStatsService.PREFERRED_GENRE_AFFINITY)));
+
+            userStatsService.replacePreferredGenres(USER_ID, Set.of(7L, 9L));
+
+            verify(userGenreRepository).deleteByUserIdAndGenreIdIn(USER_ID, Set.of(8L));
+            verify(userGenreRepository).saveAll(List.of(new UserGenre(USER_ID, 9L)));
+            verify(userStatsRepository).save(stats);
+            assertEquals(Map.of(7L, 4.0, 9L, UserStatsService.PREFERRED_GENRE_AFFINITY), stats.getGenreAffinity());
+        }
+
+        @Test
+        @DisplayName("Should seed from the genres picked before the change on a snapshot without affinities")
+        void shouldSeedBeforeApplyingDelta() {
+            givenLockedStats();
+            when(userGenreRepository.findGenreIdsByUserId(USER_ID)).thenReturn(List.of(7L));
+
+            userStatsService.replacePreferredGenres(USER_ID, Set.of());
+
+            verify(userGenreRepository).deleteByUserIdAndGenreIdIn(USER_ID, Set.of(7L));
+            assertTrue(stats.getGenreAffinity().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should write nothing when the genres did not change")
+        void shouldSkipUnchangedGenres() {
+            givenLockedStats();
+            when(userGenreRepository.findGenreIdsByUserId(USER_ID)).thenReturn(List.of(7L));
+
+            userStatsService.replacePreferredGenres(USER_ID, Set.of(7L));
+
+            verify(userGenreRepository, never()).deleteByUserIdAndGenreIdIn(any(), anyCollection());
+            verify(userGenreRepository, never()).saveAll(anyIterable());
+            verify(userStatsRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reading Status Tests")
+    class ReadingStatusTests {
+
+        @Test
+        @DisplayName("Should move a book from reading to read with its pages, genre and month")
+        void shouldFinishBook() {
+            givenLockedStats();
+            stats.setBooksReading(1);
+
+            userStatsService.replaceReadingStatus(USER_ID, book, ReadingStatusEnum.READING, null,
+                    ReadingStatusEnum.READ, DAY);
+
+            assertEquals(0, stats.getBooksReading());
+            assertEquals(1, stats.getBooksRead());
+            assertEquals(300, stats.getPagesRead());
+            assertEquals(Map.of("Novela", 1), stats.getGenreCounts());
+            assertEquals(Map.of("2025-03", 1), stats.getBooksReadByMonth());
+            assertEquals(Map.of(7L, UserStatsService.READ_BOOK_AFFINITY), stats.getGenreAffinity());
+        }
+
+        @Test
+        @DisplayName("Should undo a read book completely, dropping emptied keys")
+        void shouldUnreadBook() {
+            givenLockedStats();
+
+            userStatsService.replaceReadingStatus(USER_ID, book, null, null, ReadingStatusEnum.READ, DAY);
+            userStatsService.replaceReadingStatus(USER_ID, book, ReadingStatusEnum.READ, DAY,
+                    ReadingStatusEnum.WANT_TO_READ, null);
+
+            assertEquals(0, stats.getBooksRead());
+            assertEquals(1, stats.getBooksToRead());
+            assertEquals(0, stats.getPagesRead());
+            assertTrue(stats.getGenreCounts().isEmpty());
+            assertTrue(stats.getBooksReadByMonth().isEmpty());
+            assertTrue(stats.getGenreAffinity().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should skip a status that did not change")
+        void shouldSkipUnchangedStatus() {
+            userStatsService.replaceReadingStatus(USER_ID, book, ReadingStatusEnum.READ, DAY,
+                    ReadingStatusEnum.READ, DAY.plusDays(3));
+
+            verifyNoInteractions(userStatsRepository);
+        }
+
+        @Test
+        @DisplayName("Should move a read book to the month it was finished again")
+        void shouldMoveFinishMonth() {
+            givenLockedStats();
+            userStatsService.replaceReadingStatus(USER_ID, book, null, null, ReadingStatusEnum.READ, DAY);
+
+            userStatsService.replaceReadingStatus(USER_ID, book, ReadingStatusEnum.READ, DAY,
+                    ReadingStatusEnum.READ, DAY.plusMonths(1));
+
+            assertEquals(1, stats.getBooksRead());
+            assertEquals(Map.of("2025-04", 1), stats.getBooksReadByMonth());
+        }
+    }
+
+    @Nested
+    @DisplayName("Review Tests")
+    class ReviewTests {
+
+        @Test
+        @DisplayName("Should add a review to the count, histogram, month and genre affinity")
+        void shouldAddReview() {
+            givenLockedStats();
+
+            userStatsService.addReview(USER_ID, book, new BigDecimal("5.0"), DAY.atStartOfDay());
+
+            assertEquals(1, stats.getReviewCount());
+            assertEquals(0, new BigDecimal("5.0").compareTo(stats.getRatingSum()));
+            assertArrayEquals(new int[] {0, 0, 0, 0, 1}, stats.getRatingHistogram());
+            assertEquals(Map.of("2025-03", 1), stats.getReviewsByMonth());
+            assertEquals(1.0, stats.getGenreAffinity().get(7L), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should take away from the genre affinity on a low rating")
+        void shouldLowerAffinityOnLowRating() {
+            givenLockedStats();
+
+            userStatsService.addReview(USER_ID, book, new BigDecimal("1.0"), DAY.atStartOfDay());
+
+            assertEquals(-1.0, stats.getGenreAffinity().get(7L), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should move an edited rating between buckets without counting a new review")
+        void shouldReplaceRating() {
+            givenLockedStats();
+            userStatsService.addReview(USER_ID, book, new BigDecimal("4.0"), DAY.atStartOfDay());
+
+            userStatsService.replaceRating(USER_ID, book, new BigDecimal("4.0"), new BigDecimal("2.0"));
+
+            assertEquals(1, stats.getReviewCount());
+            assertEquals(0, new BigDecimal("2.0").compareTo(stats.getRatingSum()));
+            assertArrayEquals(new int[] {0, 1, 0, 0, 0}, stats.getRatingHistogram());
+            assertEquals(UserStatsService.ratingAffinity(new BigDecimal("2.0")), stats.getGenreAffinity().get(7L), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Should skip an edit that keeps the rating")
+        void shouldSkipUnchangedRating() {
+            userStatsService.replaceRating(USER_ID, book, new BigDecimal("4.0"), new BigDecimal("4.00"));
+
+            verifyNoInteractions(userStatsRepository);
+        }
+
+        @Test
+        @DisplayName("Should undo a removed review completely")
+        void shouldRemoveReview() {
+            givenLockedStats();
+            LocalDateTime createdAt = DAY.atStartOfDay();
+            userStatsService.addReview(USER_ID, book, new BigDecimal("4.5"), createdAt);
+
+            userStatsService.removeReview(USER_ID, book, new BigDecimal("4.5"), createdAt);
+
+            assertEquals(0, stats.getReviewCount());
+            assertEquals(0, BigDecimal.ZERO.compareTo(stats.getRatingSum()));
+            assertArrayEquals(new int[UserStats.STAR_BUCKETS], stats.getRatingHistogram());
+            assertTrue(stats.getReviewsByMonth().isEmpty());
+            assertTrue(stats.getGenreAffinity().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reading Day Tests")
+    class ReadingDayTests {
+
+        @Test
+        @DisplayName("Should extend the streak on consecutive days")
+        void shouldExtendStreak() {
+            UserStats stats = new UserStats();
+
+            UserStatsService.applyReadingDay(stats, DAY, 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(1), 20);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(1), 5);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(2), 30);
+
+            assertEquals(3, stats.getCurrentStreak());
+            assertEquals(3, stats.getLongestStreak());
+            assertEquals(DAY.plusDays(2), stats.getLastReadingDate());
+            assertEquals(0b111L, stats.getReadingDays());
+            assertEquals(30, stats.getDailyPages()[0]);
+            assertEquals(25, stats.getDailyPages()[1]);
+            assertEquals(10, stats.getDailyPages()[2]);
+        }
+
+        @Test
+        @DisplayName("Should restart the streak after a missed day and keep the longest")
+        void shouldRestartStreak() {
+            UserStats stats = new UserStats();
+
+            UserStatsService.applyReadingDay(stats, DAY, 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(1), 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(3), 10);
+
+            assertEquals(1, stats.getCurrentStreak());
+            assertEquals(2, stats.getLongestStreak());
+            assertEquals(0b1101L, stats.getReadingDays());
+        }
+
+        @Test
+        @DisplayName("Should join runs when a missed day arrives late")
+        void shouldJoinRunsOnLateDay() {
+            UserStats stats = new UserStats();
+
+            UserStatsService.applyReadingDay(stats, DAY, 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(2), 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(1), 7);
+
+            assertEquals(3, stats.getCurrentStreak());
+            assertEquals(3, stats.getLongestStreak());
+            assertEquals(7, stats.getDailyPages()[1]);
+        }
+
+        @Test
+        @DisplayName("Should drop pages older than the pace window")
+        void shouldDropOldPages() {
+            UserStats stats = new UserStats();
+
+            UserStatsService.applyReadingDay(stats, DAY, 10);
+            UserStatsService.applyReadingDay(stats, DAY.plusDays(UserStats.PACE_DAYS), 20);
+
+            assertEquals(20, stats.getDailyPages()[0]);
+            assertEquals(20, java.util.Arrays.stream(stats.getDailyPages()).sum());
+            assertEquals(1L | (1L << UserStats.PACE_DAYS), stats.getReadingDays());
+        }
+    }
+}